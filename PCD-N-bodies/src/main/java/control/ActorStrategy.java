@@ -10,6 +10,7 @@ import akka.actor.Props;
 import control.actors.MainActor;
 import control.actors.MainActorMsg;
 import model.Body;
+import model.Integrator;
 
 /**
  * Strategy that uses Akka Actors to achieve the goal
@@ -28,14 +29,15 @@ public class ActorStrategy implements Strategy {
 	private Body[] bodies;
 	private volatile boolean interrupted;
 
-	public ActorStrategy(final int nBodies, final int deltaTime) {
+	public ActorStrategy(final int nBodies, final int deltaTime, final Integrator integrator) {
 		super();
 
 		this.nBodies = nBodies;
 		this.deltaTime = deltaTime;
 
 		this.system = ActorSystem.create("system");
-		this.mainActor = this.system.actorOf(Props.create(MainActor.class, this.nBodies, this.deltaTime), "mainActor");
+		this.mainActor = this.system.actorOf(Props.create(MainActor.class, this.nBodies, this.deltaTime, integrator),
+				"mainActor");
 
 		this.bodies = new Body[nBodies];
 		this.interrupted = false;
@@ -57,6 +59,7 @@ public class ActorStrategy implements Strategy {
 	/**
 	 * A Main Actor is used to coordinate the Forces Calculation and Bodies Moving jobs, dividing the work between
 	 * other Actors.
+	 * The jobs are run for each stage of the Integrator step, within the same MoveBodies message.
 	 */
 	@Override
 	public void calculateAndMove() {
@@ -85,4 +88,10 @@ public class ActorStrategy implements Strategy {
 	public List<Body> getBodies() {
 		return Arrays.asList(this.bodies);
 	}
+
+	@Override
+	public void setBodies(final List<Body> bodies) {
+		this.bodies = bodies.stream().map(Body::copy).toArray(Body[]::new);
+		this.mainActor.tell(new MainActorMsg.SetBodies(this.bodies), null);
+	}
 }
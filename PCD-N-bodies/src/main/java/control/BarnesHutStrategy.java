@@ -0,0 +1,64 @@
+package control;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+
+import model.Integrator;
+import model.QuadTree;
+
+/**
+ * Strategy that uses the Barnes-Hut approximation to achieve the goal.
+ * At each step a QuadTree is built over the bodies positions: groups of bodies which are far enough, according to
+ * the opening angle theta, are approximated with their centre of mass.
+ * The tree is built in parallel and the Forces are then calculated and applied using java parallel streams over
+ * the bodies indexes, all run by a ForkJoinPool owned by the Strategy.
+ * This Strategy doesn't attempt to backup and recover the bodies position if the process is paused.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public class BarnesHutStrategy extends BodyStoreStrategy {
+
+	private final double theta;
+	private final ForkJoinPool pool;
+	private final QuadTree tree;
+
+	public BarnesHutStrategy(final int nBodies, final int deltaTime, final double theta, final int nThreads,
+			final Integrator integrator) {
+		super(nBodies, deltaTime, integrator);
+		this.theta = theta;
+		this.pool = new ForkJoinPool(nThreads);
+		this.tree = new QuadTree();
+	}
+
+	/**
+	 * Builds the QuadTree over the current bodies positions, in parallel.
+	 * For each Body, in parallel, calculates the total Force it is subjected to walking the tree.
+	 */
+	@Override
+	protected boolean calculateForces(final boolean interruptible) {
+		this.tree.build(this.bodies, this.pool);
+
+		this.pool.invoke(ForkJoinTask.adapt(() -> IntStream.range(0, this.nBodies).parallel()
+				.forEach(i -> this.tree.calculateForce(this.bodies, i, this.theta, this.forcesX, this.forcesY))));
+		return true;
+	}
+
+	/**
+	 * Moves the bodies in parallel within the ForkJoinPool of the Strategy
+	 */
+	@Override
+	protected void moveBodies(final int stage) {
+		this.pool.invoke(ForkJoinTask.adapt(() -> super.moveBodies(stage)));
+	}
+
+	@Override
+	public synchronized void clear() {
+		this.pool.shutdownNow();
+	}
+
+	public double getTheta() {
+		return this.theta;
+	}
+}
@@ -0,0 +1,182 @@
+package control;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import control.kernel.ForceKernel;
+import control.kernel.Precision;
+import model.Integrator;
+
+/**
+ * Strategy that stores the bodies as a Structure of Arrays (BodyStore) and gives each Body a time step of its own,
+ * deltaTime / 2^level, chosen from its acceleration: the bodies in a close encounter take many short steps, while
+ * the quiet ones take a single deltaTime step.
+ *
+ * Each Body moves with velocity-Verlet (kick-drift-kick) steps. All the bodies drift together from one step end to
+ * the next, but the Forces are calculated, with the ForceKernel of the given Precision, only for the active bodies,
+ * the ones whose step ends there. The steps are powers of 2 of the shortest one, so the steps of each level end
+ * together and the steps of all of them end together after deltaTime.
+ * This Strategy doesn't attempt to backup and recover the bodies position if the process is paused.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public class BlockTimestepStrategy extends BodyStoreStrategy {
+	public static final int MAX_LEVELS = 20;
+	private static final double MAX_DISPLACEMENT = 1.0;  // m, by the acceleration within a step: about a pixel
+
+	private final int levels;  // Below deltaTime, each halving the step
+	private final ForceKernel kernel;
+	private final int[] bodyLevels;
+	private final int[] levelCounts;  // Bodies of each level
+	private final int[] active;  // Indexes of the active bodies, the first nActive ones
+
+	public BlockTimestepStrategy(final int nBodies, final int deltaTime, final int levels,
+			final Precision precision) {
+		super(nBodies, deltaTime, Integrator.VELOCITY_VERLET);
+		if (levels < 0 || levels > BlockTimestepStrategy.MAX_LEVELS) {
+			throw new IllegalArgumentException(
+					"Levels must be between 0 and " + BlockTimestepStrategy.MAX_LEVELS + ": " + levels);
+		}
+		this.levels = levels;
+		this.kernel = ForceKernel.get(precision);
+		this.bodyLevels = new int[nBodies];
+		this.levelCounts = new int[levels + 1];
+		this.active = new int[nBodies];
+	}
+
+	/**
+	 * Runs the steps of each Body up to deltaTime, the time being counted in ticks of the shortest step.
+	 * All the bodies start a step at tick 0: at each following step end, the bodies drift up to it, then the active
+	 * ones get the Forces on their new positions, end their step and start the next one, with a level chosen anew.
+	 */
+	@Override
+	public void calculateAndMove() {
+		if (!this.forcesCalculated) {
+			this.calculateForces(false);
+			Arrays.fill(this.levelCounts, 0);
+			for (int i = 0; i < this.nBodies; i++) {
+				this.bodyLevels[i] = this.getLevel(i, 0);
+				this.levelCounts[this.bodyLevels[i]]++;
+			}
+			this.forcesCalculated = true;
+		}
+
+		final int ticks = 1 << this.levels;
+		final double tickTime = (double) this.deltaTime / ticks;
+		IntStream.range(0, this.nBodies).parallel().forEach(i -> this.halfKick(i, tickTime));
+
+		int tick = 0;
+		while (tick < ticks) {
+			final int nextTick = this.getNextTick(tick);
+			final double driftTime = (nextTick - tick) * tickTime;
+			IntStream.range(0, this.nBodies).parallel().forEach(i -> this.bodies.drift(i, driftTime));
+			tick = nextTick;
+
+			final int nActive = this.collectActive(tick);
+			this.calculateActiveForces(nActive);
+			IntStream.range(0, nActive).parallel().forEach(k -> this.halfKick(this.active[k], tickTime));
+			if (tick < ticks) {
+				for (int k = 0; k < nActive; k++) {
+					this.setLevel(this.active[k], tick);
+				}
+				IntStream.range(0, nActive).parallel().forEach(k -> this.halfKick(this.active[k], tickTime));
+			}
+		}
+		// The last step end is common to all the bodies: their Forces are ready for the next deltaTime
+		for (int i = 0; i < this.nBodies; i++) {
+			this.setLevel(i, 0);
+		}
+	}
+
+	/**
+	 * For each Body, in parallel, calculates the total Force it is subjected to into the forces arrays.
+	 * Used to choose the first levels only: the next Forces are calculated for the active bodies.
+	 */
+	@Override
+	protected boolean calculateForces(final boolean interruptible) {
+		this.kernel.prepare(this.bodies);
+		IntStream.range(0, this.nBodies).parallel().forEach(i -> {
+			this.forcesX[i] = 0D;
+			this.forcesY[i] = 0D;
+			this.kernel.accumulate(this.bodies, i, i + 1, 0, this.nBodies, this.forcesX, this.forcesY);
+		});
+		return true;
+	}
+
+	/**
+	 * Returns the level of the i-th Body, used for test purposes
+	 */
+	public int getBodyLevel(final int i) {
+		return this.bodyLevels[i];
+	}
+
+	/* For each active Body, in parallel, calculates the total Force exerted on it by all the bodies */
+	private void calculateActiveForces(final int nActive) {
+		this.kernel.prepare(this.bodies);
+		IntStream.range(0, nActive).parallel().forEach(k -> {
+			final int i = this.active[k];
+			this.forcesX[i] = 0D;
+			this.forcesY[i] = 0D;
+			this.kernel.accumulate(this.bodies, i, i + 1, 0, this.nBodies, this.forcesX, this.forcesY);
+		});
+	}
+
+	/* Kicks the i-th Body for half its step */
+	private void halfKick(final int i, final double tickTime) {
+		final double stepTime = this.getTicks(this.bodyLevels[i]) * tickTime;
+		this.bodies.kick(i, this.forcesX[i], this.forcesY[i], stepTime * 0.5);
+	}
+
+	/* Returns the first tick after the given one at which the step of some Body ends */
+	private int getNextTick(final int tick) {
+		int nextTick = Integer.MAX_VALUE;
+		for (int level = 0; level <= this.levels; level++) {
+			if (this.levelCounts[level] > 0) {
+				final int levelTicks = this.getTicks(level);
+				nextTick = Math.min(nextTick, (tick / levelTicks + 1) * levelTicks);
+			}
+		}
+		return nextTick;
+	}
+
+	/* Stores the indexes of the bodies whose step ends at the tick into the active array, and returns their number */
+	private int collectActive(final int tick) {
+		int nActive = 0;
+		for (int i = 0; i < this.nBodies; i++) {
+			if (tick % this.getTicks(this.bodyLevels[i]) == 0) {
+				this.active[nActive++] = i;
+			}
+		}
+		return nActive;
+	}
+
+	/* Sets the level of the i-th Body, which starts a step at the tick */
+	private void setLevel(final int i, final int tick) {
+		this.levelCounts[this.bodyLevels[i]]--;
+		this.bodyLevels[i] = this.getLevel(i, tick);
+		this.levelCounts[this.bodyLevels[i]]++;
+	}
+
+	/*
+	 * Returns the lowest level whose step displaces the i-th Body by its acceleration a for no more than
+	 * MAX_DISPLACEMENT, that is a * step^2 / 2 <= MAX_DISPLACEMENT, and that has a step starting at the tick
+	 */
+	private int getLevel(final int i, final int tick) {
+		final double acceleration = Math.hypot(this.forcesX[i], this.forcesY[i]) / this.bodies.getMass()[i];
+		final double maxStep = Math.sqrt(2 * BlockTimestepStrategy.MAX_DISPLACEMENT / acceleration);
+		int level = 0;
+		while (level < this.levels && this.deltaTime / (double) (1 << level) > maxStep) {
+			level++;
+		}
+		while (tick % this.getTicks(level) != 0) {
+			level++;
+		}
+		return level;
+	}
+
+	/* Returns the number of ticks of a step of the level */
+	private int getTicks(final int level) {
+		return 1 << (this.levels - level);
+	}
+}
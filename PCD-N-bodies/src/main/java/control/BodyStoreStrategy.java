@@ -0,0 +1,132 @@
+package control;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import model.Body;
+import model.BodyStore;
+import model.Integrator;
+
+/**
+ * Base class for the strategies that keep the bodies as a Structure of Arrays (BodyStore).
+ * It creates and exposes the bodies and runs the stages of the Integrator step: subclasses only calculate the
+ * forces. The forces are calculated only for the stages that use them, and are kept by the stages that don't move
+ * the bodies: the closing kick of a VELOCITY_VERLET step and the opening one of the next share the same Forces.
+ * These strategies don't attempt to backup and recover the bodies position if the process is paused.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public abstract class BodyStoreStrategy implements Strategy {
+
+	protected final int nBodies;
+	protected final int deltaTime;
+	protected final Integrator integrator;
+
+	protected BodyStore bodies;
+	protected final double[] forcesX;  // The total Force each Body is subjected to, calculated by the subclasses
+	protected final double[] forcesY;
+	protected boolean forcesCalculated;  // The forces are the ones on the current positions of the bodies
+
+	public BodyStoreStrategy(final int nBodies, final int deltaTime, final Integrator integrator) {
+		super();
+		this.nBodies = nBodies;
+		this.deltaTime = deltaTime;
+		this.integrator = integrator;
+		this.bodies = new BodyStore(nBodies);
+		this.forcesX = new double[nBodies];
+		this.forcesY = new double[nBodies];
+		this.forcesCalculated = false;
+	}
+
+	@Override
+	public void createBodies(final double minMass, final double maxMass, final double maxPosX, final double maxPosY,
+			final double minSpeed, final double maxSpeed) {
+		this.bodies.createBodies(new Random(), minMass, maxMass, maxPosX, maxPosY, minSpeed, maxSpeed);
+		this.forcesCalculated = false;
+	}
+
+	/**
+	 * For each stage of the Integrator step, calculates the total Force each Body is subjected to, unless the stage
+	 * doesn't use them or they have been calculated on the same positions, and moves the bodies.
+	 * The step ends if the calculation is interrupted: it can be only before the bodies have been moved.
+	 */
+	@Override
+	public void calculateAndMove() {
+		boolean moved = false;
+		for (int stage = 0; stage < this.integrator.getStages(); stage++) {
+			if (this.integrator.usesForces(stage) && !this.forcesCalculated) {
+				if (!this.calculateForces(!moved)) {
+					return;
+				}
+				this.forcesCalculated = true;
+			}
+			this.moveBodies(stage);
+			if (this.integrator.movesBodies(stage)) {
+				this.forcesCalculated = false;
+				moved = true;
+			}
+		}
+	}
+
+	/**
+	 * Calculates the total Force each Body is subjected to into the forces arrays.
+	 * If interruptible, the calculation can be interrupted and returns false, otherwise it returns true.
+	 */
+	protected abstract boolean calculateForces(final boolean interruptible);
+
+	/**
+	 * For each Body, in parallel, applies the stage of the Integrator step.
+	 * The Forces are left out of the stages that only drift: their values are not the ones of the current stage.
+	 */
+	protected void moveBodies(final int stage) {
+		final boolean usesForces = this.integrator.usesForces(stage);
+		IntStream.range(0, this.nBodies).parallel()
+				.forEach(i -> this.bodies.apply(i, usesForces ? this.forcesX[i] : 0D, usesForces ? this.forcesY[i] : 0D,
+						this.deltaTime, this.integrator, stage));
+	}
+
+	@Override
+	public void interrupt() {
+		// Do nothing
+	}
+
+	@Override
+	public synchronized void clear() {
+		// Do nothing
+	}
+
+	@Override
+	public List<Body> getBodies() {
+		return this.bodies.asList();
+	}
+
+	@Override
+	public void setBodies(final List<Body> bodies) {
+		this.setBodies(BodyStore.of(bodies));
+	}
+
+	/**
+	 * Uses the given BodyStore as it is, without copying it
+	 */
+	@Override
+	public void setBodies(final BodyStore bodies) {
+		this.bodies = bodies;
+		this.forcesCalculated = false;
+	}
+
+	@Override
+	public BodyStore getSnapshot() {
+		return this.bodies.copy();
+	}
+
+	@Override
+	public void copyBodies(final BodyStore target) {
+		this.bodies.copyTo(target);
+	}
+
+	public Integrator getIntegrator() {
+		return this.integrator;
+	}
+}
@@ -0,0 +1,116 @@
+package control;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import model.BodyStore;
+import model.Checkpoint;
+
+/**
+ * Counts the steps of a Strategy and takes a Checkpoint of its bodies every interval steps.
+ *
+ * The bodies are copied (Strategy.getSnapshot) between two steps, by the Thread running them, and the copy is
+ * written to the file by a Thread of its own while the next steps run. If the previous Checkpoint is still being
+ * written, the new one is skipped rather than stalling the steps.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public class Checkpointer {
+	private final Path path;
+	private final int interval;  // Steps between two checkpoints
+	private final ExecutorService executor;
+
+	private long step;  // Steps run by the bodies, restored ones included
+	private Future<?> pending;  // Last Checkpoint written, if any
+	private final AtomicReference<IOException> error;  // Of a Checkpoint not yet reported
+
+	public Checkpointer(final Path path, final int interval, final long step) {
+		super();
+		if (interval <= 0) {
+			throw new IllegalArgumentException("Interval must be greater than 0: " + interval);
+		}
+		this.path = path;
+		this.interval = interval;
+		this.step = step;
+		this.error = new AtomicReference<>();
+		this.executor = Executors.newSingleThreadExecutor(runnable -> {
+			final Thread thread = new Thread(runnable, "Checkpointer");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Counts a step run by the Strategy, taking a Checkpoint if it's the last of an interval.
+	 * Returns true if the Checkpoint has been taken.
+	 */
+	public boolean stepped(final Strategy strategy) {
+		this.step++;
+		return this.step % this.interval == 0 && this.checkpoint(strategy);
+	}
+
+	/**
+	 * Takes a Checkpoint of the bodies of the Strategy, unless the previous one is still being written.
+	 * Returns true if it has been taken.
+	 */
+	public synchronized boolean checkpoint(final Strategy strategy) {
+		if (this.pending != null && !this.pending.isDone()) {
+			return false;
+		}
+		final BodyStore snapshot = strategy.getSnapshot();
+		final long snapshotStep = this.step;
+		this.pending = this.executor.submit(() -> {
+			try {
+				Checkpoint.write(this.path, snapshot, snapshotStep);
+			} catch (final IOException e) {
+				this.error.set(e);
+			}
+		});
+		return true;
+	}
+
+	/**
+	 * Waits for the last Checkpoint to be written
+	 */
+	public void await() throws InterruptedException {
+		final Future<?> last;
+		synchronized (this) {
+			last = this.pending;
+		}
+		if (last != null) {
+			try {
+				last.get();
+			} catch (final ExecutionException e) {
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * Returns the error of the last failed Checkpoint, if not yet returned, else null
+	 */
+	public IOException takeError() {
+		return this.error.getAndSet(null);
+	}
+
+	/**
+	 * Stops the Thread writing the checkpoints, once the last one is written
+	 */
+	public void close() {
+		this.executor.shutdown();
+	}
+
+	public long getStep() {
+		return this.step;
+	}
+
+	public Path getPath() {
+		return this.path;
+	}
+}
@@ -18,6 +18,7 @@ import akka.cluster.typed.Leave;
 import control.distributed.MainActor;
 import control.distributed.MainActorMsg;
 import model.Body;
+import model.Integrator;
 
 /**
  * Strategy that uses Akka Distributed Actors to achieve the goal
@@ -41,7 +42,7 @@ public class DistributedStrategy implements Strategy {
 	private Body[] bodies;
 	private volatile boolean interrupted;
 
-	public DistributedStrategy(final int nBodies, final int deltaTime) {
+	public DistributedStrategy(final int nBodies, final int deltaTime, final Integrator integrator) {
 		super();
 
 		this.nBodies = nBodies;
@@ -58,8 +59,8 @@ public class DistributedStrategy implements Strategy {
 		this.system = ActorSystem.create(Behaviors.empty(), "ClusterSystem",
 				this.noPort.withFallback(this.clusterConfig));
 		this.mainActor = ActorSystem.create(
-				MainActor.create(this.clusterConfig, this.noPort, this.nBodies, this.deltaTime), "ClusterSystem",
-				this.noPort.withFallback(this.clusterConfig));
+				MainActor.create(this.clusterConfig, this.noPort, this.nBodies, this.deltaTime, integrator),
+				"ClusterSystem", this.noPort.withFallback(this.clusterConfig));
 
 		// Cluster create
 		this.cluster = Cluster.get(this.system);
@@ -94,6 +95,7 @@ public class DistributedStrategy implements Strategy {
 	/**
 	 * A Main Actor is used to coordinate the Forces Calculation and Bodies Moving jobs, dividing the work between
 	 * other distributed Actors.
+	 * The jobs are run for each stage of the Integrator step, within the same MoveBodies message.
 	 */
 	@Override
 	public void calculateAndMove() {
@@ -131,4 +133,10 @@ public class DistributedStrategy implements Strategy {
 	public List<Body> getBodies() {
 		return Arrays.asList(this.bodies);
 	}
+
+	@Override
+	public void setBodies(final List<Body> bodies) {
+		this.bodies = bodies.stream().map(Body::copy).toArray(Body[]::new);
+		this.mainActor.tell(new MainActorMsg.SetBodies(this.bodies));
+	}
 }
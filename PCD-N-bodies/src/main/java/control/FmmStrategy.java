@@ -0,0 +1,58 @@
+package control;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import model.Integrator;
+import model.MultipoleTree;
+
+/**
+ * Strategy that uses the Fast Multipole Method to achieve the goal in O(n).
+ * At each step the multipole and local expansions of the bodies potential, up to the given order, are calculated
+ * over the nodes of a MultipoleTree: each body interacts directly only with the near ones, far bodies are
+ * approximated by the expansions. Higher orders are slower but more precise.
+ * The Forces are then applied using java parallel streams over the bodies indexes, all run by a ForkJoinPool owned
+ * by the Strategy.
+ * This Strategy doesn't attempt to backup and recover the bodies position if the process is paused.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public class FmmStrategy extends BodyStoreStrategy {
+
+	private final ForkJoinPool pool;
+	private final MultipoleTree tree;
+
+	public FmmStrategy(final int nBodies, final int deltaTime, final int order, final int nThreads,
+			final Integrator integrator) {
+		super(nBodies, deltaTime, integrator);
+		this.pool = new ForkJoinPool(nThreads);
+		this.tree = new MultipoleTree(order);
+	}
+
+	/**
+	 * Calculates the total Force each Body is subjected to through the MultipoleTree expansions.
+	 */
+	@Override
+	protected boolean calculateForces(final boolean interruptible) {
+		this.tree.calculateForces(this.bodies, this.forcesX, this.forcesY, this.pool);
+		return true;
+	}
+
+	/**
+	 * Moves the bodies in parallel within the ForkJoinPool of the Strategy
+	 */
+	@Override
+	protected void moveBodies(final int stage) {
+		this.pool.invoke(ForkJoinTask.adapt(() -> super.moveBodies(stage)));
+	}
+
+	@Override
+	public synchronized void clear() {
+		this.pool.shutdownNow();
+	}
+
+	public int getOrder() {
+		return this.tree.getOrder();
+	}
+}
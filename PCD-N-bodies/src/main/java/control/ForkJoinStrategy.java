@@ -0,0 +1,149 @@
+package control;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+
+import control.kernel.ForceKernel;
+import control.kernel.Precision;
+import model.Integrator;
+
+/**
+ * Strategy that uses a ForkJoinPool to achieve the goal.
+ * The space of the (i, j) pairs, with i < j, is split recursively into tiles: each tile calculates the Force
+ * between each pair once, with the ForceKernel of the given Precision, and applies it to both bodies, with opposite
+ * orientations (Newton's third law).
+ * Forces are accumulated into per worker arrays, that are reduced in parallel before moving the bodies.
+ * This Strategy doesn't attempt to backup and recover the bodies position if the process is paused.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public class ForkJoinStrategy extends BodyStoreStrategy {
+	private static final int TILE_SIZE = 64;  // Max rows and columns of a tile calculated by a single task
+
+	private final ForkJoinPool pool;
+	private final ForceKernel kernel;
+	private volatile double[][][] accumulators;  // Per worker, indexed by pool index + 1: x components and y ones
+
+	public ForkJoinStrategy(final int nBodies, final int deltaTime, final Precision precision, final int nThreads,
+			final Integrator integrator) {
+		super(nBodies, deltaTime, integrator);
+		this.pool = new ForkJoinPool(nThreads);
+		this.kernel = ForceKernel.get(precision);
+		// One per worker, plus one for any other Thread: the tiles take them without locking
+		this.accumulators = new double[nThreads + 1][2][nBodies];
+	}
+
+	/**
+	 * Splits the pairs space into tiles calculated by different tasks, starting from the whole triangle.
+	 *
+	 * For each Body, then, in parallel, it sums the Forces accumulated by each worker into the forces arrays.
+	 */
+	@Override
+	protected boolean calculateForces(final boolean interruptible) {
+		this.kernel.prepare(this.bodies);
+		this.pool.invoke(new TileTask(0, this.nBodies, 0, this.nBodies));
+
+		final double[][][] workerForces = this.accumulators;
+		this.pool.invoke(ForkJoinTask.adapt(() -> IntStream.range(0, this.nBodies).parallel().forEach(i -> {
+			double forceX = 0D;
+			double forceY = 0D;
+			for (final double[][] forces : workerForces) {
+				if (forces != null) {
+					forceX += forces[0][i];
+					forceY += forces[1][i];
+					forces[0][i] = 0D;
+					forces[1][i] = 0D;
+				}
+			}
+			this.forcesX[i] = forceX;
+			this.forcesY[i] = forceY;
+		})));
+		return true;
+	}
+
+	/**
+	 * Moves the bodies in parallel within the ForkJoinPool of the Strategy
+	 */
+	@Override
+	protected void moveBodies(final int stage) {
+		this.pool.invoke(ForkJoinTask.adapt(() -> super.moveBodies(stage)));
+	}
+
+	@Override
+	public synchronized void clear() {
+		this.pool.shutdownNow();
+	}
+
+	/* Returns the accumulator of the current worker */
+	private double[][] getAccumulator() {
+		final Thread thread = Thread.currentThread();
+		final int index = thread instanceof ForkJoinWorkerThread ? ((ForkJoinWorkerThread) thread).getPoolIndex() + 1
+				: 0;
+		final double[][][] workerForces = this.accumulators;
+		if (index < workerForces.length && workerForces[index] != null) {
+			return workerForces[index];
+		}
+		return this.addAccumulator(index);
+	}
+
+	/* Creates the accumulator of a worker beyond the parallelism, started by the pool to replace a blocked one */
+	private synchronized double[][] addAccumulator(final int index) {
+		final double[][][] workerForces = index < this.accumulators.length ? this.accumulators
+				: Arrays.copyOf(this.accumulators, index + 1);
+		if (workerForces[index] == null) {
+			workerForces[index] = new double[2][this.nBodies];
+		}
+		this.accumulators = workerForces;
+		return workerForces[index];
+	}
+
+	/**
+	 * Task that calculates the Forces between the bodies of rows [rowFrom, rowTo) and the ones of columns
+	 * [colFrom, colTo), only for pairs with row < column. Same rows and columns ranges make a triangle tile.
+	 */
+	private class TileTask extends RecursiveAction {
+		private static final long serialVersionUID = -3358240478102165418L;
+
+		private final int rowFrom;
+		private final int rowTo;
+		private final int colFrom;
+		private final int colTo;
+
+		public TileTask(final int rowFrom, final int rowTo, final int colFrom, final int colTo) {
+			this.rowFrom = rowFrom;
+			this.rowTo = rowTo;
+			this.colFrom = colFrom;
+			this.colTo = colTo;
+		}
+
+		@Override
+		protected void compute() {
+			final int rows = this.rowTo - this.rowFrom;
+			final int cols = this.colTo - this.colFrom;
+			if (rows <= ForkJoinStrategy.TILE_SIZE && cols <= ForkJoinStrategy.TILE_SIZE) {
+				final double[][] forces = ForkJoinStrategy.this.getAccumulator();
+				ForkJoinStrategy.this.kernel.accumulatePairs(ForkJoinStrategy.this.bodies, this.rowFrom, this.rowTo,
+						this.colFrom, this.colTo, forces[0], forces[1]);
+			} else if (this.rowFrom == this.colFrom) {
+				// Triangle: two smaller triangles and the rectangle between them
+				final int mid = this.rowFrom + rows / 2;
+				ForkJoinTask.invokeAll(new TileTask(this.rowFrom, mid, this.rowFrom, mid),
+						new TileTask(mid, this.rowTo, mid, this.rowTo),
+						new TileTask(this.rowFrom, mid, mid, this.colTo));
+			} else if (rows >= cols) {
+				final int mid = this.rowFrom + rows / 2;
+				ForkJoinTask.invokeAll(new TileTask(this.rowFrom, mid, this.colFrom, this.colTo),
+						new TileTask(mid, this.rowTo, this.colFrom, this.colTo));
+			} else {
+				final int mid = this.colFrom + cols / 2;
+				ForkJoinTask.invokeAll(new TileTask(this.rowFrom, this.rowTo, this.colFrom, mid),
+						new TileTask(this.rowFrom, this.rowTo, mid, this.colTo));
+			}
+		}
+	}
+}
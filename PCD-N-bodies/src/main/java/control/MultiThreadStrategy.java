@@ -4,287 +4,428 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.PrimitiveIterator.OfDouble;
 import java.util.Random;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingDeque;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingDeque;
-
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+
+import control.kernel.ForceKernel;
+import control.kernel.PairPartitioner;
 import model.Body;
+import model.BodyBuffer;
 import model.Force;
+import model.Integrator;
 import model.Position;
 import model.TriangularMatrix;
 import model.Vector;
 
 /**
  * Strategy that uses java Threads to achieve the goal
+ * The Threads (Workers) are started once and kept alive across the steps: a Phaser starts each step and waits for
+ * its end, so that no Thread is created or destroyed while the simulation runs.
+ * The jobs are scheduled without any lock: each Worker owns a range of jobs and steals from the others when it's
+ * done, while atomic counters track which bodies are ready to move.
+ * The bodies are buffered (BodyBuffer): each stage of the Integrator step reads the bodies moved by the previous one
+ * and the step publishes them at its end, so getBodies() never sees a step halfway.
+ *
+ * In matrix-free mode no pairwise Force is stored: each Thread accumulates the Forces of its jobs into its own
+ * arrays, applying each pair Force to both bodies (Newton's third law), and the arrays are then reduced in parallel.
+ * Memory drops from O(n^2) to O(n * Threads).
  *
  * @author Andrea Sperandio
  *
  */
 public class MultiThreadStrategy implements Strategy {
+	private static final int ROWS_PER_JOB = 64;  // Average bodies per job, and bodies moved at a time
+	private static final int PADDING = 8;  // Doubles after each accumulator, so that two never share a cache line
 
 	private final int nBodies;
 	private final int deltaTime;
-
-	private Body[] bodies;
-	private final Body[] backupBodies;
-	private final TriangularMatrix matrixBF;
+	private final Integrator integrator;
+
+	private BodyBuffer bodies;  // The Workers read the published bodies and write the moved ones into the back buffer
+	private final boolean matrixFree;
+	private final TriangularMatrix matrixBF;  // null in matrix-free mode
+	private final double[][] accumulators;  // Per Thread, in matrix-free mode: x components, then y ones
+	private final CyclicBarrier forcesCalculated;  // Reached by the Threads once their accumulators are complete
+	private final double[] forces;  // The total Force on each Body, the last calculated: x components, then y ones
+	private boolean forcesValid;  // The forces are the ones on the current positions of the bodies
+	private final ForceKernel kernel;
 	private final int nThreads;
 	private final int bodiesPerThread;
 
-	private Worker[] workers;
-	private final BlockingQueue<Integer> forcesToCalculate;
-	private final Boolean[] bodyCalculatedForces;
-	private final BlockingDeque<Integer> bodiesToMove;
-	private volatile int lastReadyToMoveBody;
-	private volatile int bodiesMoved;
+	private Worker[] workers;  // null until the first step and after the Workers are stopped
+	private Worker[] stoppedWorkers;  // Waited for by the next step
+	private Phaser phaser;  // The main Thread and the Workers: two phases, start and end, for each step
+	private volatile Consumer<Worker> job;  // Run by each Worker in the current step
+	private int stage;  // Of the Integrator step, run by the Workers
+	private boolean calculating;  // The stage calculates the Forces, otherwise it applies the stored ones
+	private final int nJobs;
+	private final int[] jobFirstBodies;  // The k-th job: bodies from jobFirstBodies[k] to jobFirstBodies[k + 1]
+	private final WorkStealingRanges forcesToCalculate;  // Jobs, per Worker
+	private final AtomicIntegerArray jobCalculatedForces;  // 1 once the Forces of the job have been calculated
+	private final AtomicInteger readyToMoveJobs;  // The jobs before it have all been calculated
+	private final int nBlocksToMove;
+	private final AtomicInteger nextBlockToMove;  // Blocks of ROWS_PER_JOB bodies, moved in order
 
 	public MultiThreadStrategy(final int nBodies, final int deltaTime) {
+		this(nBodies, deltaTime, false, StrategyParams.DEF_THREADS, Integrator.EXPLICIT);
+	}
+
+	public MultiThreadStrategy(final int nBodies, final int deltaTime, final boolean matrixFree, final int nThreads,
+			final Integrator integrator) {
 		super();
 		this.nBodies = nBodies;
 		this.deltaTime = deltaTime;
-		this.bodies = new Body[nBodies];
-		this.backupBodies = new Body[nBodies];
-		this.matrixBF = new TriangularMatrix(nBodies);
-		this.nThreads = Runtime.getRuntime().availableProcessors() + 1;
+		this.integrator = integrator;
+		this.bodies = new BodyBuffer(nBodies);
+		this.kernel = ForceKernel.get();
+		this.nThreads = nThreads;
 		this.bodiesPerThread = this.nBodies / this.nThreads;
 
-		this.workers = new Worker[this.nThreads];
-		this.forcesToCalculate = new ArrayBlockingQueue<>(nBodies);
-		this.bodyCalculatedForces = new Boolean[nBodies];
-		this.bodiesToMove = new LinkedBlockingDeque<>(nBodies);
+		this.matrixFree = matrixFree;
+		this.matrixBF = matrixFree ? null : new TriangularMatrix(nBodies);
+		this.accumulators = matrixFree ? new double[this.nThreads][2 * nBodies + MultiThreadStrategy.PADDING] : null;
+		this.forcesCalculated = new CyclicBarrier(this.nThreads);
+		this.forces = new double[2 * nBodies];
+		this.forcesValid = false;
+
+		this.nJobs = (nBodies + MultiThreadStrategy.ROWS_PER_JOB - 1) / MultiThreadStrategy.ROWS_PER_JOB;
+		this.jobFirstBodies = PairPartitioner.split(nBodies, nBodies, this.nJobs);
+		this.forcesToCalculate = new WorkStealingRanges(this.nThreads);
+		this.jobCalculatedForces = new AtomicIntegerArray(this.nJobs);
+		this.readyToMoveJobs = new AtomicInteger();
+		this.nBlocksToMove = this.nJobs;
+		this.nextBlockToMove = new AtomicInteger();
 	}
 
 	/**
-	 * AvailableProcessors() + 1 Threads are used to create the bodies, dividing the work evenly.
+	 * The nThreads Workers are used to create the bodies, dividing the work evenly.
 	 */
 	@Override
 	public void createBodies(final double minMass, final double maxMass, final double maxPosX, final double maxPosY,
 			final double minSpeed, final double maxSpeed) {
 		try {
-			final BodyCreator[] bodyCreators = new BodyCreator[this.nThreads];
-
-			int from = 0;
-			for (int i = 0; i < this.nThreads - 1; i++) {
-				bodyCreators[i] = new BodyCreator(from, this.bodiesPerThread, minMass, maxMass, maxPosX, maxPosY,
-						minSpeed, maxSpeed);
-				bodyCreators[i].start();
-				from += this.bodiesPerThread;
-			}
-			bodyCreators[bodyCreators.length - 1] = new BodyCreator(from, this.nBodies - from, minMass, maxMass,
-					maxPosX, maxPosY, minSpeed, maxSpeed);
-			bodyCreators[bodyCreators.length - 1].start();
-
-			for (final BodyCreator bodyCreator : bodyCreators) {
-				bodyCreator.join();
-			}
+			this.runWorkers(worker -> worker.createBodies(minMass, maxMass, maxPosX, maxPosY, minSpeed, maxSpeed));
+			this.forcesValid = false;
 		} catch (final InterruptedException e) {
 			e.printStackTrace();
 		}
 	}
 
 	/**
-	 * A BlockingQueue of "Forces to Calculate" is filled with nBodies Integers.
-	 * Each one stands for a job of calculation of the Force between the i-th Body and all the subsequent ones.
-	 * AvailableProcessors() + 1 Threads (Workers) are used to complete these jobs.
+	 * The bodies are split into jobs of ROWS_PER_JOB bodies on average: the k-th job stands for the calculation of
+	 * the Force between its bodies and all the subsequent ones, visited by the ForceKernel block by block.
+	 * The PairPartitioner sizes the jobs so that each one calculates the same number of Forces: the first jobs have
+	 * less bodies than the last ones.
+	 * The jobs are split evenly amongst nThreads Threads (Workers): each one takes its own jobs and,
+	 * when it has none left, steals half of the jobs of another Worker.
 	 *
-	 * When a job is completed, the Worker checks if all the required Forces to move the body have been calculated.
-	 * If so, it puts an Integer into a BlockingDeque "Bodies to Move".
-	 * Each element in this queue stands for a job of calculation of the total Force the i-th Body is subjected to and
-	 * its application.
+	 * When a job is completed, the Worker marks it and advances the count of "Ready to Move" jobs over all the
+	 * consecutive jobs completed: all the Forces required to move their bodies have been calculated.
 	 *
-	 * When the "Forces to Calculate" queue is empty, the Worker retrieves elements from the "Bodies to Move" queue.
-	 * After moving a body, the Thread updates the bodies moved count.
-	 * When all of the nBodies have been moved, all the Workers are requested to stop.
+	 * When no job is left to calculate, the Worker takes blocks of ROWS_PER_JOB bodies in order, waiting for them to
+	 * be in the "Ready to Move" jobs, calculates the total Force each body is subjected to and applies it, until all
+	 * of them have been taken.
 	 *
-	 * If the main Thread is requested to stop, it tries to revert any Forces already applied.
+	 * The whole process is run for each stage of the Integrator step, skipping the calculation of the Forces in the
+	 * stages that don't use them or when the bodies haven't moved since the last one, the previous step included: the
+	 * total Forces are stored and applied again. The moved bodies are written into the back buffer, read by the next
+	 * stage, and published once the last stage has moved all of them: if the main Thread is requested to stop, the
+	 * step is dropped and the bodies are left as they were.
+	 *
+	 * In matrix-free mode, when no job is left to calculate, each Worker waits for the others and then sums, for its
+	 * own share of bodies, the Forces accumulated by all the Workers and moves them.
 	 */
 	@Override
 	public void calculateAndMove() {
 		try {
-			// Initialization
-			this.forcesToCalculate.clear();
-			this.bodiesToMove.clear();
-			for (int i = 0; i < this.nBodies; i++) {
-				this.forcesToCalculate.offer(i);
-				this.bodyCalculatedForces[i] = false;
-				this.backupBodies[i] = null;
-			}
-			this.lastReadyToMoveBody = 0;
-			this.bodiesMoved = 0;
-
-			for (int i = 0; i < this.nThreads; i++) {
-				this.workers[i] = new Worker(i);
-				this.workers[i].start();
-			}
+			// A step stopped halfway might have run some of its stages
+			this.awaitStoppedWorkers();
+			this.bodies.drop();
+
+			final int lastStage = this.integrator.getStages() - 1;
+			for (int stage = 0; stage <= lastStage; stage++) {
+				// Initialization: no job is left to calculate if the stage doesn't calculate the Forces
+				final boolean calculating = this.integrator.usesForces(stage) && !this.forcesValid;
+				this.stage = stage;
+				this.calculating = calculating;
+				this.forcesToCalculate.reset(calculating ? this.nJobs : 0);
+				for (int k = 0; k < this.nJobs; k++) {
+					this.jobCalculatedForces.set(k, 0);
+				}
+				this.readyToMoveJobs.set(calculating ? 0 : this.nJobs);
+				this.nextBlockToMove.set(0);
+				this.forcesCalculated.reset();
+				if (this.matrixFree && calculating) {
+					// Cleared here, so that a step stopped halfway leaves nothing behind
+					for (final double[] accumulator : this.accumulators) {
+						Arrays.fill(accumulator, 0D);
+					}
+				}
 
-			for (final Worker worker : this.workers) {
-				if (worker != null) {
-					worker.join();
+				if (!this.runWorkers(Worker::calculateAndMove)) {
+					this.forcesValid = false;
+					return;
+				}
+				if (calculating) {
+					this.forcesValid = true;
+				}
+				if (this.integrator.movesBodies(stage)) {
+					this.forcesValid = false;
+				}
+				if (stage < lastStage) {
+					this.bodies.swap();
+				} else {
+					this.bodies.publish();
 				}
 			}
 		} catch (@SuppressWarnings("unused") final InterruptedException e) {
+			this.forcesValid = false;
 			this.interrupt();
 		}
 	}
 
+	/**
+	 * Stops the Workers: the running step won't be published.
+	 */
 	@Override
 	public synchronized void interrupt() {
 		this.stopWorkers();
-		this.revertAppliedForces();
 	}
 
 	@Override
 	public synchronized void clear() {
-		this.workers = null;
+		this.stopWorkers();
 	}
 
 	@Override
 	public List<Body> getBodies() {
-		return Arrays.asList(this.bodies);
+		return this.bodies.asList();
 	}
 
-	private synchronized void forcesCalculated(final int i) {
-		this.bodyCalculatedForces[i] = true;
-
-		for (int j = this.lastReadyToMoveBody; j < i; j++) {
-			if (this.bodyCalculatedForces[j] == false) {
-				return;
-			}
-		}
-
-		this.bodiesToMove.offer(i);
-		this.lastReadyToMoveBody = i;
-
-		int next = i + 1;
-		while (next < this.nBodies && this.bodyCalculatedForces[next]) {
-			this.bodiesToMove.offer(next);
-			this.lastReadyToMoveBody = next;
-			next++;
-		}
-	}
+	/*
+	 * Marks the job and advances the "Ready to Move" jobs over the consecutive calculated ones.
+	 * Whoever wins the compare-and-set advances by one: if a job is marked right after the check, its own Worker
+	 * goes on advancing, so no job is left behind.
+	 */
+	private void forcesCalculated(final int job) {
+		this.jobCalculatedForces.set(job, 1);
 
-	private synchronized void bodyMoved(final int i) {
-		this.bodiesMoved++;
-		if (this.bodiesMoved == this.nBodies) {
-			this.stopWorkers();
+		int ready;
+		while ((ready = this.readyToMoveJobs.get()) < this.nJobs && this.jobCalculatedForces.get(ready) == 1) {
+			this.readyToMoveJobs.compareAndSet(ready, ready + 1);
 		}
 	}
 
-	private synchronized void stopWorkers() {
-		for (int i = 0; i < this.nThreads; i++) {
-			if (this.workers[i] != null) {
-				this.workers[i].stopped = true;
-				this.workers[i].interrupt();
-				this.workers[i] = null;
+	/*
+	 * Lets each Worker run the job and waits for all of them to complete it, starting them the first time.
+	 * Returns false if the Workers have been stopped meanwhile.
+	 */
+	private boolean runWorkers(final Consumer<Worker> job) throws InterruptedException {
+		final Phaser stepPhaser;
+		synchronized (this) {
+			if (this.workers == null) {
+				this.phaser = new Phaser(this.nThreads + 1);
+				this.workers = new Worker[this.nThreads];
+				for (int i = 0; i < this.nThreads; i++) {
+					this.workers[i] = this.matrixFree ? new AccumulatorWorker(i) : new Worker(i);
+					this.workers[i].start();
+				}
 			}
+			stepPhaser = this.phaser;
 		}
+
+		this.job = job;
+		// A negative phase means that the Workers have been stopped
+		return stepPhaser.awaitAdvanceInterruptibly(stepPhaser.arrive()) >= 0  // Start
+				&& stepPhaser.awaitAdvanceInterruptibly(stepPhaser.arrive()) >= 0;  // End
 	}
 
-	private synchronized void revertAppliedForces() {
-		if (this.bodiesMoved == 0) {
-			return;
+	/* Waits for the stopped Workers to end, so that none of them is still working on the dropped step */
+	private void awaitStoppedWorkers() throws InterruptedException {
+		final Worker[] stopped;
+		synchronized (this) {
+			stopped = this.stoppedWorkers;
+			this.stoppedWorkers = null;
 		}
-		for (int i = 0; i < this.nBodies; i++) {
-			if (this.backupBodies[i] != null) {
-				this.bodies[i] = this.backupBodies[i];
+		if (stopped != null) {
+			for (final Worker worker : stopped) {
+				worker.join();
 			}
 		}
 	}
 
-	private class BodyCreator extends Thread {
-		private final int from;
-		private final int n;
-		private final OfDouble massGenerator;
-		private final OfDouble positionXGenerator;
-		private final OfDouble positionYGenerator;
-		private final OfDouble speedGenerator;
-
-		public BodyCreator(final int from, final int n, final double minMass, final double maxMass,
-				final double maxPosX, final double maxPosY, final double minSpeed, final double maxSpeed) {
-			this.from = from;
-			this.n = n;
-
-			final Random random = new Random();
-			this.massGenerator = random.doubles(minMass, maxMass).iterator();
-			this.positionXGenerator = random.doubles(0.0, maxPosX).iterator();
-			this.positionYGenerator = random.doubles(0.0, maxPosY).iterator();
-			this.speedGenerator = random.doubles(minSpeed, maxSpeed).iterator();
+	/* Stops the Workers: they will be started again by the next step */
+	private synchronized void stopWorkers() {
+		if (this.workers == null) {
+			return;
 		}
-
-		@Override
-		public void run() {
-			final int to = this.from + this.n;
-			for (int i = this.from; i < to; i++) {
-				MultiThreadStrategy.this.bodies[i] = new Body(this.massGenerator.nextDouble(),
-						new Position(this.positionXGenerator.nextDouble(), this.positionYGenerator.nextDouble()),
-						new Vector(this.speedGenerator.nextDouble(), this.speedGenerator.nextDouble()));
-			}
+		for (final Worker worker : this.workers) {
+			worker.stopped = true;
+			worker.interrupt();
 		}
+		this.stoppedWorkers = this.workers;
+		this.workers = null;
+		this.phaser.forceTermination();
 	}
 
 	private class Worker extends Thread {
-		private volatile boolean stopped;
-		private final int name;
+		protected volatile boolean stopped;
+		protected final int name;
+		private final Phaser phaser;
 
 		public Worker(final int name) {
 			this.name = name;
 			this.stopped = false;
+			this.phaser = MultiThreadStrategy.this.phaser;
+			this.setDaemon(true);
 		}
 
 		@Override
 		public void run() {
+			// A negative phase means that the Workers have been stopped
+			while (!this.stopped && this.phaser.arriveAndAwaitAdvance() >= 0) {
+				MultiThreadStrategy.this.job.accept(this);
+				if (this.phaser.arriveAndAwaitAdvance() < 0) {
+					return;
+				}
+			}
+		}
+
+		protected void createBodies(final double minMass, final double maxMass, final double maxPosX,
+				final double maxPosY, final double minSpeed, final double maxSpeed) {
+			final Random random = new Random();
+			final OfDouble massGenerator = random.doubles(minMass, maxMass).iterator();
+			final OfDouble positionXGenerator = random.doubles(0.0, maxPosX).iterator();
+			final OfDouble positionYGenerator = random.doubles(0.0, maxPosY).iterator();
+			final OfDouble speedGenerator = random.doubles(minSpeed, maxSpeed).iterator();
+
+			final int from = this.name * MultiThreadStrategy.this.bodiesPerThread;
+			final int to = this.name == MultiThreadStrategy.this.nThreads - 1 ? MultiThreadStrategy.this.nBodies
+					: from + MultiThreadStrategy.this.bodiesPerThread;
+			for (int i = from; i < to; i++) {
+				MultiThreadStrategy.this.bodies.set(i, new Body(massGenerator.nextDouble(),
+						new Position(positionXGenerator.nextDouble(), positionYGenerator.nextDouble()),
+						new Vector(speedGenerator.nextDouble(), speedGenerator.nextDouble())));
+			}
+		}
+
+		protected void calculateAndMove() {
 			// Calculate forces
-			while (!MultiThreadStrategy.this.forcesToCalculate.isEmpty()) {
-				final Integer i = MultiThreadStrategy.this.forcesToCalculate.poll();
-				if (i == null) {
+			int job;
+			while (!this.stopped
+					&& (job = MultiThreadStrategy.this.forcesToCalculate.next(this.name)) != WorkStealingRanges.NONE) {
+				final int from = MultiThreadStrategy.this.jobFirstBodies[job];
+				final int to = MultiThreadStrategy.this.jobFirstBodies[job + 1];
+				final BodyBuffer bodies = MultiThreadStrategy.this.bodies;
+				MultiThreadStrategy.this.kernel.forEachPair(from, to, MultiThreadStrategy.this.nBodies,
+						(i, j) -> MultiThreadStrategy.this.matrixBF.setForce(i, j, bodies.get(i), bodies.get(j)));
+				MultiThreadStrategy.this.forcesCalculated(job);
+			}
+
+			// Move bodies: the blocks are taken in order, waiting for the ones not ready yet
+			final int n = MultiThreadStrategy.this.nBodies;
+			final int stage = MultiThreadStrategy.this.stage;
+			final boolean usesForces = MultiThreadStrategy.this.integrator.usesForces(stage);
+			final boolean calculating = MultiThreadStrategy.this.calculating;
+			final double[] forces = MultiThreadStrategy.this.forces;
+			while (!this.stopped) {
+				final int block = MultiThreadStrategy.this.nextBlockToMove.get();
+				if (block >= MultiThreadStrategy.this.nBlocksToMove) {
+					break;
+				}
+				final int from = block * MultiThreadStrategy.ROWS_PER_JOB;
+				final int to = Math.min(from + MultiThreadStrategy.ROWS_PER_JOB, MultiThreadStrategy.this.nBodies);
+				if (to > MultiThreadStrategy.this.jobFirstBodies[MultiThreadStrategy.this.readyToMoveJobs.get()]) {
+					Thread.yield();
+					continue;
+				}
+				if (!MultiThreadStrategy.this.nextBlockToMove.compareAndSet(block, block + 1)) {
 					continue;
 				}
 
-				for (int j = i + 1; j < MultiThreadStrategy.this.nBodies; j++) {
-					MultiThreadStrategy.this.matrixBF.set(i, j,
-							Force.get(MultiThreadStrategy.this.bodies[i], MultiThreadStrategy.this.bodies[j]));
+				for (int i = from; i < to; i++) {
+					if (calculating) {
+						final Force force = new Force(0D, 0D);
+						MultiThreadStrategy.this.matrixBF.accumulate(i, force);
+						forces[i] = force.getXComp();
+						forces[n + i] = force.getYComp();
+					}
+					MultiThreadStrategy.this.bodies.move(i, usesForces ? forces[i] : 0D,
+							usesForces ? forces[n + i] : 0D, MultiThreadStrategy.this.deltaTime,
+							MultiThreadStrategy.this.integrator, stage);
 				}
-				MultiThreadStrategy.this.forcesCalculated(i);
 			}
+		}
+	}
 
-			// Move bodies
-			while (!this.stopped && MultiThreadStrategy.this.bodiesMoved < MultiThreadStrategy.this.nBodies) {
-				try {
-					final Integer i = this.name % 2 == 0 ? MultiThreadStrategy.this.bodiesToMove.takeFirst()
-							: MultiThreadStrategy.this.bodiesToMove.takeLast();
-
-					final Force[] forcesToSum = new Force[MultiThreadStrategy.this.nBodies - 1];
-					int f = 0;
-					// Horizontal
-					for (int j = i + 1; j < MultiThreadStrategy.this.nBodies; j++) {
-						forcesToSum[f] = MultiThreadStrategy.this.matrixBF.get(i, j);
-						f++;
-					}
-					// Vertical
-					for (int k = 0; k < i; k++) {
-						forcesToSum[f] = Force.revertOrientation(MultiThreadStrategy.this.matrixBF.get(k, i));
-						f++;
-					}
+	private class AccumulatorWorker extends Worker {
 
-					MultiThreadStrategy.this.backupBodies[i] = MultiThreadStrategy.this.bodies[i];
-					MultiThreadStrategy.this.bodies[i].apply(Force.sumForces(forcesToSum),
-							MultiThreadStrategy.this.deltaTime);
-					MultiThreadStrategy.this.bodyMoved(i);
-				} catch (@SuppressWarnings("unused") final InterruptedException e) {
-					continue;
+		public AccumulatorWorker(final int name) {
+			super(name);
+		}
+
+		@Override
+		protected void calculateAndMove() {
+			final int n = MultiThreadStrategy.this.nBodies;
+			final BodyBuffer bodies = MultiThreadStrategy.this.bodies;
+			final double[] accumulator = MultiThreadStrategy.this.accumulators[this.name];
+
+			// Accumulate forces
+			int job;
+			while (!this.stopped
+					&& (job = MultiThreadStrategy.this.forcesToCalculate.next(this.name)) != WorkStealingRanges.NONE) {
+				final int from = MultiThreadStrategy.this.jobFirstBodies[job];
+				final int to = MultiThreadStrategy.this.jobFirstBodies[job + 1];
+				MultiThreadStrategy.this.kernel.forEachPair(from, to, n, (i, j) -> {
+					final Body bi = bodies.get(i);
+					final Body bj = bodies.get(j);
+					final double deltaX = bj.getPosition().getX() - bi.getPosition().getX();
+					final double deltaY = bj.getPosition().getY() - bi.getPosition().getY();
+					final double lambda = Force.getLambda(bi.getMass(), bj.getMass(), deltaX, deltaY);
+					accumulator[i] += deltaX * lambda;
+					accumulator[n + i] += deltaY * lambda;
+					accumulator[j] -= deltaX * lambda;
+					accumulator[n + j] -= deltaY * lambda;
+				});
+			}
+
+			try {
+				MultiThreadStrategy.this.forcesCalculated.await();
+			} catch (@SuppressWarnings("unused") final InterruptedException | BrokenBarrierException e) {
+				return;
+			}
+
+			// Move bodies: each Worker reduces its own share of the accumulators, if the stage calculates the Forces
+			final int stage = MultiThreadStrategy.this.stage;
+			final boolean usesForces = MultiThreadStrategy.this.integrator.usesForces(stage);
+			final double[] forces = MultiThreadStrategy.this.forces;
+			final int from = this.name * MultiThreadStrategy.this.bodiesPerThread;
+			final int to = this.name == MultiThreadStrategy.this.nThreads - 1 ? n
+					: from + MultiThreadStrategy.this.bodiesPerThread;
+			for (int i = from; i < to; i++) {
+				if (MultiThreadStrategy.this.calculating) {
+					double forceX = 0D;
+					double forceY = 0D;
+					for (final double[] threadAccumulator : MultiThreadStrategy.this.accumulators) {
+						forceX += threadAccumulator[i];
+						forceY += threadAccumulator[n + i];
+					}
+					forces[i] = forceX;
+					forces[n + i] = forceY;
 				}
+				bodies.move(i, usesForces ? forces[i] : 0D, usesForces ? forces[n + i] : 0D,
+						MultiThreadStrategy.this.deltaTime, MultiThreadStrategy.this.integrator, stage);
 			}
 		}
 	}
 
-	/**
-	 * Used for test purposes
-	 */
+	@Override
 	public void setBodies(final List<Body> bodies) {
-		this.bodies = bodies.stream()
-				.map(b -> new Body(b.getMass(), new Position(b.getPosition().getX(), b.getPosition().getY()),
-						new Vector(b.getSpeed().getXComp(), b.getSpeed().getYComp())))
-				.toArray(Body[]::new);
+		this.bodies = BodyBuffer.of(bodies);
+		this.forcesValid = false;
 	}
 }
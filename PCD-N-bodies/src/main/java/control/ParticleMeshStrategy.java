@@ -0,0 +1,39 @@
+package control;
+
+import model.Integrator;
+import model.ParticleMesh;
+
+/**
+ * Strategy that uses the Particle-Mesh method to achieve the goal.
+ * At each step the bodies mass is deposited onto a ParticleMesh grid, whose field is calculated with FFTs and
+ * interpolated back to the bodies: the cost is almost linear, but Forces are smoothed at the grid cell scale.
+ * Finer grids are slower but more precise.
+ * The Forces are then applied using java parallel streams over the bodies indexes.
+ * This Strategy doesn't attempt to backup and recover the bodies position if the process is paused.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public class ParticleMeshStrategy extends BodyStoreStrategy {
+
+	private final ParticleMesh mesh;
+
+	public ParticleMeshStrategy(final int nBodies, final int deltaTime, final int gridSize,
+			final Integrator integrator) {
+		super(nBodies, deltaTime, integrator);
+		this.mesh = new ParticleMesh(gridSize);
+	}
+
+	/**
+	 * Calculates the total Force each Body is subjected to through the ParticleMesh grid.
+	 */
+	@Override
+	protected boolean calculateForces(final boolean interruptible) {
+		this.mesh.calculateForces(this.bodies, this.forcesX, this.forcesY);
+		return true;
+	}
+
+	public int getGridSize() {
+		return this.mesh.getGridSize();
+	}
+}
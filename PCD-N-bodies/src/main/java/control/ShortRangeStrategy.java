@@ -0,0 +1,62 @@
+package control;
+
+import model.BodyStore;
+import model.Integrator;
+import model.NeighbourList;
+import model.Potential;
+
+/**
+ * Strategy that uses a short-range Potential, the bodies farther than the cutoff distance not interacting, to
+ * achieve the goal.
+ * The Forces are calculated over the Verlet lists of a NeighbourList, built with a cell grid and reused across the
+ * steps until some body moves more than half the skin: the cost is O(n) per step, as long as the cutoff is small
+ * compared to the space the bodies are in.
+ * The Forces are then applied using java parallel streams over the bodies indexes.
+ * This Strategy doesn't attempt to backup and recover the bodies position if the process is paused.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public class ShortRangeStrategy extends BodyStoreStrategy {
+
+	private final Potential potential;
+	private final double length;  // Characteristic length of the Potential
+	private final NeighbourList neighbours;
+
+	public ShortRangeStrategy(final int nBodies, final int deltaTime, final Potential potential, final double cutoff,
+			final double length, final double skin, final Integrator integrator) {
+		super(nBodies, deltaTime, integrator);
+		this.potential = potential;
+		this.length = length;
+		this.neighbours = new NeighbourList(cutoff, skin);
+	}
+
+	@Override
+	public void createBodies(final double minMass, final double maxMass, final double maxPosX, final double maxPosY,
+			final double minSpeed, final double maxSpeed) {
+		super.createBodies(minMass, maxMass, maxPosX, maxPosY, minSpeed, maxSpeed);
+		this.neighbours.invalidate();
+	}
+
+	/**
+	 * Calculates the total Force each Body is subjected to through the NeighbourList.
+	 */
+	@Override
+	protected boolean calculateForces(final boolean interruptible) {
+		this.neighbours.calculateForces(this.bodies, this.potential, this.length, this.forcesX, this.forcesY);
+		return true;
+	}
+
+	@Override
+	public void setBodies(final BodyStore bodies) {
+		super.setBodies(bodies);
+		this.neighbours.invalidate();
+	}
+
+	/**
+	 * Returns how many times the neighbour lists have been built, used for test purposes
+	 */
+	public int getNeighbourListBuilds() {
+		return this.neighbours.getBuilds();
+	}
+}
@@ -0,0 +1,47 @@
+package control;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import control.kernel.ForceKernel;
+import control.kernel.Precision;
+import model.Integrator;
+
+/**
+ * Strategy that stores the bodies as a Structure of Arrays (BodyStore) and uses java parallel streams over blocks of
+ * bodies indexes to achieve the goal, calculating the Forces with the cache blocked ForceKernel of the given Precision.
+ * No Body, Force or Vector object is created while calculating the forces and moving the bodies.
+ * This Strategy doesn't attempt to backup and recover the bodies position if the process is paused.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public class SoAStrategy extends BodyStoreStrategy {
+	private static final int ROWS_PER_TASK = 256;  // Bodies whose Forces are calculated by a single task
+
+	private final ForceKernel kernel;
+
+	public SoAStrategy(final int nBodies, final int deltaTime, final Precision precision,
+			final Integrator integrator) {
+		super(nBodies, deltaTime, integrator);
+		this.kernel = ForceKernel.get(precision);
+	}
+
+	/**
+	 * For each block of bodies, in parallel, calculates the total Force each Body is subjected to scanning the
+	 * contiguous arrays of positions and masses block by block, and stores it into the forces arrays.
+	 */
+	@Override
+	protected boolean calculateForces(final boolean interruptible) {
+		this.kernel.prepare(this.bodies);
+		final int nTasks = (this.nBodies + SoAStrategy.ROWS_PER_TASK - 1) / SoAStrategy.ROWS_PER_TASK;
+		IntStream.range(0, nTasks).parallel().forEach(task -> {
+			final int from = task * SoAStrategy.ROWS_PER_TASK;
+			final int to = Math.min(from + SoAStrategy.ROWS_PER_TASK, this.nBodies);
+			Arrays.fill(this.forcesX, from, to, 0D);
+			Arrays.fill(this.forcesY, from, to, 0D);
+			this.kernel.accumulate(this.bodies, from, to, 0, this.nBodies, this.forcesX, this.forcesY);
+		});
+		return true;
+	}
+}
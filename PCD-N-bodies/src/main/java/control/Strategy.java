@@ -3,6 +3,7 @@ package control;
 import java.util.List;
 
 import model.Body;
+import model.BodyStore;
 
 /**
  * Interface used to define different strategies to
@@ -26,4 +27,38 @@ public interface Strategy {
 
 	List<Body> getBodies();
 
+	/**
+	 * Replaces the bodies with copies of the given ones, as many as the Strategy has been created for: used to
+	 * restore a Checkpoint and for test purposes
+	 */
+	void setBodies(final List<Body> bodies);
+
+	/**
+	 * Replaces the bodies with the given ones, as many as the Strategy has been created for
+	 */
+	default void setBodies(final BodyStore bodies) {
+		this.setBodies(bodies.asList());
+	}
+
+	/**
+	 * Returns a copy of the bodies, unaffected by the next steps: used to take a Checkpoint
+	 */
+	default BodyStore getSnapshot() {
+		return BodyStore.of(this.getBodies());
+	}
+
+	/**
+	 * Copies the bodies into the given BodyStore, of the same size: used to record them without creating a new copy
+	 * each time
+	 */
+	default void copyBodies(final BodyStore target) {
+		final List<Body> bodies = this.getBodies();
+		if (bodies.size() != target.size()) {
+			throw new IllegalArgumentException("Expected " + bodies.size() + " bodies: " + target.size());
+		}
+		for (int i = 0; i < target.size(); i++) {
+			target.set(i, bodies.get(i));
+		}
+	}
+
 }
@@ -3,6 +3,8 @@ package control;
 import java.util.ArrayList;
 import java.util.List;
 
+import control.kernel.Precision;
+import model.Integrator;
 import view.component.NBComboBoxItem;
 
 /**
@@ -13,7 +15,8 @@ import view.component.NBComboBoxItem;
  *
  */
 public enum StrategyBuilder {
-	STREAM(0), MULTI_THREAD(1), TASK(2), ACTOR(3), DISTRIBUTED(4);
+	STREAM(0), MULTI_THREAD(1), TASK(2), VIRTUAL_THREAD(10), ACTOR(3), DISTRIBUTED(4), SOA(5), BLOCK_TIMESTEP(11),
+	BARNES_HUT(6), FMM(7), PARTICLE_MESH(8), SHORT_RANGE(12), FORK_JOIN(9);
 
 	private int value;
 
@@ -30,29 +33,87 @@ public enum StrategyBuilder {
 			return "MULTI THREAD";
 		case TASK:
 			return "TASK";
+		case VIRTUAL_THREAD:
+			return "VIRTUAL THREAD";
 		case ACTOR:
 			return "ACTOR";
 		case DISTRIBUTED:
 			return "DISTRIBUTED";
+		case SOA:
+			return "SOA";
+		case BLOCK_TIMESTEP:
+			return "BLOCK TIMESTEP";
+		case BARNES_HUT:
+			return "BARNES-HUT";
+		case FMM:
+			return "FMM";
+		case PARTICLE_MESH:
+			return "PARTICLE-MESH";
+		case SHORT_RANGE:
+			return "SHORT-RANGE";
+		case FORK_JOIN:
+			return "FORK-JOIN";
 		default:
 			return "ERR";
 		}
 	}
 
+	/**
+	 * Returns true if the Strategy calculates the Force between each pair of bodies, not an approximation of the far
+	 * ones or only the close ones, at each step of all the bodies
+	 */
+	public boolean isAllPairs() {
+		switch (this) {
+		case BLOCK_TIMESTEP:
+		case BARNES_HUT:
+		case FMM:
+		case PARTICLE_MESH:
+		case SHORT_RANGE:
+			return false;
+		default:
+			return true;
+		}
+	}
+
 	public static Strategy buildStrategy(final StrategyBuilder strategy, final int nBodies, final int deltaTime) {
+		return StrategyBuilder.buildStrategy(strategy, nBodies, deltaTime, new StrategyParams());
+	}
+
+	public static Strategy buildStrategy(final StrategyBuilder strategy, final int nBodies, final int deltaTime,
+			final StrategyParams params) {
+		final Integrator integrator = params.getIntegrator();
+		final Precision precision = params.getPrecision();
+		final int nThreads = params.getThreads();
 		switch (strategy) {
 		case STREAM:
-			return new StreamStrategy(nBodies, deltaTime);
+			return new StreamStrategy(nBodies, deltaTime, integrator);
 		case MULTI_THREAD:
-			return new MultiThreadStrategy(nBodies, deltaTime);
+			return new MultiThreadStrategy(nBodies, deltaTime, params.isMatrixFree(), nThreads, integrator);
 		case TASK:
-			return new TaskStrategy(nBodies, deltaTime);
+			return new TaskStrategy(nBodies, deltaTime, nThreads, integrator);
+		case VIRTUAL_THREAD:
+			return new VirtualThreadStrategy(nBodies, deltaTime, precision, integrator);
 		case ACTOR:
-			return new ActorStrategy(nBodies, deltaTime);
+			return new ActorStrategy(nBodies, deltaTime, integrator);
 		case DISTRIBUTED:
-			return new DistributedStrategy(nBodies, deltaTime);
+			return new DistributedStrategy(nBodies, deltaTime, integrator);
+		case SOA:
+			return new SoAStrategy(nBodies, deltaTime, precision, integrator);
+		case BLOCK_TIMESTEP:
+			return new BlockTimestepStrategy(nBodies, deltaTime, params.getBlockLevels(), precision);
+		case BARNES_HUT:
+			return new BarnesHutStrategy(nBodies, deltaTime, params.getTheta(), nThreads, integrator);
+		case FMM:
+			return new FmmStrategy(nBodies, deltaTime, params.getFmmOrder(), nThreads, integrator);
+		case PARTICLE_MESH:
+			return new ParticleMeshStrategy(nBodies, deltaTime, params.getPmGridSize(), integrator);
+		case SHORT_RANGE:
+			return new ShortRangeStrategy(nBodies, deltaTime, params.getPotential(), params.getCutoff(),
+					params.getPotentialLength(), params.getSkin(), integrator);
+		case FORK_JOIN:
+			return new ForkJoinStrategy(nBodies, deltaTime, precision, nThreads, integrator);
 		default:
-			return new StreamStrategy(nBodies, deltaTime);
+			return new StreamStrategy(nBodies, deltaTime, integrator);
 		}
 	}
 
@@ -61,8 +122,16 @@ public enum StrategyBuilder {
 		l.add(new NBComboBoxItem<>(STREAM, STREAM.toString()));
 		l.add(new NBComboBoxItem<>(MULTI_THREAD, MULTI_THREAD.toString()));
 		l.add(new NBComboBoxItem<>(TASK, TASK.toString()));
+		l.add(new NBComboBoxItem<>(VIRTUAL_THREAD, VIRTUAL_THREAD.toString()));
 		l.add(new NBComboBoxItem<>(ACTOR, ACTOR.toString()));
 		l.add(new NBComboBoxItem<>(DISTRIBUTED, DISTRIBUTED.toString()));
+		l.add(new NBComboBoxItem<>(SOA, SOA.toString()));
+		l.add(new NBComboBoxItem<>(BLOCK_TIMESTEP, BLOCK_TIMESTEP.toString()));
+		l.add(new NBComboBoxItem<>(BARNES_HUT, BARNES_HUT.toString()));
+		l.add(new NBComboBoxItem<>(FMM, FMM.toString()));
+		l.add(new NBComboBoxItem<>(PARTICLE_MESH, PARTICLE_MESH.toString()));
+		l.add(new NBComboBoxItem<>(SHORT_RANGE, SHORT_RANGE.toString()));
+		l.add(new NBComboBoxItem<>(FORK_JOIN, FORK_JOIN.toString()));
 		return l;
 	}
 
@@ -0,0 +1,177 @@
+package control;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import control.kernel.Precision;
+import model.Integrator;
+import model.Potential;
+import view.component.NBComboBoxItem;
+
+/**
+ * Optional parameters used by the StrategyBuilder to create the strategies that need them.
+ * Any parameter that is not set keeps its default value.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public class StrategyParams {
+	public static final double DEF_THETA = 0.5;
+	public static final int DEF_FMM_ORDER = 4;
+	public static final int DEF_PM_GRID_SIZE = 128;
+	public static final boolean DEF_MATRIX_FREE = false;
+	public static final Integrator DEF_INTEGRATOR = Integrator.EXPLICIT;
+	public static final int DEF_BLOCK_LEVELS = 6;
+	public static final Potential DEF_POTENTIAL = Potential.SOFTENED_GRAVITY;
+	public static final double DEF_CUTOFF = 50.0;
+	public static final double DEF_POTENTIAL_LENGTH = 5.0;
+	public static final double DEF_SKIN = 5.0;
+	public static final Precision DEF_PRECISION = Precision.DOUBLE;
+	public static final int DEF_THREADS = Runtime.getRuntime().availableProcessors() + 1;
+
+	private double theta = StrategyParams.DEF_THETA;  // Barnes-Hut opening angle
+	private int fmmOrder = StrategyParams.DEF_FMM_ORDER;  // FMM expansions order
+	private int pmGridSize = StrategyParams.DEF_PM_GRID_SIZE;  // Particle-Mesh nodes per axis, power of 2
+	private boolean matrixFree = StrategyParams.DEF_MATRIX_FREE;  // Multi Thread per-thread accumulators
+	private Integrator integrator = StrategyParams.DEF_INTEGRATOR;  // Used by all the strategies
+	private int blockLevels = StrategyParams.DEF_BLOCK_LEVELS;  // Block Timestep levels below deltaTime
+	private Potential potential = StrategyParams.DEF_POTENTIAL;  // Short-range Potential
+	private double cutoff = StrategyParams.DEF_CUTOFF;  // m, short-range Potential cutoff distance
+	private double potentialLength = StrategyParams.DEF_POTENTIAL_LENGTH;  // m, short-range Potential length
+	private double skin = StrategyParams.DEF_SKIN;  // m, added to the cutoff by the neighbour lists
+	private Precision precision = StrategyParams.DEF_PRECISION;  // Of the pair Forces, exact strategies
+	private int threads = StrategyParams.DEF_THREADS;  // Of the strategies with a pool of their own
+
+	public StrategyParams() {
+		super();
+	}
+
+	public double getTheta() {
+		return this.theta;
+	}
+
+	public void setTheta(final double theta) {
+		this.theta = theta;
+	}
+
+	public int getFmmOrder() {
+		return this.fmmOrder;
+	}
+
+	public void setFmmOrder(final int fmmOrder) {
+		this.fmmOrder = fmmOrder;
+	}
+
+	public int getPmGridSize() {
+		return this.pmGridSize;
+	}
+
+	public void setPmGridSize(final int pmGridSize) {
+		this.pmGridSize = pmGridSize;
+	}
+
+	public boolean isMatrixFree() {
+		return this.matrixFree;
+	}
+
+	public void setMatrixFree(final boolean matrixFree) {
+		this.matrixFree = matrixFree;
+	}
+
+	/**
+	 * Returns the items to populate a ComboBox to choose amongst the Integrators
+	 */
+	public static List<NBComboBoxItem<Integrator>> getIntegratorComboItems() {
+		final List<NBComboBoxItem<Integrator>> l = new ArrayList<>();
+		for (final Integrator integrator : Integrator.values()) {
+			l.add(new NBComboBoxItem<>(integrator, integrator.toString()));
+		}
+		return l;
+	}
+
+	public Integrator getIntegrator() {
+		return this.integrator;
+	}
+
+	public void setIntegrator(final Integrator integrator) {
+		this.integrator = integrator;
+	}
+
+	public int getBlockLevels() {
+		return this.blockLevels;
+	}
+
+	public void setBlockLevels(final int blockLevels) {
+		this.blockLevels = blockLevels;
+	}
+
+	/**
+	 * Returns the items to populate a ComboBox to choose amongst the short-range Potentials
+	 */
+	public static List<NBComboBoxItem<Potential>> getPotentialComboItems() {
+		final List<NBComboBoxItem<Potential>> l = new ArrayList<>();
+		for (final Potential potential : Potential.values()) {
+			l.add(new NBComboBoxItem<>(potential, potential.toString()));
+		}
+		return l;
+	}
+
+	public Potential getPotential() {
+		return this.potential;
+	}
+
+	public void setPotential(final Potential potential) {
+		this.potential = potential;
+	}
+
+	public double getCutoff() {
+		return this.cutoff;
+	}
+
+	public void setCutoff(final double cutoff) {
+		this.cutoff = cutoff;
+	}
+
+	public double getPotentialLength() {
+		return this.potentialLength;
+	}
+
+	public void setPotentialLength(final double potentialLength) {
+		this.potentialLength = potentialLength;
+	}
+
+	public double getSkin() {
+		return this.skin;
+	}
+
+	public void setSkin(final double skin) {
+		this.skin = skin;
+	}
+
+	/**
+	 * Returns the items to populate a ComboBox to choose amongst the Precisions
+	 */
+	public static List<NBComboBoxItem<Precision>> getPrecisionComboItems() {
+		final List<NBComboBoxItem<Precision>> l = new ArrayList<>();
+		for (final Precision precision : Precision.values()) {
+			l.add(new NBComboBoxItem<>(precision, precision.toString()));
+		}
+		return l;
+	}
+
+	public Precision getPrecision() {
+		return this.precision;
+	}
+
+	public void setPrecision(final Precision precision) {
+		this.precision = precision;
+	}
+
+	public int getThreads() {
+		return this.threads;
+	}
+
+	public void setThreads(final int threads) {
+		this.threads = threads;
+	}
+}
@@ -2,14 +2,15 @@ package control;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.PrimitiveIterator.OfDouble;
 import java.util.Random;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import control.kernel.PairSpliterator;
 import model.Body;
 import model.Force;
+import model.Integrator;
 import model.Position;
 import model.Vector;
 
@@ -24,16 +25,19 @@ public class StreamStrategy implements Strategy {
 
 	private final int nBodies;
 	private final int deltaTime;
+	private final Integrator integrator;
 
 	private List<Body> bodies;
-	private final Map<Body, Force> mapBF;
+	private double[] forces;  // The last Forces calculated: x components, then y ones
+	private boolean forcesCalculated;  // The forces are the ones on the current positions of the bodies
 
-	public StreamStrategy(final int nBodies, final int deltaTime) {
+	public StreamStrategy(final int nBodies, final int deltaTime, final Integrator integrator) {
 		super();
 		this.nBodies = nBodies;
 		this.deltaTime = deltaTime;
+		this.integrator = integrator;
 		this.bodies = new ArrayList<>();
-		this.mapBF = new ConcurrentHashMap<>(nBodies);
+		this.forcesCalculated = false;
 	}
 
 	@Override
@@ -51,25 +55,59 @@ public class StreamStrategy implements Strategy {
 					new Position(positionXGenerator.nextDouble(), positionYGenerator.nextDouble()),
 					new Vector(speedGenerator.nextDouble(), speedGenerator.nextDouble())));
 		}
+		this.forcesCalculated = false;
 	}
 
 	/**
-	 * Calculates all existing Forces between any couple of Bodies and stores into a map the total Force each body is
-	 * subjected to.
+	 * Streams, in parallel, the pairs (i, j) of Body indexes with i < j: the PairSpliterator splits them into halves
+	 * of the same number of pairs. Each part calculates the Force of its pairs once and accumulates it into its own
+	 * array, on both bodies (Newton's third law); the arrays are then summed up.
 	 *
-	 * For each Body, then, it applies the total Force for a deltaTime time.
+	 * For each Body index, then, in parallel, it applies the stage of the Integrator step: the Forces are calculated
+	 * again by each stage that uses them, unless the bodies haven't moved since, the previous step included.
 	 */
 	@Override
 	public void calculateAndMove() {
-		this.mapBF.clear();
-		for (final Body b : this.bodies) {
-			this.mapBF.put(b, Force.sumForces(this.bodies.stream().parallel().filter(b1 -> !b1.equals(b))
-					.map(b1 -> Force.get(b, b1)).toArray(Force[]::new)));
+		final int n = this.bodies.size();
+		final Body[] bodies = this.bodies.toArray(new Body[n]);
+
+		for (int stage = 0; stage < this.integrator.getStages(); stage++) {
+			final boolean usesForces = this.integrator.usesForces(stage);
+			if (usesForces && !this.forcesCalculated) {
+				this.forces = StreamStrategy.calculateForces(bodies);
+				this.forcesCalculated = true;
+			}
+			final double[] forces = this.forces;
+			final int stageIndex = stage;
+			IntStream.range(0, n).parallel().forEach(i -> bodies[i].apply(usesForces ? forces[i] : 0D,
+					usesForces ? forces[n + i] : 0D, this.deltaTime, this.integrator, stageIndex));
+			if (this.integrator.movesBodies(stage)) {
+				this.forcesCalculated = false;
+			}
 		}
+	}
+
+	/* Returns the total Force each Body is subjected to: x components, then y ones */
+	private static double[] calculateForces(final Body[] bodies) {
+		final int n = bodies.length;
+		return PairSpliterator.pairs(n, true).collect(() -> new double[2 * n], (acc, pair) -> {
+			final int i = PairSpliterator.getI(pair);
+			final int j = PairSpliterator.getJ(pair);
+			final double deltaX = bodies[j].getPosition().getX() - bodies[i].getPosition().getX();
+			final double deltaY = bodies[j].getPosition().getY() - bodies[i].getPosition().getY();
+			final double lambda = Force.getLambda(bodies[i].getMass(), bodies[j].getMass(), deltaX, deltaY);
+			acc[i] += deltaX * lambda;
+			acc[n + i] += deltaY * lambda;
+			acc[j] -= deltaX * lambda;
+			acc[n + j] -= deltaY * lambda;
+		}, StreamStrategy::sum);
+	}
 
-		this.mapBF.keySet().stream().parallel().forEach(b -> {
-			b.apply(this.mapBF.get(b), this.deltaTime);
-		});
+	/* Adds the Forces of the source array to the target one */
+	private static void sum(final double[] target, final double[] source) {
+		for (int k = 0; k < target.length; k++) {
+			target[k] += source[k];
+		}
 	}
 
 	@Override
@@ -87,13 +125,12 @@ public class StreamStrategy implements Strategy {
 		return this.bodies;
 	}
 
-	/**
-	 * Used for test purposes
-	 */
+	@Override
 	public void setBodies(final List<Body> bodies) {
 		this.bodies = bodies.stream()
 				.map(b -> new Body(b.getMass(), new Position(b.getPosition().getX(), b.getPosition().getY()),
 						new Vector(b.getSpeed().getXComp(), b.getSpeed().getYComp())))
 				.collect(Collectors.toList());
+		this.forcesCalculated = false;
 	}
 }
@@ -1,6 +1,5 @@
 package control;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.PrimitiveIterator.OfDouble;
 import java.util.Random;
@@ -8,8 +7,11 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+import control.kernel.ForceKernel;
 import model.Body;
+import model.BodyBuffer;
 import model.Force;
+import model.Integrator;
 import model.Position;
 import model.TriangularMatrix;
 import model.Vector;
@@ -24,31 +26,35 @@ public class TaskStrategy implements Strategy {
 
 	private final int nBodies;
 	private final int deltaTime;
+	private final Integrator integrator;
 
-	private final Body[] bodies;
-	private final Body[] backupBodies;
+	private final BodyBuffer bodies;  // The task reads the published bodies and moves them into the back buffer
 	private final TriangularMatrix matrixBF;
+	private final double[] forces;  // The total Force on each Body, the last calculated: x components, then y ones
+	private volatile boolean forcesCalculated;  // The forces are the ones on the current positions of the bodies
 	private final int nThreads;
 	private ExecutorService executor;
 
 	private final Boolean[] bodyCalculatedForces;
-	private volatile int bodiesMoved;
+	private volatile boolean stepDropped;
 
-	public TaskStrategy(final int nBodies, final int deltaTime) {
+	public TaskStrategy(final int nBodies, final int deltaTime, final int nThreads, final Integrator integrator) {
 		super();
 
 		this.nBodies = nBodies;
 		this.deltaTime = deltaTime;
-		this.bodies = new Body[nBodies];
-		this.backupBodies = new Body[nBodies];
+		this.integrator = integrator;
+		this.bodies = new BodyBuffer(nBodies);
 		this.matrixBF = new TriangularMatrix(nBodies);
-		this.nThreads = Runtime.getRuntime().availableProcessors() + 1;
+		this.forces = new double[2 * nBodies];
+		this.forcesCalculated = false;
+		this.nThreads = nThreads;
 
 		this.bodyCalculatedForces = new Boolean[nBodies];
 	}
 
 	/**
-	 * An Executor using AvailableProcessors() + 1 Threads is used to create the bodies.
+	 * An Executor using nThreads Threads is used to create the bodies.
 	 */
 	@Override
 	public void createBodies(final double minMass, final double maxMass, final double maxPosX, final double maxPosY,
@@ -63,76 +69,100 @@ public class TaskStrategy implements Strategy {
 				final OfDouble speedGenerator = random.doubles(minSpeed, maxSpeed).iterator();
 
 				for (int i = 0; i < this.nBodies; i++) {
-					TaskStrategy.this.bodies[i] = new Body(massGenerator.nextDouble(),
+					TaskStrategy.this.bodies.set(i, new Body(massGenerator.nextDouble(),
 							new Position(positionXGenerator.nextDouble(), positionYGenerator.nextDouble()),
-							new Vector(speedGenerator.nextDouble(), speedGenerator.nextDouble()));
+							new Vector(speedGenerator.nextDouble(), speedGenerator.nextDouble())));
 				}
 			});
 
 			this.executor.shutdown();
 			this.executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+			this.forcesCalculated = false;
 		} catch (final InterruptedException e) {
 			e.printStackTrace();
 		}
 	}
 
 	/**
-	 * An Executor using AvailableProcessors() + 1 Threads is used to calculate the Forces between the Bodies,
+	 * An Executor using nThreads Threads is used to calculate the Forces between the Bodies,
 	 * to get the total Force each Body is subjected to and to move the Bodies.
 	 *
-	 * If the main Thread is requested to stop, it tries to revert any Forces already applied.
+	 * It's done for each stage of the Integrator step, skipping the calculation of the Forces in the stages that
+	 * don't use them or when the bodies haven't moved since the last one, the previous step included: the total
+	 * Forces are stored and applied again. The moved bodies are written into the back buffer, read by the next stage,
+	 * and published at the end of the step: if the main Thread is requested to stop, the step is dropped and the
+	 * bodies are left as they were.
 	 */
 	@Override
 	public void calculateAndMove() {
 		try {
-			// Initialization
+			// Initialization: the task of a dropped step might still be running
+			if (this.executor != null) {
+				this.executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+			}
+			this.bodies.drop();
 			for (int i = 0; i < this.nBodies; i++) {
 				this.bodyCalculatedForces[i] = false;
-				this.backupBodies[i] = null;
 			}
-			this.bodiesMoved = 0;
+			if (this.stepDropped) {
+				this.forcesCalculated = false;
+			}
+			this.stepDropped = false;
 
 			this.executor = Executors.newFixedThreadPool(this.nThreads);
 			this.executor.execute(() -> {
-				// Calculate forces
-				for (int i = 0; i < this.nBodies; i++) {
-					for (int j = i + 1; j < TaskStrategy.this.nBodies; j++) {
-						TaskStrategy.this.matrixBF.set(i, j,
-								Force.get(TaskStrategy.this.bodies[i], TaskStrategy.this.bodies[j]));
+				final int lastStage = this.integrator.getStages() - 1;
+				for (int stage = 0; stage <= lastStage; stage++) {
+					final boolean usesForces = this.integrator.usesForces(stage);
+
+					// Calculate forces
+					if (usesForces && !this.forcesCalculated) {
+						ForceKernel.get().forEachPair(0, this.nBodies, this.nBodies,
+								(i, j) -> TaskStrategy.this.matrixBF.setForce(i, j, TaskStrategy.this.bodies.get(i),
+										TaskStrategy.this.bodies.get(j)));
+						for (int i = 0; i < this.nBodies; i++) {
+							final Force force = new Force(0D, 0D);
+							TaskStrategy.this.matrixBF.accumulate(i, force);
+							this.forces[i] = force.getXComp();
+							this.forces[this.nBodies + i] = force.getYComp();
+						}
+						this.forcesCalculated = true;
 					}
-				}
 
-				// Move bodies
-				for (int i = 0; i < this.nBodies; i++) {
-					final Force[] forcesToSum = new Force[TaskStrategy.this.nBodies - 1];
-					int f = 0;
-					// Horizontal
-					for (int j = i + 1; j < TaskStrategy.this.nBodies; j++) {
-						forcesToSum[f] = TaskStrategy.this.matrixBF.get(i, j);
-						f++;
+					// Move bodies
+					for (int i = 0; i < this.nBodies; i++) {
+						TaskStrategy.this.bodies.move(i, usesForces ? this.forces[i] : 0D,
+								usesForces ? this.forces[this.nBodies + i] : 0D, TaskStrategy.this.deltaTime,
+								this.integrator, stage);
 					}
-					// Vertical
-					for (int k = 0; k < i; k++) {
-						forcesToSum[f] = Force.revertOrientation(TaskStrategy.this.matrixBF.get(k, i));
-						f++;
+					if (this.integrator.movesBodies(stage)) {
+						this.forcesCalculated = false;
+					}
+					if (stage < lastStage) {
+						TaskStrategy.this.bodies.swap();
 					}
-
-					TaskStrategy.this.backupBodies[i] = TaskStrategy.this.bodies[i];
-					TaskStrategy.this.bodies[i].apply(Force.sumForces(forcesToSum), TaskStrategy.this.deltaTime);
 				}
 			});
 
 			this.executor.shutdown();
 			this.executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+			if (!this.stepDropped) {
+				this.bodies.publish();
+			}
 		} catch (@SuppressWarnings("unused") final InterruptedException e) {
 			this.interrupt();
 		}
 	}
 
+	/**
+	 * Stops the running step: it won't be published.
+	 */
 	@Override
 	public synchronized void interrupt() {
-		this.executor.shutdownNow();
-		this.revertAppliedForces();
+		this.stepDropped = true;
+		if (this.executor != null) {
+			this.executor.shutdownNow();
+		}
 	}
 
 	@Override
@@ -142,17 +172,14 @@ public class TaskStrategy implements Strategy {
 
 	@Override
 	public List<Body> getBodies() {
-		return Arrays.asList(this.bodies);
+		return this.bodies.asList();
 	}
 
-	private synchronized void revertAppliedForces() {
-		if (this.bodiesMoved == 0) {
-			return;
-		}
+	@Override
+	public void setBodies(final List<Body> bodies) {
 		for (int i = 0; i < this.nBodies; i++) {
-			if (this.backupBodies[i] != null) {
-				this.bodies[i] = this.backupBodies[i];
-			}
+			this.bodies.set(i, bodies.get(i).copy());
 		}
+		this.forcesCalculated = false;
 	}
 }
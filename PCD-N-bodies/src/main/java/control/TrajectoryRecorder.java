@@ -0,0 +1,223 @@
+package control;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import model.BodyStore;
+import model.TrajectoryWriter;
+
+/**
+ * Counts the steps of a Strategy and records a frame of its bodies every interval steps into a trajectory file
+ * (TrajectoryWriter), for offline analysis.
+ *
+ * The bodies are copied (Strategy.copyBodies) between two steps, by the Thread running them, and queued: a Thread
+ * of its own encodes and writes the frames while the next steps run. The queue holds at most capacity frames: when
+ * it's full the new frame is dropped (Overflow.DROP), never delaying the steps, or the steps wait for a frame to be
+ * written (Overflow.BLOCK), so that none is lost. If the Thread writing them has stopped, the frames are dropped.
+ * The copies are handed back once written and reused: at most capacity + 1 of them are created, and a frame to be
+ * dropped is not copied.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public class TrajectoryRecorder implements AutoCloseable {
+
+	/**
+	 * What to do with a frame when the queue is full
+	 */
+	public enum Overflow {
+		DROP, BLOCK
+	}
+
+	private static final Frame END = new Frame(-1L, null);  // Queued by close()
+	private static final long WAIT_MILLIS = 100;  // Between two checks that the writing Thread is alive
+
+	private final TrajectoryWriter writer;
+	private final int nBodies;
+	private final int interval;  // Steps between two frames
+	private final int capacity;
+	private final Overflow overflow;
+	private final BlockingQueue<Frame> queue;
+	private final BlockingQueue<BodyStore> free;  // Copies of the bodies handed back once written
+	private final Thread thread;
+
+	private int copies;  // Created so far, at most capacity + 1: the queued ones and the one being written
+	private long step;  // Steps run by the bodies, restored ones included
+	private final AtomicLong dropped;
+	private final AtomicLong written;
+	private final AtomicReference<IOException> error;  // Of a frame not yet reported
+
+	/**
+	 * Creates the trajectory file: positionQuantum and speedQuantum are the precisions the values are rounded to,
+	 * both 0 to record them as they are.
+	 */
+	public TrajectoryRecorder(final Path path, final int nBodies, final int interval, final int capacity,
+			final Overflow overflow, final double positionQuantum, final double speedQuantum, final long step)
+			throws IOException {
+		super();
+		if (interval <= 0 || capacity <= 0) {
+			throw new IllegalArgumentException(
+					"Interval and capacity must be greater than 0: " + interval + ", " + capacity);
+		}
+		this.writer = new TrajectoryWriter(path, nBodies, positionQuantum, speedQuantum);
+		this.nBodies = nBodies;
+		this.interval = interval;
+		this.capacity = capacity;
+		this.overflow = overflow;
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		this.free = new ArrayBlockingQueue<>(capacity + 1);
+		this.copies = 0;
+		this.step = step;
+		this.dropped = new AtomicLong();
+		this.written = new AtomicLong();
+		this.error = new AtomicReference<>();
+
+		this.thread = new Thread(this::writeFrames, "TrajectoryRecorder");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/**
+	 * Counts a step run by the Strategy, recording a frame if it's the last of an interval.
+	 * Returns true if the frame has been queued, false if it's not recorded or it has been dropped.
+	 */
+	public boolean stepped(final Strategy strategy) throws InterruptedException {
+		this.step++;
+		if (this.step % this.interval != 0) {
+			return false;
+		}
+		if (!this.thread.isAlive() || this.overflow == Overflow.DROP && this.queue.remainingCapacity() == 0) {
+			this.dropped.incrementAndGet();
+			return false;
+		}
+		final BodyStore bodies = this.takeCopy();
+		if (bodies == null) {
+			this.dropped.incrementAndGet();
+			return false;
+		}
+		strategy.copyBodies(bodies);
+		if (!this.offer(new Frame(this.step, bodies), this.overflow == Overflow.BLOCK)) {
+			this.free.offer(bodies);
+			this.dropped.incrementAndGet();
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Writes the queued frames and closes the file.
+	 * If the calling Thread is interrupted while waiting, the frames still queued are dropped and the file is closed
+	 * by the writing Thread; the interrupt status is kept.
+	 */
+	@Override
+	public void close() {
+		try {
+			this.offer(TrajectoryRecorder.END, true);
+			this.thread.join();
+		} catch (@SuppressWarnings("unused") final InterruptedException e) {
+			this.thread.interrupt();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Returns the error of the last failed frame, if not yet returned, else null
+	 */
+	public IOException takeError() {
+		return this.error.getAndSet(null);
+	}
+
+	/**
+	 * Returns the number of frames dropped because the queue was full
+	 */
+	public long getDropped() {
+		return this.dropped.get();
+	}
+
+	/**
+	 * Returns the number of frames written
+	 */
+	public long getWritten() {
+		return this.written.get();
+	}
+
+	/*
+	 * Returns a copy of the bodies handed back by the writing Thread, creating it if they are all in use and less
+	 * than capacity + 1. Otherwise waits for one if the Overflow is BLOCK, while the writing Thread is alive. Returns
+	 * null if there is none.
+	 */
+	private BodyStore takeCopy() throws InterruptedException {
+		BodyStore copy = this.free.poll();
+		if (copy == null && this.copies <= this.capacity) {
+			this.copies++;
+			copy = new BodyStore(this.nBodies);
+		}
+		while (copy == null && this.overflow == Overflow.BLOCK && this.thread.isAlive()) {
+			copy = this.free.poll(TrajectoryRecorder.WAIT_MILLIS, TimeUnit.MILLISECONDS);
+		}
+		return copy;
+	}
+
+	/*
+	 * Queues the frame, waiting for room if required while the writing Thread is alive. Returns false if it has not
+	 * been queued.
+	 */
+	private boolean offer(final Frame frame, final boolean wait) throws InterruptedException {
+		if (!this.thread.isAlive()) {
+			return false;
+		}
+		if (!wait) {
+			return this.queue.offer(frame);
+		}
+		while (!this.queue.offer(frame, TrajectoryRecorder.WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+			if (!this.thread.isAlive()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/* Writes the queued frames until close() */
+	private void writeFrames() {
+		try {
+			Frame frame = this.queue.take();
+			while (frame != TrajectoryRecorder.END) {
+				try {
+					this.writer.write(frame.step, frame.bodies);
+					this.written.incrementAndGet();
+				} catch (final IOException e) {
+					this.error.set(e);
+				} catch (final RuntimeException e) {
+					this.error.set(new IOException(e));
+				}
+				this.free.offer(frame.bodies);
+				frame = this.queue.take();
+			}
+		} catch (@SuppressWarnings("unused") final InterruptedException e) {
+			// Stop writing
+		} finally {
+			try {
+				this.writer.close();
+			} catch (final IOException e) {
+				this.error.set(e);
+			}
+		}
+	}
+
+	/* The bodies at a step */
+	private static class Frame {
+		private final long step;
+		private final BodyStore bodies;
+
+		Frame(final long step, final BodyStore bodies) {
+			super();
+			this.step = step;
+			this.bodies = bodies;
+		}
+	}
+}
@@ -0,0 +1,169 @@
+package control;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import control.kernel.ForceKernel;
+import control.kernel.Precision;
+import model.Integrator;
+
+/**
+ * Strategy that runs each block of ROWS_PER_TASK bodies on its own thread: a virtual one when the JVM supports them
+ * (Java 21+), a platform one otherwise. The many short tasks of a step are forked and joined within a StepScope.
+ *
+ * The Forces of each stage of the step are applied only once every task has completed.
+ * interrupt() cancels the running step until it moves the bodies, afterwards it's completed: the tasks not started
+ * yet are skipped and the step ends as soon as the running ones complete, leaving the bodies untouched, so nothing
+ * has to be reverted.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public class VirtualThreadStrategy extends BodyStoreStrategy {
+	private static final int ROWS_PER_TASK = 32;  // Bodies whose Forces are calculated by a single task
+
+	private final ForceKernel kernel;
+
+	private ExecutorService executor;  // A new thread for each task, created by the first step
+	private volatile StepScope step;  // The running step, if any
+
+	public VirtualThreadStrategy(final int nBodies, final int deltaTime, final Precision precision,
+			final Integrator integrator) {
+		super(nBodies, deltaTime, integrator);
+		this.kernel = ForceKernel.get(precision);
+	}
+
+	/**
+	 * Forks a task for each block of ROWS_PER_TASK bodies, which calculates the total Force each of them is subjected
+	 * to, and joins all of them. Returns false if the step has been cancelled.
+	 */
+	@Override
+	protected boolean calculateForces(final boolean interruptible) {
+		this.kernel.prepare(this.bodies);
+		final StepScope scope = new StepScope(this.getExecutor());
+		if (interruptible) {
+			this.step = scope;
+		}
+		try {
+			for (int from = 0; from < this.nBodies; from += VirtualThreadStrategy.ROWS_PER_TASK) {
+				final int rowFrom = from;
+				final int rowTo = Math.min(from + VirtualThreadStrategy.ROWS_PER_TASK, this.nBodies);
+				scope.fork(() -> {
+					Arrays.fill(this.forcesX, rowFrom, rowTo, 0D);
+					Arrays.fill(this.forcesY, rowFrom, rowTo, 0D);
+					this.kernel.accumulate(this.bodies, rowFrom, rowTo, 0, this.nBodies, this.forcesX, this.forcesY);
+				});
+			}
+			return scope.join();
+		} finally {
+			this.step = null;
+		}
+	}
+
+	@Override
+	public void interrupt() {
+		final StepScope scope = this.step;
+		if (scope != null) {
+			scope.cancel();
+		}
+	}
+
+	@Override
+	public synchronized void clear() {
+		this.interrupt();
+		if (this.executor != null) {
+			this.executor.shutdownNow();
+			this.executor = null;
+		}
+	}
+
+	private synchronized ExecutorService getExecutor() {
+		if (this.executor == null) {
+			this.executor = VirtualThreadStrategy.newThreadPerTaskExecutor();
+		}
+		return this.executor;
+	}
+
+	/*
+	 * Virtual threads if available, daemon platform threads otherwise.
+	 * Looked up by reflection: the project is compiled for a Java release without virtual threads.
+	 */
+	private static ExecutorService newThreadPerTaskExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (@SuppressWarnings("unused") final ReflectiveOperationException | RuntimeException e) {
+			return Executors.newCachedThreadPool(task -> {
+				final Thread thread = new Thread(task);
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+
+	/**
+	 * The tasks of a step: join() waits for all of them, and a failing task or cancel() stops all the others.
+	 */
+	private static class StepScope {
+		private final ExecutorService executor;
+		private final List<Future<?>> tasks;
+		private volatile boolean cancelled;
+
+		public StepScope(final ExecutorService executor) {
+			super();
+			this.executor = executor;
+			this.tasks = new ArrayList<>();
+			this.cancelled = false;
+		}
+
+		public void fork(final Runnable task) {
+			this.tasks.add(this.executor.submit(() -> {
+				if (!this.cancelled) {
+					task.run();
+				}
+			}));
+		}
+
+		/**
+		 * Waits for all the tasks to end, even if cancelled, so that none of them is still running once the step is
+		 * over. Returns false if the step has been cancelled.
+		 */
+		public boolean join() {
+			Throwable failure = null;
+			boolean interrupted = false;
+			for (final Future<?> task : this.tasks) {
+				boolean ended = false;
+				while (!ended) {
+					try {
+						task.get();
+						ended = true;
+					} catch (@SuppressWarnings("unused") final InterruptedException e) {
+						interrupted = true;
+						this.cancel();
+					} catch (final ExecutionException e) {
+						failure = failure == null ? e.getCause() : failure;
+						this.cancel();
+						ended = true;
+					}
+				}
+			}
+
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+			if (failure != null) {
+				throw new IllegalStateException(failure);
+			}
+			return !this.cancelled;
+		}
+
+		/* The tasks not started yet will skip their work */
+		public void cancel() {
+			this.cancelled = true;
+		}
+	}
+}
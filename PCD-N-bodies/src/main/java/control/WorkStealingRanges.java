@@ -0,0 +1,87 @@
+package control;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Splits the indexes [0, n) evenly amongst a fixed number of workers, each owning a contiguous range.
+ * A worker takes the indexes one by one from the front of its own range and, when it's empty, steals the back half
+ * of the range of another worker.
+ * Each range is packed into a long as (from << 32 | to), so that taking and stealing are a single compare-and-set:
+ * no lock is involved and no index is boxed.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+class WorkStealingRanges {
+	public static final int NONE = -1;
+
+	private final int nWorkers;
+	private final AtomicLongArray ranges;
+
+	public WorkStealingRanges(final int nWorkers) {
+		super();
+		this.nWorkers = nWorkers;
+		this.ranges = new AtomicLongArray(nWorkers);
+	}
+
+	/**
+	 * Splits the indexes [0, n) amongst the workers. It must not be called while they are taking indexes.
+	 */
+	public void reset(final int n) {
+		for (int w = 0; w < this.nWorkers; w++) {
+			this.ranges.set(w, WorkStealingRanges.pack((int) ((long) n * w / this.nWorkers),
+					(int) ((long) n * (w + 1) / this.nWorkers)));
+		}
+	}
+
+	/**
+	 * Returns the next index the worker has to process, or NONE if no index is left to anyone.
+	 */
+	public int next(final int worker) {
+		final int index = this.take(worker);
+		if (index != WorkStealingRanges.NONE) {
+			return index;
+		}
+
+		for (int k = 1; k < this.nWorkers; k++) {
+			final int victim = (worker + k) % this.nWorkers;
+			long range;
+			while (WorkStealingRanges.getFrom(range = this.ranges.get(victim)) < WorkStealingRanges.getTo(range)) {
+				final int from = WorkStealingRanges.getFrom(range);
+				final int to = WorkStealingRanges.getTo(range);
+				final int mid = from + (to - from) / 2;
+				if (this.ranges.compareAndSet(victim, range, WorkStealingRanges.pack(from, mid))) {
+					// Only the owner refills its empty range: the thieves skip it until then
+					this.ranges.set(worker, WorkStealingRanges.pack(mid + 1, to));
+					return mid;
+				}
+			}
+		}
+		return WorkStealingRanges.NONE;
+	}
+
+	/* Takes the first index of the worker's own range */
+	private int take(final int worker) {
+		long range;
+		while (WorkStealingRanges.getFrom(range = this.ranges.get(worker)) < WorkStealingRanges.getTo(range)) {
+			final int from = WorkStealingRanges.getFrom(range);
+			if (this.ranges.compareAndSet(worker, range,
+					WorkStealingRanges.pack(from + 1, WorkStealingRanges.getTo(range)))) {
+				return from;
+			}
+		}
+		return WorkStealingRanges.NONE;
+	}
+
+	private static long pack(final int from, final int to) {
+		return (long) from << 32 | to & 0xFFFFFFFFL;
+	}
+
+	private static int getFrom(final long range) {
+		return (int) (range >>> 32);
+	}
+
+	private static int getTo(final long range) {
+		return (int) range;
+	}
+}
@@ -8,8 +8,10 @@ import control.actors.ActorMsg.CalculateForces;
 import control.actors.ActorMsg.CreateBodies;
 import control.actors.ActorMsg.MoveBodies;
 import control.actors.MainActorMsg.BodiesCreated;
+import control.kernel.ForceKernel;
 import model.Body;
 import model.Force;
+import model.Integrator;
 import model.Position;
 import model.TriangularMatrix;
 import model.Vector;
@@ -65,11 +67,8 @@ public class Actor extends AbstractActor {
 		}*/
 		final TriangularMatrix matrixBF = new TriangularMatrix(nBodies, this.bodies.length - from);
 
-		for (int i = from; i < from + nBodies; i++) {
-			for (int j = i + 1; j < this.bodies.length; j++) {
-				matrixBF.set(i - from, j - from, Force.get(this.bodies[i], this.bodies[j]));
-			}
-		}
+		ForceKernel.get().forEachPair(from, from + nBodies, this.bodies.length,
+				(i, j) -> matrixBF.setForce(i - from, j - from, this.bodies[i], this.bodies[j]));
 
 		calculateForces.getReplyTo().tell(
 				new MainActorMsg.ForcesCalculated(calculateForces.getMoveBodies(), matrixBF, from, nBodies),
@@ -82,6 +81,10 @@ public class Actor extends AbstractActor {
 		final int from = moveBodies.getFrom();
 		final int nBodies = moveBodies.getnBodies();
 		final int deltaTime = moveBodies.getDeltaTime();
+		final Body[] bodies = moveBodies.getBodies();
+		final Integrator integrator = moveBodies.getIntegrator();
+		final int stage = moveBodies.getStage();
+		final boolean usesForces = integrator.usesForces(stage);
 
 		final Body[] newBodies = new Body[nBodies];
 
@@ -103,20 +106,11 @@ public class Actor extends AbstractActor {
 		}*/
 
 		for (int i = from; i < from + nBodies; i++) {
-			final Force[] forcesToSum = new Force[this.bodies.length - 1];
-			int f = 0;
-			// Horizontal
-			for (int j = i + 1; j < this.bodies.length; j++) {
-				forcesToSum[f] = matrixBF.get(i, j);
-				f++;
+			final Force force = new Force(0D, 0D);
+			if (usesForces) {
+				matrixBF.accumulate(i, force);
 			}
-			// Vertical
-			for (int k = 0; k < i; k++) {
-				forcesToSum[f] = Force.revertOrientation(matrixBF.get(k, i));
-				f++;
-			}
-
-			newBodies[i - from] = this.bodies[i].apply(Force.sumForces(forcesToSum), deltaTime);
+			newBodies[i - from] = bodies[i].apply(force.getXComp(), force.getYComp(), deltaTime, integrator, stage);
 		}
 
 		moveBodies.getReplyTo().tell(
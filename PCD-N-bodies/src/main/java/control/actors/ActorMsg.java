@@ -2,6 +2,7 @@ package control.actors;
 
 import akka.actor.ActorRef;
 import model.Body;
+import model.Integrator;
 import model.TriangularMatrix;
 
 /**
@@ -95,24 +96,35 @@ public interface ActorMsg {
 		private final ActorRef replyTo;
 		private final MainActorMsg.MoveBodies moveBodies;
 		private final TriangularMatrix matrixBF;
+		private final Body[] bodies;
 		private final int from;
 		private final int nBodies;
 		private final int deltaTime;
+		private final Integrator integrator;
+		private final int stage;
 
 		public MoveBodies(final ActorRef actorRef, final MainActorMsg.MoveBodies moveBodies,
-				final TriangularMatrix matrixBF, final int from, final int nBodies, final int deltaTime) {
+				final TriangularMatrix matrixBF, final Body[] bodies, final int from, final int nBodies,
+				final int deltaTime, final Integrator integrator, final int stage) {
 			this.replyTo = actorRef;
 			this.moveBodies = moveBodies;
 			this.matrixBF = matrixBF;
+			this.bodies = bodies;
 			this.from = from;
 			this.nBodies = nBodies;
 			this.deltaTime = deltaTime;
+			this.integrator = integrator;
+			this.stage = stage;
 		}
 
 		public TriangularMatrix getMatrixBF() {
 			return this.matrixBF;
 		}
 
+		public Body[] getBodies() {
+			return this.bodies;
+		}
+
 		public int getFrom() {
 			return this.from;
 		}
@@ -125,6 +137,14 @@ public interface ActorMsg {
 			return this.deltaTime;
 		}
 
+		public Integrator getIntegrator() {
+			return this.integrator;
+		}
+
+		public int getStage() {
+			return this.stage;
+		}
+
 		public MainActorMsg.MoveBodies getMoveBodies() {
 			return this.moveBodies;
 		}
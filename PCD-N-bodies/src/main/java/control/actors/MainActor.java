@@ -12,7 +12,9 @@ import control.actors.MainActorMsg.CreateBodies;
 import control.actors.MainActorMsg.ForcesCalculated;
 import control.actors.MainActorMsg.MoveBodies;
 import control.actors.MainActorMsg.SetBodies;
+import control.kernel.PairPartitioner;
 import model.Body;
+import model.Integrator;
 import model.TriangularMatrix;
 
 /**
@@ -28,21 +30,27 @@ public class MainActor extends AbstractActor {
 	private final List<ActorRef> actors;
 	private final int nBodies;
 	private final int deltaTime;
+	private final Integrator integrator;
 
 	private Body[] bodies;
 	private final TriangularMatrix matrixBF;
+	private boolean forcesCalculated;  // The matrix holds the Forces on the current positions of the bodies
+	private MoveBodies step;  // The running step
+	private int stage;  // Of the Integrator step
 
 	private int nActorsBodyCreateCompleted;
 	private int nActorsForceCalculateCompleted;
 	private int nActorsBodyMoveCompleted;
 
-	public MainActor(final int nBodies, final int deltaTime) {
+	public MainActor(final int nBodies, final int deltaTime, final Integrator integrator) {
 		super();
 		this.actors = new ArrayList<>(MainActor.N_ACTORS);
 		this.nBodies = nBodies;
 		this.deltaTime = deltaTime;
+		this.integrator = integrator;
 		this.bodies = new Body[nBodies];
 		this.matrixBF = new TriangularMatrix(nBodies);
+		this.forcesCalculated = false;
 		this.nActorsBodyCreateCompleted = 0;
 
 		for (int i = 0; i < MainActor.N_ACTORS; i++) {
@@ -77,16 +85,29 @@ public class MainActor extends AbstractActor {
 		this.nActorsBodyCreateCompleted++;
 
 		if (this.nActorsBodyCreateCompleted == MainActor.N_ACTORS) {
+			this.forcesCalculated = false;
 			bodiesCreated.getCreationFuture().complete(this.bodies);
 		}
 	}
 
-	/* Receives a MoveBodies message and tells the actors to Calculate the Forces */
+	/* Receives a MoveBodies message and runs the first stage of the Integrator step */
 	private void onMoveBodies(final MoveBodies moveBodies) {
+		this.step = moveBodies;
+		this.stage = 0;
+		this.runStage(moveBodies);
+	}
+
+	/*
+	 * Tells the actors to Calculate the Forces, or to Move the Bodies if the stage doesn't use any Force or the
+	 * bodies haven't moved since the last ones were calculated, in the previous step too
+	 */
+	private void runStage(final MoveBodies moveBodies) {
+		if (!this.integrator.usesForces(this.stage) || this.forcesCalculated) {
+			this.moveBodies(moveBodies);
+			return;
+		}
 		this.nActorsForceCalculateCompleted = 0;
 
-		final int nBodiesPerActor = this.nBodies / MainActor.N_ACTORS;
-		int firstBody = 0;
 		/*for (int i = 0; i < this.actors.size() - 1; i++) {
 			this.actors.get(i)
 					.tell(new ActorMsg.CalculateForces(this.getSelf(), moveBodies,
@@ -97,31 +118,25 @@ public class MainActor extends AbstractActor {
 		this.actors.get(this.actors.size() - 1).tell(new ActorMsg.CalculateForces(this.getSelf(), moveBodies,
 				Arrays.copyOfRange(this.bodies, firstBody, this.bodies.length), firstBody, this.nBodies - firstBody),
 				this.getSelf());*/
-		for (int i = 0; i < this.actors.size() - 1; i++) {
-			this.actors.get(i).tell(
-					new ActorMsg.CalculateForces(this.getSelf(), moveBodies, this.bodies, firstBody, nBodiesPerActor),
-					this.getSelf());
-			firstBody += nBodiesPerActor;
+		// Each actor calculates the same number of Forces
+		final int[] firstBodies = PairPartitioner.split(this.nBodies, this.nBodies, this.actors.size());
+		for (int i = 0; i < this.actors.size(); i++) {
+			this.actors.get(i).tell(new ActorMsg.CalculateForces(this.getSelf(), moveBodies, this.bodies,
+					firstBodies[i], firstBodies[i + 1] - firstBodies[i]), this.getSelf());
 		}
-		this.actors.get(this.actors.size() - 1).tell(new ActorMsg.CalculateForces(this.getSelf(), moveBodies,
-				this.bodies, firstBody, this.nBodies - firstBody), this.getSelf());
 	}
 
 	/* Receives and stores the Calculated Forces from the actors */
 	private void onForcesCalculated(final ForcesCalculated forcesCalculated) {
 		final TriangularMatrix calculatedForces = forcesCalculated.getMatrixBF();
 		final int from = forcesCalculated.getFrom();
-		final int nBodiesPerActor = forcesCalculated.getnBodies();
 
-		for (int i = from; i < from + nBodiesPerActor; i++) {
-			for (int j = i + 1; j < this.bodies.length; j++) {
-				this.matrixBF.set(i, j, calculatedForces.get(i - from, j - from));
-			}
-		}
+		calculatedForces.copyInto(this.matrixBF, from);
 
 		this.nActorsForceCalculateCompleted++;
 
 		if (this.nActorsForceCalculateCompleted == MainActor.N_ACTORS) {
+			this.forcesCalculated = true;
 			this.moveBodies(forcesCalculated.getMoveBodies());
 		}
 	}
@@ -140,12 +155,13 @@ public class MainActor extends AbstractActor {
 			firstBody += nBodiesPerActor;
 		}*/
 		for (int i = 0; i < this.actors.size() - 1; i++) {
-			this.actors.get(i).tell(new ActorMsg.MoveBodies(this.getSelf(), moveBodies, this.matrixBF, firstBody,
-					nBodiesPerActor, this.deltaTime), this.getSelf());
+			this.actors.get(i).tell(new ActorMsg.MoveBodies(this.getSelf(), moveBodies, this.matrixBF, this.bodies,
+					firstBody, nBodiesPerActor, this.deltaTime, this.integrator, this.stage), this.getSelf());
 			firstBody += nBodiesPerActor;
 		}
 		this.actors.get(this.actors.size() - 1).tell(new ActorMsg.MoveBodies(this.getSelf(), moveBodies, this.matrixBF,
-				firstBody, this.nBodies - firstBody, this.deltaTime), this.getSelf());
+				this.bodies, firstBody, this.nBodies - firstBody, this.deltaTime, this.integrator, this.stage),
+				this.getSelf());
 	}
 
 	/* Receives and stores the Moved Bodies from the actors */
@@ -160,13 +176,22 @@ public class MainActor extends AbstractActor {
 		this.nActorsBodyMoveCompleted++;
 
 		if (this.nActorsBodyMoveCompleted == MainActor.N_ACTORS) {
-			bodiesMoved.getMoveFuture().complete(this.bodies);
+			if (this.integrator.movesBodies(this.stage)) {
+				this.forcesCalculated = false;
+			}
+			this.stage++;
+			if (this.stage < this.integrator.getStages()) {
+				this.runStage(this.step);
+			} else {
+				bodiesMoved.getMoveFuture().complete(this.bodies);
+			}
 		}
 	}
 
 	/* Sets the Bodies */
 	private void onSetBodies(final SetBodies setBodies) {
 		this.bodies = setBodies.getBodies();
+		this.forcesCalculated = false;
 	}
 
 	@Override
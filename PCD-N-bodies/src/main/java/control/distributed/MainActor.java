@@ -19,7 +19,9 @@ import control.distributed.MainActorMsg.CreateBodies;
 import control.distributed.MainActorMsg.ForcesCalculated;
 import control.distributed.MainActorMsg.MoveBodies;
 import control.distributed.MainActorMsg.SetBodies;
+import control.kernel.PairPartitioner;
 import model.Body;
+import model.Integrator;
 import model.TriangularMatrix;
 
 /**
@@ -35,28 +37,35 @@ public class MainActor extends AbstractBehavior<MainActorMsg> {
 	private final List<ActorSystem<ActorMsg>> actors;
 	private final int nBodies;
 	private final int deltaTime;
+	private final Integrator integrator;
 
 	private Body[] bodies;
 	private final TriangularMatrix matrixBF;
+	private boolean forcesCalculated;  // The matrix holds the Forces on the current positions of the bodies
+	private MoveBodies step;  // The running step
+	private int stage;  // Of the Integrator step
 
 	private int nActorsBodyCreateCompleted;
 	private int nActorsForceCalculateCompleted;
 	private int nActorsBodyMoveCompleted;
 
 	public static Behavior<MainActorMsg> create(final Config clusterConfig, final Config noPort, final int nBodies,
-			final int deltaTime) {
-		return Behaviors.setup(context -> new MainActor(context, clusterConfig, noPort, nBodies, deltaTime));
+			final int deltaTime, final Integrator integrator) {
+		return Behaviors
+				.setup(context -> new MainActor(context, clusterConfig, noPort, nBodies, deltaTime, integrator));
 	}
 
 	private MainActor(final ActorContext<MainActorMsg> context, final Config clusterConfig, final Config noPort,
-			final int nBodies, final int deltaTime) {
+			final int nBodies, final int deltaTime, final Integrator integrator) {
 		super(context);
 
 		this.actors = new ArrayList<>(MainActor.N_ACTORS);
 		this.nBodies = nBodies;
 		this.deltaTime = deltaTime;
+		this.integrator = integrator;
 		this.bodies = new Body[nBodies];
 		this.matrixBF = new TriangularMatrix(nBodies);
+		this.forcesCalculated = false;
 		this.nActorsBodyCreateCompleted = 0;
 
 		for (int i = 0; i < MainActor.N_ACTORS; i++) {
@@ -105,44 +114,52 @@ public class MainActor extends AbstractBehavior<MainActorMsg> {
 		this.nActorsBodyCreateCompleted++;
 
 		if (this.nActorsBodyCreateCompleted == MainActor.N_ACTORS) {
+			this.forcesCalculated = false;
 			bodiesCreated.getCreationFuture().complete(this.bodies);
 		}
 
 		return this;
 	}
 
-	/* Receives a MoveBodies message and tells the actors to Calculate the Forces */
+	/* Receives a MoveBodies message and runs the first stage of the Integrator step */
 	private Behavior<MainActorMsg> onMoveBodies(final MoveBodies moveBodies) {
+		this.step = moveBodies;
+		this.stage = 0;
+		this.runStage(moveBodies);
+
+		return this;
+	}
+
+	/*
+	 * Tells the actors to Calculate the Forces, or to Move the Bodies if the stage doesn't use any Force or the
+	 * bodies haven't moved since the last ones were calculated, in the previous step too
+	 */
+	private void runStage(final MoveBodies moveBodies) {
+		if (!this.integrator.usesForces(this.stage) || this.forcesCalculated) {
+			this.moveBodies(moveBodies);
+			return;
+		}
 		this.nActorsForceCalculateCompleted = 0;
 
-		final int nBodiesPerActor = this.nBodies / MainActor.N_ACTORS;
-		int firstBody = 0;
-		for (int i = 0; i < this.actors.size() - 1; i++) {
+		// Each actor calculates the same number of Forces
+		final int[] firstBodies = PairPartitioner.split(this.nBodies, this.nBodies, this.actors.size());
+		for (int i = 0; i < this.actors.size(); i++) {
 			this.actors.get(i).tell(new ActorMsg.CalculateForces(this.getContext().getSelf(), moveBodies, this.bodies,
-					firstBody, nBodiesPerActor));
-			firstBody += nBodiesPerActor;
+					firstBodies[i], firstBodies[i + 1] - firstBodies[i]));
 		}
-		this.actors.get(this.actors.size() - 1).tell(new ActorMsg.CalculateForces(this.getContext().getSelf(),
-				moveBodies, this.bodies, firstBody, this.nBodies - firstBody));
-
-		return this;
 	}
 
 	/* Receives and stores the Calculated Forces from the actors */
 	private Behavior<MainActorMsg> onForcesCalculated(final ForcesCalculated forcesCalculated) {
 		final TriangularMatrix calculatedForces = forcesCalculated.getMatrixBF();
 		final int from = forcesCalculated.getFrom();
-		final int nBodiesPerActor = forcesCalculated.getnBodies();
 
-		for (int i = from; i < from + nBodiesPerActor; i++) {
-			for (int j = i + 1; j < this.bodies.length; j++) {
-				this.matrixBF.set(i, j, calculatedForces.get(i - from, j - from));
-			}
-		}
+		calculatedForces.copyInto(this.matrixBF, from);
 
 		this.nActorsForceCalculateCompleted++;
 
 		if (this.nActorsForceCalculateCompleted == MainActor.N_ACTORS) {
+			this.forcesCalculated = true;
 			this.moveBodies(forcesCalculated.getMoveBodies());
 		}
 
@@ -157,11 +174,12 @@ public class MainActor extends AbstractBehavior<MainActorMsg> {
 		int firstBody = 0;
 		for (int i = 0; i < this.actors.size() - 1; i++) {
 			this.actors.get(i).tell(new ActorMsg.MoveBodies(this.getContext().getSelf(), moveBodies, this.matrixBF,
-					firstBody, nBodiesPerActor, this.deltaTime));
+					this.bodies, firstBody, nBodiesPerActor, this.deltaTime, this.integrator, this.stage));
 			firstBody += nBodiesPerActor;
 		}
 		this.actors.get(this.actors.size() - 1).tell(new ActorMsg.MoveBodies(this.getContext().getSelf(), moveBodies,
-				this.matrixBF, firstBody, this.nBodies - firstBody, this.deltaTime));
+				this.matrixBF, this.bodies, firstBody, this.nBodies - firstBody, this.deltaTime, this.integrator,
+				this.stage));
 
 		return this;
 	}
@@ -178,7 +196,15 @@ public class MainActor extends AbstractBehavior<MainActorMsg> {
 		this.nActorsBodyMoveCompleted++;
 
 		if (this.nActorsBodyMoveCompleted == MainActor.N_ACTORS) {
-			bodiesMoved.getMoveFuture().complete(this.bodies);
+			if (this.integrator.movesBodies(this.stage)) {
+				this.forcesCalculated = false;
+			}
+			this.stage++;
+			if (this.stage < this.integrator.getStages()) {
+				this.runStage(this.step);
+			} else {
+				bodiesMoved.getMoveFuture().complete(this.bodies);
+			}
 		}
 
 		return this;
@@ -187,6 +213,7 @@ public class MainActor extends AbstractBehavior<MainActorMsg> {
 	/* Sets the Bodies */
 	private Behavior<MainActorMsg> onSetBodies(final SetBodies setBodies) {
 		this.bodies = setBodies.getBodies();
+		this.forcesCalculated = false;
 
 		return this;
 	}
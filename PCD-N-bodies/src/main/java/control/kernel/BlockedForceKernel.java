@@ -0,0 +1,217 @@
+package control.kernel;
+
+import java.lang.reflect.Constructor;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+import model.BodyStore;
+import model.Force;
+
+/**
+ * ForceKernel that splits the bodies into blocks sized to the cache: each block of sources, once loaded, is used
+ * against a whole block of targets before moving to the next one, instead of streaming all the sources for each
+ * target.
+ *
+ * The shared instance is a VectorForceKernel when it is available, unless the nbodies.kernel.vector system property
+ * is false. Its block size is chosen the first time it's used, timing the candidates on a sample of bodies, unless
+ * it is set by the nbodies.kernel.blockSize system property.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public class BlockedForceKernel implements ForceKernel {
+	public static final String BLOCK_SIZE_PROPERTY = "nbodies.kernel.blockSize";
+	public static final String VECTOR_PROPERTY = "nbodies.kernel.vector";
+
+	private static final String VECTOR_KERNEL_CLASS = "control.kernel.VectorForceKernel";
+
+	private static final int[] CANDIDATES = { 64, 128, 256, 512, 1024, 2048, 4096 };
+	private static final int TUNING_BODIES = 8192;
+	private static final int TUNING_ROWS = 256;
+	private static final int TUNING_ROUNDS = 2;  // The first one warms up the JIT
+
+	private final int blockSize;
+
+	public BlockedForceKernel(final int blockSize) {
+		super();
+		if (blockSize <= 0) {
+			throw new IllegalArgumentException("Block size must be greater than 0: " + blockSize);
+		}
+		this.blockSize = blockSize;
+	}
+
+	public static BlockedForceKernel getInstance() {
+		return InstanceHolder.INSTANCE;
+	}
+
+	@Override
+	public void accumulate(final BodyStore bodies, final int rowFrom, final int rowTo, final int colFrom,
+			final int colTo, final double[] forcesX, final double[] forcesY) {
+		final double[] mass = bodies.getMass();
+		final double[] posX = bodies.getPosX();
+		final double[] posY = bodies.getPosY();
+
+		for (int rowBlock = rowFrom; rowBlock < rowTo; rowBlock += this.blockSize) {
+			final int rowEnd = Math.min(rowBlock + this.blockSize, rowTo);
+			for (int colBlock = colFrom; colBlock < colTo; colBlock += this.blockSize) {
+				final int colEnd = Math.min(colBlock + this.blockSize, colTo);
+				for (int i = rowBlock; i < rowEnd; i++) {
+					this.accumulateRow(mass, posX, posY, i, colBlock, colEnd, forcesX, forcesY);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void accumulatePairs(final BodyStore bodies, final int rowFrom, final int rowTo, final int colFrom,
+			final int colTo, final double[] forcesX, final double[] forcesY) {
+		final double[] mass = bodies.getMass();
+		final double[] posX = bodies.getPosX();
+		final double[] posY = bodies.getPosY();
+
+		for (int rowBlock = rowFrom; rowBlock < rowTo; rowBlock += this.blockSize) {
+			final int rowEnd = Math.min(rowBlock + this.blockSize, rowTo);
+			for (int colBlock = Math.max(colFrom, rowBlock + 1); colBlock < colTo; colBlock += this.blockSize) {
+				final int colEnd = Math.min(colBlock + this.blockSize, colTo);
+				for (int i = rowBlock; i < rowEnd; i++) {
+					this.accumulateRowPairs(mass, posX, posY, i, Math.max(colBlock, i + 1), colEnd, forcesX,
+							forcesY);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void forEachPair(final int rowFrom, final int rowTo, final int colTo, final PairAction action) {
+		for (int rowBlock = rowFrom; rowBlock < rowTo; rowBlock += this.blockSize) {
+			final int rowEnd = Math.min(rowBlock + this.blockSize, rowTo);
+			for (int colBlock = rowBlock + 1; colBlock < colTo; colBlock += this.blockSize) {
+				final int colEnd = Math.min(colBlock + this.blockSize, colTo);
+				for (int i = rowBlock; i < rowEnd; i++) {
+					for (int j = Math.max(colBlock, i + 1); j < colEnd; j++) {
+						action.accept(i, j);
+					}
+				}
+			}
+		}
+	}
+
+	public int getBlockSize() {
+		return this.blockSize;
+	}
+
+	/**
+	 * Adds to (forcesX[i], forcesY[i]) the Forces exerted on the i-th body by the bodies j in [colFrom, colTo), with
+	 * j != i.
+	 */
+	protected void accumulateRow(final double[] mass, final double[] posX, final double[] posY, final int i,
+			final int colFrom, final int colTo, final double[] forcesX, final double[] forcesY) {
+		final double massi = mass[i];
+		final double posXi = posX[i];
+		final double posYi = posY[i];
+		double forceX = 0D;
+		double forceY = 0D;
+		for (int j = colFrom; j < colTo; j++) {
+			if (j == i) {
+				continue;
+			}
+			final double deltaX = posX[j] - posXi;
+			final double deltaY = posY[j] - posYi;
+			final double lambda = Force.getLambda(massi, mass[j], deltaX, deltaY);
+			forceX += deltaX * lambda;
+			forceY += deltaY * lambda;
+		}
+		forcesX[i] += forceX;
+		forcesY[i] += forceY;
+	}
+
+	/**
+	 * Calculates the Forces between the i-th body and the bodies j in [colFrom, colTo), with i < colFrom, adding them
+	 * to both, with opposite orientations.
+	 */
+	protected void accumulateRowPairs(final double[] mass, final double[] posX, final double[] posY, final int i,
+			final int colFrom, final int colTo, final double[] forcesX, final double[] forcesY) {
+		final double massi = mass[i];
+		final double posXi = posX[i];
+		final double posYi = posY[i];
+		double forceX = 0D;
+		double forceY = 0D;
+		for (int j = colFrom; j < colTo; j++) {
+			final double deltaX = posX[j] - posXi;
+			final double deltaY = posY[j] - posYi;
+			final double lambda = Force.getLambda(massi, mass[j], deltaX, deltaY);
+			forceX += deltaX * lambda;
+			forceY += deltaY * lambda;
+			forcesX[j] -= deltaX * lambda;
+			forcesY[j] -= deltaY * lambda;
+		}
+		forcesX[i] += forceX;
+		forcesY[i] += forceY;
+	}
+
+	/*
+	 * Returns the vector kernel of the given class if it's enabled and the jdk.incubator.vector module is available,
+	 * else the scalar one
+	 */
+	static BlockedForceKernel create(final String vectorKernelClass,
+			final IntFunction<BlockedForceKernel> scalarFactory) {
+		if (Boolean.parseBoolean(System.getProperty(BlockedForceKernel.VECTOR_PROPERTY, "true"))) {
+			try {
+				final Constructor<? extends BlockedForceKernel> constructor = Class.forName(vectorKernelClass)
+						.asSubclass(BlockedForceKernel.class).getConstructor(int.class);
+				// Instantiating it loads the vector classes too
+				constructor.newInstance(BlockedForceKernel.CANDIDATES[0]);
+				return BlockedForceKernel.tune(blockSize -> {
+					try {
+						return constructor.newInstance(blockSize);
+					} catch (final ReflectiveOperationException e) {
+						throw new IllegalStateException(e);
+					}
+				});
+			} catch (final ReflectiveOperationException | LinkageError e) {
+				// Not compiled or module not added: fall back to the scalar kernel
+			}
+		}
+		return BlockedForceKernel.tune(scalarFactory);
+	}
+
+	/* Returns the kernel with the block size set by the system property or, if missing, the fastest candidate */
+	private static BlockedForceKernel tune(final IntFunction<BlockedForceKernel> factory) {
+		final Integer blockSize = Integer.getInteger(BlockedForceKernel.BLOCK_SIZE_PROPERTY);
+		if (blockSize != null) {
+			return factory.apply(blockSize);
+		}
+
+		final Random random = new Random(0);
+		final BodyStore bodies = new BodyStore(BlockedForceKernel.TUNING_BODIES);
+		for (int i = 0; i < BlockedForceKernel.TUNING_BODIES; i++) {
+			bodies.set(i, 1D + random.nextDouble(), random.nextDouble(), random.nextDouble(), 0D, 0D);
+		}
+		final double[] forcesX = new double[BlockedForceKernel.TUNING_BODIES];
+		final double[] forcesY = new double[BlockedForceKernel.TUNING_BODIES];
+
+		int bestBlockSize = BlockedForceKernel.CANDIDATES[0];
+		for (int round = 0; round < BlockedForceKernel.TUNING_ROUNDS; round++) {
+			long bestTime = Long.MAX_VALUE;
+			for (final int candidate : BlockedForceKernel.CANDIDATES) {
+				final BlockedForceKernel kernel = factory.apply(candidate);
+				kernel.prepare(bodies);
+				final long start = System.nanoTime();
+				kernel.accumulate(bodies, 0, BlockedForceKernel.TUNING_ROWS, 0, BlockedForceKernel.TUNING_BODIES,
+						forcesX, forcesY);
+				final long time = System.nanoTime() - start;
+				if (time < bestTime) {
+					bestTime = time;
+					bestBlockSize = candidate;
+				}
+			}
+		}
+		return factory.apply(bestBlockSize);
+	}
+
+	/* Tunes the shared instance lazily, the first time it's requested */
+	private static class InstanceHolder {
+		private static final BlockedForceKernel INSTANCE = BlockedForceKernel
+				.create(BlockedForceKernel.VECTOR_KERNEL_CLASS, BlockedForceKernel::new);
+	}
+}
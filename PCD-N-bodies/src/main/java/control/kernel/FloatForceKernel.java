@@ -0,0 +1,137 @@
+package control.kernel;
+
+import model.BodyStore;
+import model.Force;
+import model.Position;
+
+/**
+ * BlockedForceKernel that reads the float copies of the masses and the positions (BodyStore.storeFloats, called by
+ * prepare) and calculates the Force of each pair in float precision, adding it to double accumulators: the rounding
+ * error of each pair Force doesn't pile up into the total Force of a body. Half the memory is read for the same
+ * bodies, and twice as many pairs fit in a SIMD lane.
+ *
+ * The shared instance is a VectorFloatForceKernel when it is available, as for BlockedForceKernel.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public class FloatForceKernel extends BlockedForceKernel {
+	protected static final float G = (float) Force.G;
+	protected static final float NULL_DISTANCE = (float) Position.NULL_DISTANCE;
+
+	private static final String VECTOR_KERNEL_CLASS = "control.kernel.VectorFloatForceKernel";
+
+	public FloatForceKernel(final int blockSize) {
+		super(blockSize);
+	}
+
+	public static BlockedForceKernel getInstance() {
+		return InstanceHolder.INSTANCE;
+	}
+
+	@Override
+	public void prepare(final BodyStore bodies) {
+		bodies.storeFloats();
+	}
+
+	@Override
+	public void accumulate(final BodyStore bodies, final int rowFrom, final int rowTo, final int colFrom,
+			final int colTo, final double[] forcesX, final double[] forcesY) {
+		final float[] mass = bodies.getFloatMass();
+		final float[] posX = bodies.getFloatPosX();
+		final float[] posY = bodies.getFloatPosY();
+
+		for (int rowBlock = rowFrom; rowBlock < rowTo; rowBlock += this.getBlockSize()) {
+			final int rowEnd = Math.min(rowBlock + this.getBlockSize(), rowTo);
+			for (int colBlock = colFrom; colBlock < colTo; colBlock += this.getBlockSize()) {
+				final int colEnd = Math.min(colBlock + this.getBlockSize(), colTo);
+				for (int i = rowBlock; i < rowEnd; i++) {
+					this.accumulateRow(mass, posX, posY, i, colBlock, colEnd, forcesX, forcesY);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void accumulatePairs(final BodyStore bodies, final int rowFrom, final int rowTo, final int colFrom,
+			final int colTo, final double[] forcesX, final double[] forcesY) {
+		final float[] mass = bodies.getFloatMass();
+		final float[] posX = bodies.getFloatPosX();
+		final float[] posY = bodies.getFloatPosY();
+
+		for (int rowBlock = rowFrom; rowBlock < rowTo; rowBlock += this.getBlockSize()) {
+			final int rowEnd = Math.min(rowBlock + this.getBlockSize(), rowTo);
+			for (int colBlock = Math.max(colFrom, rowBlock + 1); colBlock < colTo; colBlock += this.getBlockSize()) {
+				final int colEnd = Math.min(colBlock + this.getBlockSize(), colTo);
+				for (int i = rowBlock; i < rowEnd; i++) {
+					this.accumulateRowPairs(mass, posX, posY, i, Math.max(colBlock, i + 1), colEnd, forcesX,
+							forcesY);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds to (forcesX[i], forcesY[i]) the Forces exerted on the i-th body by the bodies j in [colFrom, colTo), with
+	 * j != i, each calculated in float precision.
+	 */
+	protected void accumulateRow(final float[] mass, final float[] posX, final float[] posY, final int i,
+			final int colFrom, final int colTo, final double[] forcesX, final double[] forcesY) {
+		final float massi = mass[i];
+		final float posXi = posX[i];
+		final float posYi = posY[i];
+		double forceX = 0D;
+		double forceY = 0D;
+		for (int j = colFrom; j < colTo; j++) {
+			if (j == i) {
+				continue;
+			}
+			final float deltaX = posX[j] - posXi;
+			final float deltaY = posY[j] - posYi;
+			final float lambda = FloatForceKernel.getLambda(massi, mass[j], deltaX, deltaY);
+			forceX += deltaX * lambda;
+			forceY += deltaY * lambda;
+		}
+		forcesX[i] += forceX;
+		forcesY[i] += forceY;
+	}
+
+	/**
+	 * Calculates the Forces between the i-th body and the bodies j in [colFrom, colTo), with i < colFrom, in float
+	 * precision, adding them to both, with opposite orientations.
+	 */
+	protected void accumulateRowPairs(final float[] mass, final float[] posX, final float[] posY, final int i,
+			final int colFrom, final int colTo, final double[] forcesX, final double[] forcesY) {
+		final float massi = mass[i];
+		final float posXi = posX[i];
+		final float posYi = posY[i];
+		double forceX = 0D;
+		double forceY = 0D;
+		for (int j = colFrom; j < colTo; j++) {
+			final float deltaX = posX[j] - posXi;
+			final float deltaY = posY[j] - posYi;
+			final float lambda = FloatForceKernel.getLambda(massi, mass[j], deltaX, deltaY);
+			forceX += deltaX * lambda;
+			forceY += deltaY * lambda;
+			forcesX[j] -= deltaX * lambda;
+			forcesY[j] -= deltaY * lambda;
+		}
+		forcesX[i] += forceX;
+		forcesY[i] += forceY;
+	}
+
+	/* Force.getLambda in float precision */
+	private static float getLambda(final float massi, final float massj, final float deltaX, final float deltaY) {
+		final float module = (float) Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+		if (module <= FloatForceKernel.NULL_DISTANCE) {
+			return 0F;
+		}
+		return massi * massj * FloatForceKernel.G / (module * module) / module;
+	}
+
+	/* Tunes the shared instance lazily, the first time it's requested */
+	private static class InstanceHolder {
+		private static final BlockedForceKernel INSTANCE = BlockedForceKernel
+				.create(FloatForceKernel.VECTOR_KERNEL_CLASS, FloatForceKernel::new);
+	}
+}
@@ -0,0 +1,60 @@
+package control.kernel;
+
+import model.BodyStore;
+
+/**
+ * Calculates the Forces between groups of bodies, visiting them in the order that best fits the hardware.
+ * Strategies get the best kernel available with ForceKernel.get().
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public interface ForceKernel {
+
+	/**
+	 * Adds to (forcesX[i], forcesY[i]), for each body i in [rowFrom, rowTo), the Forces exerted on it by the bodies
+	 * j in [colFrom, colTo), with j != i.
+	 */
+	void accumulate(BodyStore bodies, int rowFrom, int rowTo, int colFrom, int colTo, double[] forcesX,
+			double[] forcesY);
+
+	/**
+	 * Calculates the Force of each pair (i, j), with i in [rowFrom, rowTo), j in [colFrom, colTo) and i < j, and
+	 * adds it to (forcesX[i], forcesY[i]) and, with the opposite orientation, to (forcesX[j], forcesY[j]).
+	 */
+	void accumulatePairs(BodyStore bodies, int rowFrom, int rowTo, int colFrom, int colTo, double[] forcesX,
+			double[] forcesY);
+
+	/**
+	 * Runs the action on each pair (i, j), with i in [rowFrom, rowTo) and i < j < colTo, in the same order used to
+	 * calculate the Forces. Used by the strategies that don't store the bodies as a BodyStore.
+	 */
+	void forEachPair(int rowFrom, int rowTo, int colTo, PairAction action);
+
+	/**
+	 * Prepares the bodies for the accumulate calls that follow, once they have moved: strategies call it once for
+	 * each Force calculation.
+	 */
+	default void prepare(final BodyStore bodies) {
+		// Nothing to prepare
+	}
+
+	/**
+	 * Returns the default kernel.
+	 */
+	static ForceKernel get() {
+		return BlockedForceKernel.getInstance();
+	}
+
+	/**
+	 * Returns the default kernel of the given precision.
+	 */
+	static ForceKernel get(final Precision precision) {
+		return precision == Precision.FLOAT ? FloatForceKernel.getInstance() : BlockedForceKernel.getInstance();
+	}
+
+	@FunctionalInterface
+	interface PairAction {
+		void accept(int i, int j);
+	}
+}
@@ -0,0 +1,50 @@
+package control.kernel;
+
+/**
+ * Splits the rows of the pair space (i, j), with i < j < rowSize, into ranges holding the same number of pairs.
+ * Row i has rowSize - i - 1 pairs, so splitting by row count gives the first range far more work than the last one.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public final class PairPartitioner {
+
+	private PairPartitioner() {
+		super();
+	}
+
+	/**
+	 * Splits the rows [0, nRows) into nParts ranges of (almost) the same number of pairs.
+	 * The part p is made of the rows [bounds[p], bounds[p + 1]): some parts may be empty if nRows < nParts.
+	 */
+	public static int[] split(final int nRows, final int rowSize, final int nParts) {
+		final int[] bounds = new int[nParts + 1];
+		final long totalPairs = PairPartitioner.getPairs(nRows, rowSize);
+		for (int p = 1; p < nParts; p++) {
+			final long target = Math.round((double) totalPairs * p / nParts);
+
+			// The first row whose preceding ones hold at least target pairs
+			int low = bounds[p - 1];
+			int high = nRows;
+			while (low < high) {
+				final int mid = low + (high - low) / 2;
+				if (PairPartitioner.getPairs(mid, rowSize) < target) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			bounds[p] = low;
+		}
+		bounds[nParts] = nRows;
+		return bounds;
+	}
+
+	/**
+	 * Returns the number of pairs held by the rows [0, row): row * (rowSize - 1) - row * (row - 1) / 2
+	 */
+	public static long getPairs(final int row, final int rowSize) {
+		final long rows = Math.min(row, rowSize);
+		return rows * (rowSize - 1) - rows * (rows - 1) / 2;
+	}
+}
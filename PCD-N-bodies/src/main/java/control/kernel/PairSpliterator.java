@@ -0,0 +1,119 @@
+package control.kernel;
+
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Spliterator over the pairs (i, j), with i < j < rowSize, row by row. Each pair is packed into a long as
+ * (i << 32 | j): PairSpliterator.getI() and PairSpliterator.getJ() unpack it.
+ * It splits at the middle pair, not at the middle row, so that parallel streams get halves of the same work: the
+ * first rows hold more pairs than the last ones.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public class PairSpliterator implements Spliterator.OfLong {
+	private final int rowSize;
+	private long index;  // Of the next pair, counted row by row
+	private final long fence;  // One past the last pair
+	private int i;  // The next pair
+	private int j;
+
+	public PairSpliterator(final int rowSize) {
+		this(rowSize, 0L, PairPartitioner.getPairs(rowSize, rowSize));
+	}
+
+	private PairSpliterator(final int rowSize, final long index, final long fence) {
+		super();
+		this.rowSize = rowSize;
+		this.fence = fence;
+		this.moveTo(index);
+	}
+
+	/**
+	 * Returns a stream of all the pairs of rowSize bodies
+	 */
+	public static LongStream pairs(final int rowSize, final boolean parallel) {
+		return StreamSupport.longStream(new PairSpliterator(rowSize), parallel);
+	}
+
+	public static int getI(final long pair) {
+		return (int) (pair >>> 32);
+	}
+
+	public static int getJ(final long pair) {
+		return (int) pair;
+	}
+
+	@Override
+	public boolean tryAdvance(final LongConsumer action) {
+		if (this.index >= this.fence) {
+			return false;
+		}
+		action.accept((long) this.i << 32 | this.j);
+		this.index++;
+		if (++this.j == this.rowSize) {
+			this.i++;
+			this.j = this.i + 1;
+		}
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(final LongConsumer action) {
+		while (this.index < this.fence) {
+			final int lastJ = (int) Math.min(this.rowSize, this.j + (this.fence - this.index));
+			for (int j = this.j; j < lastJ; j++) {
+				action.accept((long) this.i << 32 | j);
+			}
+			this.index += lastJ - this.j;
+			if (lastJ == this.rowSize) {
+				this.i++;
+				this.j = this.i + 1;
+			} else {
+				this.j = lastJ;
+			}
+		}
+	}
+
+	@Override
+	public Spliterator.OfLong trySplit() {
+		final long mid = this.index + (this.fence - this.index) / 2;
+		if (mid == this.index) {
+			return null;
+		}
+		final PairSpliterator prefix = new PairSpliterator(this.rowSize, this.index, mid);
+		this.moveTo(mid);
+		return prefix;
+	}
+
+	@Override
+	public long estimateSize() {
+		return this.fence - this.index;
+	}
+
+	@Override
+	public int characteristics() {
+		return Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SIZED | Spliterator.SUBSIZED
+				| Spliterator.NONNULL | Spliterator.IMMUTABLE;
+	}
+
+	/* Moves to the pair of the given index: its row is the last one whose preceding rows hold no more pairs */
+	private void moveTo(final long index) {
+		int low = 0;
+		int high = Math.max(this.rowSize - 1, 0);
+		while (low < high) {
+			final int mid = low + (high - low + 1) / 2;
+			if (PairPartitioner.getPairs(mid, this.rowSize) <= index) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		this.index = index;
+		this.i = low;
+		this.j = low + 1 + (int) (index - PairPartitioner.getPairs(low, this.rowSize));
+	}
+}
@@ -0,0 +1,27 @@
+package control.kernel;
+
+/**
+ * Enumeration of the precisions a ForceKernel calculates the Force of each pair with.
+ * It's used to choose the kernel (ForceKernel.get) and populate a ComboBox to choose amongst them.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public enum Precision {
+	/* Double storage and pair Forces */
+	DOUBLE,
+	/* Float storage and pair Forces, double accumulators for the total Force of each body */
+	FLOAT;
+
+	@Override
+	public String toString() {
+		switch (this) {
+		case DOUBLE:
+			return "DOUBLE";
+		case FLOAT:
+			return "FLOAT";
+		default:
+			return "ERR";
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package control.kernel;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import model.BodyStore;
+
+/**
+ * Reports the error of the Forces calculated in float precision (FloatForceKernel) against the double precision
+ * ones (BlockedForceKernel), relative to the module of each double Force.
+ * At most SAMPLE_BODIES bodies, evenly spaced, are checked, each against all the bodies: the report costs as much as
+ * a few rows of a step even for many bodies.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public class PrecisionReport {
+	public static final int SAMPLE_BODIES = 1024;
+
+	private final int samples;  // Bodies checked, the ones subjected to no Force excluded
+	private final double maxError;
+	private final double meanError;
+
+	public PrecisionReport(final int samples, final double maxError, final double meanError) {
+		super();
+		this.samples = samples;
+		this.maxError = maxError;
+		this.meanError = meanError;
+	}
+
+	/**
+	 * Calculates the Forces of the sampled bodies with both the kernels and compares them
+	 */
+	public static PrecisionReport of(final BodyStore bodies) {
+		final int nBodies = bodies.size();
+		final int stride = Math.max(1, (nBodies + PrecisionReport.SAMPLE_BODIES - 1) / PrecisionReport.SAMPLE_BODIES);
+		final int nSamples = (nBodies + stride - 1) / stride;
+		final double[] errors = new double[nSamples];
+
+		// Each row only adds to its own element: the samples share the arrays
+		final double[] doubleForcesX = new double[nBodies];
+		final double[] doubleForcesY = new double[nBodies];
+		final double[] floatForcesX = new double[nBodies];
+		final double[] floatForcesY = new double[nBodies];
+		final ForceKernel doubleKernel = ForceKernel.get(Precision.DOUBLE);
+		final ForceKernel floatKernel = ForceKernel.get(Precision.FLOAT);
+		doubleKernel.prepare(bodies);
+		floatKernel.prepare(bodies);
+		IntStream.range(0, nSamples).parallel().forEach(k -> {
+			final int i = k * stride;
+			doubleKernel.accumulate(bodies, i, i + 1, 0, nBodies, doubleForcesX, doubleForcesY);
+			floatKernel.accumulate(bodies, i, i + 1, 0, nBodies, floatForcesX, floatForcesY);
+			final double module = Math.hypot(doubleForcesX[i], doubleForcesY[i]);
+			errors[k] = module > 0
+					? Math.hypot(floatForcesX[i] - doubleForcesX[i], floatForcesY[i] - doubleForcesY[i]) / module
+					: Double.NaN;
+		});
+
+		final double[] checked = Arrays.stream(errors).filter(error -> !Double.isNaN(error)).toArray();
+		return new PrecisionReport(checked.length, Arrays.stream(checked).max().orElse(0D),
+				Arrays.stream(checked).average().orElse(0D));
+	}
+
+	public int getSamples() {
+		return this.samples;
+	}
+
+	public double getMaxError() {
+		return this.maxError;
+	}
+
+	public double getMeanError() {
+		return this.meanError;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("max %.1e, mean %.1e over %d bodies", this.maxError, this.meanError, this.samples);
+	}
+}
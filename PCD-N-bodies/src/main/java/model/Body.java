@@ -27,16 +27,57 @@ public class Body {
 		if (force == null) {
 			return this;
 		}
-		final Vector acceleration = Vector.multiplyScalar(force, 1 / this.mass);  // ai = Fi / mi
-		final Vector deltaSpeed = Vector.multiplyScalar(acceleration, deltaTime);  // dvi= ai * dt
+		return this.apply(force.getXComp(), force.getYComp(), deltaTime);
+	}
+
+	/**
+	 * Applies the force vector (forceX, forceY) to the body for a certain amount of time, without creating any
+	 * object.
+	 */
+	public Body apply(final double forceX, final double forceY, final double deltaTime) {
+		return this.apply(forceX, forceY, deltaTime, Integrator.EXPLICIT, 0);
+	}
 
-		// dpi = 0.5 * ai * dt2 + vi * dt = (ai * dt / 2 + vi) * dt = (dvi / 2 + vi) * dt
-		this.position
-				.move(Vector.multiplyScalar(deltaSpeed, 0.5).sum(this.speed).multiplyScalar(deltaTime).toPosition());
-		this.speed.sum(deltaSpeed);  // vi = v0i + dvi
+	/**
+	 * Applies the stage of the Integrator step to the body, the force vector (forceX, forceY) being the one
+	 * calculated for the stage, without creating any object.
+	 */
+	public Body apply(final double forceX, final double forceY, final double deltaTime, final Integrator integrator,
+			final int stage) {
+		final double inverseMass = 1 / this.mass;
+		final double deltaSpeedX = forceX * inverseMass * deltaTime;  // dvi= ai * dt = Fi / mi * dt
+		final double deltaSpeedY = forceY * inverseMass * deltaTime;
+		final double kick = integrator.getKick(stage);
+		final double driftTime = integrator.getDrift(stage) * deltaTime;
+
+		// dpi = (kick * dvi + vi) * drift * dt, that is (dvi / 2 + vi) * dt for the EXPLICIT Integrator
+		this.position.move((deltaSpeedX * kick + this.speed.getXComp()) * driftTime,
+				(deltaSpeedY * kick + this.speed.getYComp()) * driftTime);
+		final double totalKick = kick + integrator.getClosingKick(stage);
+		this.speed.sum(deltaSpeedX * totalKick, deltaSpeedY * totalKick);  // vi = v0i + dvi
 		return this;
 	}
 
+	/**
+	 * Copies the position and the speed of the source body into this one, without creating any object.
+	 * The mass is left untouched: the bodies are expected to be two states of the same one.
+	 */
+	public Body setState(final Body source) {
+		this.position.setX(source.position.getX());
+		this.position.setY(source.position.getY());
+		this.speed.setXComp(source.speed.getXComp());
+		this.speed.setYComp(source.speed.getYComp());
+		return this;
+	}
+
+	/**
+	 * Creates a new body with the same mass, position and speed of this one
+	 */
+	public Body copy() {
+		return new Body(this.mass, new Position(this.position.getX(), this.position.getY()),
+				new Vector(this.speed.getXComp(), this.speed.getYComp()));
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -0,0 +1,118 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Buffers of the Bodies of the System, each buffer holding Body objects of its own: the published one, holding the
+ * state published by the last step, and two more written in turn by the stages of the next step (Integrator).
+ * A stage reads the front buffer and writes into the back one, then swap() makes the moved bodies the front of the
+ * next stage; the published buffer is never written by the step, which publishes its last stage at its end.
+ *
+ * Readers get the published buffer as a consistent snapshot without locks or copies, and dropping a step is just not
+ * publishing it: nothing has to be reverted. A snapshot stays consistent until the step after the next one starts
+ * writing into it.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public class BodyBuffer {
+	private static final int N_BUFFERS = 3;
+
+	private final Body[][] buffers;
+	private volatile int published;
+	private int front;  // Read by the running stage: the published buffer in the first stage
+	private int back;  // Written by the running stage: never the published buffer
+
+	public BodyBuffer(final int size) {
+		super();
+		this.buffers = new Body[BodyBuffer.N_BUFFERS][size];
+		this.published = 0;
+		this.front = 0;
+		this.back = 1;
+	}
+
+	/**
+	 * Creates a new BodyBuffer copying the given bodies
+	 */
+	public static BodyBuffer of(final List<Body> bodies) {
+		final BodyBuffer buffer = new BodyBuffer(bodies.size());
+		for (int i = 0; i < bodies.size(); i++) {
+			buffer.set(i, bodies.get(i).copy());
+		}
+		return buffer;
+	}
+
+	/**
+	 * Sets the i-th body in the published buffer, and a copy of it in the other ones. Used to create the bodies.
+	 */
+	public void set(final int i, final Body body) {
+		for (int k = 0; k < BodyBuffer.N_BUFFERS; k++) {
+			this.buffers[k][i] = k == this.published ? body : body.copy();
+		}
+	}
+
+	/**
+	 * Returns the state of the i-th body read by the running stage, the published one in the first stage: it must not
+	 * be modified
+	 */
+	public Body get(final int i) {
+		return this.buffers[this.front][i];
+	}
+
+	/**
+	 * Writes into the back buffer the i-th body moved by the force vector (forceX, forceY), without creating any
+	 * object.
+	 */
+	public Body move(final int i, final double forceX, final double forceY, final double deltaTime) {
+		return this.move(i, forceX, forceY, deltaTime, Integrator.EXPLICIT, 0);
+	}
+
+	/**
+	 * Writes into the back buffer the i-th body moved by the stage of the Integrator step, without creating any
+	 * object.
+	 */
+	public Body move(final int i, final double forceX, final double forceY, final double deltaTime,
+			final Integrator integrator, final int stage) {
+		return this.buffers[this.back][i].setState(this.buffers[this.front][i]).apply(forceX, forceY, deltaTime,
+				integrator, stage);
+	}
+
+	/**
+	 * Ends a stage, once it has written all of its bodies: the next stage reads them, and writes into the buffer
+	 * which is neither published nor read. Called by the step Thread only.
+	 */
+	public void swap() {
+		final int moved = this.back;
+		this.back = BodyBuffer.N_BUFFERS - moved - this.published;  // 0 + 1 + 2 = 3
+		this.front = moved;
+	}
+
+	/**
+	 * Ends the last stage and publishes it, once it has written all of its bodies. Called by the step Thread only.
+	 */
+	public void publish() {
+		this.swap();
+		this.published = this.front;
+	}
+
+	/**
+	 * Drops the stages run since the last publish(): the next stage reads the published bodies again.
+	 * Called by the step Thread only.
+	 */
+	public void drop() {
+		this.front = this.published;
+	}
+
+	/**
+	 * Returns the published bodies as a snapshot, unaffected by the running step
+	 */
+	public List<Body> asList() {
+		return Collections.unmodifiableList(Arrays.asList(this.buffers[this.published]));
+	}
+
+	public int size() {
+		return this.buffers[0].length;
+	}
+}
@@ -0,0 +1,230 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.PrimitiveIterator.OfDouble;
+import java.util.Random;
+
+/**
+ * Stores the Bodies of the System as a Structure of Arrays: one contiguous array for each of mass, position (x, y)
+ * and speed (x, y) components.
+ * The i-th Body is made of the i-th element of each array. No Body object is needed while the bodies move, which
+ * keeps the working set small and cache-friendly.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public class BodyStore {
+	private final int size;
+	private final double[] mass;  // kg
+	private final double[] posX;  // m
+	private final double[] posY;  // m
+	private final double[] speedX;  // m/s
+	private final double[] speedY;  // m/s
+	private float[] floatMass;  // Float copies, made by storeFloats()
+	private float[] floatPosX;
+	private float[] floatPosY;
+
+	public BodyStore(final int size) {
+		super();
+		this.size = size;
+		this.mass = new double[size];
+		this.posX = new double[size];
+		this.posY = new double[size];
+		this.speedX = new double[size];
+		this.speedY = new double[size];
+	}
+
+	/**
+	 * Creates a new BodyStore copying the values of the given bodies
+	 */
+	public static BodyStore of(final List<Body> bodies) {
+		final BodyStore store = new BodyStore(bodies.size());
+		for (int i = 0; i < store.size; i++) {
+			store.set(i, bodies.get(i));
+		}
+		return store;
+	}
+
+	/**
+	 * Creates a new BodyStore copying the values of this one
+	 */
+	public BodyStore copy() {
+		final BodyStore store = new BodyStore(this.size);
+		this.copyTo(store);
+		return store;
+	}
+
+	/**
+	 * Copies the values of this BodyStore into the given one, of the same size
+	 */
+	public void copyTo(final BodyStore store) {
+		if (store.size != this.size) {
+			throw new IllegalArgumentException("Expected " + this.size + " bodies: " + store.size);
+		}
+		System.arraycopy(this.mass, 0, store.mass, 0, this.size);
+		System.arraycopy(this.posX, 0, store.posX, 0, this.size);
+		System.arraycopy(this.posY, 0, store.posY, 0, this.size);
+		System.arraycopy(this.speedX, 0, store.speedX, 0, this.size);
+		System.arraycopy(this.speedY, 0, store.speedY, 0, this.size);
+	}
+
+	/**
+	 * Sets the values of all the bodies drawing them from the given Random, within the given ranges: the same seed
+	 * creates the same bodies
+	 */
+	public void createBodies(final Random random, final double minMass, final double maxMass, final double maxPosX,
+			final double maxPosY, final double minSpeed, final double maxSpeed) {
+		final OfDouble massGenerator = random.doubles(minMass, maxMass).iterator();
+		final OfDouble positionXGenerator = random.doubles(0.0, maxPosX).iterator();
+		final OfDouble positionYGenerator = random.doubles(0.0, maxPosY).iterator();
+		final OfDouble speedGenerator = random.doubles(minSpeed, maxSpeed).iterator();
+
+		for (int i = 0; i < this.size; i++) {
+			this.set(i, massGenerator.nextDouble(), positionXGenerator.nextDouble(), positionYGenerator.nextDouble(),
+					speedGenerator.nextDouble(), speedGenerator.nextDouble());
+		}
+	}
+
+	/**
+	 * Copies the values of the given Body into the i-th position
+	 */
+	public void set(final int i, final Body body) {
+		this.set(i, body.getMass(), body.getPosition().getX(), body.getPosition().getY(), body.getSpeed().getXComp(),
+				body.getSpeed().getYComp());
+	}
+
+	public void set(final int i, final double mass, final double posX, final double posY, final double speedX,
+			final double speedY) {
+		this.mass[i] = mass;
+		this.posX[i] = posX;
+		this.posY[i] = posY;
+		this.speedX[i] = speedX;
+		this.speedY[i] = speedY;
+	}
+
+	/**
+	 * Creates a new Body from the values in the i-th position
+	 */
+	public Body get(final int i) {
+		return new Body(this.mass[i], new Position(this.posX[i], this.posY[i]),
+				new Vector(this.speedX[i], this.speedY[i]));
+	}
+
+	/**
+	 * Applies a force (forceX, forceY) to the i-th body for a certain amount of time.
+	 * Same as Body.apply, without creating any object.
+	 */
+	public void apply(final int i, final double forceX, final double forceY, final double deltaTime) {
+		this.apply(i, forceX, forceY, deltaTime, Integrator.EXPLICIT, 0);
+	}
+
+	/**
+	 * Applies the stage of the Integrator step to the i-th body, the force (forceX, forceY) being the one calculated
+	 * for the stage. Same as Body.apply, without creating any object.
+	 */
+	public void apply(final int i, final double forceX, final double forceY, final double deltaTime,
+			final Integrator integrator, final int stage) {
+		final double inverseMass = 1 / this.mass[i];
+		final double deltaSpeedX = forceX * inverseMass * deltaTime;  // dvi= Fi / mi * dt
+		final double deltaSpeedY = forceY * inverseMass * deltaTime;
+		final double kick = integrator.getKick(stage);
+		final double driftTime = integrator.getDrift(stage) * deltaTime;
+
+		// dpi = (kick * dvi + vi) * drift * dt
+		this.posX[i] += (deltaSpeedX * kick + this.speedX[i]) * driftTime;
+		this.posY[i] += (deltaSpeedY * kick + this.speedY[i]) * driftTime;
+		final double totalKick = kick + integrator.getClosingKick(stage);
+		this.speedX[i] += deltaSpeedX * totalKick;  // vi = v0i + dvi
+		this.speedY[i] += deltaSpeedY * totalKick;
+	}
+
+	/**
+	 * Changes the speed of the i-th body by the force (forceX, forceY) applied for a certain amount of time, leaving
+	 * its position untouched.
+	 */
+	public void kick(final int i, final double forceX, final double forceY, final double deltaTime) {
+		final double inverseMass = 1 / this.mass[i];
+		this.speedX[i] += forceX * inverseMass * deltaTime;  // dvi= Fi / mi * dt
+		this.speedY[i] += forceY * inverseMass * deltaTime;
+	}
+
+	/**
+	 * Moves the i-th body by its speed for a certain amount of time, leaving its speed untouched.
+	 */
+	public void drift(final int i, final double deltaTime) {
+		this.posX[i] += this.speedX[i] * deltaTime;  // dpi = vi * dt
+		this.posY[i] += this.speedY[i] * deltaTime;
+	}
+
+	/**
+	 * Copies the masses and the positions into the float arrays, rounding them: used by the kernels that calculate the
+	 * Forces in float precision, once the bodies have moved.
+	 */
+	public void storeFloats() {
+		if (this.floatMass == null) {
+			this.floatMass = new float[this.size];
+			this.floatPosX = new float[this.size];
+			this.floatPosY = new float[this.size];
+		}
+		for (int i = 0; i < this.size; i++) {
+			this.floatMass[i] = (float) this.mass[i];
+			this.floatPosX[i] = (float) this.posX[i];
+			this.floatPosY[i] = (float) this.posY[i];
+		}
+	}
+
+	/**
+	 * Returns a read-only List view of the stored bodies.
+	 * Each get() creates a new Body holding the current values, so changes to it are not reflected in the store.
+	 */
+	public List<Body> asList() {
+		return new AbstractList<Body>() {
+			@Override
+			public Body get(final int index) {
+				return BodyStore.this.get(index);
+			}
+
+			@Override
+			public int size() {
+				return BodyStore.this.size;
+			}
+		};
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public double[] getMass() {
+		return this.mass;
+	}
+
+	public double[] getPosX() {
+		return this.posX;
+	}
+
+	public double[] getPosY() {
+		return this.posY;
+	}
+
+	public double[] getSpeedX() {
+		return this.speedX;
+	}
+
+	public double[] getSpeedY() {
+		return this.speedY;
+	}
+
+	public float[] getFloatMass() {
+		return this.floatMass;
+	}
+
+	public float[] getFloatPosX() {
+		return this.floatPosX;
+	}
+
+	public float[] getFloatPosY() {
+		return this.floatPosY;
+	}
+}
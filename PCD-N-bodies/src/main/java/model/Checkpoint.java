@@ -0,0 +1,148 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * State of a simulation saved to a binary file: the bodies and the number of steps they have run.
+ *
+ * The file has a fixed layout, little-endian: a HEADER_BYTES header (MAGIC, VERSION, number of bodies, step count),
+ * then the arrays of the BodyStore one after the other: mass, posX, posY, speedX, speedY. Each array is copied in
+ * bulk through a direct buffer of CHUNK_BYTES, with no parsing.
+ * A new file replaces the previous one only once completely written and forced to the disk, so a crash while
+ * writing leaves the last one. The files are not memory-mapped: on Windows a mapped file can be neither replaced
+ * nor overwritten until the mapping is collected.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public class Checkpoint {
+	public static final int MAGIC = 0x4E42434B;  // "NBCK"
+	public static final int VERSION = 1;
+	public static final int HEADER_BYTES = 32;  // Keeps the arrays aligned to 8 bytes
+	static final int CHUNK_BYTES = 1 << 20;  // Of the buffer the file is written and read through
+	private static final int ARRAYS = 5;
+
+	private final BodyStore bodies;
+	private final long step;
+
+	public Checkpoint(final BodyStore bodies, final long step) {
+		super();
+		this.bodies = bodies;
+		this.step = step;
+	}
+
+	/**
+	 * Writes the bodies and the step count into the file, replacing it
+	 */
+	public static void write(final Path path, final BodyStore bodies, final long step) throws IOException {
+		final Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			final ByteBuffer buffer = ByteBuffer.allocateDirect(Checkpoint.CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			buffer.putInt(Checkpoint.MAGIC).putInt(Checkpoint.VERSION).putInt(bodies.size()).putInt(0).putLong(step);
+			buffer.position(Checkpoint.HEADER_BYTES);
+			for (final double[] array : Checkpoint.getArrays(bodies)) {
+				int from = 0;
+				while (from < array.length) {
+					if (!buffer.hasRemaining()) {
+						Checkpoint.flush(channel, buffer);
+					}
+					final int count = Math.min(array.length - from, buffer.remaining() / Double.BYTES);
+					buffer.asDoubleBuffer().put(array, from, count);
+					buffer.position(buffer.position() + count * Double.BYTES);
+					from += count;
+				}
+			}
+			Checkpoint.flush(channel, buffer);
+			channel.force(true);
+		}
+		try {
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (@SuppressWarnings("unused") final AtomicMoveNotSupportedException e) {
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Reads the bodies and the step count from the file
+	 */
+	public static Checkpoint read(final Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() < Checkpoint.HEADER_BYTES) {
+				throw new IOException("Not a checkpoint: " + path);
+			}
+			final ByteBuffer buffer = ByteBuffer.allocateDirect(Checkpoint.CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			buffer.limit(Checkpoint.HEADER_BYTES);
+			Checkpoint.fill(channel, buffer, path);
+			final int magic = buffer.getInt();
+			final int version = buffer.getInt();
+			final int nBodies = buffer.getInt();
+			buffer.getInt();  // Padding
+			final long step = buffer.getLong();
+			if (magic != Checkpoint.MAGIC || version != Checkpoint.VERSION || nBodies < 0
+					|| channel.size() != Checkpoint.getBytes(nBodies)) {
+				throw new IOException("Not a checkpoint of version " + Checkpoint.VERSION + ": " + path);
+			}
+
+			final BodyStore bodies = new BodyStore(nBodies);
+			for (final double[] array : Checkpoint.getArrays(bodies)) {
+				int from = 0;
+				while (from < array.length) {
+					buffer.clear();
+					buffer.limit(Math.min(Checkpoint.CHUNK_BYTES, (array.length - from) * Double.BYTES));
+					Checkpoint.fill(channel, buffer, path);
+					final int count = buffer.remaining() / Double.BYTES;
+					buffer.asDoubleBuffer().get(array, from, count);
+					from += count;
+				}
+			}
+			return new Checkpoint(bodies, step);
+		}
+	}
+
+	public BodyStore getBodies() {
+		return this.bodies;
+	}
+
+	public long getStep() {
+		return this.step;
+	}
+
+	/* Returns the arrays of the bodies, in the order they are in the file */
+	private static double[][] getArrays(final BodyStore bodies) {
+		return new double[][] { bodies.getMass(), bodies.getPosX(), bodies.getPosY(), bodies.getSpeedX(),
+				bodies.getSpeedY() };
+	}
+
+	/* Writes the buffer to the file and clears it */
+	private static void flush(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/* Reads from the file up to the limit of the buffer, then flips it */
+	private static void fill(final FileChannel channel, final ByteBuffer buffer, final Path path) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0) {
+				throw new IOException("Not a checkpoint: " + path);
+			}
+		}
+		buffer.flip();
+	}
+
+	/* Returns the size of the file of the given bodies */
+	private static long getBytes(final int nBodies) {
+		return Checkpoint.HEADER_BYTES + (long) Checkpoint.ARRAYS * nBodies * Double.BYTES;
+	}
+}
@@ -1,7 +1,5 @@
 package model;
 
-import java.util.Arrays;
-
 /**
  * Represents a Force between two bodies
  *
@@ -11,7 +9,7 @@ import java.util.Arrays;
 public class Force extends Vector {
 	public static final Force NULL = new Force(0D, 0D);
 
-	private static final double G = 6.67408 * Math.pow(10, -11);  // N*m^2/kg^2
+	public static final double G = 6.67408 * Math.pow(10, -11);  // N*m^2/kg^2
 
 	public Force(final double vectorX, final double vectorY) {
 		super(vectorX, vectorY);
@@ -45,20 +43,57 @@ public class Force extends Vector {
 		if (bi == null || bj == null) {
 			return Force.NULL;
 		}
-		final Position biPosition = bi.getPosition();
-		final Position bjPosition = bj.getPosition();
-		final double distance = Position.getDistance(biPosition, bjPosition);
-		if (distance == Position.NULL_DISTANCE) {
+		final double deltaX = bj.getPosition().getX() - bi.getPosition().getX();
+		final double deltaY = bj.getPosition().getY() - bi.getPosition().getY();
+		final double lambda = Force.getLambda(bi.getMass(), bj.getMass(), deltaX, deltaY);
+		if (lambda == 0D) {
 			return Force.NULL;
 		}
+		return new Force(deltaX * lambda, deltaY * lambda);
+	}
 
-		final Vector direction = Position.getDifference(biPosition, bjPosition).toVector();
-		final double module = bi.getMass() * bj.getMass() * Force.G / Math.pow(distance, 2);
+	/**
+	 * Adds the Force the body bj exerts on the body bi to the accumulator, without creating any object.
+	 */
+	public static Vector accumulate(final Body bi, final Body bj, final Vector accumulator) {
+		if (bi == null || bj == null) {
+			return accumulator;
+		}
+		final double deltaX = bj.getPosition().getX() - bi.getPosition().getX();
+		final double deltaY = bj.getPosition().getY() - bi.getPosition().getY();
+		final double lambda = Force.getLambda(bi.getMass(), bj.getMass(), deltaX, deltaY);
+		return accumulator.sum(deltaX * lambda, deltaY * lambda);
+	}
 
-		/* Lamba is used to create a Force vector which module is exactly "module"
-		 * It's the ratio factor to be applied to the direction vector to get the Force vector */
-		final double lambda = module / direction.getModule();
-		return new Force(direction.multiplyScalar(lambda));
+	/**
+	 * Calculates the Force existing between the bodies bi and bj once and adds it to both accumulators, with
+	 * opposite orientations (Newton's third law), without creating any object.
+	 */
+	public static void accumulate(final Body bi, final Body bj, final Vector accumulatori,
+			final Vector accumulatorj) {
+		if (bi == null || bj == null) {
+			return;
+		}
+		final double deltaX = bj.getPosition().getX() - bi.getPosition().getX();
+		final double deltaY = bj.getPosition().getY() - bi.getPosition().getY();
+		final double lambda = Force.getLambda(bi.getMass(), bj.getMass(), deltaX, deltaY);
+		accumulatori.sum(deltaX * lambda, deltaY * lambda);
+		accumulatorj.sum(-deltaX * lambda, -deltaY * lambda);
+	}
+
+	/**
+	 * Calculates the lambda ratio factor of the Force existing between two bodies, given their masses and the
+	 * distance between them as (deltaX, deltaY).
+	 * The Force vector is (deltaX * lambda, deltaY * lambda), as in Force.get, but no object is created.
+	 */
+	public static double getLambda(final double massi, final double massj, final double deltaX,
+			final double deltaY) {
+		final double module = Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+		final double distance = Math.max(module, Position.NULL_DISTANCE);
+		if (distance == Position.NULL_DISTANCE) {
+			return 0D;
+		}
+		return massi * massj * Force.G / (distance * distance) / module;
 	}
 
 	/**
@@ -68,6 +103,10 @@ public class Force extends Vector {
 		if (forces == null || forces.length == 0) {
 			return Force.NULL;
 		}
-		return Arrays.asList(forces).stream().reduce(new Force(0.0D, 0.0D), (fi, fj) -> (Force) fi.sum(fj));
+		final Force sum = new Force(0.0D, 0.0D);
+		for (final Force force : forces) {
+			sum.sum(force);
+		}
+		return sum;
 	}
 }
@@ -0,0 +1,106 @@
+package model;
+
+/**
+ * Enumeration of the schemes used to integrate the motion of the bodies over a deltaTime step.
+ *
+ * A step is made of stages. In each stage the Force is calculated once, on the positions reached by the previous
+ * stage, then each body is kicked (its speed changes by a fraction of Force / mass * deltaTime), drifts (its position
+ * changes by its speed for a fraction of deltaTime) and is kicked again. The coefficients are plain doubles, applied
+ * to the primitive state of the bodies (Body.apply, BodyStore.apply) without creating any object.
+ *
+ * The stages that only drift don't need any Force, and the ones that only kick leave the positions, and so the
+ * Forces, as they were: the strategies can skip those calculations (usesForces, movesBodies).
+ *
+ * The symplectic schemes (all but EXPLICIT) keep the energy of the system bounded over long runs, so they stay
+ * accurate with a deltaTime 5-10 times greater: the same simulated time takes far fewer Force calculations.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public enum Integrator {
+	/* A single Force per step, applied as a uniform acceleration: dp = (dv / 2 + v) * dt, then v += dv */
+	EXPLICIT(new double[] { 0.5 }, new double[] { 1.0 }, new double[] { 0.5 }),
+	/* Drift-Kick-Drift: a single Force per step, calculated halfway */
+	LEAPFROG(new double[] { 0.0, 1.0 }, new double[] { 0.5, 0.5 }, new double[] { 0.0, 0.0 }),
+	/* Kick-Drift-Kick: the closing kick needs the Force on the new positions, which is the first one of next step */
+	VELOCITY_VERLET(new double[] { 0.5, 0.5 }, new double[] { 1.0, 0.0 }, new double[] { 0.0, 0.0 }),
+	/* 4th order: three Leapfrog steps of w1, w0, w1 * deltaTime, the middle one going backwards */
+	YOSHIDA4(Integrator.yoshidaKicks(), Integrator.yoshidaDrifts(), new double[] { 0.0, 0.0, 0.0, 0.0 });
+
+	private final double[] kicks;  // Fraction of deltaTime the Force is applied for, before the drift
+	private final double[] drifts;  // Fraction of deltaTime the bodies move for
+	private final double[] closingKicks;  // Fraction of deltaTime the same Force is applied for, after the drift
+
+	private Integrator(final double[] kicks, final double[] drifts, final double[] closingKicks) {
+		this.kicks = kicks;
+		this.drifts = drifts;
+		this.closingKicks = closingKicks;
+	}
+
+	@Override
+	public String toString() {
+		switch (this) {
+		case EXPLICIT:
+			return "EXPLICIT";
+		case LEAPFROG:
+			return "LEAPFROG";
+		case VELOCITY_VERLET:
+			return "VELOCITY VERLET";
+		case YOSHIDA4:
+			return "YOSHIDA 4";
+		default:
+			return "ERR";
+		}
+	}
+
+	/**
+	 * Returns the number of stages of a step
+	 */
+	public int getStages() {
+		return this.kicks.length;
+	}
+
+	public double getKick(final int stage) {
+		return this.kicks[stage];
+	}
+
+	public double getDrift(final int stage) {
+		return this.drifts[stage];
+	}
+
+	public double getClosingKick(final int stage) {
+		return this.closingKicks[stage];
+	}
+
+	/**
+	 * Returns true if the stage applies a Force, false if the bodies only drift: no Force needs to be calculated
+	 */
+	public boolean usesForces(final int stage) {
+		return this.kicks[stage] != 0D || this.closingKicks[stage] != 0D;
+	}
+
+	/**
+	 * Returns true if the stage moves the bodies, false if they are only kicked: the Forces stay the same
+	 */
+	public boolean movesBodies(final int stage) {
+		return this.drifts[stage] != 0D;
+	}
+
+	/* w1 = 1 / (2 - 2^(1/3)), w0 = 1 - 2 * w1 */
+	private static double yoshidaW1() {
+		return 1D / (2D - Math.cbrt(2D));
+	}
+
+	/* The bodies are kicked in the middle of each of the three Leapfrog steps */
+	private static double[] yoshidaKicks() {
+		final double w1 = Integrator.yoshidaW1();
+		return new double[] { 0D, w1, 1D - 2D * w1, w1 };
+	}
+
+	/* Consecutive half drifts of the three Leapfrog steps are merged */
+	private static double[] yoshidaDrifts() {
+		final double w1 = Integrator.yoshidaW1();
+		final double w0 = 1D - 2D * w1;
+		return new double[] { w1 * 0.5, (w1 + w0) * 0.5, (w0 + w1) * 0.5, w1 * 0.5 };
+	}
+}
@@ -0,0 +1,402 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+
+/**
+ * Stores the multipole and local expansions of the bodies potential over the nodes of a QuadTree, used to calculate
+ * the Forces with the Fast Multipole Method in O(n).
+ *
+ * The potential of the bodies, Phi(x) = sum(mj / |x - xj|), is expanded in Cartesian Taylor series up to the given
+ * order around the nodes centres of mass: a multipole expansion of the bodies inside each node and a local expansion
+ * of the bodies far from it. Multipole expansions are shifted up the tree (M2M); then a dual tree walk converts them
+ * into local expansions between well separated nodes (M2L) and calculates directly the Forces between near bodies
+ * (P2P); local expansions are finally shifted down the tree (L2L) and evaluated on the bodies (L2P).
+ * Being the tree adaptive, the cost stays linear even when the bodies are far from uniformly distributed.
+ *
+ * Each pass runs on the threads of a ForkJoinPool, forking a task for each child of the nodes holding enough bodies.
+ * Coefficient (a, b) multiplies dx^a * dy^b and is stored at index (a + b) * (a + b + 1) / 2 + b.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public class MultipoleTree {
+	private static final double MAC = 0.5;  // Nodes are well separated if (radiusA + radiusB) < MAC * distance
+	private static final int LEAF_SIZE = 32;
+	private static final int PARALLEL_THRESHOLD = 1 << 12;  // Bodies under which a node is processed sequentially
+
+	private final int order;
+	private final int nCoeffs;  // Coefficients per node
+	private final int[] powX;  // a of each coefficient
+	private final int[] powY;  // b of each coefficient
+	private final int p2pLimit;  // Bodies pairs under which direct calculation is cheaper than M2L
+
+	// Pairs of coefficients (big, small) with small <= big on both axes, used by M2M and L2L
+	private final int[] shiftBig;
+	private final int[] shiftSmall;
+	private final double[] shiftBinomials;
+
+	// M2L: L(row) += binomial * T(row + col) * M(col)
+	private final int[] m2lIndexes;
+	private final double[] m2lBinomials;
+	private final ThreadLocal<double[]> derivatives;
+
+	private final QuadTree tree;
+	private double[] radius;  // Max distance of the node bodies from its centre of mass
+	private double[] multipoles;
+	private double[] locals;
+
+	public MultipoleTree(final int order) {
+		super();
+		if (order < 1) {
+			throw new IllegalArgumentException("Expansion order must be greater than 0: " + order);
+		}
+		this.order = order;
+		this.nCoeffs = MultipoleTree.getCoeffsCount(order);
+		this.p2pLimit = this.nCoeffs * this.nCoeffs;
+		this.powX = new int[this.nCoeffs];
+		this.powY = new int[this.nCoeffs];
+		for (int n = 0; n <= order; n++) {
+			for (int b = 0; b <= n; b++) {
+				this.powX[MultipoleTree.getIndex(n - b, b)] = n - b;
+				this.powY[MultipoleTree.getIndex(n - b, b)] = b;
+			}
+		}
+		final double[][] binomials = new double[2 * order + 1][2 * order + 1];
+		for (int n = 0; n <= 2 * order; n++) {
+			binomials[n][0] = 1D;
+			for (int k = 1; k <= n; k++) {
+				binomials[n][k] = binomials[n - 1][k - 1] + (k < n ? binomials[n - 1][k] : 0D);
+			}
+		}
+
+		final List<int[]> shifts = new ArrayList<>();
+		for (int big = 0; big < this.nCoeffs; big++) {
+			for (int small = 0; small < this.nCoeffs; small++) {
+				if (this.powX[small] <= this.powX[big] && this.powY[small] <= this.powY[big]) {
+					shifts.add(new int[] { big, small });
+				}
+			}
+		}
+		this.shiftBig = new int[shifts.size()];
+		this.shiftSmall = new int[shifts.size()];
+		this.shiftBinomials = new double[shifts.size()];
+		for (int s = 0; s < shifts.size(); s++) {
+			final int big = shifts.get(s)[0];
+			final int small = shifts.get(s)[1];
+			this.shiftBig[s] = big;
+			this.shiftSmall[s] = small;
+			this.shiftBinomials[s] = binomials[this.powX[big]][this.powX[small]]
+					* binomials[this.powY[big]][this.powY[small]];
+		}
+
+		this.m2lIndexes = new int[this.nCoeffs * this.nCoeffs];
+		this.m2lBinomials = new double[this.nCoeffs * this.nCoeffs];
+		for (int row = 0; row < this.nCoeffs; row++) {
+			for (int col = 0; col < this.nCoeffs; col++) {
+				final int a = this.powX[row] + this.powX[col];
+				final int b = this.powY[row] + this.powY[col];
+				this.m2lIndexes[row * this.nCoeffs + col] = MultipoleTree.getIndex(a, b);
+				this.m2lBinomials[row * this.nCoeffs + col] = binomials[a][this.powX[col]]
+						* binomials[b][this.powY[col]];
+			}
+		}
+		this.derivatives = ThreadLocal.withInitial(() -> new double[MultipoleTree.getCoeffsCount(2 * order)]);
+
+		this.tree = new QuadTree(MultipoleTree.LEAF_SIZE);
+		this.radius = new double[0];
+		this.multipoles = new double[0];
+		this.locals = new double[0];
+	}
+
+	/**
+	 * Calculates the total Force each body is subjected to and stores it into (forcesX[i], forcesY[i]), using the
+	 * threads of the given pool.
+	 */
+	public void calculateForces(final BodyStore bodies, final double[] forcesX, final double[] forcesY,
+			final ForkJoinPool pool) {
+		if (bodies.size() == 0) {
+			return;
+		}
+		this.tree.build(bodies, pool);
+
+		final int nNodes = this.tree.getNodesCount();
+		if (this.radius.length < nNodes) {
+			this.radius = new double[nNodes];
+			this.multipoles = new double[nNodes * this.nCoeffs];
+			this.locals = new double[nNodes * this.nCoeffs];
+		}
+		Arrays.fill(this.locals, 0, nNodes * this.nCoeffs, 0D);
+		Arrays.fill(forcesX, 0, bodies.size(), 0D);
+		Arrays.fill(forcesY, 0, bodies.size(), 0D);
+
+		pool.invoke(ForkJoinTask.adapt(() -> {
+			this.upward(bodies, 0);
+			this.interact(bodies, 0, 0, forcesX, forcesY);
+			this.downward(bodies, 0, forcesX, forcesY);
+		}));
+	}
+
+	public int getOrder() {
+		return this.order;
+	}
+
+	/* P2M for leaves, M2M for the other nodes, after their children */
+	private void upward(final BodyStore bodies, final int node) {
+		final double[] multipole = this.multipoles;
+		final int base = node * this.nCoeffs;
+		final double centreX = this.tree.getMassX(node);
+		final double centreY = this.tree.getMassY(node);
+		final double[] powersX = new double[this.order + 1];
+		final double[] powersY = new double[this.order + 1];
+		Arrays.fill(multipole, base, base + this.nCoeffs, 0D);
+
+		if (this.tree.isLeaf(node)) {
+			// M(a, b) = sum(mj * (-dxj)^a * (-dyj)^b)
+			final double[] bodiesMass = bodies.getMass();
+			final double[] posX = bodies.getPosX();
+			final double[] posY = bodies.getPosY();
+			double nodeRadius = 0D;
+			for (int k = this.tree.getFirst(node); k < this.tree.getFirst(node) + this.tree.getCount(node); k++) {
+				final int j = this.tree.getBody(k);
+				MultipoleTree.setPowers(centreX - posX[j], powersX);
+				MultipoleTree.setPowers(centreY - posY[j], powersY);
+				for (int c = 0; c < this.nCoeffs; c++) {
+					multipole[base + c] += bodiesMass[j] * powersX[this.powX[c]] * powersY[this.powY[c]];
+				}
+				nodeRadius = Math.max(nodeRadius, Math.hypot(posX[j] - centreX, posY[j] - centreY));
+			}
+			this.radius[node] = nodeRadius;
+			return;
+		}
+
+		this.forEachChild(node, child -> this.upward(bodies, child));
+		// Mp(big) = sum(C(big, small) * (-d)^(big - small) * Mc(small)), d = child centre - parent centre
+		double nodeRadius = 0D;
+		for (int q = 0; q < 4; q++) {
+			final int child = this.tree.getChild(node, q);
+			if (child == QuadTree.NO_CHILD) {
+				continue;
+			}
+			final double shiftX = centreX - this.tree.getMassX(child);
+			final double shiftY = centreY - this.tree.getMassY(child);
+			MultipoleTree.setPowers(shiftX, powersX);
+			MultipoleTree.setPowers(shiftY, powersY);
+			final int childBase = child * this.nCoeffs;
+			for (int s = 0; s < this.shiftBig.length; s++) {
+				final int big = this.shiftBig[s];
+				final int small = this.shiftSmall[s];
+				multipole[base + big] += this.shiftBinomials[s] * powersX[this.powX[big] - this.powX[small]]
+						* powersY[this.powY[big] - this.powY[small]] * multipole[childBase + small];
+			}
+			nodeRadius = Math.max(nodeRadius, this.radius[child] + Math.hypot(shiftX, shiftY));
+		}
+		this.radius[node] = nodeRadius;
+	}
+
+	/*
+	 * Dual tree walk: interactions of the bodies of node a with the bodies of node b, stored into a.
+	 * Only the node a is split by forked tasks, so no two tasks ever write the same node or body.
+	 */
+	private void interact(final BodyStore bodies, final int a, final int b, final double[] forcesX,
+			final double[] forcesY) {
+		if ((long) this.tree.getCount(a) * this.tree.getCount(b) <= this.p2pLimit) {
+			this.particlesToParticles(bodies, a, b, forcesX, forcesY);
+			return;
+		}
+
+		final double deltaX = this.tree.getMassX(a) - this.tree.getMassX(b);
+		final double deltaY = this.tree.getMassY(a) - this.tree.getMassY(b);
+		final double radii = this.radius[a] + this.radius[b];
+		if (radii * radii < MultipoleTree.MAC * MultipoleTree.MAC * (deltaX * deltaX + deltaY * deltaY)) {
+			this.multipoleToLocal(a, b, deltaX, deltaY);
+			return;
+		}
+
+		final boolean leafA = this.tree.isLeaf(a);
+		final boolean leafB = this.tree.isLeaf(b);
+		if (leafA && leafB) {
+			this.particlesToParticles(bodies, a, b, forcesX, forcesY);
+		} else if (!leafA && (leafB || this.tree.getSide(a) >= this.tree.getSide(b))) {
+			this.forEachChild(a, child -> this.interact(bodies, child, b, forcesX, forcesY));
+		} else {
+			for (int q = 0; q < 4; q++) {
+				final int child = this.tree.getChild(b, q);
+				if (child != QuadTree.NO_CHILD) {
+					this.interact(bodies, a, child, forcesX, forcesY);
+				}
+			}
+		}
+	}
+
+	/* L2L towards the children, L2P for leaves */
+	private void downward(final BodyStore bodies, final int node, final double[] forcesX, final double[] forcesY) {
+		final double[] local = this.locals;
+		final int base = node * this.nCoeffs;
+		final double centreX = this.tree.getMassX(node);
+		final double centreY = this.tree.getMassY(node);
+		final double[] powersX = new double[this.order + 1];
+		final double[] powersY = new double[this.order + 1];
+
+		if (this.tree.isLeaf(node)) {
+			// Force = G * mi * grad(Phi)
+			final double[] bodiesMass = bodies.getMass();
+			final double[] posX = bodies.getPosX();
+			final double[] posY = bodies.getPosY();
+			for (int k = this.tree.getFirst(node); k < this.tree.getFirst(node) + this.tree.getCount(node); k++) {
+				final int i = this.tree.getBody(k);
+				MultipoleTree.setPowers(posX[i] - centreX, powersX);
+				MultipoleTree.setPowers(posY[i] - centreY, powersY);
+				double gradX = 0D;
+				double gradY = 0D;
+				for (int c = 1; c < this.nCoeffs; c++) {
+					final int pa = this.powX[c];
+					final int pb = this.powY[c];
+					if (pa > 0) {
+						gradX += pa * local[base + c] * powersX[pa - 1] * powersY[pb];
+					}
+					if (pb > 0) {
+						gradY += pb * local[base + c] * powersX[pa] * powersY[pb - 1];
+					}
+				}
+				forcesX[i] += Force.G * bodiesMass[i] * gradX;
+				forcesY[i] += Force.G * bodiesMass[i] * gradY;
+			}
+			return;
+		}
+
+		// Lc(small) += sum(C(big, small) * d^(big - small) * Lp(big)), d = child centre - parent centre
+		for (int q = 0; q < 4; q++) {
+			final int child = this.tree.getChild(node, q);
+			if (child == QuadTree.NO_CHILD) {
+				continue;
+			}
+			MultipoleTree.setPowers(this.tree.getMassX(child) - centreX, powersX);
+			MultipoleTree.setPowers(this.tree.getMassY(child) - centreY, powersY);
+			final int childBase = child * this.nCoeffs;
+			for (int s = 0; s < this.shiftBig.length; s++) {
+				final int big = this.shiftBig[s];
+				final int small = this.shiftSmall[s];
+				local[childBase + small] += this.shiftBinomials[s] * powersX[this.powX[big] - this.powX[small]]
+						* powersY[this.powY[big] - this.powY[small]] * local[base + big];
+			}
+		}
+		this.forEachChild(node, child -> this.downward(bodies, child, forcesX, forcesY));
+	}
+
+	/* M2L: L(row) += sum(C(row + col, col) * T(row + col) * M(col)), T calculated at a - b centres distance */
+	private void multipoleToLocal(final int a, final int b, final double deltaX, final double deltaY) {
+		final double[] derivatives = this.derivatives.get();
+		this.setDerivatives(deltaX, deltaY, derivatives);
+		final int baseA = a * this.nCoeffs;
+		final int baseB = b * this.nCoeffs;
+		for (int row = 0; row < this.nCoeffs; row++) {
+			double sum = 0D;
+			for (int col = 0; col < this.nCoeffs; col++) {
+				final int c = row * this.nCoeffs + col;
+				sum += this.m2lBinomials[c] * derivatives[this.m2lIndexes[c]] * this.multipoles[baseB + col];
+			}
+			this.locals[baseA + row] += sum;
+		}
+	}
+
+	/* P2P: Forces exerted on the bodies of node a by the bodies of node b */
+	private void particlesToParticles(final BodyStore bodies, final int a, final int b, final double[] forcesX,
+			final double[] forcesY) {
+		final double[] bodiesMass = bodies.getMass();
+		final double[] posX = bodies.getPosX();
+		final double[] posY = bodies.getPosY();
+		final int fromB = this.tree.getFirst(b);
+		final int toB = fromB + this.tree.getCount(b);
+		for (int k = this.tree.getFirst(a); k < this.tree.getFirst(a) + this.tree.getCount(a); k++) {
+			final int i = this.tree.getBody(k);
+			final double massi = bodiesMass[i];
+			final double posXi = posX[i];
+			final double posYi = posY[i];
+			double forceX = 0D;
+			double forceY = 0D;
+			for (int t = fromB; t < toB; t++) {
+				final int j = this.tree.getBody(t);
+				if (j == i) {
+					continue;
+				}
+				final double deltaX = posX[j] - posXi;
+				final double deltaY = posY[j] - posYi;
+				final double lambda = Force.getLambda(massi, bodiesMass[j], deltaX, deltaY);
+				forceX += deltaX * lambda;
+				forceY += deltaY * lambda;
+			}
+			forcesX[i] += forceX;
+			forcesY[i] += forceY;
+		}
+	}
+
+	/* Runs the action on the children of the node: in parallel tasks if the node holds enough bodies */
+	private void forEachChild(final int node, final IntConsumer action) {
+		if (this.tree.getCount(node) < MultipoleTree.PARALLEL_THRESHOLD) {
+			for (int q = 0; q < 4; q++) {
+				final int child = this.tree.getChild(node, q);
+				if (child != QuadTree.NO_CHILD) {
+					action.accept(child);
+				}
+			}
+			return;
+		}
+
+		final List<ForkJoinTask<?>> tasks = new ArrayList<>(4);
+		for (int q = 0; q < 4; q++) {
+			final int child = this.tree.getChild(node, q);
+			if (child != QuadTree.NO_CHILD) {
+				tasks.add(ForkJoinTask.adapt(() -> action.accept(child)));
+			}
+		}
+		ForkJoinTask.invokeAll(tasks);
+	}
+
+	/*
+	 * Taylor coefficients T(a, b) = d^a/dx^a d^b/dy^b (1 / r) / (a! b!) up to twice the order, by recurrence:
+	 * n * r^2 * T(a, b) = -(2n - 1) * (x * T(a - 1, b) + y * T(a, b - 1)) - (n - 1) * (T(a - 2, b) + T(a, b - 2))
+	 */
+	private void setDerivatives(final double x, final double y, final double[] derivatives) {
+		final double r2 = x * x + y * y;
+		derivatives[0] = 1 / Math.sqrt(r2);
+		for (int n = 1; n <= 2 * this.order; n++) {
+			for (int b = 0; b <= n; b++) {
+				final int a = n - b;
+				double value = 0D;
+				if (a > 0) {
+					value -= (2 * n - 1) * x * derivatives[MultipoleTree.getIndex(a - 1, b)];
+				}
+				if (b > 0) {
+					value -= (2 * n - 1) * y * derivatives[MultipoleTree.getIndex(a, b - 1)];
+				}
+				if (a > 1) {
+					value -= (n - 1) * derivatives[MultipoleTree.getIndex(a - 2, b)];
+				}
+				if (b > 1) {
+					value -= (n - 1) * derivatives[MultipoleTree.getIndex(a, b - 2)];
+				}
+				derivatives[MultipoleTree.getIndex(a, b)] = value / (n * r2);
+			}
+		}
+	}
+
+	private static void setPowers(final double value, final double[] powers) {
+		powers[0] = 1D;
+		for (int n = 1; n < powers.length; n++) {
+			powers[n] = powers[n - 1] * value;
+		}
+	}
+
+	private static int getIndex(final int a, final int b) {
+		return (a + b) * (a + b + 1) / 2 + b;
+	}
+
+	private static int getCoeffsCount(final int order) {
+		return (order + 1) * (order + 2) / 2;
+	}
+}
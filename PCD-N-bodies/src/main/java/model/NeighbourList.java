@@ -0,0 +1,242 @@
+package model;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Stores, for each body, the list of the bodies closer than the cutoff distance plus a skin (Verlet list), used to
+ * calculate the Forces of a short-range Potential in O(n) instead of O(n^2).
+ *
+ * The lists are built binning the bodies into a uniform grid of cells at least as wide as the list distance, so each
+ * body only looks for its neighbours in its own cell and the 8 around it. They are reused across the steps until some
+ * body moves more than half the skin since they were built: until then, no two bodies can have come closer than the
+ * cutoff without being in each other's list.
+ * Each list holds both the orientations of a pair, so the Forces of each body are summed in parallel without any
+ * conflict.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public class NeighbourList {
+
+	private final double cutoffSquared;
+	private final double listDistance;  // cutoff + skin
+	private final double maxDisplacementSquared;  // (skin / 2)^2
+
+	private int[] offsets;  // The neighbours of body i are neighbours[offsets[i]] to neighbours[offsets[i + 1] - 1]
+	private int[] neighbours;
+	private double[] builtX;  // Positions of the bodies when the lists were built
+	private double[] builtY;
+	private int builds;
+
+	// Cell grid, bodies sorted by cell
+	private int cols;
+	private int rows;
+	private double minX;
+	private double minY;
+	private double cellWidth;
+	private double cellHeight;
+	private int[] cellStarts;  // The bodies of cell c are cellBodies[cellStarts[c]] up to cellStarts[c + 1]
+	private int[] cellBodies;
+	private int[] bodyCells;
+
+	public NeighbourList(final double cutoff, final double skin) {
+		super();
+		if (cutoff <= 0 || skin < 0) {
+			throw new IllegalArgumentException(
+					"Cutoff must be greater than 0 and skin must not be lower than 0: " + cutoff + ", " + skin);
+		}
+		this.cutoffSquared = cutoff * cutoff;
+		this.listDistance = cutoff + skin;
+		this.maxDisplacementSquared = skin * skin / 4;
+		this.offsets = new int[1];
+		this.neighbours = new int[0];
+		this.builtX = new double[0];
+		this.builtY = new double[0];
+		this.builds = 0;
+	}
+
+	/**
+	 * Calculates the total Force each body is subjected to by the bodies closer than the cutoff, with the Potential
+	 * of the given characteristic length, and stores it into (forcesX[i], forcesY[i]).
+	 * The lists are built again first, if some body has moved too far. The bodies are scanned in parallel.
+	 */
+	public void calculateForces(final BodyStore bodies, final Potential potential, final double length,
+			final double[] forcesX, final double[] forcesY) {
+		this.update(bodies);
+
+		final double[] mass = bodies.getMass();
+		final double[] posX = bodies.getPosX();
+		final double[] posY = bodies.getPosY();
+		IntStream.range(0, bodies.size()).parallel().forEach(i -> {
+			final double massi = mass[i];
+			final double posXi = posX[i];
+			final double posYi = posY[i];
+			double forceX = 0D;
+			double forceY = 0D;
+			for (int k = this.offsets[i]; k < this.offsets[i + 1]; k++) {
+				final int j = this.neighbours[k];
+				final double deltaX = posX[j] - posXi;
+				final double deltaY = posY[j] - posYi;
+				final double distanceSquared = deltaX * deltaX + deltaY * deltaY;
+				if (distanceSquared < this.cutoffSquared) {
+					final double lambda = potential.getLambda(massi, mass[j], distanceSquared, length);
+					forceX += deltaX * lambda;
+					forceY += deltaY * lambda;
+				}
+			}
+			forcesX[i] = forceX;
+			forcesY[i] = forceY;
+		});
+	}
+
+	/**
+	 * Builds the lists again if they have never been built for these bodies, or if some body has moved more than half
+	 * the skin since they were. Returns true if they have been built.
+	 */
+	public boolean update(final BodyStore bodies) {
+		final int nBodies = bodies.size();
+		final double[] posX = bodies.getPosX();
+		final double[] posY = bodies.getPosY();
+		if (this.builtX.length != nBodies || IntStream.range(0, nBodies).parallel().anyMatch(i -> {
+			final double deltaX = posX[i] - this.builtX[i];
+			final double deltaY = posY[i] - this.builtY[i];
+			return deltaX * deltaX + deltaY * deltaY > this.maxDisplacementSquared;
+		})) {
+			this.build(posX, posY, nBodies);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Makes the next update() build the lists again, as the bodies have been replaced
+	 */
+	public void invalidate() {
+		this.builtX = new double[0];
+		this.builtY = new double[0];
+	}
+
+	/**
+	 * Returns the index in getNeighbours() of the first neighbour of the i-th body
+	 */
+	public int getFrom(final int i) {
+		return this.offsets[i];
+	}
+
+	/**
+	 * Returns the index in getNeighbours() after the last neighbour of the i-th body
+	 */
+	public int getTo(final int i) {
+		return this.offsets[i + 1];
+	}
+
+	public int[] getNeighbours() {
+		return this.neighbours;
+	}
+
+	/**
+	 * Returns how many times the lists have been built
+	 */
+	public int getBuilds() {
+		return this.builds;
+	}
+
+	/* Bins the bodies into the cells, then counts the neighbours of each body and stores them */
+	private void build(final double[] posX, final double[] posY, final int nBodies) {
+		this.bin(posX, posY, nBodies);
+
+		this.offsets = new int[nBodies + 1];
+		IntStream.range(0, nBodies).parallel().forEach(i -> this.offsets[i + 1] = this.scan(posX, posY, i, null, 0));
+		for (int i = 0; i < nBodies; i++) {
+			this.offsets[i + 1] += this.offsets[i];
+		}
+		if (this.neighbours.length < this.offsets[nBodies]) {
+			this.neighbours = new int[this.offsets[nBodies]];
+		}
+		IntStream.range(0, nBodies).parallel().forEach(i -> this.scan(posX, posY, i, this.neighbours, this.offsets[i]));
+
+		this.builtX = Arrays.copyOf(posX, nBodies);
+		this.builtY = Arrays.copyOf(posY, nBodies);
+		this.builds++;
+	}
+
+	/*
+	 * Sets up a grid of cells over the bodies, at most one per body, at least as wide as the list distance, and sorts
+	 * the bodies by cell
+	 */
+	private void bin(final double[] posX, final double[] posY, final int nBodies) {
+		this.minX = Double.MAX_VALUE;
+		this.minY = Double.MAX_VALUE;
+		double maxX = -Double.MAX_VALUE;
+		double maxY = -Double.MAX_VALUE;
+		for (int i = 0; i < nBodies; i++) {
+			this.minX = Math.min(this.minX, posX[i]);
+			this.minY = Math.min(this.minY, posY[i]);
+			maxX = Math.max(maxX, posX[i]);
+			maxY = Math.max(maxY, posY[i]);
+		}
+		final int maxCells = Math.max(1, (int) Math.sqrt(nBodies));  // Per axis
+		this.cols = NeighbourList.getCells(maxX - this.minX, this.listDistance, maxCells);
+		this.rows = NeighbourList.getCells(maxY - this.minY, this.listDistance, maxCells);
+		this.cellWidth = (maxX - this.minX) / this.cols;
+		this.cellHeight = (maxY - this.minY) / this.rows;
+
+		// Counting sort of the bodies by cell
+		this.cellStarts = new int[this.cols * this.rows + 1];
+		this.cellBodies = new int[nBodies];
+		this.bodyCells = new int[nBodies];
+		for (int i = 0; i < nBodies; i++) {
+			this.bodyCells[i] = this.getRow(posY[i]) * this.cols + this.getCol(posX[i]);
+			this.cellStarts[this.bodyCells[i] + 1]++;
+		}
+		for (int c = 0; c < this.cols * this.rows; c++) {
+			this.cellStarts[c + 1] += this.cellStarts[c];
+		}
+		final int[] next = Arrays.copyOf(this.cellStarts, this.cols * this.rows);
+		for (int i = 0; i < nBodies; i++) {
+			this.cellBodies[next[this.bodyCells[i]]++] = i;
+		}
+	}
+
+	/*
+	 * Scans the cells around the i-th body for the bodies closer than the list distance, storing them into target from
+	 * the offset, if target is not null. Returns their number.
+	 */
+	private int scan(final double[] posX, final double[] posY, final int i, final int[] target, final int offset) {
+		final double listDistanceSquared = this.listDistance * this.listDistance;
+		final int col = this.bodyCells[i] % this.cols;
+		final int row = this.bodyCells[i] / this.cols;
+		int count = 0;
+		for (int r = Math.max(0, row - 1); r <= Math.min(this.rows - 1, row + 1); r++) {
+			for (int c = Math.max(0, col - 1); c <= Math.min(this.cols - 1, col + 1); c++) {
+				final int cell = r * this.cols + c;
+				for (int k = this.cellStarts[cell]; k < this.cellStarts[cell + 1]; k++) {
+					final int j = this.cellBodies[k];
+					final double deltaX = posX[j] - posX[i];
+					final double deltaY = posY[j] - posY[i];
+					if (j != i && deltaX * deltaX + deltaY * deltaY < listDistanceSquared) {
+						if (target != null) {
+							target[offset + count] = j;
+						}
+						count++;
+					}
+				}
+			}
+		}
+		return count;
+	}
+
+	private int getCol(final double x) {
+		return this.cellWidth > 0 ? Math.min((int) ((x - this.minX) / this.cellWidth), this.cols - 1) : 0;
+	}
+
+	private int getRow(final double y) {
+		return this.cellHeight > 0 ? Math.min((int) ((y - this.minY) / this.cellHeight), this.rows - 1) : 0;
+	}
+
+	/* Returns the number of cells at least as wide as the list distance over the extent, between 1 and maxCells */
+	private static int getCells(final double extent, final double listDistance, final int maxCells) {
+		return (int) Math.max(1, Math.min(maxCells, Math.floor(extent / listDistance)));
+	}
+}
@@ -0,0 +1,184 @@
+package model;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import org.apache.commons.math3.transform.DftNormalization;
+import org.apache.commons.math3.transform.FastFourierTransformer;
+import org.apache.commons.math3.transform.TransformType;
+
+/**
+ * Stores a square grid over the bodies, used to calculate the Forces with the Particle-Mesh method in
+ * O(n + g^2 log g), where g is the grid size.
+ *
+ * The bodies mass is deposited onto the grid nodes with the Cloud-In-Cell scheme, each body splitting its mass
+ * amongst the 4 nodes around it in proportion to the overlap. The gravitational field at each node is the
+ * convolution of the masses with the field of a unit mass, calculated with FFTs on a grid twice as big, zero padded
+ * so that the masses don't interact with their periodic images. The field is then interpolated back to the bodies
+ * with the same weights.
+ * Forces are accurate for bodies more than a few cells apart, while they are smoothed at the cell scale.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public class ParticleMesh {
+
+	private final int gridSize;  // Nodes per axis
+	private final int fftSize;  // Padded grid size, 2 * gridSize
+	private final double[][] kernelReal;  // FFT of the unit mass field, x + i * y, for unit cells
+	private final double[][] kernelImag;
+	private final double[][] gridReal;
+	private final double[][] gridImag;
+
+	private double minX;
+	private double minY;
+	private double cellSide;
+
+	public ParticleMesh(final int gridSize) {
+		super();
+		if (gridSize < 2 || Integer.bitCount(gridSize) != 1) {
+			throw new IllegalArgumentException("Grid size must be a power of 2: " + gridSize);
+		}
+		this.gridSize = gridSize;
+		this.fftSize = 2 * gridSize;
+		this.gridReal = new double[this.fftSize][this.fftSize];
+		this.gridImag = new double[this.fftSize][this.fftSize];
+
+		// Field at (x, y) of a unit mass in the origin, on the padded grid with negative offsets wrapped around
+		this.kernelReal = new double[this.fftSize][this.fftSize];
+		this.kernelImag = new double[this.fftSize][this.fftSize];
+		for (int row = 0; row < this.fftSize; row++) {
+			for (int col = 0; col < this.fftSize; col++) {
+				final int x = col < gridSize ? col : col - this.fftSize;
+				final int y = row < gridSize ? row : row - this.fftSize;
+				if ((x == 0 && y == 0) || col == gridSize || row == gridSize) {
+					continue;
+				}
+				final double distance = Math.hypot(x, y);
+				final double cube = distance * distance * distance;
+				this.kernelReal[row][col] = -x / cube;
+				this.kernelImag[row][col] = -y / cube;
+			}
+		}
+		this.transform(this.kernelReal, this.kernelImag, TransformType.FORWARD);
+	}
+
+	/**
+	 * Calculates the total Force each body is subjected to and stores it into (forcesX[i], forcesY[i]).
+	 * The transforms and the interpolation run on java parallel streams.
+	 */
+	public void calculateForces(final BodyStore bodies, final double[] forcesX, final double[] forcesY) {
+		final int nBodies = bodies.size();
+		if (nBodies == 0) {
+			return;
+		}
+		this.setBounds(bodies);
+		this.deposit(bodies);
+
+		// The field of the x and y components is real, so both are transformed back at once as x + i * y
+		this.transform(this.gridReal, this.gridImag, TransformType.FORWARD);
+		IntStream.range(0, this.fftSize).parallel().forEach(row -> {
+			for (int col = 0; col < this.fftSize; col++) {
+				final double massReal = this.gridReal[row][col];
+				final double massImag = this.gridImag[row][col];
+				this.gridReal[row][col] = massReal * this.kernelReal[row][col] - massImag * this.kernelImag[row][col];
+				this.gridImag[row][col] = massReal * this.kernelImag[row][col] + massImag * this.kernelReal[row][col];
+			}
+		});
+		this.transform(this.gridReal, this.gridImag, TransformType.INVERSE);
+
+		// The kernel was calculated for unit cells: the field scales as G / cellSide^2
+		final double scale = Force.G / (this.cellSide * this.cellSide);
+		final double[] bodiesMass = bodies.getMass();
+		final double[] posX = bodies.getPosX();
+		final double[] posY = bodies.getPosY();
+		IntStream.range(0, nBodies).parallel().forEach(i -> {
+			final double gridX = (posX[i] - this.minX) / this.cellSide;
+			final double gridY = (posY[i] - this.minY) / this.cellSide;
+			final int col = Math.min((int) gridX, this.gridSize - 2);
+			final int row = Math.min((int) gridY, this.gridSize - 2);
+			final double weightX = gridX - col;
+			final double weightY = gridY - row;
+
+			double fieldX = 0D;
+			double fieldY = 0D;
+			for (int r = 0; r < 2; r++) {
+				for (int c = 0; c < 2; c++) {
+					final double weight = (c == 0 ? 1 - weightX : weightX) * (r == 0 ? 1 - weightY : weightY);
+					fieldX += weight * this.gridReal[row + r][col + c];
+					fieldY += weight * this.gridImag[row + r][col + c];
+				}
+			}
+			forcesX[i] = bodiesMass[i] * scale * fieldX;
+			forcesY[i] = bodiesMass[i] * scale * fieldY;
+		});
+	}
+
+	public int getGridSize() {
+		return this.gridSize;
+	}
+
+	/* Sets the grid square over the bodies: the nodes go from min to min + (gridSize - 1) * cellSide */
+	private void setBounds(final BodyStore bodies) {
+		final double[] posX = bodies.getPosX();
+		final double[] posY = bodies.getPosY();
+		double maxX = -Double.MAX_VALUE;
+		double maxY = -Double.MAX_VALUE;
+		this.minX = Double.MAX_VALUE;
+		this.minY = Double.MAX_VALUE;
+		for (int i = 0; i < bodies.size(); i++) {
+			this.minX = Math.min(this.minX, posX[i]);
+			this.minY = Math.min(this.minY, posY[i]);
+			maxX = Math.max(maxX, posX[i]);
+			maxY = Math.max(maxY, posY[i]);
+		}
+		final double side = Math.max(Math.max(maxX - this.minX, maxY - this.minY), Position.NULL_DISTANCE);
+		this.cellSide = side / (this.gridSize - 1);
+	}
+
+	/* Cloud-In-Cell: each mass is split amongst the 4 nodes around it, the padding is left empty */
+	private void deposit(final BodyStore bodies) {
+		IntStream.range(0, this.fftSize).parallel().forEach(row -> {
+			Arrays.fill(this.gridReal[row], 0D);
+			Arrays.fill(this.gridImag[row], 0D);
+		});
+
+		final double[] bodiesMass = bodies.getMass();
+		final double[] posX = bodies.getPosX();
+		final double[] posY = bodies.getPosY();
+		for (int i = 0; i < bodies.size(); i++) {
+			final double gridX = (posX[i] - this.minX) / this.cellSide;
+			final double gridY = (posY[i] - this.minY) / this.cellSide;
+			final int col = Math.min((int) gridX, this.gridSize - 2);
+			final int row = Math.min((int) gridY, this.gridSize - 2);
+			final double weightX = gridX - col;
+			final double weightY = gridY - row;
+
+			this.gridReal[row][col] += bodiesMass[i] * (1 - weightX) * (1 - weightY);
+			this.gridReal[row][col + 1] += bodiesMass[i] * weightX * (1 - weightY);
+			this.gridReal[row + 1][col] += bodiesMass[i] * (1 - weightX) * weightY;
+			this.gridReal[row + 1][col + 1] += bodiesMass[i] * weightX * weightY;
+		}
+	}
+
+	/* 2D FFT in place: rows first, then columns, each in parallel */
+	private void transform(final double[][] real, final double[][] imag, final TransformType type) {
+		IntStream.range(0, this.fftSize).parallel().forEach(row -> FastFourierTransformer
+				.transformInPlace(new double[][] { real[row], imag[row] }, DftNormalization.STANDARD, type));
+
+		IntStream.range(0, this.fftSize).parallel().forEach(col -> {
+			final double[] columnReal = new double[this.fftSize];
+			final double[] columnImag = new double[this.fftSize];
+			for (int row = 0; row < this.fftSize; row++) {
+				columnReal[row] = real[row][col];
+				columnImag[row] = imag[row][col];
+			}
+			FastFourierTransformer.transformInPlace(new double[][] { columnReal, columnImag },
+					DftNormalization.STANDARD, type);
+			for (int row = 0; row < this.fftSize; row++) {
+				real[row][col] = columnReal[row];
+				imag[row][col] = columnImag[row];
+			}
+		});
+	}
+}
@@ -27,6 +27,14 @@ public class Position {
 		this.y += deltaP.y;
 	}
 
+	/**
+	 * Moves the current position by (deltaX, deltaY)
+	 */
+	public void move(final double deltaX, final double deltaY) {
+		this.x += deltaX;
+		this.y += deltaY;
+	}
+
 	/**
 	 * Calculates the distance between two positions, as sqrt(dx^2+dy^2)
 	 * If this is 0, it return a value slightly greater to avoid collisions
@@ -0,0 +1,66 @@
+package model;
+
+/**
+ * Enumeration of the short-range potentials between two bodies, used with a cutoff distance beyond which the bodies
+ * don't interact (NeighbourList).
+ *
+ * Each potential has a characteristic length: the softening of gravity, the screening length of screened gravity
+ * or the distance sigma at which the Lennard-Jones potential is zero. The Lennard-Jones well depth is
+ * G * mi * mj / sigma, the gravitational energy of the two bodies at that distance.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public enum Potential {
+	/* -G * mi * mj / sqrt(r^2 + length^2): Newtonian gravity, bounded at short distances */
+	SOFTENED_GRAVITY,
+	/* -G * mi * mj * e^(-r / length) / r: Newtonian gravity, fading beyond length (Yukawa) */
+	SCREENED_GRAVITY,
+	/* 4 * e * ((length / r)^12 - (length / r)^6): repulsive below 2^(1/6) * length, attractive beyond */
+	LENNARD_JONES;
+
+	@Override
+	public String toString() {
+		switch (this) {
+		case SOFTENED_GRAVITY:
+			return "SOFTENED GRAVITY";
+		case SCREENED_GRAVITY:
+			return "SCREENED GRAVITY";
+		case LENNARD_JONES:
+			return "LENNARD-JONES";
+		default:
+			return "ERR";
+		}
+	}
+
+	/**
+	 * Calculates the lambda ratio factor of the Force existing between two bodies, given their masses and the square
+	 * of the distance between them, (deltaX, deltaY): the Force on the i-th body is (deltaX * lambda, deltaY * lambda)
+	 * as in Force.getLambda, that is dU/dr / r, and no object is created.
+	 */
+	public double getLambda(final double massi, final double massj, final double distanceSquared,
+			final double length) {
+		final double gravity = Force.G * massi * massj;
+		switch (this) {
+		case SOFTENED_GRAVITY:
+			final double softened = distanceSquared + length * length;
+			return gravity / (softened * Math.sqrt(softened));
+		case SCREENED_GRAVITY:
+			final double distance = Math.sqrt(distanceSquared);
+			if (distance < Position.NULL_DISTANCE) {
+				return 0D;
+			}
+			return gravity * Math.exp(-distance / length) * (1D / distanceSquared + 1D / (length * distance))
+					/ distance;
+		case LENNARD_JONES:
+			if (distanceSquared < Position.NULL_DISTANCE * Position.NULL_DISTANCE) {
+				return 0D;
+			}
+			final double ratio2 = length * length / distanceSquared;
+			final double ratio6 = ratio2 * ratio2 * ratio2;
+			return 24D * gravity / length * (ratio6 - 2D * ratio6 * ratio6) / distanceSquared;
+		default:
+			return 0D;
+		}
+	}
+}
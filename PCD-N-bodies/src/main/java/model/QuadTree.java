@@ -0,0 +1,519 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Stores a Quadtree built over the bodies positions, used to approximate the Force a group of distant bodies exerts
+ * with the Force exerted by their centre of mass (Barnes-Hut).
+ *
+ * Bodies are sorted by the Morton code of their position, so the bodies of any cell are contiguous in the sorted
+ * order and each node only stores the range of bodies it contains.
+ * Nodes are stored as a Structure of Arrays too, to avoid creating an object for each of them.
+ *
+ * The tree can be built by the threads of a ForkJoinPool: bounds and Morton codes are calculated and sorted in
+ * parallel, then subtrees with enough bodies are built by different tasks. Nodes are allocated through an atomic
+ * counter, without locks, and the centre of mass of each node is reduced from its children's ones once they are
+ * built.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public class QuadTree {
+	public static final int MAX_DEPTH = 15;  // Bits per axis of the Morton codes
+	private static final int CELLS = 1 << QuadTree.MAX_DEPTH;  // Cells per axis at MAX_DEPTH
+	public static final int DEF_LEAF_SIZE = 8;
+	private static final int PARALLEL_THRESHOLD = 1 << 13;  // Bodies under which a (sub)tree is built sequentially
+	static final int NO_CHILD = -1;
+	private static final int LEAF = -2;
+	private static final int MIN_NODES = 1024;
+
+	private final int leafSize;  // Max bodies per leaf, unless MAX_DEPTH is reached
+
+	private int nBodies;
+	private long[] keys;  // Morton code << 32 | body index
+	private int[] sorted;  // Body indexes sorted by Morton code
+	private int[] ranks;  // Position of each body in the sorted order
+
+	private double minX;
+	private double minY;
+	private double rootSide;
+
+	private final AtomicInteger nNodes;
+	private volatile boolean overflow;  // Nodes arrays are too small: the tree must be built again
+	private int[] first;  // First body of the node, in the sorted order
+	private int[] count;  // Number of bodies of the node
+	private int[] children;  // 4 per node, one for each quadrant. LEAF for leaves.
+	private double[] side;  // m
+	private double[] mass;  // kg
+	private double[] massX;  // Centre of mass x, m
+	private double[] massY;  // Centre of mass y, m
+
+	public QuadTree() {
+		this(QuadTree.DEF_LEAF_SIZE);
+	}
+
+	public QuadTree(final int leafSize) {
+		super();
+		this.leafSize = leafSize;
+		this.keys = new long[0];
+		this.sorted = new int[0];
+		this.ranks = new int[0];
+		this.nNodes = new AtomicInteger();
+		this.allocateNodes(QuadTree.MIN_NODES);
+	}
+
+	/**
+	 * Builds the tree over the current positions of the bodies, replacing the previous one.
+	 */
+	public void build(final BodyStore bodies) {
+		this.build(bodies, null);
+	}
+
+	/**
+	 * Builds the tree over the current positions of the bodies, replacing the previous one, using the threads of
+	 * the given pool. A null pool, or too few bodies, cause the tree to be built by the current thread only.
+	 */
+	public void build(final BodyStore bodies, final ForkJoinPool pool) {
+		this.nBodies = bodies.size();
+		if (this.keys.length < this.nBodies) {
+			this.keys = new long[this.nBodies];
+			this.sorted = new int[this.nBodies];
+			this.ranks = new int[this.nBodies];
+		}
+		if (this.first.length < this.nBodies / 2) {
+			this.allocateNodes(this.nBodies / 2);
+		}
+		this.nNodes.set(0);
+		if (this.nBodies == 0) {
+			return;
+		}
+
+		final boolean parallel = pool != null && this.nBodies >= QuadTree.PARALLEL_THRESHOLD;
+		do {
+			// Sorting is repeated too, since building may sort some ranges again
+			if (parallel) {
+				pool.invoke(ForkJoinTask.adapt(() -> this.sortBodies(bodies, true)));
+			} else {
+				this.sortBodies(bodies, false);
+			}
+			this.nNodes.set(0);
+			this.overflow = false;
+			final int root = this.newNodes(1);
+			if (parallel) {
+				pool.invoke(new BuildTask(bodies, root, 0, 0, this.nBodies, this.rootSide));
+			} else {
+				this.buildNode(bodies, root, 0, 0, this.nBodies, this.rootSide);
+			}
+			if (this.overflow) {
+				this.allocateNodes(this.first.length * 2);
+			}
+		} while (this.overflow);
+	}
+
+	/**
+	 * Calculates the total Force the i-th body is subjected to and stores it into (forcesX[i], forcesY[i]).
+	 * The bodies of a cell which is seen under an angle (side / distance) lower than theta are approximated with
+	 * their centre of mass: theta = 0 gives the exact Force.
+	 */
+	public void calculateForce(final BodyStore bodies, final int i, final double theta, final double[] forcesX,
+			final double[] forcesY) {
+		final double[] bodiesMass = bodies.getMass();
+		final double[] posX = bodies.getPosX();
+		final double[] posY = bodies.getPosY();
+		final double massi = bodiesMass[i];
+		final double posXi = posX[i];
+		final double posYi = posY[i];
+		final int rank = this.ranks[i];
+		final double theta2 = theta * theta;
+
+		double forceX = 0D;
+		double forceY = 0D;
+		int[] stack = new int[3 * QuadTree.MAX_DEPTH + 4];
+		int top = 0;
+		if (this.nNodes.get() > 0) {
+			stack[top++] = 0;
+		}
+		while (top > 0) {
+			final int node = stack[--top];
+			final int from = this.first[node];
+			final int to = from + this.count[node];
+
+			// A cell containing the body is always opened
+			if (rank < from || rank >= to) {
+				final double deltaX = this.massX[node] - posXi;
+				final double deltaY = this.massY[node] - posYi;
+				if (this.side[node] * this.side[node] < theta2 * (deltaX * deltaX + deltaY * deltaY)) {
+					final double lambda = Force.getLambda(massi, this.mass[node], deltaX, deltaY);
+					forceX += deltaX * lambda;
+					forceY += deltaY * lambda;
+					continue;
+				}
+			}
+
+			if (this.children[4 * node] == QuadTree.LEAF) {
+				for (int k = from; k < to; k++) {
+					final int j = this.sorted[k];
+					if (j == i) {
+						continue;
+					}
+					final double deltaX = posX[j] - posXi;
+					final double deltaY = posY[j] - posYi;
+					final double lambda = Force.getLambda(massi, bodiesMass[j], deltaX, deltaY);
+					forceX += deltaX * lambda;
+					forceY += deltaY * lambda;
+				}
+			} else {
+				if (top + 4 > stack.length) {
+					// Deeper than MAX_DEPTH, where ranges are sorted again
+					stack = Arrays.copyOf(stack, 2 * stack.length);
+				}
+				for (int q = 0; q < 4; q++) {
+					final int child = this.children[4 * node + q];
+					if (child != QuadTree.NO_CHILD) {
+						stack[top++] = child;
+					}
+				}
+			}
+		}
+		forcesX[i] = forceX;
+		forcesY[i] = forceY;
+	}
+
+	public int getNodesCount() {
+		return this.nNodes.get();
+	}
+
+	/* Nodes accessors used by the other trees: the root is node 0 */
+
+	boolean isLeaf(final int node) {
+		return this.children[4 * node] == QuadTree.LEAF;
+	}
+
+	/* NO_CHILD for empty quadrants. Not valid for leaves */
+	int getChild(final int node, final int quadrant) {
+		return this.children[4 * node + quadrant];
+	}
+
+	int getFirst(final int node) {
+		return this.first[node];
+	}
+
+	int getCount(final int node) {
+		return this.count[node];
+	}
+
+	double getSide(final int node) {
+		return this.side[node];
+	}
+
+	double getMassX(final int node) {
+		return this.massX[node];
+	}
+
+	double getMassY(final int node) {
+		return this.massY[node];
+	}
+
+	/* Index of the k-th body in the sorted order */
+	int getBody(final int k) {
+		return this.sorted[k];
+	}
+
+	/* Sets the root square cell, then sorts the bodies by the Morton code of their position */
+	private void sortBodies(final BodyStore bodies, final boolean parallel) {
+		final double[] posX = bodies.getPosX();
+		final double[] posY = bodies.getPosY();
+
+		// minX, minY, maxX, maxY
+		final double[] bounds = this.getRange(parallel).collect(
+				() -> new double[] { Double.MAX_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE },
+				(b, i) -> QuadTree.addToBounds(b, posX[i], posY[i]), (b1, b2) -> {
+					QuadTree.addToBounds(b1, b2[0], b2[1]);
+					QuadTree.addToBounds(b1, b2[2], b2[3]);
+				});
+		this.minX = bounds[0];
+		this.minY = bounds[1];
+		this.rootSide = Math.max(Math.max(bounds[2] - bounds[0], bounds[3] - bounds[1]), Position.NULL_DISTANCE);
+
+		this.getRange(parallel)
+				.forEach(i -> this.keys[i] = this.getKey(bodies, i, this.minX, this.minY, this.rootSide));
+		if (parallel) {
+			// Run by a pool thread, it forks into the same pool
+			Arrays.parallelSort(this.keys, 0, this.nBodies);
+		} else {
+			Arrays.sort(this.keys, 0, this.nBodies);
+		}
+		this.getRange(parallel).forEach(k -> {
+			this.sorted[k] = (int) this.keys[k];
+			this.ranks[this.sorted[k]] = k;
+		});
+	}
+
+	private IntStream getRange(final boolean parallel) {
+		final IntStream range = IntStream.range(0, this.nBodies);
+		return parallel ? range.parallel() : range;
+	}
+
+	private static void addToBounds(final double[] bounds, final double posX, final double posY) {
+		bounds[0] = Math.min(bounds[0], posX);
+		bounds[1] = Math.min(bounds[1], posY);
+		bounds[2] = Math.max(bounds[2], posX);
+		bounds[3] = Math.max(bounds[3], posY);
+	}
+
+	/* Returns the sorting key of the i-th body: its Morton code in the high bits and its index in the low ones */
+	private long getKey(final BodyStore bodies, final int i, final double originX, final double originY,
+			final double side) {
+		final int cellX = QuadTree.getCell(bodies.getPosX()[i], originX, side);
+		final int cellY = QuadTree.getCell(bodies.getPosY()[i], originY, side);
+		final long code = QuadTree.spreadBits(cellX) | QuadTree.spreadBits(cellY) << 1;
+		return code << 32 | i;
+	}
+
+	private static int getCell(final double pos, final double min, final double side) {
+		final int cell = (int) ((pos - min) / side * QuadTree.CELLS);
+		return Math.min(Math.max(cell, 0), QuadTree.CELLS - 1);
+	}
+
+	/* Interleaves the bits of value with zeros: b14..b1b0 -> 0b14..0b10b0 */
+	private static long spreadBits(final int value) {
+		long x = value & 0x7FFF;
+		x = (x | x << 8) & 0x00FF00FFL;
+		x = (x | x << 4) & 0x0F0F0F0FL;
+		x = (x | x << 2) & 0x33333333L;
+		x = (x | x << 1) & 0x55555555L;
+		return x;
+	}
+
+	/* Returns the quadrant (0-3) of the key's cell at the given depth */
+	private static int getQuadrant(final long key, final int depth) {
+		return (int) (key >>> (32 + 2 * (QuadTree.MAX_DEPTH - 1 - depth))) & 3;
+	}
+
+	/* Returns the first sorted body in [from, to) whose cell lies in a quadrant >= q at the given depth */
+	private int getQuadrantStart(final int from, final int to, final int depth, final int q) {
+		int low = from;
+		int high = to;
+		while (low < high) {
+			final int mid = low + high >>> 1;
+			if (QuadTree.getQuadrant(this.keys[mid], depth) < q) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/* Builds the node holding the sorted bodies in [from, to) and its subtree, then calculates its centre of mass */
+	private void buildNode(final BodyStore bodies, final int node, final int depth, final int from, final int to,
+			final double side) {
+		if (this.initNode(bodies, node, depth, from, to, side)) {
+			return;
+		}
+		if (depth == QuadTree.MAX_DEPTH) {
+			// Morton codes can't split the node anymore: it's built again over its bodies sorted within their bounds
+			final double nodeSide = this.sortRange(bodies, from, to);
+			if (nodeSide == 0D) {
+				this.setLeaf(bodies, node, from, to);
+			} else {
+				this.buildNode(bodies, node, 0, from, to, nodeSide);
+			}
+			return;
+		}
+
+		final int[] bounds = new int[5];
+		if (!this.allocateChildren(node, depth, from, to, bounds)) {
+			return;
+		}
+		for (int q = 0; q < 4; q++) {
+			final int child = this.children[4 * node + q];
+			if (child != QuadTree.NO_CHILD) {
+				this.buildNode(bodies, child, depth + 1, bounds[q], bounds[q + 1], side / 2);
+			}
+		}
+		this.reduceMass(node);
+	}
+
+	/* Initialises the node holding the sorted bodies in [from, to). If it's a leaf, calculates its centre of mass */
+	private boolean initNode(final BodyStore bodies, final int node, final int depth, final int from, final int to,
+			final double side) {
+		this.first[node] = from;
+		this.count[node] = to - from;
+		this.side[node] = side;
+
+		if (to - from > this.leafSize) {
+			return false;
+		}
+		this.setLeaf(bodies, node, from, to);
+		return true;
+	}
+
+	/*
+	 * Sorts the bodies in [from, to) by the Morton code of their position within their own bounds and returns the
+	 * bounds side, or 0 if the bodies are too close to be split
+	 */
+	private double sortRange(final BodyStore bodies, final int from, final int to) {
+		final double[] posX = bodies.getPosX();
+		final double[] posY = bodies.getPosY();
+		final double[] bounds = { Double.MAX_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE };
+		for (int k = from; k < to; k++) {
+			QuadTree.addToBounds(bounds, posX[this.sorted[k]], posY[this.sorted[k]]);
+		}
+		final double rangeSide = Math.max(bounds[2] - bounds[0], bounds[3] - bounds[1]);
+		if (rangeSide <= Position.NULL_DISTANCE) {
+			return 0D;
+		}
+
+		for (int k = from; k < to; k++) {
+			this.keys[k] = this.getKey(bodies, this.sorted[k], bounds[0], bounds[1], rangeSide);
+		}
+		Arrays.sort(this.keys, from, to);
+		for (int k = from; k < to; k++) {
+			this.sorted[k] = (int) this.keys[k];
+			this.ranks[this.sorted[k]] = k;
+		}
+		return rangeSide;
+	}
+
+	private void setLeaf(final BodyStore bodies, final int node, final int from, final int to) {
+		this.children[4 * node] = QuadTree.LEAF;
+		final double[] bodiesMass = bodies.getMass();
+		final double[] posX = bodies.getPosX();
+		final double[] posY = bodies.getPosY();
+		double nodeMass = 0D;
+		double momentX = 0D;
+		double momentY = 0D;
+		for (int k = from; k < to; k++) {
+			final int j = this.sorted[k];
+			nodeMass += bodiesMass[j];
+			momentX += bodiesMass[j] * posX[j];
+			momentY += bodiesMass[j] * posY[j];
+		}
+		this.setMass(node, nodeMass, momentX, momentY);
+	}
+
+	/* Allocates a child for each non-empty quadrant of the node, storing the quadrants ranges into bounds */
+	private boolean allocateChildren(final int node, final int depth, final int from, final int to,
+			final int[] bounds) {
+		int nChildren = 0;
+		bounds[0] = from;
+		bounds[4] = to;
+		for (int q = 1; q < 4; q++) {
+			bounds[q] = this.getQuadrantStart(bounds[q - 1], to, depth, q);
+		}
+		for (int q = 0; q < 4; q++) {
+			nChildren += bounds[q + 1] > bounds[q] ? 1 : 0;
+		}
+
+		int child = this.newNodes(nChildren);
+		if (child == QuadTree.NO_CHILD) {
+			return false;
+		}
+		for (int q = 0; q < 4; q++) {
+			this.children[4 * node + q] = bounds[q + 1] > bounds[q] ? child++ : QuadTree.NO_CHILD;
+		}
+		return true;
+	}
+
+	/* Calculates the node mass and centre of mass from its children's ones */
+	private void reduceMass(final int node) {
+		double nodeMass = 0D;
+		double momentX = 0D;
+		double momentY = 0D;
+		for (int q = 0; q < 4; q++) {
+			final int child = this.children[4 * node + q];
+			if (child != QuadTree.NO_CHILD) {
+				nodeMass += this.mass[child];
+				momentX += this.mass[child] * this.massX[child];
+				momentY += this.mass[child] * this.massY[child];
+			}
+		}
+		this.setMass(node, nodeMass, momentX, momentY);
+	}
+
+	private void setMass(final int node, final double nodeMass, final double momentX, final double momentY) {
+		this.mass[node] = nodeMass;
+		this.massX[node] = momentX / nodeMass;
+		this.massY[node] = momentY / nodeMass;
+	}
+
+	/* Atomically allocates n contiguous nodes and returns the first one, or NO_CHILD if there isn't enough room */
+	private int newNodes(final int n) {
+		final int node = this.nNodes.getAndAdd(n);
+		if (node + n > this.first.length) {
+			this.overflow = true;
+			return QuadTree.NO_CHILD;
+		}
+		return node;
+	}
+
+	/* Allocates the nodes arrays: the previous content is lost */
+	private void allocateNodes(final int capacity) {
+		this.first = new int[capacity];
+		this.count = new int[capacity];
+		this.children = new int[4 * capacity];
+		this.side = new double[capacity];
+		this.mass = new double[capacity];
+		this.massX = new double[capacity];
+		this.massY = new double[capacity];
+	}
+
+	/**
+	 * Task that builds a subtree, forking a new task for each of its children.
+	 * Subtrees with less than PARALLEL_THRESHOLD bodies are built sequentially.
+	 */
+	private class BuildTask extends RecursiveAction {
+		private static final long serialVersionUID = 6118230497467935262L;
+
+		private final BodyStore bodies;
+		private final int node;
+		private final int depth;
+		private final int from;
+		private final int to;
+		private final double side;
+
+		public BuildTask(final BodyStore bodies, final int node, final int depth, final int from, final int to,
+				final double side) {
+			this.bodies = bodies;
+			this.node = node;
+			this.depth = depth;
+			this.from = from;
+			this.to = to;
+			this.side = side;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.to - this.from < QuadTree.PARALLEL_THRESHOLD || this.depth == QuadTree.MAX_DEPTH) {
+				QuadTree.this.buildNode(this.bodies, this.node, this.depth, this.from, this.to, this.side);
+				return;
+			}
+			if (QuadTree.this.initNode(this.bodies, this.node, this.depth, this.from, this.to, this.side)) {
+				return;
+			}
+
+			final int[] bounds = new int[5];
+			if (!QuadTree.this.allocateChildren(this.node, this.depth, this.from, this.to, bounds)) {
+				return;
+			}
+			final List<BuildTask> tasks = new ArrayList<>(4);
+			for (int q = 0; q < 4; q++) {
+				final int child = QuadTree.this.children[4 * this.node + q];
+				if (child != QuadTree.NO_CHILD) {
+					tasks.add(new BuildTask(this.bodies, child, this.depth + 1, bounds[q], bounds[q + 1],
+							this.side / 2));
+				}
+			}
+			ForkJoinTask.invokeAll(tasks);
+			QuadTree.this.reduceMass(this.node);
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the frames of a trajectory file written by TrajectoryWriter, one after the other: next() moves to the
+ * following frame, whose step, positions and speeds are returned by the getters.
+ * The values of the frames written with quanta are the multiples of the quanta they have been rounded to.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public class TrajectoryReader implements AutoCloseable {
+	private final FileChannel channel;
+	private final int nBodies;
+	private final double positionQuantum;
+	private final double speedQuantum;
+	private final ByteBuffer frameHeader;
+	private final ByteBuffer buffer;
+	private final long[] multiples;  // Of the quanta, of the current frame, column after column
+
+	private long step;
+	private final double[] posX;
+	private final double[] posY;
+	private final double[] speedX;
+	private final double[] speedY;
+
+	public TrajectoryReader(final Path path) throws IOException {
+		super();
+		this.channel = FileChannel.open(path, StandardOpenOption.READ);
+		final ByteBuffer header = ByteBuffer.allocate(TrajectoryWriter.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		if (!this.read(header) || header.getInt() != TrajectoryWriter.MAGIC
+				|| header.getInt() != TrajectoryWriter.VERSION) {
+			this.channel.close();
+			throw new IOException("Not a trajectory of version " + TrajectoryWriter.VERSION + ": " + path);
+		}
+		this.nBodies = header.getInt();
+		if (this.nBodies < 0) {
+			this.channel.close();
+			throw new IOException("Not a trajectory: " + path);
+		}
+		header.getInt();  // Padding
+		this.positionQuantum = header.getDouble();
+		this.speedQuantum = header.getDouble();
+
+		this.frameHeader = ByteBuffer.allocate(TrajectoryWriter.FRAME_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		this.buffer = ByteBuffer.allocateDirect(TrajectoryWriter.COLUMNS * this.nBodies
+				* Math.max(Double.BYTES, TrajectoryWriter.MAX_VARINT_BYTES)).order(ByteOrder.LITTLE_ENDIAN);
+		this.multiples = new long[TrajectoryWriter.COLUMNS * this.nBodies];
+		this.step = -1L;
+		this.posX = new double[this.nBodies];
+		this.posY = new double[this.nBodies];
+		this.speedX = new double[this.nBodies];
+		this.speedY = new double[this.nBodies];
+	}
+
+	/**
+	 * Moves to the next frame. Returns false, leaving the current one, if there are no more complete frames.
+	 */
+	public boolean next() throws IOException {
+		this.frameHeader.clear();
+		if (!this.read(this.frameHeader)) {
+			return false;
+		}
+		final long frameStep = this.frameHeader.getLong();
+		final int kind = this.frameHeader.getInt();
+		final int bytes = this.frameHeader.getInt();
+		if (bytes < 0 || bytes > this.buffer.capacity()) {
+			throw new IOException("Corrupted frame at step " + frameStep);
+		}
+		this.buffer.clear().limit(bytes);
+		if (!this.read(this.buffer)) {
+			return false;
+		}
+
+		if (kind == TrajectoryWriter.RAW) {
+			this.buffer.asDoubleBuffer().get(this.posX).get(this.posY).get(this.speedX).get(this.speedY);
+		} else if (kind == TrajectoryWriter.KEY || kind == TrajectoryWriter.DELTA) {
+			if (kind == TrajectoryWriter.DELTA && this.step < 0) {
+				throw new IOException("Delta frame without a key frame at step " + frameStep);
+			}
+			this.getColumn(0, this.posX, this.positionQuantum, kind);
+			this.getColumn(1, this.posY, this.positionQuantum, kind);
+			this.getColumn(2, this.speedX, this.speedQuantum, kind);
+			this.getColumn(3, this.speedY, this.speedQuantum, kind);
+		} else {
+			throw new IOException("Unknown frame kind " + kind + " at step " + frameStep);
+		}
+		this.step = frameStep;
+		return true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.channel.close();
+	}
+
+	public int getNBodies() {
+		return this.nBodies;
+	}
+
+	public long getStep() {
+		return this.step;
+	}
+
+	public double[] getPosX() {
+		return this.posX;
+	}
+
+	public double[] getPosY() {
+		return this.posY;
+	}
+
+	public double[] getSpeedX() {
+		return this.speedX;
+	}
+
+	public double[] getSpeedY() {
+		return this.speedY;
+	}
+
+	/* Gets the zigzag varints of a column, adding them to the previous frame ones if it's a DELTA frame */
+	private void getColumn(final int column, final double[] values, final double quantum, final int kind)
+			throws IOException {
+		final int offset = column * this.nBodies;
+		for (int i = 0; i < this.nBodies; i++) {
+			long zigzag = 0L;
+			int shift = 0;
+			byte b;
+			do {
+				if (!this.buffer.hasRemaining() || shift > 63) {
+					throw new IOException("Corrupted frame");
+				}
+				b = this.buffer.get();
+				zigzag |= (long) (b & 0x7F) << shift;
+				shift += 7;
+			} while ((b & 0x80) != 0);
+			final long delta = (zigzag >>> 1) ^ -(zigzag & 1);
+			this.multiples[offset + i] = kind == TrajectoryWriter.KEY ? delta : this.multiples[offset + i] + delta;
+			values[i] = this.multiples[offset + i] * quantum;
+		}
+	}
+
+	/* Fills the buffer from the file and flips it. Returns false if the file ends first. */
+	private boolean read(final ByteBuffer target) throws IOException {
+		while (target.hasRemaining()) {
+			if (this.channel.read(target) < 0) {
+				return false;
+			}
+		}
+		target.flip();
+		return true;
+	}
+}
@@ -0,0 +1,180 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends frames of the bodies (positions and speeds at a step) to a trajectory file, read by TrajectoryReader.
+ *
+ * The file is little-endian: a HEADER_BYTES header (MAGIC, VERSION, number of bodies, quanta), then the frames one
+ * after the other. Each frame has a FRAME_HEADER_BYTES header (step, kind, payload bytes) and a columnar payload:
+ * all the x positions, then the y ones, the x speeds and the y speeds.
+ * RAW frames hold the doubles as they are. If the quanta are greater than 0, each value is rounded to a multiple of
+ * its quantum instead: KEY frames hold the multiples, DELTA frames their differences from the previous frame, each
+ * as a zigzag varint, so the bodies that barely move take a byte per value. A KEY frame is written every
+ * KEY_FRAME_INTERVAL frames, to read the file from the middle, and after a frame that couldn't be written: the
+ * part of it that reached the file is cut, so the following frames are still read.
+ *
+ * Not thread safe: frames are written by a single Thread, encoded into a direct buffer.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public class TrajectoryWriter implements AutoCloseable {
+	public static final int MAGIC = 0x4E425452;  // "NBTR"
+	public static final int VERSION = 1;
+	public static final int HEADER_BYTES = 32;
+	public static final int FRAME_HEADER_BYTES = 16;
+	public static final int RAW = 0;
+	public static final int KEY = 1;
+	public static final int DELTA = 2;
+	public static final int KEY_FRAME_INTERVAL = 100;
+	static final int COLUMNS = 4;
+	static final int MAX_VARINT_BYTES = 10;
+
+	private final FileChannel channel;
+	private final int nBodies;
+	private final double positionQuantum;  // m, 0 for RAW frames
+	private final double speedQuantum;  // m/s
+	private final ByteBuffer buffer;
+	private long[] previous;  // Multiples of the quanta of the previous frame written, column after column
+	private long[] current;  // Multiples of the quanta of the frame being written
+	private boolean keyNeeded;  // The previous frame has not been written
+	private long frames;
+
+	public TrajectoryWriter(final Path path, final int nBodies, final double positionQuantum,
+			final double speedQuantum) throws IOException {
+		super();
+		if (positionQuantum < 0 || speedQuantum < 0 || (positionQuantum == 0) != (speedQuantum == 0)) {
+			throw new IllegalArgumentException(
+					"Quanta must be both greater than 0 or both 0: " + positionQuantum + ", " + speedQuantum);
+		}
+		this.nBodies = nBodies;
+		this.positionQuantum = positionQuantum;
+		this.speedQuantum = speedQuantum;
+		final int valueBytes = this.isQuantised() ? TrajectoryWriter.MAX_VARINT_BYTES : Double.BYTES;
+		final int frameBytes = TrajectoryWriter.FRAME_HEADER_BYTES + TrajectoryWriter.COLUMNS * nBodies * valueBytes;
+		this.buffer = ByteBuffer.allocateDirect(Math.max(TrajectoryWriter.HEADER_BYTES, frameBytes))
+				.order(ByteOrder.LITTLE_ENDIAN);
+		this.previous = new long[this.isQuantised() ? TrajectoryWriter.COLUMNS * nBodies : 0];
+		this.current = new long[this.previous.length];
+		this.keyNeeded = true;
+		this.frames = 0L;
+
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			this.buffer.putInt(TrajectoryWriter.MAGIC).putInt(TrajectoryWriter.VERSION).putInt(nBodies).putInt(0)
+					.putDouble(positionQuantum).putDouble(speedQuantum);
+			this.flush();
+		} catch (final IOException e) {
+			this.channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Appends the frame of the bodies at the given step.
+	 * If it can't be written, the file is left as it was before it and the next frame is a KEY one.
+	 */
+	public void write(final long step, final BodyStore bodies) throws IOException {
+		if (bodies.size() != this.nBodies) {
+			throw new IllegalArgumentException("Expected " + this.nBodies + " bodies: " + bodies.size());
+		}
+		final int kind;
+		if (!this.isQuantised()) {
+			kind = TrajectoryWriter.RAW;
+		} else {
+			kind = this.keyNeeded || this.frames % TrajectoryWriter.KEY_FRAME_INTERVAL == 0 ? TrajectoryWriter.KEY
+					: TrajectoryWriter.DELTA;
+		}
+		this.keyNeeded = true;  // Until the frame is written
+		this.buffer.clear();
+		this.buffer.putLong(step).putInt(kind).putInt(0);  // Payload bytes, set once known
+		if (kind == TrajectoryWriter.RAW) {
+			this.buffer.asDoubleBuffer().put(bodies.getPosX()).put(bodies.getPosY()).put(bodies.getSpeedX())
+					.put(bodies.getSpeedY());
+			this.buffer.position(this.buffer.position() + TrajectoryWriter.COLUMNS * this.nBodies * Double.BYTES);
+		} else {
+			this.putColumn(0, bodies.getPosX(), this.positionQuantum, kind);
+			this.putColumn(1, bodies.getPosY(), this.positionQuantum, kind);
+			this.putColumn(2, bodies.getSpeedX(), this.speedQuantum, kind);
+			this.putColumn(3, bodies.getSpeedY(), this.speedQuantum, kind);
+		}
+		this.buffer.putInt(Long.BYTES + Integer.BYTES,
+				this.buffer.position() - TrajectoryWriter.FRAME_HEADER_BYTES);
+
+		final long start = this.channel.position();
+		try {
+			this.flush();
+		} catch (final IOException e) {
+			this.cut(start);
+			throw e;
+		}
+		// The frame is in the file: the next deltas are from it
+		final long[] written = this.current;
+		this.current = this.previous;
+		this.previous = written;
+		this.keyNeeded = false;
+		this.frames++;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.channel.close();
+	}
+
+	/**
+	 * Returns the number of frames written
+	 */
+	public long getFrames() {
+		return this.frames;
+	}
+
+	private boolean isQuantised() {
+		return this.positionQuantum > 0;
+	}
+
+	/* Puts the multiples of the quantum, or their differences from the previous frame, as zigzag varints */
+	private void putColumn(final int column, final double[] values, final double quantum, final int kind) {
+		final int offset = column * this.nBodies;
+		for (int i = 0; i < this.nBodies; i++) {
+			final long multiple = Math.round(values[i] / quantum);
+			final long delta = kind == TrajectoryWriter.KEY ? multiple : multiple - this.previous[offset + i];
+			this.current[offset + i] = multiple;
+
+			long zigzag = (delta << 1) ^ (delta >> 63);
+			while ((zigzag & ~0x7FL) != 0) {
+				this.buffer.put((byte) ((zigzag & 0x7F) | 0x80));
+				zigzag >>>= 7;
+			}
+			this.buffer.put((byte) zigzag);
+		}
+	}
+
+	/* Writes the buffer to the file and clears it, even if it can't be written */
+	private void flush() throws IOException {
+		try {
+			this.buffer.flip();
+			while (this.buffer.hasRemaining()) {
+				this.channel.write(this.buffer);
+			}
+		} finally {
+			this.buffer.clear();
+		}
+	}
+
+	/* Cuts the part of a frame that reached the file before failing, if it can */
+	private void cut(final long start) {
+		try {
+			this.channel.truncate(start);
+			this.channel.position(start);
+		} catch (@SuppressWarnings("unused") final IOException e) {
+			// The reader stops at the partial frame
+		}
+	}
+}
@@ -4,13 +4,20 @@ package model;
  * Stores a Triangular Matrix of Forces without the main diagonal
  * Can't use Java Generics because they slow down the matrix too much.
  *
+ * The Forces are stored column by column as their x and y components, interleaved, in chunks of doubles: no Force
+ * object is kept, and the long indexes remove the size limit of a single int indexed array.
+ *
  * @author Andrea Sperandio
  *
  */
 public class TriangularMatrix {
+	private static final int CHUNK_SHIFT = 24;  // 2^24 doubles (128 MB) per chunk
+	private static final int CHUNK_SIZE = 1 << TriangularMatrix.CHUNK_SHIFT;
+	private static final int CHUNK_MASK = TriangularMatrix.CHUNK_SIZE - 1;
+
 	private final int rowSize;
 	private final int nRows;
-	private final Force[] elems;
+	private final double[][] chunks;
 
 	public TriangularMatrix(final int rowSize) {
 		this(rowSize, rowSize);
@@ -19,22 +26,109 @@ public class TriangularMatrix {
 	public TriangularMatrix(final int nRows, final int rowSize) {
 		this.rowSize = rowSize;
 		this.nRows = nRows < rowSize ? nRows : rowSize;
-		this.elems = new Force[this.getFirstElem(rowSize)];
+
+		final long nDoubles = 2 * this.getFirstElem(rowSize);
+		final int nChunks = (int) ((nDoubles + TriangularMatrix.CHUNK_MASK) >>> TriangularMatrix.CHUNK_SHIFT);
+		this.chunks = new double[nChunks][];
+		for (int c = 0; c < nChunks; c++) {
+			this.chunks[c] = new double[(int) Math.min(TriangularMatrix.CHUNK_SIZE,
+					nDoubles - ((long) c << TriangularMatrix.CHUNK_SHIFT))];
+		}
 	}
 
 	public void set(final int i, final int j, final Force value) {
+		if (value == null) {
+			this.set(i, j, 0D, 0D);
+		} else {
+			this.set(i, j, value.getXComp(), value.getYComp());
+		}
+	}
+
+	public void set(final int i, final int j, final double forceX, final double forceY) {
 		if (!this.isValid(i, j)) {
 			return;
 		}
-		this.elems[this.getElemIndex(i, j)] = value;
+		final long index = 2 * this.getElemIndex(i, j);
+		final double[] chunk = this.chunks[(int) (index >>> TriangularMatrix.CHUNK_SHIFT)];
+		final int offset = (int) (index & TriangularMatrix.CHUNK_MASK);
+		chunk[offset] = forceX;
+		chunk[offset + 1] = forceY;
+	}
+
+	/**
+	 * Calculates the Force the body bj exerts on the body bi and stores it in (i, j), without creating any object.
+	 */
+	public void setForce(final int i, final int j, final Body bi, final Body bj) {
+		final double deltaX = bj.getPosition().getX() - bi.getPosition().getX();
+		final double deltaY = bj.getPosition().getY() - bi.getPosition().getY();
+		final double lambda = Force.getLambda(bi.getMass(), bj.getMass(), deltaX, deltaY);
+		this.set(i, j, deltaX * lambda, deltaY * lambda);
 	}
 
+	/**
+	 * Creates a new Force holding the (i, j) element
+	 */
 	public Force get(final int i, final int j) {
 		if (!this.isValid(i, j)) {
 			return Force.NULL;
 		}
 
-		return this.elems[this.getElemIndex(i, j)];
+		final long index = 2 * this.getElemIndex(i, j);
+		final double[] chunk = this.chunks[(int) (index >>> TriangularMatrix.CHUNK_SHIFT)];
+		final int offset = (int) (index & TriangularMatrix.CHUNK_MASK);
+		return new Force(chunk[offset], chunk[offset + 1]);
+	}
+
+	public double getX(final int i, final int j) {
+		return this.getComp(i, j, 0);
+	}
+
+	public double getY(final int i, final int j) {
+		return this.getComp(i, j, 1);
+	}
+
+	/**
+	 * Adds to the accumulator the total Force the i-th body is subjected to: the elements of the i-th row plus the
+	 * ones of the i-th column, with the opposite orientation. No object is created.
+	 */
+	public Vector accumulate(final int i, final Vector accumulator) {
+		double forceX = 0D;
+		double forceY = 0D;
+		// Horizontal
+		if (i < this.nRows) {
+			for (int j = i + 1; j < this.rowSize; j++) {
+				final long index = 2 * this.getElemIndex(i, j);
+				final double[] chunk = this.chunks[(int) (index >>> TriangularMatrix.CHUNK_SHIFT)];
+				final int offset = (int) (index & TriangularMatrix.CHUNK_MASK);
+				forceX += chunk[offset];
+				forceY += chunk[offset + 1];
+			}
+		}
+		// Vertical: contiguous elements of the i-th column
+		final int nElems = Math.min(i, this.nRows);
+		long index = 2 * this.getFirstElem(i);
+		for (int k = 0; k < nElems; k++, index += 2) {
+			final double[] chunk = this.chunks[(int) (index >>> TriangularMatrix.CHUNK_SHIFT)];
+			final int offset = (int) (index & TriangularMatrix.CHUNK_MASK);
+			forceX -= chunk[offset];
+			forceY -= chunk[offset + 1];
+		}
+		return accumulator.sum(forceX, forceY);
+	}
+
+	/**
+	 * Copies each (i, j) element of this matrix into the (i + offset, j + offset) element of the target one, column
+	 * by column.
+	 */
+	public void copyInto(final TriangularMatrix target, final int offset) {
+		final int lastCol = Math.min(this.rowSize, target.rowSize - offset);
+		for (int j = 1; j < lastCol; j++) {
+			final int nElems = Math.min(Math.min(j, this.nRows), target.nRows - offset);
+			if (nElems > 0) {
+				TriangularMatrix.copy(this, this.getFirstElem(j), target, target.getElemIndex(offset, j + offset),
+						nElems);
+			}
+		}
 	}
 
 	public void print() {
@@ -50,38 +144,72 @@ public class TriangularMatrix {
 		return this.rowSize;
 	}
 
-	/** Inefficient method */
+	/**
+	 * Creates a new matrix holding the first nRows rows of the given one.
+	 * Each column keeps its first elements, so they are copied in bulk.
+	 */
 	public static TriangularMatrix copyOfRange(final TriangularMatrix matrix, final int nRows) {
 		final TriangularMatrix newMatrix = new TriangularMatrix(nRows, matrix.rowSize);
-		for (int i = 0; i < nRows; i++) {
-			for (int j = i + 1; j < newMatrix.rowSize; j++) {
-				newMatrix.set(i, j, matrix.get(i, j));
-			}
+
+		// The first columns are whole in both matrices, so they are stored the same way
+		final int wholeCols = Math.min(newMatrix.nRows, matrix.nRows) + 1;
+		TriangularMatrix.copy(matrix, 0, newMatrix, 0, newMatrix.getFirstElem(wholeCols));
+		for (int j = wholeCols; j < newMatrix.rowSize; j++) {
+			TriangularMatrix.copy(matrix, matrix.getFirstElem(j), newMatrix, newMatrix.getFirstElem(j),
+					Math.min(newMatrix.nRows, matrix.nRows));
 		}
 		return newMatrix;
 	}
 
-	private int getElemIndex(final int i, final int j) {
+	/* Copies nElems Forces from the source element to the target one, chunk by chunk */
+	private static void copy(final TriangularMatrix source, final long sourceElem, final TriangularMatrix target,
+			final long targetElem, final long nElems) {
+		long sourceIndex = 2 * sourceElem;
+		long targetIndex = 2 * targetElem;
+		long nDoubles = 2 * nElems;
+		while (nDoubles > 0) {
+			final int sourceOffset = (int) (sourceIndex & TriangularMatrix.CHUNK_MASK);
+			final int targetOffset = (int) (targetIndex & TriangularMatrix.CHUNK_MASK);
+			final int length = (int) Math.min(nDoubles,
+					TriangularMatrix.CHUNK_SIZE - Math.max(sourceOffset, targetOffset));
+			System.arraycopy(source.chunks[(int) (sourceIndex >>> TriangularMatrix.CHUNK_SHIFT)], sourceOffset,
+					target.chunks[(int) (targetIndex >>> TriangularMatrix.CHUNK_SHIFT)], targetOffset, length);
+			sourceIndex += length;
+			targetIndex += length;
+			nDoubles -= length;
+		}
+	}
+
+	private double getComp(final int i, final int j, final int comp) {
+		if (!this.isValid(i, j)) {
+			return 0D;
+		}
+		final long index = 2 * this.getElemIndex(i, j) + comp;
+		return this.chunks[(int) (index >>> TriangularMatrix.CHUNK_SHIFT)][(int) (index
+				& TriangularMatrix.CHUNK_MASK)];
+	}
+
+	private long getElemIndex(final int i, final int j) {
 		return this.getFirstElem(j) + i;
 	}
 
 	/** Consinders a Triangular Matrix without the main diagonal and having nRows rows only */
-	private int getFirstElem(final int col) {
-		final int prec = col - 1;
+	private long getFirstElem(final int col) {
+		final long prec = col - 1;
 		if (this.nRows == this.rowSize) {
 			return TriangularMatrix.sumFormula(prec);
 		}
 
-		final int delta = prec - this.nRows;
+		final long delta = prec - this.nRows;
 		return TriangularMatrix.sumFormula(prec) - TriangularMatrix.sumFormula(delta);
 	}
 
 	/** Sum of the first n positive elements: (n + 1) * n / 2 = (n * n + n) / 2 */
-	private static int sumFormula(final int n) {
+	private static long sumFormula(final long n) {
 		return n > 0 ? (n * n + n) / 2 : 0;
 	}
 
 	private boolean isValid(final int i, final int j) {
 		return i >= 0 && i < j && i < this.nRows && j > 0 && j < this.rowSize;
 	}
-}
\ No newline at end of file
+}
@@ -48,6 +48,24 @@ public class Vector {
 		return this;
 	}
 
+	/**
+	 * Modifies this Vector, adding the given components
+	 */
+	public Vector sum(final double xComp, final double yComp) {
+		this.xComp += xComp;
+		this.yComp += yComp;
+		return this;
+	}
+
+	/**
+	 * Modifies this Vector, performing a vector difference
+	 */
+	public Vector subtract(final Vector vector) {
+		this.xComp -= vector.xComp;
+		this.yComp -= vector.yComp;
+		return this;
+	}
+
 	/**
 	 * Creates a new Vector, performing a vector sum
 	 */
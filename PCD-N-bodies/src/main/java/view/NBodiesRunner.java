@@ -0,0 +1,302 @@
+package view;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import control.Checkpointer;
+import control.DurationTracker;
+import control.Strategy;
+import control.StrategyBuilder;
+import control.StrategyParams;
+import control.TrajectoryRecorder;
+import control.TrajectoryRecorder.Overflow;
+import control.kernel.Precision;
+import model.BodyStore;
+import model.Checkpoint;
+import model.Integrator;
+import view.util.NBLocalizator;
+
+/**
+ * Headless entry point: runs the steps of a Strategy back to back, at full speed and without any painting, then
+ * prints the time required by each phase and its throughput.
+ *
+ * The options are given as "--name value" pairs: see the usage. The bodies are created from the seed, so that two
+ * runs with the same options move the same bodies, or restored from a Checkpoint.
+ * The threads option sizes the pools of the strategies and the common ForkJoinPool used by the parallel streams: it
+ * has to be set before anything uses it, so it's done before the Strategy is built.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public class NBodiesRunner {
+	private static final NBLocalizator LOC = new NBLocalizator(NBodiesRunner.class);
+
+	private static final StrategyBuilder STRATEGY = StrategyBuilder.SOA;
+	private static final int STEPS = 100;
+	private static final long SEED = 0L;
+	private static final double SPACE_SIZE = 1000.0;  // m, side of the square the bodies are created in
+	private static final int CHECKPOINT_INTERVAL = 100;  // steps
+	private static final int RECORD_INTERVAL = 10;  // steps
+	private static final int RECORD_CAPACITY = 16;  // frames
+	private static final Overflow RECORD_OVERFLOW = Overflow.BLOCK;  // A batch run keeps all the frames
+	private static final double RECORD_POSITION_QUANTUM = 0.001;  // m
+	private static final double RECORD_SPEED_QUANTUM = 0.000000000001;  // m/s
+	private static final double NANOS_PER_SECOND = 1000000000.0;
+
+	private StrategyBuilder strategyBuilder = NBodiesRunner.STRATEGY;
+	private int nBodies = NBodiesView.N_BODIES;
+	private int deltaTime = NBodiesView.DELTA_TIME;
+	private int steps = NBodiesRunner.STEPS;
+	private long seed = NBodiesRunner.SEED;
+	private final StrategyParams params = new StrategyParams();
+	private Path checkpointPath;
+	private Path restorePath;
+	private Path recordPath;
+
+	// Nanos required by each phase
+	private long durationCreateBodies;
+	private long durationSetup;
+	private long durationCalcAndMove;
+	private long durationStepped;
+
+	/**
+	 * Reads the options from the arguments. Throws IllegalArgumentException if any is unknown or has an invalid value.
+	 */
+	public NBodiesRunner(final String[] args) {
+		super();
+		if (args.length % 2 != 0) {
+			throw new IllegalArgumentException(args[args.length - 1]);
+		}
+		for (int i = 0; i < args.length; i += 2) {
+			final String value = args[i + 1];
+			switch (args[i]) {
+			case "--strategy":
+				this.strategyBuilder = StrategyBuilder.valueOf(NBodiesRunner.toConstant(value));
+				break;
+			case "--bodies":
+				this.nBodies = NBodiesRunner.parsePositive(args[i], value);
+				break;
+			case "--delta-time":
+				this.deltaTime = NBodiesRunner.parsePositive(args[i], value);
+				break;
+			case "--steps":
+				this.steps = NBodiesRunner.parsePositive(args[i], value);
+				break;
+			case "--seed":
+				this.seed = Long.parseLong(value);
+				break;
+			case "--threads":
+				this.params.setThreads(NBodiesRunner.parsePositive(args[i], value));
+				break;
+			case "--integrator":
+				this.params.setIntegrator(Integrator.valueOf(NBodiesRunner.toConstant(value)));
+				break;
+			case "--precision":
+				this.params.setPrecision(Precision.valueOf(NBodiesRunner.toConstant(value)));
+				break;
+			case "--checkpoint":
+				this.checkpointPath = Paths.get(value);
+				break;
+			case "--restore":
+				this.restorePath = Paths.get(value);
+				break;
+			case "--record":
+				this.recordPath = Paths.get(value);
+				break;
+			default:
+				throw new IllegalArgumentException(args[i]);
+			}
+		}
+	}
+
+	/**
+	 * Creates or restores the bodies, runs the steps and prints the durations.
+	 * Throws IOException if the Checkpoint to restore can't be read.
+	 */
+	public void run() throws IOException, InterruptedException {
+		// The common pool reads its parallelism once, when first used: the calling Thread works too
+		System.setProperty("java.util.concurrent.ForkJoinPool.common.parallelism",
+				String.valueOf(this.params.getThreads() - 1));
+		System.setProperty("jdk.virtualThreadScheduler.parallelism", String.valueOf(this.params.getThreads()));
+
+		DurationTracker dt = new DurationTracker("Create bodies").start();
+		final BodyStore bodies;
+		long step = 0L;
+		if (this.restorePath != null) {
+			final Checkpoint checkpoint = Checkpoint.read(this.restorePath);
+			bodies = checkpoint.getBodies();
+			step = checkpoint.getStep();
+			this.nBodies = bodies.size();
+		} else {
+			bodies = new BodyStore(this.nBodies);
+			bodies.createBodies(new Random(this.seed), NBodiesView.BODY_MIN_MASS, NBodiesView.BODY_MAX_MASS,
+					NBodiesRunner.SPACE_SIZE, NBodiesRunner.SPACE_SIZE, NBodiesView.BODY_MIN_SPEED,
+					NBodiesView.BODY_MAX_SPEED);
+		}
+		this.durationCreateBodies = dt.stop(false);
+
+		// Pools are started and kernels tuned when the Strategy is built
+		dt = new DurationTracker("Set up strategy").start();
+		final Strategy strategy = StrategyBuilder.buildStrategy(this.strategyBuilder, this.nBodies, this.deltaTime,
+				this.params);
+		strategy.setBodies(bodies);
+		this.durationSetup = dt.stop(false);
+
+		final Checkpointer checkpointer = this.checkpointPath != null
+				? new Checkpointer(this.checkpointPath, NBodiesRunner.CHECKPOINT_INTERVAL, step)
+				: null;
+		final TrajectoryRecorder recorder = this.recordPath != null ? this.createRecorder(step) : null;
+
+		System.out.println(NBodiesRunner.LOC.getRes("lblRun", this.strategyBuilder, this.nBodies, this.deltaTime,
+				this.steps, this.params.getThreads(), ForkJoinPool.getCommonPoolParallelism(),
+				this.restorePath != null ? this.restorePath : this.seed));
+		try {
+			this.runSteps(strategy, checkpointer, recorder);
+		} finally {
+			if (checkpointer != null) {
+				// The last steps are saved too
+				checkpointer.await();
+				checkpointer.checkpoint(strategy);
+				checkpointer.await();
+				NBodiesRunner.printErr("errCheckpointWrite", checkpointer.takeError());
+				checkpointer.close();
+			}
+			if (recorder != null) {
+				recorder.close();
+				NBodiesRunner.printErr("errRecordWrite", recorder.takeError());
+			}
+			strategy.clear();
+		}
+		this.print(recorder);
+	}
+
+	/* Returns a new TrajectoryRecorder, or null if the file can't be created: the steps are run anyway */
+	private TrajectoryRecorder createRecorder(final long step) {
+		try {
+			return new TrajectoryRecorder(this.recordPath, this.nBodies, NBodiesRunner.RECORD_INTERVAL,
+					NBodiesRunner.RECORD_CAPACITY, NBodiesRunner.RECORD_OVERFLOW, NBodiesRunner.RECORD_POSITION_QUANTUM,
+					NBodiesRunner.RECORD_SPEED_QUANTUM, step);
+		} catch (final IOException e) {
+			NBodiesRunner.printErr("errRecordWrite", e);
+			return null;
+		}
+	}
+
+	/* Runs the steps back to back, tracking the required time of each phase */
+	private void runSteps(final Strategy strategy, final Checkpointer checkpointer, final TrajectoryRecorder recorder)
+			throws InterruptedException {
+		final DurationTracker dtCalcAndMove = new DurationTracker("Calculate & Move");
+		final DurationTracker dtStepped = new DurationTracker("Checkpoint & Record");
+		for (int i = 0; i < this.steps; i++) {
+			dtCalcAndMove.start();
+			strategy.calculateAndMove();
+			this.durationCalcAndMove += dtCalcAndMove.stop(false);
+
+			dtStepped.start();
+			if (checkpointer != null) {
+				checkpointer.stepped(strategy);
+				NBodiesRunner.printErr("errCheckpointWrite", checkpointer.takeError());
+			}
+			if (recorder != null) {
+				recorder.stepped(strategy);
+				NBodiesRunner.printErr("errRecordWrite", recorder.takeError());
+			}
+			this.durationStepped += dtStepped.stop(false);
+		}
+	}
+
+	/* Prints the required time and the throughput of each phase */
+	private void print(final TrajectoryRecorder recorder) {
+		final double pairs = (double) this.nBodies * (this.nBodies - 1) / 2;
+		System.out.println(NBodiesRunner.LOC.getRes("lblCreateBodies",
+				DurationTracker.toMillsDuration(this.durationCreateBodies),
+				NBodiesRunner.perSecond(this.nBodies, this.durationCreateBodies)));
+		System.out.println(NBodiesRunner.LOC.getRes("lblSetup", DurationTracker.toMillsDuration(this.durationSetup)));
+		// The pairs are counted only where each one is calculated
+		System.out.println(NBodiesRunner.LOC.getRes(
+				this.strategyBuilder.isAllPairs() ? "lblCalcAndMovePairs" : "lblCalcAndMove",
+				DurationTracker.toMillsDuration(this.durationCalcAndMove),
+				NBodiesRunner.perSecond(this.steps, this.durationCalcAndMove),
+				NBodiesRunner.perSecond((double) this.nBodies * this.steps, this.durationCalcAndMove),
+				NBodiesRunner.perSecond(pairs * this.steps, this.durationCalcAndMove)));
+		if (this.checkpointPath != null || recorder != null) {
+			System.out.println(NBodiesRunner.LOC.getRes("lblStepped",
+					DurationTracker.toMillsDuration(this.durationStepped),
+					NBodiesRunner.perSecond(this.steps, this.durationStepped)));
+		}
+		if (recorder != null) {
+			System.out.println(NBodiesRunner.LOC.getRes("lblRecorded", recorder.getWritten(), recorder.getDropped()));
+		}
+		final long durationTotal = this.durationCreateBodies + this.durationSetup + this.durationCalcAndMove
+				+ this.durationStepped;
+		System.out.println(NBodiesRunner.LOC.getRes("lblTotal", DurationTracker.toMillsDuration(durationTotal)));
+	}
+
+	/* Returns the count per second, formatted, or null if no time has been measured */
+	private static String perSecond(final double count, final long nanos) {
+		return nanos > 0 ? String.format("%,.1f", count * NBodiesRunner.NANOS_PER_SECOND / nanos) : null;
+	}
+
+	private static void printErr(final String key, final IOException e) {
+		if (e != null) {
+			System.err.println(NBodiesRunner.LOC.getRes(key, e.getMessage()));
+		}
+	}
+
+	/* "fork-join" as FORK_JOIN */
+	private static String toConstant(final String value) {
+		return value.toUpperCase().replace('-', '_');
+	}
+
+	private static int parsePositive(final String name, final String value) {
+		final int parsed = Integer.parseInt(value);
+		if (parsed <= 0) {
+			throw new IllegalArgumentException(name + " " + NBodiesRunner.LOC.getRes("errNegativeValue"));
+		}
+		return parsed;
+	}
+
+	/* FORK_JOIN as "fork-join", for each of the values */
+	private static String getNames(final Enum<?>[] values) {
+		return Arrays.stream(values).map(v -> v.name().toLowerCase().replace('_', '-'))
+				.collect(Collectors.joining("|"));
+	}
+
+	private static void printUsage() {
+		System.err.println(NBodiesRunner.LOC.getRes("usage", NBodiesRunner.getNames(StrategyBuilder.values()),
+				NBodiesRunner.getNames(Integrator.values()), NBodiesRunner.getNames(Precision.values())));
+	}
+
+	public static void main(final String[] args) {
+		if (Arrays.asList(args).contains("--help")) {
+			NBodiesRunner.printUsage();
+			return;
+		}
+		final NBodiesRunner runner;
+		try {
+			runner = new NBodiesRunner(args);
+		} catch (final IllegalArgumentException e) {
+			System.err.println(NBodiesRunner.LOC.getRes("errArgs", e.getMessage()));
+			NBodiesRunner.printUsage();
+			System.exit(2);
+			return;
+		}
+
+		// Some strategies leave non-daemon Threads behind (the Akka ones): the JVM is ended explicitly
+		try {
+			runner.run();
+		} catch (final IOException e) {
+			System.err.println(NBodiesRunner.LOC.getRes("errCheckpointRead", e.getMessage()));
+			System.exit(1);
+		} catch (@SuppressWarnings("unused") final InterruptedException e) {
+			System.err.println(NBodiesRunner.LOC.getRes("errInterrupted"));
+			System.exit(1);
+		}
+		System.exit(0);
+	}
+}
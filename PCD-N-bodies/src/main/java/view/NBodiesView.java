@@ -11,6 +11,9 @@ import java.awt.Toolkit;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -21,15 +24,26 @@ import javax.swing.JPanel;
 import javax.swing.SwingUtilities;
 import javax.swing.WindowConstants;
 
+import control.BlockTimestepStrategy;
+import control.Checkpointer;
 import control.DurationTracker;
 import control.Strategy;
 import control.StrategyBuilder;
+import control.StrategyParams;
+import control.TrajectoryRecorder;
+import control.TrajectoryRecorder.Overflow;
+import control.kernel.Precision;
+import control.kernel.PrecisionReport;
 import model.Body;
+import model.Checkpoint;
+import model.Integrator;
+import model.Potential;
 import model.Position;
 import view.component.NBButton;
 import view.component.NBCheckBox;
 import view.component.NBComboBox;
 import view.component.NBComboBoxItem;
+import view.component.NBDoubleTextField;
 import view.component.NBIntTextField;
 import view.util.NBColor;
 import view.util.NBLocalizator;
@@ -43,15 +57,34 @@ public class NBodiesView extends JFrame {
 	private static final boolean DEBUG = false;
 
 	private static final int MIN_BODY_SIZE = 1;
-	private static final int N_BODIES = 5000;
-	private static final int DELTA_TIME = 10000;  // seconds
+	static final int N_BODIES = 5000;
+	static final int DELTA_TIME = 10000;  // seconds
 	private static final int REFRESH_RATE = 1000;  // millis
+	private static final double THETA = StrategyParams.DEF_THETA;
+	private static final int FMM_ORDER = StrategyParams.DEF_FMM_ORDER;
+	private static final int PM_GRID_SIZE = StrategyParams.DEF_PM_GRID_SIZE;
+	private static final boolean MATRIX_FREE = StrategyParams.DEF_MATRIX_FREE;
+	private static final int BLOCK_LEVELS = StrategyParams.DEF_BLOCK_LEVELS;
+	private static final Potential POTENTIAL = StrategyParams.DEF_POTENTIAL;
+	private static final double CUTOFF = StrategyParams.DEF_CUTOFF;
+	private static final double POTENTIAL_LENGTH = StrategyParams.DEF_POTENTIAL_LENGTH;
+	private static final double SKIN = StrategyParams.DEF_SKIN;
+	private static final Integrator INTEGRATOR = StrategyParams.DEF_INTEGRATOR;
+	private static final Precision PRECISION = StrategyParams.DEF_PRECISION;
 	private static final boolean CLEAR_TRACES = true;
-
-	private static final double BODY_MIN_MASS = 100000.0;  // Kg
-	private static final double BODY_MAX_MASS = 1000000.0;  // Kg
-	private static final double BODY_MIN_SPEED = -0.000001;  // m/s
-	private static final double BODY_MAX_SPEED = 0.000001;  // m/s
+	private static final Path CHECKPOINT_PATH = Paths.get(System.getProperty("user.home"), "nbodies.checkpoint");
+	private static final int CHECKPOINT_INTERVAL = 10;  // steps
+	private static final Path RECORD_PATH = Paths.get(System.getProperty("user.home"), "nbodies.trajectory");
+	private static final int RECORD_INTERVAL = 1;  // steps
+	private static final int RECORD_CAPACITY = 16;  // frames
+	private static final Overflow RECORD_OVERFLOW = Overflow.DROP;
+	private static final double RECORD_POSITION_QUANTUM = 0.001;  // m
+	private static final double RECORD_SPEED_QUANTUM = 0.000000000001;  // m/s
+
+	static final double BODY_MIN_MASS = 100000.0;  // Kg
+	static final double BODY_MAX_MASS = 1000000.0;  // Kg
+	static final double BODY_MIN_SPEED = -0.000001;  // m/s
+	static final double BODY_MAX_SPEED = 0.000001;  // m/s
 
 	private static final int PNL_CONTROL_WIDTH = 200;
 
@@ -64,12 +97,37 @@ public class NBodiesView extends JFrame {
 	private final JLabel lblParams = new JLabel(NBodiesView.LOC.getRes("lblParams"));
 	private final JLabel lblStrategy = new JLabel(NBodiesView.LOC.getRes("lblStrategy"));
 	private final NBComboBox<NBComboBoxItem<StrategyBuilder>, StrategyBuilder> cmbStrategy = new NBComboBox<>();
+	private final JLabel lblIntegrator = new JLabel(NBodiesView.LOC.getRes("lblIntegrator"));
+	private final NBComboBox<NBComboBoxItem<Integrator>, Integrator> cmbIntegrator = new NBComboBox<>();
+	private final JLabel lblPrecision = new JLabel(NBodiesView.LOC.getRes("lblPrecision"));
+	private final NBComboBox<NBComboBoxItem<Precision>, Precision> cmbPrecision = new NBComboBox<>();
+	private final JLabel lblPrecisionError = new JLabel(NBodiesView.LOC.getRes("lblPrecisionError"));
 	private final JLabel lblNBodies = new JLabel(NBodiesView.LOC.getRes("lblNBodies"));
 	private final NBIntTextField txtNBodies = new NBIntTextField();
 	private final JLabel lblDeltaTime = new JLabel(NBodiesView.LOC.getRes("lblDeltaTime"));
 	private final NBIntTextField txtDeltaTime = new NBIntTextField();
 	private final JLabel lblRefreshRate = new JLabel(NBodiesView.LOC.getRes("lblRefreshRate"));
 	private final NBIntTextField txtRefreshRate = new NBIntTextField();
+	private final JLabel lblTheta = new JLabel(NBodiesView.LOC.getRes("lblTheta"));
+	private final NBDoubleTextField txtTheta = new NBDoubleTextField();
+	private final JLabel lblFmmOrder = new JLabel(NBodiesView.LOC.getRes("lblFmmOrder"));
+	private final NBIntTextField txtFmmOrder = new NBIntTextField();
+	private final JLabel lblPmGridSize = new JLabel(NBodiesView.LOC.getRes("lblPmGridSize"));
+	private final NBIntTextField txtPmGridSize = new NBIntTextField();
+	private final NBCheckBox chkMatrixFree = new NBCheckBox(NBodiesView.LOC.getRes("chkMatrixFree"));
+	private final JLabel lblBlockLevels = new JLabel(NBodiesView.LOC.getRes("lblBlockLevels"));
+	private final NBIntTextField txtBlockLevels = new NBIntTextField();
+	private final JLabel lblPotential = new JLabel(NBodiesView.LOC.getRes("lblPotential"));
+	private final NBComboBox<NBComboBoxItem<Potential>, Potential> cmbPotential = new NBComboBox<>();
+	private final JLabel lblCutoff = new JLabel(NBodiesView.LOC.getRes("lblCutoff"));
+	private final NBDoubleTextField txtCutoff = new NBDoubleTextField();
+	private final JLabel lblPotentialLength = new JLabel(NBodiesView.LOC.getRes("lblPotentialLength"));
+	private final NBDoubleTextField txtPotentialLength = new NBDoubleTextField();
+	private final JLabel lblSkin = new JLabel(NBodiesView.LOC.getRes("lblSkin"));
+	private final NBDoubleTextField txtSkin = new NBDoubleTextField();
+	private final NBCheckBox chkCheckpoint = new NBCheckBox(NBodiesView.LOC.getRes("chkCheckpoint"));
+	private final NBCheckBox chkRestore = new NBCheckBox(NBodiesView.LOC.getRes("chkRestore"));
+	private final NBCheckBox chkRecord = new NBCheckBox(NBodiesView.LOC.getRes("chkRecord"));
 	private final JLabel lblKey = new JLabel(NBodiesView.LOC.getRes("lblKey"));
 	private final JLabel lblKeySize = new JLabel(
 			NBodiesView.LOC.getRes("lblKeySize", NBodiesView.BODY_MIN_MASS, NBodiesView.BODY_MAX_MASS));
@@ -91,10 +149,13 @@ public class NBodiesView extends JFrame {
 	private int refreshRate;
 
 	private Strategy strategy = null;
+	private volatile Checkpointer checkpointer = null;
+	private volatile TrajectoryRecorder recorder = null;
 	private Thread thread = null;
 	private volatile boolean tStopped = false;
 	private boolean forcePnlBodiesClear = false;
 
+	private volatile String precisionError = null;  // Max relative error of the float Forces, if chosen
 	private volatile Long durationCreateBodies = null;
 	private volatile Long durationCalcAndMove = null;
 	private volatile Long durationCalcMinMaxSpeed = null;
@@ -207,12 +268,37 @@ public class NBodiesView extends JFrame {
 		this.pnlControl.add(this.lblParams);
 		this.pnlControl.add(this.lblStrategy);
 		this.pnlControl.add(this.cmbStrategy);
+		this.pnlControl.add(this.lblIntegrator);
+		this.pnlControl.add(this.cmbIntegrator);
+		this.pnlControl.add(this.lblPrecision);
+		this.pnlControl.add(this.cmbPrecision);
+		this.pnlControl.add(this.lblPrecisionError);
 		this.pnlControl.add(this.lblNBodies);
 		this.pnlControl.add(this.txtNBodies);
 		this.pnlControl.add(this.lblDeltaTime);
 		this.pnlControl.add(this.txtDeltaTime);
 		this.pnlControl.add(this.lblRefreshRate);
 		this.pnlControl.add(this.txtRefreshRate);
+		this.pnlControl.add(this.lblTheta);
+		this.pnlControl.add(this.txtTheta);
+		this.pnlControl.add(this.lblFmmOrder);
+		this.pnlControl.add(this.txtFmmOrder);
+		this.pnlControl.add(this.lblPmGridSize);
+		this.pnlControl.add(this.txtPmGridSize);
+		this.pnlControl.add(this.chkMatrixFree);
+		this.pnlControl.add(this.lblBlockLevels);
+		this.pnlControl.add(this.txtBlockLevels);
+		this.pnlControl.add(this.lblPotential);
+		this.pnlControl.add(this.cmbPotential);
+		this.pnlControl.add(this.lblCutoff);
+		this.pnlControl.add(this.txtCutoff);
+		this.pnlControl.add(this.lblPotentialLength);
+		this.pnlControl.add(this.txtPotentialLength);
+		this.pnlControl.add(this.lblSkin);
+		this.pnlControl.add(this.txtSkin);
+		this.pnlControl.add(this.chkCheckpoint);
+		this.pnlControl.add(this.chkRestore);
+		this.pnlControl.add(this.chkRecord);
 		this.pnlControl.add(this.lblKey);
 		this.pnlControl.add(this.lblKeySize);
 		this.pnlControl.add(this.lblKeyColor);
@@ -245,6 +331,14 @@ public class NBodiesView extends JFrame {
 		this.lblStrategy.setBounds(10, y, 60, heightComp);
 		this.cmbStrategy.setBounds(70, y, 120, heightComp);
 		y += margin;
+		this.lblIntegrator.setBounds(10, y, 60, heightComp);
+		this.cmbIntegrator.setBounds(70, y, 120, heightComp);
+		y += margin;
+		this.lblPrecision.setBounds(10, y, 60, heightComp);
+		this.cmbPrecision.setBounds(70, y, 120, heightComp);
+		y += heightComp;
+		this.lblPrecisionError.setBounds(10, y, 190, heightComp);
+		y += margin;
 		this.lblNBodies.setBounds(10, y, 120, heightComp);
 		this.txtNBodies.setBounds(130, y, 60, heightComp);
 		y += margin;
@@ -253,6 +347,38 @@ public class NBodiesView extends JFrame {
 		y += margin;
 		this.lblRefreshRate.setBounds(10, y, 120, heightComp);
 		this.txtRefreshRate.setBounds(130, y, 60, heightComp);
+		y += margin;
+		this.lblTheta.setBounds(10, y, 120, heightComp);
+		this.txtTheta.setBounds(130, y, 60, heightComp);
+		y += margin;
+		this.lblFmmOrder.setBounds(10, y, 120, heightComp);
+		this.txtFmmOrder.setBounds(130, y, 60, heightComp);
+		y += margin;
+		this.lblPmGridSize.setBounds(10, y, 120, heightComp);
+		this.txtPmGridSize.setBounds(130, y, 60, heightComp);
+		y += margin;
+		this.chkMatrixFree.setBounds(10, y, 190, heightComp);
+		y += margin;
+		this.lblBlockLevels.setBounds(10, y, 120, heightComp);
+		this.txtBlockLevels.setBounds(130, y, 60, heightComp);
+		y += margin;
+		this.lblPotential.setBounds(10, y, 60, heightComp);
+		this.cmbPotential.setBounds(70, y, 120, heightComp);
+		y += margin;
+		this.lblCutoff.setBounds(10, y, 120, heightComp);
+		this.txtCutoff.setBounds(130, y, 60, heightComp);
+		y += margin;
+		this.lblPotentialLength.setBounds(10, y, 120, heightComp);
+		this.txtPotentialLength.setBounds(130, y, 60, heightComp);
+		y += margin;
+		this.lblSkin.setBounds(10, y, 120, heightComp);
+		this.txtSkin.setBounds(130, y, 60, heightComp);
+		y += margin;
+		this.chkCheckpoint.setBounds(10, y, 190, heightComp);
+		y += margin;
+		this.chkRestore.setBounds(10, y, 190, heightComp);
+		y += margin;
+		this.chkRecord.setBounds(10, y, 190, heightComp);
 		y += marginButton;
 		this.lblKey.setBounds(10, y, 190, heightComp);
 		y += heightComp;
@@ -281,13 +407,31 @@ public class NBodiesView extends JFrame {
 		this.chkClearTraces.setToolTipText(NBodiesView.LOC.getRes("chkClearTracesToolTip"));
 		this.lblParams.setToolTipText(NBodiesView.LOC.getRes("lblParamsToolTip"));
 		this.lblStrategy.setToolTipText(NBodiesView.LOC.getRes("lblStrategyToolTip"));
+		this.lblIntegrator.setToolTipText(NBodiesView.LOC.getRes("lblIntegratorToolTip"));
+		this.lblPrecision.setToolTipText(NBodiesView.LOC.getRes("lblPrecisionToolTip"));
+		this.lblPrecisionError.setToolTipText(NBodiesView.LOC.getRes("lblPrecisionErrorToolTip"));
 		this.lblNBodies.setToolTipText(NBodiesView.LOC.getRes("lblNBodiesToolTip"));
 		this.lblDeltaTime.setToolTipText(NBodiesView.LOC.getRes("lblDeltaTimeToolTip"));
 		this.lblRefreshRate.setToolTipText(NBodiesView.LOC.getRes("lblRefreshRateToolTip"));
+		this.lblTheta.setToolTipText(NBodiesView.LOC.getRes("lblThetaToolTip"));
+		this.lblFmmOrder.setToolTipText(NBodiesView.LOC.getRes("lblFmmOrderToolTip"));
+		this.lblPmGridSize.setToolTipText(NBodiesView.LOC.getRes("lblPmGridSizeToolTip"));
+		this.chkMatrixFree.setToolTipText(NBodiesView.LOC.getRes("chkMatrixFreeToolTip"));
+		this.lblBlockLevels.setToolTipText(NBodiesView.LOC.getRes("lblBlockLevelsToolTip"));
+		this.lblPotential.setToolTipText(NBodiesView.LOC.getRes("lblPotentialToolTip"));
+		this.lblCutoff.setToolTipText(NBodiesView.LOC.getRes("lblCutoffToolTip"));
+		this.lblPotentialLength.setToolTipText(NBodiesView.LOC.getRes("lblPotentialLengthToolTip"));
+		this.lblSkin.setToolTipText(NBodiesView.LOC.getRes("lblSkinToolTip"));
+		this.chkCheckpoint.setToolTipText(NBodiesView.LOC.getRes("chkCheckpointToolTip",
+				NBodiesView.CHECKPOINT_INTERVAL, NBodiesView.CHECKPOINT_PATH.toString()));
+		this.chkRestore.setToolTipText(NBodiesView.LOC.getRes("chkRestoreToolTip"));
+		this.chkRecord.setToolTipText(NBodiesView.LOC.getRes("chkRecordToolTip", NBodiesView.RECORD_INTERVAL,
+				NBodiesView.RECORD_PATH.toString()));
 
 		this.lblParams.setForeground(NBColor.LBL_BLUE);
 		this.lblKey.setForeground(NBColor.LBL_BLUE);
 		this.lblDuration.setForeground(NBColor.LBL_BLUE);
+		this.lblPrecisionError.setForeground(NBColor.LBL_LIGHT_GREY);
 		this.lblDurationCreateBodies.setForeground(NBColor.LBL_LIGHT_GREY);
 		this.lblDurationTotalErr.setForeground(NBColor.LBL_RED);
 		this.lblDurationMeanErr.setForeground(NBColor.LBL_RED);
@@ -303,7 +447,21 @@ public class NBodiesView extends JFrame {
 		this.txtNBodies.setValue(NBodiesView.N_BODIES);
 		this.txtDeltaTime.setValue(NBodiesView.DELTA_TIME);
 		this.txtRefreshRate.setValue(NBodiesView.REFRESH_RATE);
+		this.txtTheta.setValue(NBodiesView.THETA);
+		this.txtFmmOrder.setValue(NBodiesView.FMM_ORDER);
+		this.txtPmGridSize.setValue(NBodiesView.PM_GRID_SIZE);
+		this.chkMatrixFree.setSelected(NBodiesView.MATRIX_FREE);
+		this.txtBlockLevels.setValue(NBodiesView.BLOCK_LEVELS);
+		this.txtCutoff.setValue(NBodiesView.CUTOFF);
+		this.txtPotentialLength.setValue(NBodiesView.POTENTIAL_LENGTH);
+		this.txtSkin.setValue(NBodiesView.SKIN);
 		this.cmbStrategy.addItems(StrategyBuilder.getComboItems());
+		this.cmbIntegrator.addItems(StrategyParams.getIntegratorComboItems());
+		this.cmbIntegrator.setSelectedItemByKey(NBodiesView.INTEGRATOR);
+		this.cmbPrecision.addItems(StrategyParams.getPrecisionComboItems());
+		this.cmbPrecision.setSelectedItemByKey(NBodiesView.PRECISION);
+		this.cmbPotential.addItems(StrategyParams.getPotentialComboItems());
+		this.cmbPotential.setSelectedItemByKey(NBodiesView.POTENTIAL);
 
 		this.pack();
 		this.setVisible(true);
@@ -315,16 +473,63 @@ public class NBodiesView extends JFrame {
 				return;
 			}
 
+			final StrategyParams params = new StrategyParams();
+			params.setTheta(this.txtTheta.getDouble());
+			params.setFmmOrder(this.txtFmmOrder.getInt());
+			params.setPmGridSize(this.txtPmGridSize.getInt());
+			params.setMatrixFree(this.chkMatrixFree.isSelected());
+			params.setBlockLevels(this.txtBlockLevels.getInt());
+			params.setPotential(this.cmbPotential.getSelectedItemKey());
+			params.setCutoff(this.txtCutoff.getDouble());
+			params.setPotentialLength(this.txtPotentialLength.getDouble());
+			params.setSkin(this.txtSkin.getDouble());
+			params.setIntegrator(this.cmbIntegrator.getSelectedItemKey());
+			params.setPrecision(this.cmbPrecision.getSelectedItemKey());
+
 			final DurationTracker dt = new DurationTracker("Create bodies").start();
-			this.strategy = StrategyBuilder.buildStrategy(this.cmbStrategy.getSelectedItemKey(),
-					this.txtNBodies.getInt(), this.txtDeltaTime.getInt());
-			this.strategy.createBodies(NBodiesView.BODY_MIN_MASS, NBodiesView.BODY_MAX_MASS,
-					this.pnlBodies.getSize().getWidth(), this.pnlBodies.getSize().getHeight(),
-					NBodiesView.BODY_MIN_SPEED, NBodiesView.BODY_MAX_SPEED);
+			long step = 0L;
+			if (this.chkRestore.isSelected()) {
+				final Checkpoint checkpoint;
+				try {
+					checkpoint = Checkpoint.read(NBodiesView.CHECKPOINT_PATH);
+				} catch (final IOException e) {
+					NBMessage.showErrDialog(this, NBodiesView.LOC.getRes("errCheckpointRead", e.getMessage()));
+					return;
+				}
+				this.txtNBodies.setValue(checkpoint.getBodies().size());
+				this.strategy = StrategyBuilder.buildStrategy(this.cmbStrategy.getSelectedItemKey(),
+						checkpoint.getBodies().size(), this.txtDeltaTime.getInt(), params);
+				this.strategy.setBodies(checkpoint.getBodies());
+				step = checkpoint.getStep();
+			} else {
+				this.strategy = StrategyBuilder.buildStrategy(this.cmbStrategy.getSelectedItemKey(),
+						this.txtNBodies.getInt(), this.txtDeltaTime.getInt(), params);
+				this.strategy.createBodies(NBodiesView.BODY_MIN_MASS, NBodiesView.BODY_MAX_MASS,
+						this.pnlBodies.getSize().getWidth(), this.pnlBodies.getSize().getHeight(),
+						NBodiesView.BODY_MIN_SPEED, NBodiesView.BODY_MAX_SPEED);
+			}
 			this.durationCreateBodies = DurationTracker.toMillsDuration(dt.stop(NBodiesView.DEBUG));
 			if (NBodiesView.DEBUG) {
 				System.out.println();
 			}
+			if (params.getPrecision() == Precision.FLOAT) {
+				this.precisionError = String.format("%.1e",
+						PrecisionReport.of(this.strategy.getSnapshot()).getMaxError());
+			}
+
+			if (this.chkCheckpoint.isSelected()) {
+				this.checkpointer = new Checkpointer(NBodiesView.CHECKPOINT_PATH, NBodiesView.CHECKPOINT_INTERVAL,
+						step);
+			}
+			if (this.chkRecord.isSelected()) {
+				try {
+					this.recorder = new TrajectoryRecorder(NBodiesView.RECORD_PATH, this.strategy.getBodies().size(),
+							NBodiesView.RECORD_INTERVAL, NBodiesView.RECORD_CAPACITY, NBodiesView.RECORD_OVERFLOW,
+							NBodiesView.RECORD_POSITION_QUANTUM, NBodiesView.RECORD_SPEED_QUANTUM, step);
+				} catch (final IOException e) {
+					NBMessage.showErrDialog(this, NBodiesView.LOC.getRes("errRecordWrite", e.getMessage()));
+				}
+			}
 
 			this.refreshRate = this.txtRefreshRate.getInt();
 		}
@@ -345,6 +550,14 @@ public class NBodiesView extends JFrame {
 		this.updateGraphics(false, true);
 		this.strategy.clear();
 		this.strategy = null;
+		if (this.checkpointer != null) {
+			this.checkpointer.close();
+			this.checkpointer = null;
+		}
+		if (this.recorder != null) {
+			this.recorder.close();
+			this.recorder = null;
+		}
 		this.colors.clear();
 		this.forcePnlBodiesClear = true;
 
@@ -364,9 +577,23 @@ public class NBodiesView extends JFrame {
 		}
 
 		this.cmbStrategy.setEnabled(!started && cleared);
+		this.cmbIntegrator.setEnabled(!started && cleared);
+		this.cmbPrecision.setEnabled(!started && cleared);
 		this.txtNBodies.setEnabled(!started && cleared);
 		this.txtDeltaTime.setEnabled(!started && cleared);
 		this.txtRefreshRate.setEnabled(!started && cleared);
+		this.txtTheta.setEnabled(!started && cleared);
+		this.txtFmmOrder.setEnabled(!started && cleared);
+		this.txtPmGridSize.setEnabled(!started && cleared);
+		this.chkMatrixFree.setEnabled(!started && cleared);
+		this.txtBlockLevels.setEnabled(!started && cleared);
+		this.cmbPotential.setEnabled(!started && cleared);
+		this.txtCutoff.setEnabled(!started && cleared);
+		this.txtPotentialLength.setEnabled(!started && cleared);
+		this.txtSkin.setEnabled(!started && cleared);
+		this.chkCheckpoint.setEnabled(!started && cleared);
+		this.chkRestore.setEnabled(!started && cleared);
+		this.chkRecord.setEnabled(!started && cleared);
 		this.updateLabels(cleared);
 	}
 
@@ -376,6 +603,7 @@ public class NBodiesView extends JFrame {
 		if (cleared) {
 			this.lblKeyColor.setText(
 					NBodiesView.LOC.getRes("lblKeyColor", NBodiesView.BODY_MIN_SPEED, NBodiesView.BODY_MAX_SPEED));
+			this.precisionError = null;
 			this.durationCreateBodies = null;
 			this.durationCalcAndMove = null;
 			this.durationCalcMinMaxSpeed = null;
@@ -394,6 +622,7 @@ public class NBodiesView extends JFrame {
 			this.cycles++;
 		}
 
+		this.lblPrecisionError.setText(NBodiesView.LOC.getRes("lblPrecisionError", this.precisionError));
 		this.lblDurationCreateBodies
 				.setText(NBodiesView.LOC.getRes("lblDurationCreateBodies", this.durationCreateBodies));
 		this.lblDurationCalcAndMove.setText(NBodiesView.LOC.getRes("lblDurationCalcAndMove", this.durationCalcAndMove));
@@ -430,6 +659,47 @@ public class NBodiesView extends JFrame {
 					this.lblRefreshRate.getText() + " " + NBodiesView.LOC.getRes("errNegativeValue"));
 			return false;
 		}
+
+		if (this.txtTheta.getDouble() < 0) {
+			NBMessage.showErrDialog(this, this.lblTheta.getText() + " " + NBodiesView.LOC.getRes("errLowerThanZero"));
+			return false;
+		}
+
+		if (this.txtFmmOrder.getInt() <= 0) {
+			NBMessage.showErrDialog(this,
+					this.lblFmmOrder.getText() + " " + NBodiesView.LOC.getRes("errNegativeValue"));
+			return false;
+		}
+
+		final int pmGridSize = this.txtPmGridSize.getInt();
+		if (pmGridSize < 2 || Integer.bitCount(pmGridSize) != 1) {
+			NBMessage.showErrDialog(this,
+					this.lblPmGridSize.getText() + " " + NBodiesView.LOC.getRes("errNotPowerOfTwo"));
+			return false;
+		}
+
+		final int blockLevels = this.txtBlockLevels.getInt();
+		if (blockLevels < 0 || blockLevels > BlockTimestepStrategy.MAX_LEVELS) {
+			NBMessage.showErrDialog(this, this.lblBlockLevels.getText() + " "
+					+ NBodiesView.LOC.getRes("errOutOfRange", 0, BlockTimestepStrategy.MAX_LEVELS));
+			return false;
+		}
+
+		if (this.txtCutoff.getDouble() <= 0) {
+			NBMessage.showErrDialog(this, this.lblCutoff.getText() + " " + NBodiesView.LOC.getRes("errNegativeValue"));
+			return false;
+		}
+
+		if (this.txtPotentialLength.getDouble() <= 0) {
+			NBMessage.showErrDialog(this,
+					this.lblPotentialLength.getText() + " " + NBodiesView.LOC.getRes("errNegativeValue"));
+			return false;
+		}
+
+		if (this.txtSkin.getDouble() < 0) {
+			NBMessage.showErrDialog(this, this.lblSkin.getText() + " " + NBodiesView.LOC.getRes("errLowerThanZero"));
+			return false;
+		}
 		return true;
 	}
 
@@ -439,6 +709,31 @@ public class NBodiesView extends JFrame {
 		this.thread.start();
 	}
 
+	/*
+	 * Counts the step run by the Strategy for the Checkpointer and the TrajectoryRecorder, if enabled, and reports
+	 * their errors
+	 */
+	private void stepped() throws InterruptedException {
+		final Checkpointer cp = this.checkpointer;
+		if (cp != null) {
+			cp.stepped(this.strategy);
+			this.showErrLater("errCheckpointWrite", cp.takeError());
+		}
+		final TrajectoryRecorder tr = this.recorder;
+		if (tr != null) {
+			tr.stepped(this.strategy);
+			this.showErrLater("errRecordWrite", tr.takeError());
+		}
+	}
+
+	/* Shows the error, if any, from a Thread other than the EDT */
+	private void showErrLater(final String key, final IOException e) {
+		if (e != null) {
+			SwingUtilities.invokeLater(
+					() -> NBMessage.showErrDialog(this, NBodiesView.LOC.getRes(key, e.getMessage())));
+		}
+	}
+
 	private class NBVThread extends Thread {
 		@Override
 		public void run() {
@@ -450,6 +745,9 @@ public class NBodiesView extends JFrame {
 					}
 					NBodiesView.this.strategy.calculateAndMove();
 					NBodiesView.this.durationCalcAndMove = DurationTracker.toMillsDuration(dt.stop(NBodiesView.DEBUG));
+					if (!NBodiesView.this.tStopped) {
+						NBodiesView.this.stepped();
+					}
 
 					dt = new DurationTracker("Calculate bodies min/max speeds").start();
 					if (NBodiesView.this.strategy == null || NBodiesView.this.tStopped) {
@@ -0,0 +1,57 @@
+package view.component;
+
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.text.NumberFormat;
+import java.text.ParseException;
+
+import javax.swing.JFormattedTextField;
+import javax.swing.SwingUtilities;
+import javax.swing.text.NumberFormatter;
+
+public class NBDoubleTextField extends JFormattedTextField {
+	private static final long serialVersionUID = -3260447616211580547L;
+
+	public NBDoubleTextField() {
+		super(NBDoubleTextField.getFormat());
+
+		this.addFocusListener(new FocusAdapter() {
+			@Override
+			public void focusGained(final FocusEvent arg0) {
+				SwingUtilities.invokeLater(NBDoubleTextField.this::selectAll); // Select all on focus gained
+			}
+		});
+	}
+
+	public double getDouble() {
+		final Double value = (Double) this.getValue();
+		return value != null ? value : 0D;
+	}
+
+	private static NumberFormatter getFormat() {
+		final NumberFormat format = NumberFormat.getInstance();
+		format.setGroupingUsed(false);
+		format.setMinimumFractionDigits(0);
+		format.setMaximumFractionDigits(3);
+
+		final NumberFormatter formatter = new NumberFormatter(format) {
+			private static final long serialVersionUID = -6418240335613329270L;
+
+			@Override
+			public Object stringToValue(String text) throws ParseException {
+				text = text != null ? text.trim() : null;
+				if (text == null || "".equals(text)) { // Allows empty field
+					return null;
+				}
+				return super.stringToValue(text);
+			}
+
+		};
+		formatter.setValueClass(Double.class);
+		// Invalid edits are allowed, unlike NBIntTextField, so that a partial value as "-" or "1." can be typed
+		formatter.setMinimum(-Double.MAX_VALUE);
+		formatter.setMaximum(Double.MAX_VALUE);
+		formatter.setCommitsOnValidEdit(true);
+		return formatter;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,105 @@
+package control.kernel;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * FloatForceKernel that calculates the Forces between a body and a whole lane of bodies at once, with the
+ * jdk.incubator.vector SIMD instructions: a float lane holds twice the bodies of a double one, 8 for AVX2 and 16 for
+ * AVX-512. Each lane of pair Forces is widened into two double lanes before being added to the accumulators.
+ * The bodies left over at the end of a row are calculated one by one.
+ *
+ * This class is compiled apart, with the jdk.incubator.vector module added, and FloatForceKernel loads it only
+ * when the module is available.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public class VectorFloatForceKernel extends FloatForceKernel {
+	private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Double> DOUBLE_SPECIES = DoubleVector.SPECIES_PREFERRED;  // Same shape
+	private static final int HALF = VectorFloatForceKernel.SPECIES.length() / 2;
+
+	public VectorFloatForceKernel(final int blockSize) {
+		super(blockSize);
+	}
+
+	@Override
+	protected void accumulateRow(final float[] mass, final float[] posX, final float[] posY, final int i,
+			final int colFrom, final int colTo, final double[] forcesX, final double[] forcesY) {
+		final FloatVector posXi = FloatVector.broadcast(VectorFloatForceKernel.SPECIES, posX[i]);
+		final FloatVector posYi = FloatVector.broadcast(VectorFloatForceKernel.SPECIES, posY[i]);
+		final float massi = mass[i];
+		DoubleVector forceX = DoubleVector.zero(VectorFloatForceKernel.DOUBLE_SPECIES);
+		DoubleVector forceY = DoubleVector.zero(VectorFloatForceKernel.DOUBLE_SPECIES);
+
+		// The i-th body, if in the row, gets a null Force from the NULL_DISTANCE check
+		final int laneTo = colFrom + VectorFloatForceKernel.SPECIES.loopBound(colTo - colFrom);
+		int j = colFrom;
+		for (; j < laneTo; j += VectorFloatForceKernel.SPECIES.length()) {
+			final FloatVector deltaX = FloatVector.fromArray(VectorFloatForceKernel.SPECIES, posX, j).sub(posXi);
+			final FloatVector deltaY = FloatVector.fromArray(VectorFloatForceKernel.SPECIES, posY, j).sub(posYi);
+			final FloatVector lambda = VectorFloatForceKernel.getLambda(massi, mass, j, deltaX, deltaY);
+			final FloatVector lambdaX = deltaX.mul(lambda);
+			final FloatVector lambdaY = deltaY.mul(lambda);
+			forceX = forceX.add(VectorFloatForceKernel.widen(lambdaX, 0)).add(VectorFloatForceKernel.widen(lambdaX, 1));
+			forceY = forceY.add(VectorFloatForceKernel.widen(lambdaY, 0)).add(VectorFloatForceKernel.widen(lambdaY, 1));
+		}
+		forcesX[i] += forceX.reduceLanes(VectorOperators.ADD);
+		forcesY[i] += forceY.reduceLanes(VectorOperators.ADD);
+
+		super.accumulateRow(mass, posX, posY, i, j, colTo, forcesX, forcesY);
+	}
+
+	@Override
+	protected void accumulateRowPairs(final float[] mass, final float[] posX, final float[] posY, final int i,
+			final int colFrom, final int colTo, final double[] forcesX, final double[] forcesY) {
+		final FloatVector posXi = FloatVector.broadcast(VectorFloatForceKernel.SPECIES, posX[i]);
+		final FloatVector posYi = FloatVector.broadcast(VectorFloatForceKernel.SPECIES, posY[i]);
+		final float massi = mass[i];
+		DoubleVector forceX = DoubleVector.zero(VectorFloatForceKernel.DOUBLE_SPECIES);
+		DoubleVector forceY = DoubleVector.zero(VectorFloatForceKernel.DOUBLE_SPECIES);
+
+		final int laneTo = colFrom + VectorFloatForceKernel.SPECIES.loopBound(colTo - colFrom);
+		int j = colFrom;
+		for (; j < laneTo; j += VectorFloatForceKernel.SPECIES.length()) {
+			final FloatVector deltaX = FloatVector.fromArray(VectorFloatForceKernel.SPECIES, posX, j).sub(posXi);
+			final FloatVector deltaY = FloatVector.fromArray(VectorFloatForceKernel.SPECIES, posY, j).sub(posYi);
+			final FloatVector lambda = VectorFloatForceKernel.getLambda(massi, mass, j, deltaX, deltaY);
+			final FloatVector lambdaX = deltaX.mul(lambda);
+			final FloatVector lambdaY = deltaY.mul(lambda);
+			for (int part = 0; part < 2; part++) {
+				final int jPart = j + part * VectorFloatForceKernel.HALF;
+				final DoubleVector partX = VectorFloatForceKernel.widen(lambdaX, part);
+				final DoubleVector partY = VectorFloatForceKernel.widen(lambdaY, part);
+				forceX = forceX.add(partX);
+				forceY = forceY.add(partY);
+				DoubleVector.fromArray(VectorFloatForceKernel.DOUBLE_SPECIES, forcesX, jPart).sub(partX)
+						.intoArray(forcesX, jPart);
+				DoubleVector.fromArray(VectorFloatForceKernel.DOUBLE_SPECIES, forcesY, jPart).sub(partY)
+						.intoArray(forcesY, jPart);
+			}
+		}
+		forcesX[i] += forceX.reduceLanes(VectorOperators.ADD);
+		forcesY[i] += forceY.reduceLanes(VectorOperators.ADD);
+
+		super.accumulateRowPairs(mass, posX, posY, i, j, colTo, forcesX, forcesY);
+	}
+
+	/* Returns the first (part 0) or the second (part 1) half of the lane, widened to doubles */
+	private static DoubleVector widen(final FloatVector lane, final int part) {
+		return (DoubleVector) lane.convertShape(VectorOperators.F2D, VectorFloatForceKernel.DOUBLE_SPECIES, part);
+	}
+
+	/* FloatForceKernel.getLambda on a lane of bodies starting from the j-th one */
+	private static FloatVector getLambda(final float massi, final float[] mass, final int j, final FloatVector deltaX,
+			final FloatVector deltaY) {
+		final FloatVector module = deltaX.mul(deltaX).add(deltaY.mul(deltaY)).sqrt();
+		final VectorMask<Float> nullDistance = module.compare(VectorOperators.LE, FloatForceKernel.NULL_DISTANCE);
+		return FloatVector.fromArray(VectorFloatForceKernel.SPECIES, mass, j).mul(massi).mul(FloatForceKernel.G)
+				.div(module.mul(module)).div(module).blend(0F, nullDistance);
+	}
+}
@@ -0,0 +1,90 @@
+package control.kernel;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import model.Force;
+import model.Position;
+
+/**
+ * BlockedForceKernel that calculates the Forces between a body and a whole lane of bodies at once, with the
+ * jdk.incubator.vector SIMD instructions. The lane is the widest one the CPU supports, 4 doubles for AVX2 and 8 for
+ * AVX-512. The bodies left over at the end of a row are calculated one by one.
+ * Each pair Force is rounded as in Force.getLambda: only the summation order differs from the scalar kernel.
+ *
+ * This class is compiled apart, with the jdk.incubator.vector module added, and BlockedForceKernel loads it only
+ * when the module is available.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public class VectorForceKernel extends BlockedForceKernel {
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+	public VectorForceKernel(final int blockSize) {
+		super(blockSize);
+	}
+
+	@Override
+	protected void accumulateRow(final double[] mass, final double[] posX, final double[] posY, final int i,
+			final int colFrom, final int colTo, final double[] forcesX, final double[] forcesY) {
+		final DoubleVector posXi = DoubleVector.broadcast(VectorForceKernel.SPECIES, posX[i]);
+		final DoubleVector posYi = DoubleVector.broadcast(VectorForceKernel.SPECIES, posY[i]);
+		final double massi = mass[i];
+		DoubleVector forceX = DoubleVector.zero(VectorForceKernel.SPECIES);
+		DoubleVector forceY = DoubleVector.zero(VectorForceKernel.SPECIES);
+
+		// The i-th body, if in the row, gets a null Force from the NULL_DISTANCE check
+		final int laneTo = colFrom + VectorForceKernel.SPECIES.loopBound(colTo - colFrom);
+		int j = colFrom;
+		for (; j < laneTo; j += VectorForceKernel.SPECIES.length()) {
+			final DoubleVector deltaX = DoubleVector.fromArray(VectorForceKernel.SPECIES, posX, j).sub(posXi);
+			final DoubleVector deltaY = DoubleVector.fromArray(VectorForceKernel.SPECIES, posY, j).sub(posYi);
+			final DoubleVector lambda = VectorForceKernel.getLambda(massi, mass, j, deltaX, deltaY);
+			forceX = forceX.add(deltaX.mul(lambda));
+			forceY = forceY.add(deltaY.mul(lambda));
+		}
+		forcesX[i] += forceX.reduceLanes(VectorOperators.ADD);
+		forcesY[i] += forceY.reduceLanes(VectorOperators.ADD);
+
+		super.accumulateRow(mass, posX, posY, i, j, colTo, forcesX, forcesY);
+	}
+
+	@Override
+	protected void accumulateRowPairs(final double[] mass, final double[] posX, final double[] posY, final int i,
+			final int colFrom, final int colTo, final double[] forcesX, final double[] forcesY) {
+		final DoubleVector posXi = DoubleVector.broadcast(VectorForceKernel.SPECIES, posX[i]);
+		final DoubleVector posYi = DoubleVector.broadcast(VectorForceKernel.SPECIES, posY[i]);
+		final double massi = mass[i];
+		DoubleVector forceX = DoubleVector.zero(VectorForceKernel.SPECIES);
+		DoubleVector forceY = DoubleVector.zero(VectorForceKernel.SPECIES);
+
+		final int laneTo = colFrom + VectorForceKernel.SPECIES.loopBound(colTo - colFrom);
+		int j = colFrom;
+		for (; j < laneTo; j += VectorForceKernel.SPECIES.length()) {
+			final DoubleVector deltaX = DoubleVector.fromArray(VectorForceKernel.SPECIES, posX, j).sub(posXi);
+			final DoubleVector deltaY = DoubleVector.fromArray(VectorForceKernel.SPECIES, posY, j).sub(posYi);
+			final DoubleVector lambda = VectorForceKernel.getLambda(massi, mass, j, deltaX, deltaY);
+			final DoubleVector lambdaX = deltaX.mul(lambda);
+			final DoubleVector lambdaY = deltaY.mul(lambda);
+			forceX = forceX.add(lambdaX);
+			forceY = forceY.add(lambdaY);
+			DoubleVector.fromArray(VectorForceKernel.SPECIES, forcesX, j).sub(lambdaX).intoArray(forcesX, j);
+			DoubleVector.fromArray(VectorForceKernel.SPECIES, forcesY, j).sub(lambdaY).intoArray(forcesY, j);
+		}
+		forcesX[i] += forceX.reduceLanes(VectorOperators.ADD);
+		forcesY[i] += forceY.reduceLanes(VectorOperators.ADD);
+
+		super.accumulateRowPairs(mass, posX, posY, i, j, colTo, forcesX, forcesY);
+	}
+
+	/* Force.getLambda on a lane of bodies starting from the j-th one */
+	private static DoubleVector getLambda(final double massi, final double[] mass, final int j,
+			final DoubleVector deltaX, final DoubleVector deltaY) {
+		final DoubleVector module = deltaX.mul(deltaX).add(deltaY.mul(deltaY)).sqrt();
+		final VectorMask<Double> nullDistance = module.compare(VectorOperators.LE, Position.NULL_DISTANCE);
+		return DoubleVector.fromArray(VectorForceKernel.SPECIES, mass, j).mul(massi).mul(Force.G)
+				.div(module.mul(module)).div(module).blend(0D, nullDistance);
+	}
+}
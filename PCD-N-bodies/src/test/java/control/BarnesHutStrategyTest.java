@@ -0,0 +1,127 @@
+package control;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import model.Body;
+import model.Deltas;
+
+public class BarnesHutStrategyTest {
+	private int nBodies;
+	private int deltaTime;
+	private Strategy bhStrat;
+	private Strategy soaStrat;
+
+	private double minMass;
+	private double maxMass;
+	private double maxPosX;
+	private double maxPosY;
+	private double minSpeed;
+	private double maxSpeed;
+
+	@Before
+	public void initialize() {
+		this.nBodies = 1000;
+		this.deltaTime = 10000;
+		this.soaStrat = StrategyBuilder.buildStrategy(StrategyBuilder.SOA, this.nBodies, this.deltaTime);
+
+		this.minMass = 100000.0;
+		this.maxMass = 1000000.0;
+		this.maxPosX = 300.0;
+		this.maxPosY = 300.0;
+		this.minSpeed = -0.000001;
+		this.maxSpeed = 0.000001;
+	}
+
+	@Test
+	public void testCorrectness() {
+		// With theta = 0 no cell is approximated
+		this.bhStrat = this.buildBarnesHut(0.0);
+		this.soaStrat.createBodies(this.minMass, this.maxMass, this.maxPosX, this.maxPosY, this.minSpeed,
+				this.maxSpeed);
+		((BodyStoreStrategy) this.bhStrat).setBodies(this.soaStrat.getBodies());
+
+		this.bhStrat.calculateAndMove();
+		this.soaStrat.calculateAndMove();
+
+		final List<Body> bhStratBodies = this.bhStrat.getBodies();
+		final List<Body> soaStratBodies = this.soaStrat.getBodies();
+		Body bhStratBody;
+		Body soaStratBody;
+		for (int i = 0; i < this.nBodies; i++) {
+			bhStratBody = bhStratBodies.get(i);
+			soaStratBody = soaStratBodies.get(i);
+
+			Assert.assertEquals("Body Mass is moved correctly", bhStratBody.getMass(), soaStratBody.getMass(),
+					0.0000000000001);
+			Assert.assertEquals("Body Position x is moved correctly", bhStratBody.getPosition().getX(),
+					soaStratBody.getPosition().getX(),
+					Deltas.relative(bhStratBody.getPosition().getX(), Deltas.STRICT));
+			Assert.assertEquals("Body Position y is moved correctly", bhStratBody.getPosition().getY(),
+					soaStratBody.getPosition().getY(),
+					Deltas.relative(bhStratBody.getPosition().getY(), Deltas.STRICT));
+			Assert.assertEquals("Body Speed x is moved correctly", bhStratBody.getSpeed().getXComp(),
+					soaStratBody.getSpeed().getXComp(),
+					Deltas.relative(bhStratBody.getSpeed().getXComp(), Deltas.STRICT));
+			Assert.assertEquals("Body Speed y is moved correctly", bhStratBody.getSpeed().getYComp(),
+					soaStratBody.getSpeed().getYComp(),
+					Deltas.relative(bhStratBody.getSpeed().getYComp(), Deltas.STRICT));
+		}
+	}
+
+	@Test
+	public void testApproximation() {
+		this.bhStrat = this.buildBarnesHut(StrategyParams.DEF_THETA);
+		this.soaStrat.createBodies(this.minMass, this.maxMass, this.maxPosX, this.maxPosY, this.minSpeed,
+				this.maxSpeed);
+		final List<Body> initialBodies = new ArrayList<>(this.soaStrat.getBodies());
+		((BodyStoreStrategy) this.bhStrat).setBodies(initialBodies);
+
+		this.bhStrat.calculateAndMove();
+		this.soaStrat.calculateAndMove();
+
+		Assert.assertTrue("Speed variations are approximated within 1%",
+				BarnesHutStrategyTest.getSpeedError(initialBodies, this.bhStrat.getBodies(),
+						this.soaStrat.getBodies()) < 0.01);
+	}
+
+	/* Relative error of the approximated speed variations against the exact ones */
+	static double getSpeedError(final List<Body> initialBodies, final List<Body> approxBodies,
+			final List<Body> exactBodies) {
+		double error = 0D;
+		double total = 0D;
+		for (int i = 0; i < initialBodies.size(); i++) {
+			final double initialX = initialBodies.get(i).getSpeed().getXComp();
+			final double initialY = initialBodies.get(i).getSpeed().getYComp();
+			final double exactX = exactBodies.get(i).getSpeed().getXComp() - initialX;
+			final double exactY = exactBodies.get(i).getSpeed().getYComp() - initialY;
+			final double approxX = approxBodies.get(i).getSpeed().getXComp() - initialX;
+			final double approxY = approxBodies.get(i).getSpeed().getYComp() - initialY;
+			error += Math.hypot(approxX - exactX, approxY - exactY);
+			total += Math.hypot(exactX, exactY);
+		}
+		return error / total;
+	}
+
+	private Strategy buildBarnesHut(final double theta) {
+		final StrategyParams params = new StrategyParams();
+		params.setTheta(theta);
+		return StrategyBuilder.buildStrategy(StrategyBuilder.BARNES_HUT, this.nBodies, this.deltaTime, params);
+	}
+
+	@After
+	public void tearDown() {
+		this.soaStrat.interrupt();
+		this.soaStrat.clear();
+		this.soaStrat = null;
+
+		this.bhStrat.interrupt();
+		this.bhStrat.clear();
+		this.bhStrat = null;
+	}
+}
@@ -0,0 +1,113 @@
+package control;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import control.kernel.Precision;
+import model.Body;
+import model.Deltas;
+import model.Force;
+import model.Integrator;
+import model.Position;
+import model.Vector;
+
+public class BlockTimestepStrategyTest {
+	private static final double MASS = 10000000000.0;  // kg, of both the bodies of the pair
+	private static final double DISTANCE = 100.0;  // m, between the bodies of the pair
+	// The pair orbits its centre of mass on a circle: v^2 / (d / 2) = G * m / d^2
+	private static final double SPEED = Math
+			.sqrt(Force.G * BlockTimestepStrategyTest.MASS / (2 * BlockTimestepStrategyTest.DISTANCE));
+	private static final int DELTA_TIME = 1000;  // s
+	private static final int STEPS = 2;
+
+	@Test
+	public void testNoLevels() {
+		// With no levels all the bodies move with a VELOCITY_VERLET step of deltaTime
+		final int nBodies = 100;
+		final StrategyParams params = new StrategyParams();
+		params.setBlockLevels(0);
+		params.setIntegrator(Integrator.VELOCITY_VERLET);
+		final Strategy btStrat = StrategyBuilder.buildStrategy(StrategyBuilder.BLOCK_TIMESTEP, nBodies, 10000, params);
+		final Strategy soaStrat = StrategyBuilder.buildStrategy(StrategyBuilder.SOA, nBodies, 10000, params);
+		btStrat.createBodies(100000.0, 1000000.0, 300.0, 300.0, -0.000001, 0.000001);
+		((SoAStrategy) soaStrat).setBodies(btStrat.getBodies());
+
+		for (int step = 0; step < 3; step++) {
+			btStrat.calculateAndMove();
+			soaStrat.calculateAndMove();
+		}
+		for (int i = 0; i < nBodies; i++) {
+			final Body soaStratBody = soaStrat.getBodies().get(i);
+			final Body btStratBody = btStrat.getBodies().get(i);
+			Assert.assertEquals("Body Position x is moved correctly", soaStratBody.getPosition().getX(),
+					btStratBody.getPosition().getX(), Deltas.relative(soaStratBody.getPosition().getX()));
+			Assert.assertEquals("Body Position y is moved correctly", soaStratBody.getPosition().getY(),
+					btStratBody.getPosition().getY(), Deltas.relative(soaStratBody.getPosition().getY()));
+			Assert.assertEquals("Body Speed x is moved correctly", soaStratBody.getSpeed().getXComp(),
+					btStratBody.getSpeed().getXComp(), Deltas.relative(soaStratBody.getSpeed().getXComp()));
+			Assert.assertEquals("Body Speed y is moved correctly", soaStratBody.getSpeed().getYComp(),
+					btStratBody.getSpeed().getYComp(), Deltas.relative(soaStratBody.getSpeed().getYComp()));
+		}
+	}
+
+	@Test
+	public void testCloseEncounter() {
+		final List<Body> bodies = BlockTimestepStrategyTest.createBodies();
+		final BlockTimestepStrategy btStrat = new BlockTimestepStrategy(bodies.size(),
+				BlockTimestepStrategyTest.DELTA_TIME, StrategyParams.DEF_BLOCK_LEVELS, Precision.DOUBLE);
+		final SoAStrategy soaStrat = new SoAStrategy(bodies.size(), BlockTimestepStrategyTest.DELTA_TIME,
+				Precision.DOUBLE, Integrator.VELOCITY_VERLET);
+		btStrat.setBodies(bodies);
+		soaStrat.setBodies(bodies);
+
+		for (int step = 0; step < BlockTimestepStrategyTest.STEPS; step++) {
+			btStrat.calculateAndMove();
+			soaStrat.calculateAndMove();
+		}
+
+		// Only the pair takes shorter steps
+		Assert.assertTrue("The pair takes shorter steps", btStrat.getBodyLevel(0) > 0 && btStrat.getBodyLevel(1) > 0);
+		for (int i = 2; i < bodies.size(); i++) {
+			Assert.assertEquals("The quiet bodies take deltaTime steps", 0, btStrat.getBodyLevel(i));
+			final Body soaStratBody = soaStrat.getBodies().get(i);
+			final Body btStratBody = btStrat.getBodies().get(i);
+			Assert.assertEquals("The quiet bodies move as with deltaTime steps: Position x",
+					soaStratBody.getPosition().getX(), btStratBody.getPosition().getX(), 0.000001);
+			Assert.assertEquals("The quiet bodies move as with deltaTime steps: Position y",
+					soaStratBody.getPosition().getY(), btStratBody.getPosition().getY(), 0.000001);
+			Assert.assertEquals("The quiet bodies move as with deltaTime steps: Speed x",
+					soaStratBody.getSpeed().getXComp(), btStratBody.getSpeed().getXComp(), 0.000000000001);
+			Assert.assertEquals("The quiet bodies move as with deltaTime steps: Speed y",
+					soaStratBody.getSpeed().getYComp(), btStratBody.getSpeed().getYComp(), 0.000000000001);
+		}
+
+		final double btError = BlockTimestepStrategyTest.getError(btStrat.getBodies().get(0));
+		final double soaError = BlockTimestepStrategyTest.getError(soaStrat.getBodies().get(0));
+		Assert.assertTrue("The pair orbit is more precise: " + btError + " against " + soaError,
+				btError * 10 < soaError);
+	}
+
+	/* A pair orbiting in a close encounter, and light bodies far from it and from each other */
+	private static List<Body> createBodies() {
+		final List<Body> bodies = new ArrayList<>();
+		bodies.add(new Body(BlockTimestepStrategyTest.MASS, new Position(BlockTimestepStrategyTest.DISTANCE / 2, 0D),
+				new Vector(0D, BlockTimestepStrategyTest.SPEED)));
+		bodies.add(new Body(BlockTimestepStrategyTest.MASS, new Position(-BlockTimestepStrategyTest.DISTANCE / 2, 0D),
+				new Vector(0D, -BlockTimestepStrategyTest.SPEED)));
+		for (int i = 0; i < 8; i++) {
+			bodies.add(new Body(1.0, new Position(100000.0 * (i + 1), -100000.0 * i), new Vector(0.001, 0D)));
+		}
+		return bodies;
+	}
+
+	/* Returns the distance of the first body of the pair from its exact position */
+	private static double getError(final Body body) {
+		final double angle = BlockTimestepStrategyTest.SPEED / (BlockTimestepStrategyTest.DISTANCE / 2)
+				* BlockTimestepStrategyTest.STEPS * BlockTimestepStrategyTest.DELTA_TIME;
+		return Math.hypot(body.getPosition().getX() - BlockTimestepStrategyTest.DISTANCE / 2 * Math.cos(angle),
+				body.getPosition().getY() - BlockTimestepStrategyTest.DISTANCE / 2 * Math.sin(angle));
+	}
+}
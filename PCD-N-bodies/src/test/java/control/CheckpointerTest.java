@@ -0,0 +1,97 @@
+package control;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import model.Body;
+import model.BodyStore;
+import model.Checkpoint;
+import model.Deltas;
+
+public class CheckpointerTest {
+	private static final int N_BODIES = 200;
+	private static final int DELTA_TIME = 10000;
+	private static final int INTERVAL = 5;
+
+	private Path path;
+	private Strategy strategy;
+	private Checkpointer checkpointer;
+
+	@Before
+	public void initialize() throws IOException {
+		this.path = Files.createTempFile("nbodies", ".checkpoint");
+		this.strategy = StrategyBuilder.buildStrategy(StrategyBuilder.SOA, CheckpointerTest.N_BODIES,
+				CheckpointerTest.DELTA_TIME);
+		this.strategy.createBodies(100000.0, 1000000.0, 300.0, 300.0, -0.000001, 0.000001);
+		this.checkpointer = new Checkpointer(this.path, CheckpointerTest.INTERVAL, 0L);
+	}
+
+	@Test
+	public void testInterval() throws InterruptedException, IOException {
+		for (int step = 1; step <= 2 * CheckpointerTest.INTERVAL; step++) {
+			this.strategy.calculateAndMove();
+			final boolean taken = this.checkpointer.stepped(this.strategy);
+			if (step % CheckpointerTest.INTERVAL != 0) {
+				Assert.assertFalse("No checkpoint within an interval", taken);
+			}
+		}
+		this.checkpointer.await();
+		Assert.assertNull("The checkpoints are written", this.checkpointer.takeError());
+
+		// The second one is skipped if the first one was still being written
+		final long step = Checkpoint.read(this.path).getStep();
+		Assert.assertTrue("The checkpoint is taken at the end of an interval: " + step,
+				step == CheckpointerTest.INTERVAL || step == 2 * CheckpointerTest.INTERVAL);
+	}
+
+	@Test
+	public void testRestore() throws InterruptedException, IOException {
+		for (int step = 0; step < 3; step++) {
+			this.strategy.calculateAndMove();
+			this.checkpointer.stepped(this.strategy);
+		}
+		final BodyStore expected = this.strategy.getSnapshot();
+		Assert.assertTrue("The checkpoint is taken", this.checkpointer.checkpoint(this.strategy));
+		// The bodies move on while the checkpoint is written: it holds the snapshot
+		this.strategy.calculateAndMove();
+		this.checkpointer.await();
+		final Checkpoint checkpoint = Checkpoint.read(this.path);
+		Assert.assertEquals("Step is saved", 3L, checkpoint.getStep());
+		Assert.assertArrayEquals("Body Positions x are saved", expected.getPosX(), checkpoint.getBodies().getPosX(),
+				0D);
+		Assert.assertArrayEquals("Body Speeds y are saved", expected.getSpeedY(), checkpoint.getBodies().getSpeedY(),
+				0D);
+
+		// Restored strategies move the bodies on as the original one
+		final Strategy soaStrat = StrategyBuilder.buildStrategy(StrategyBuilder.SOA, CheckpointerTest.N_BODIES,
+				CheckpointerTest.DELTA_TIME);
+		final Strategy sStrat = StrategyBuilder.buildStrategy(StrategyBuilder.STREAM, CheckpointerTest.N_BODIES,
+				CheckpointerTest.DELTA_TIME);
+		soaStrat.setBodies(checkpoint.getBodies());
+		sStrat.setBodies(checkpoint.getBodies());
+		soaStrat.calculateAndMove();
+		sStrat.calculateAndMove();
+		for (int i = 0; i < CheckpointerTest.N_BODIES; i++) {
+			final Body body = this.strategy.getBodies().get(i);
+			Assert.assertEquals("Body Position x is moved correctly", body.getPosition().getX(),
+					soaStrat.getBodies().get(i).getPosition().getX(), 0D);
+			Assert.assertEquals("Body Position x is moved correctly", body.getPosition().getX(),
+					sStrat.getBodies().get(i).getPosition().getX(), Deltas.relative(body.getPosition().getX()));
+			Assert.assertEquals("Body Speed y is moved correctly", body.getSpeed().getYComp(),
+					sStrat.getBodies().get(i).getSpeed().getYComp(),
+					Deltas.relative(body.getSpeed().getYComp()));
+		}
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		this.checkpointer.close();
+		Files.deleteIfExists(this.path);
+	}
+}
@@ -0,0 +1,95 @@
+package control;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import model.Body;
+
+public class FmmStrategyTest {
+	private int nBodies;
+	private int deltaTime;
+	private Strategy fmmStrat;
+	private Strategy soaStrat;
+
+	private double minMass;
+	private double maxMass;
+	private double maxPosX;
+	private double maxPosY;
+	private double minSpeed;
+	private double maxSpeed;
+
+	@Before
+	public void initialize() {
+		this.nBodies = 4000;
+		this.deltaTime = 10000;
+		this.soaStrat = StrategyBuilder.buildStrategy(StrategyBuilder.SOA, this.nBodies, this.deltaTime);
+
+		this.minMass = 100000.0;
+		this.maxMass = 1000000.0;
+		this.maxPosX = 300.0;
+		this.maxPosY = 300.0;
+		this.minSpeed = -0.000001;
+		this.maxSpeed = 0.000001;
+	}
+
+	@Test
+	public void testApproximation() {
+		this.fmmStrat = this.buildFmm(StrategyParams.DEF_FMM_ORDER);
+		final List<Body> initialBodies = this.createBodies();
+
+		this.fmmStrat.calculateAndMove();
+		this.soaStrat.calculateAndMove();
+
+		Assert.assertTrue("Speed variations are approximated within 0.1%", BarnesHutStrategyTest
+				.getSpeedError(initialBodies, this.fmmStrat.getBodies(), this.soaStrat.getBodies()) < 0.001);
+	}
+
+	@Test
+	public void testOrder() {
+		this.fmmStrat = this.buildFmm(2);
+		final Strategy preciseStrat = this.buildFmm(10);
+		final List<Body> initialBodies = this.createBodies();
+		((BodyStoreStrategy) preciseStrat).setBodies(initialBodies);
+
+		this.fmmStrat.calculateAndMove();
+		preciseStrat.calculateAndMove();
+		this.soaStrat.calculateAndMove();
+
+		final double error = BarnesHutStrategyTest.getSpeedError(initialBodies, this.fmmStrat.getBodies(),
+				this.soaStrat.getBodies());
+		final double preciseError = BarnesHutStrategyTest.getSpeedError(initialBodies, preciseStrat.getBodies(),
+				this.soaStrat.getBodies());
+		Assert.assertTrue("Higher orders are more precise", preciseError < error);
+		Assert.assertTrue("Speed variations are approximated within 0.001%", preciseError < 0.00001);
+	}
+
+	private List<Body> createBodies() {
+		this.soaStrat.createBodies(this.minMass, this.maxMass, this.maxPosX, this.maxPosY, this.minSpeed,
+				this.maxSpeed);
+		final List<Body> initialBodies = new ArrayList<>(this.soaStrat.getBodies());
+		((BodyStoreStrategy) this.fmmStrat).setBodies(initialBodies);
+		return initialBodies;
+	}
+
+	private Strategy buildFmm(final int order) {
+		final StrategyParams params = new StrategyParams();
+		params.setFmmOrder(order);
+		return StrategyBuilder.buildStrategy(StrategyBuilder.FMM, this.nBodies, this.deltaTime, params);
+	}
+
+	@After
+	public void tearDown() {
+		this.soaStrat.interrupt();
+		this.soaStrat.clear();
+		this.soaStrat = null;
+
+		this.fmmStrat.interrupt();
+		this.fmmStrat.clear();
+		this.fmmStrat = null;
+	}
+}
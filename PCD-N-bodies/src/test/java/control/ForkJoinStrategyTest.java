@@ -0,0 +1,92 @@
+package control;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import model.Body;
+import model.Deltas;
+
+public class ForkJoinStrategyTest {
+	private int nBodies;
+	private int deltaTime;
+	private Strategy fjStrat;
+	private Strategy soaStrat;
+
+	private double minMass;
+	private double maxMass;
+	private double maxPosX;
+	private double maxPosY;
+	private double minSpeed;
+	private double maxSpeed;
+
+	@Before
+	public void initialize() {
+		this.nBodies = 1000;
+		this.deltaTime = 10000;
+		this.fjStrat = StrategyBuilder.buildStrategy(StrategyBuilder.FORK_JOIN, this.nBodies, this.deltaTime);
+		this.soaStrat = StrategyBuilder.buildStrategy(StrategyBuilder.SOA, this.nBodies, this.deltaTime);
+
+		this.minMass = 100000.0;
+		this.maxMass = 1000000.0;
+		this.maxPosX = 300.0;
+		this.maxPosY = 300.0;
+		this.minSpeed = -0.000001;
+		this.maxSpeed = 0.000001;
+	}
+
+	@Test
+	public void testCorrectness() {
+		this.fjStrat.createBodies(this.minMass, this.maxMass, this.maxPosX, this.maxPosY, this.minSpeed,
+				this.maxSpeed);
+		Assert.assertTrue("All bodies are created",
+				this.fjStrat.getBodies().stream().filter(b -> b != null).toArray().length == this.nBodies);
+
+		((BodyStoreStrategy) this.soaStrat).setBodies(this.fjStrat.getBodies());
+
+		// Accumulators must be cleared between steps: the second one restarts from the same bodies, so that close
+		// encounters don't amplify the rounding differences of the first one
+		this.fjStrat.calculateAndMove();
+		((BodyStoreStrategy) this.soaStrat).setBodies(this.fjStrat.getBodies());
+		this.fjStrat.calculateAndMove();
+		this.soaStrat.calculateAndMove();
+
+		final List<Body> fjStratBodies = this.fjStrat.getBodies();
+		final List<Body> soaStratBodies = this.soaStrat.getBodies();
+		Body fjStratBody;
+		Body soaStratBody;
+		for (int i = 0; i < this.nBodies; i++) {
+			fjStratBody = fjStratBodies.get(i);
+			soaStratBody = soaStratBodies.get(i);
+
+			Assert.assertEquals("Body Mass is moved correctly", fjStratBody.getMass(), soaStratBody.getMass(),
+					0.0000000000001);
+			Assert.assertEquals("Body Position x is moved correctly", fjStratBody.getPosition().getX(),
+					soaStratBody.getPosition().getX(),
+					Deltas.relative(fjStratBody.getPosition().getX(), Deltas.STRICT));
+			Assert.assertEquals("Body Position y is moved correctly", fjStratBody.getPosition().getY(),
+					soaStratBody.getPosition().getY(),
+					Deltas.relative(fjStratBody.getPosition().getY(), Deltas.STRICT));
+			Assert.assertEquals("Body Speed x is moved correctly", fjStratBody.getSpeed().getXComp(),
+					soaStratBody.getSpeed().getXComp(),
+					Deltas.relative(fjStratBody.getSpeed().getXComp(), Deltas.STRICT));
+			Assert.assertEquals("Body Speed y is moved correctly", fjStratBody.getSpeed().getYComp(),
+					soaStratBody.getSpeed().getYComp(),
+					Deltas.relative(fjStratBody.getSpeed().getYComp(), Deltas.STRICT));
+		}
+	}
+
+	@After
+	public void tearDown() {
+		this.soaStrat.interrupt();
+		this.soaStrat.clear();
+		this.soaStrat = null;
+
+		this.fjStrat.interrupt();
+		this.fjStrat.clear();
+		this.fjStrat = null;
+	}
+}
@@ -8,6 +8,8 @@ import org.junit.Before;
 import org.junit.Test;
 
 import model.Body;
+import model.Deltas;
+import model.Integrator;
 
 public class MultiThreadStrategyTest {
 	private int nBodies;
@@ -70,6 +72,153 @@ public class MultiThreadStrategyTest {
 		}
 	}
 
+	@Test
+	public void testMatrixFree() {
+		final StrategyParams params = new StrategyParams();
+		params.setMatrixFree(true);
+		final Strategy mfStrat = StrategyBuilder.buildStrategy(StrategyBuilder.MULTI_THREAD, this.nBodies,
+				this.deltaTime, params);
+		mfStrat.createBodies(this.minMass, this.maxMass, this.maxPosX, this.maxPosY, this.minSpeed, this.maxSpeed);
+		((StreamStrategy) this.sStrat).setBodies(mfStrat.getBodies());
+
+		// Accumulators must be cleared between steps: the second one restarts from the same bodies
+		mfStrat.calculateAndMove();
+		((StreamStrategy) this.sStrat).setBodies(mfStrat.getBodies());
+		mfStrat.calculateAndMove();
+		this.sStrat.calculateAndMove();
+
+		final List<Body> mfStratBodies = mfStrat.getBodies();
+		final List<Body> sStratBodies = this.sStrat.getBodies();
+		Body mfStratBody;
+		Body sStratBody;
+		for (int i = 0; i < this.nBodies; i++) {
+			mfStratBody = mfStratBodies.get(i);
+			sStratBody = sStratBodies.get(i);
+
+			Assert.assertEquals("Body Position x is moved correctly", mfStratBody.getPosition().getX(),
+					sStratBody.getPosition().getX(), 0.00000000001);
+			Assert.assertEquals("Body Position y is moved correctly", mfStratBody.getPosition().getY(),
+					sStratBody.getPosition().getY(), 0.00000000001);
+			Assert.assertEquals("Body Speed x is moved correctly", mfStratBody.getSpeed().getXComp(),
+					sStratBody.getSpeed().getXComp(), 0.00000000001);
+			Assert.assertEquals("Body Speed y is moved correctly", mfStratBody.getSpeed().getYComp(),
+					sStratBody.getSpeed().getYComp(), 0.00000000001);
+		}
+
+		mfStrat.interrupt();
+		mfStrat.clear();
+	}
+
+	@Test
+	public void testIntegrators() {
+		for (final Integrator integrator : Integrator.values()) {
+			final StrategyParams params = new StrategyParams();
+			params.setIntegrator(integrator);
+			final Strategy mtIntStrat = StrategyBuilder.buildStrategy(StrategyBuilder.MULTI_THREAD, this.nBodies,
+					this.deltaTime / 10, params);
+			final Strategy sIntStrat = StrategyBuilder.buildStrategy(StrategyBuilder.STREAM, this.nBodies,
+					this.deltaTime / 10, params);
+			mtIntStrat.createBodies(this.minMass, this.maxMass, this.maxPosX, this.maxPosY, this.minSpeed,
+					this.maxSpeed);
+			((StreamStrategy) sIntStrat).setBodies(mtIntStrat.getBodies());
+
+			// Each stage reads the bodies moved by the previous one: the sums in a different order drift apart over
+			// the stages, so the delta is relative and wider
+			for (int step = 0; step < 2; step++) {
+				mtIntStrat.calculateAndMove();
+				sIntStrat.calculateAndMove();
+			}
+			for (int i = 0; i < this.nBodies; i++) {
+				final double expectedX = sIntStrat.getBodies().get(i).getPosition().getX();
+				final double expectedSpeedY = sIntStrat.getBodies().get(i).getSpeed().getYComp();
+				Assert.assertEquals(integrator + ": Body Position x is moved correctly", expectedX,
+						mtIntStrat.getBodies().get(i).getPosition().getX(),
+						Deltas.relative(expectedX));
+				Assert.assertEquals(integrator + ": Body Speed y is moved correctly", expectedSpeedY,
+						mtIntStrat.getBodies().get(i).getSpeed().getYComp(),
+						Deltas.relative(expectedSpeedY));
+			}
+
+			mtIntStrat.interrupt();
+			mtIntStrat.clear();
+		}
+	}
+
+	@Test
+	public void testForcesKept() {
+		for (final boolean matrixFree : new boolean[] { false, true }) {
+			final StrategyParams params = new StrategyParams();
+			params.setIntegrator(Integrator.VELOCITY_VERLET);
+			params.setMatrixFree(matrixFree);
+			final Strategy mtVVStrat = StrategyBuilder.buildStrategy(StrategyBuilder.MULTI_THREAD, this.nBodies,
+					this.deltaTime / 10, params);
+			final Strategy sVVStrat = StrategyBuilder.buildStrategy(StrategyBuilder.STREAM, this.nBodies,
+					this.deltaTime / 10, params);
+			mtVVStrat.createBodies(this.minMass, this.maxMass, this.maxPosX, this.maxPosY, this.minSpeed,
+					this.maxSpeed);
+			sVVStrat.setBodies(mtVVStrat.getBodies());
+
+			// The Forces kept from the previous step are dropped when the bodies are set
+			for (int step = 0; step < 3; step++) {
+				mtVVStrat.calculateAndMove();
+				sVVStrat.calculateAndMove();
+				if (step == 1) {
+					final Strategy newStrat = StrategyBuilder.buildStrategy(StrategyBuilder.STREAM, this.nBodies,
+							this.deltaTime);
+					newStrat.createBodies(this.minMass, this.maxMass, this.maxPosX, this.maxPosY, this.minSpeed,
+							this.maxSpeed);
+					sVVStrat.setBodies(newStrat.getBodies());
+					mtVVStrat.setBodies(newStrat.getBodies());
+				}
+			}
+			for (int i = 0; i < this.nBodies; i++) {
+				final double expectedX = sVVStrat.getBodies().get(i).getPosition().getX();
+				final double expectedSpeedY = sVVStrat.getBodies().get(i).getSpeed().getYComp();
+				Assert.assertEquals(matrixFree + ": Body Position x is moved correctly", expectedX,
+						mtVVStrat.getBodies().get(i).getPosition().getX(),
+						Deltas.relative(expectedX));
+				Assert.assertEquals(matrixFree + ": Body Speed y is moved correctly", expectedSpeedY,
+						mtVVStrat.getBodies().get(i).getSpeed().getYComp(),
+						Deltas.relative(expectedSpeedY));
+			}
+
+			mtVVStrat.interrupt();
+			mtVVStrat.clear();
+		}
+	}
+
+	@Test
+	public void testInterrupt() throws InterruptedException {
+		this.mtStrat.createBodies(this.minMass, this.maxMass, this.maxPosX, this.maxPosY, this.minSpeed, this.maxSpeed);
+		final List<Body> snapshot = this.mtStrat.getBodies();
+		final double[] positionsX = snapshot.stream().mapToDouble(b -> b.getPosition().getX()).toArray();
+
+		final Thread step = new Thread(this.mtStrat::calculateAndMove);
+		step.start();
+		this.mtStrat.interrupt();
+		step.join();
+
+		// The snapshot is untouched, and the step is either published as a whole or dropped
+		int nMoved = 0;
+		for (int i = 0; i < this.nBodies; i++) {
+			Assert.assertEquals("Snapshot untouched", positionsX[i], snapshot.get(i).getPosition().getX(), 0D);
+			if (this.mtStrat.getBodies().get(i).getPosition().getX() != positionsX[i]) {
+				nMoved++;
+			}
+		}
+		Assert.assertTrue("All or no bodies are moved, " + nMoved + " were", nMoved == 0 || nMoved == this.nBodies);
+
+		// The next step starts from the published bodies
+		((StreamStrategy) this.sStrat).setBodies(this.mtStrat.getBodies());
+		this.mtStrat.calculateAndMove();
+		this.sStrat.calculateAndMove();
+		for (int i = 0; i < this.nBodies; i++) {
+			Assert.assertEquals("Body Position x is moved correctly",
+					this.sStrat.getBodies().get(i).getPosition().getX(),
+					this.mtStrat.getBodies().get(i).getPosition().getX(), 0.00000000001);
+		}
+	}
+
 	@After
 	public void tearDown() {
 		this.sStrat.interrupt();
@@ -0,0 +1,104 @@
+package control;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import model.Body;
+import model.Position;
+import model.Vector;
+
+public class ParticleMeshStrategyTest {
+	private int nBodies;
+	private int deltaTime;
+	private Strategy pmStrat;
+	private Strategy soaStrat;
+
+	private double minMass;
+	private double maxMass;
+	private double maxPosX;
+	private double maxPosY;
+	private double minSpeed;
+	private double maxSpeed;
+
+	@Before
+	public void initialize() {
+		this.nBodies = 1000;
+		this.deltaTime = 10000;
+		this.soaStrat = StrategyBuilder.buildStrategy(StrategyBuilder.SOA, this.nBodies, this.deltaTime);
+
+		this.minMass = 100000.0;
+		this.maxMass = 1000000.0;
+		this.maxPosX = 300.0;
+		this.maxPosY = 300.0;
+		this.minSpeed = -0.000001;
+		this.maxSpeed = 0.000001;
+	}
+
+	@Test
+	public void testFarField() {
+		// A cluster in a corner and a body in the opposite one: the Force on the latter is not smoothed
+		this.pmStrat = this.buildParticleMesh(StrategyParams.DEF_PM_GRID_SIZE);
+		final Random random = new Random(1);
+		final List<Body> initialBodies = new ArrayList<>();
+		for (int i = 0; i < this.nBodies - 1; i++) {
+			initialBodies.add(new Body(this.minMass + random.nextDouble() * (this.maxMass - this.minMass),
+					new Position(random.nextDouble() * this.maxPosX / 30, random.nextDouble() * this.maxPosY / 30),
+					new Vector(0.0, 0.0)));
+		}
+		initialBodies.add(new Body(this.maxMass, new Position(this.maxPosX, this.maxPosY), new Vector(0.0, 0.0)));
+		((BodyStoreStrategy) this.pmStrat).setBodies(initialBodies);
+		((BodyStoreStrategy) this.soaStrat).setBodies(initialBodies);
+
+		this.pmStrat.calculateAndMove();
+		this.soaStrat.calculateAndMove();
+
+		final int last = this.nBodies - 1;
+		Assert.assertTrue("Far Force is approximated within 0.1%",
+				BarnesHutStrategyTest.getSpeedError(initialBodies.subList(last, this.nBodies),
+						this.pmStrat.getBodies().subList(last, this.nBodies),
+						this.soaStrat.getBodies().subList(last, this.nBodies)) < 0.001);
+	}
+
+	@Test
+	public void testGridSize() {
+		this.pmStrat = this.buildParticleMesh(32);
+		final Strategy fineStrat = this.buildParticleMesh(256);
+		this.soaStrat.createBodies(this.minMass, this.maxMass, this.maxPosX, this.maxPosY, this.minSpeed,
+				this.maxSpeed);
+		final List<Body> initialBodies = new ArrayList<>(this.soaStrat.getBodies());
+		((BodyStoreStrategy) this.pmStrat).setBodies(initialBodies);
+		((BodyStoreStrategy) fineStrat).setBodies(initialBodies);
+
+		this.pmStrat.calculateAndMove();
+		fineStrat.calculateAndMove();
+		this.soaStrat.calculateAndMove();
+
+		Assert.assertTrue("Finer grids are more precise",
+				BarnesHutStrategyTest.getSpeedError(initialBodies, fineStrat.getBodies(),
+						this.soaStrat.getBodies()) < BarnesHutStrategyTest.getSpeedError(initialBodies,
+								this.pmStrat.getBodies(), this.soaStrat.getBodies()));
+	}
+
+	private Strategy buildParticleMesh(final int gridSize) {
+		final StrategyParams params = new StrategyParams();
+		params.setPmGridSize(gridSize);
+		return StrategyBuilder.buildStrategy(StrategyBuilder.PARTICLE_MESH, this.nBodies, this.deltaTime, params);
+	}
+
+	@After
+	public void tearDown() {
+		this.soaStrat.interrupt();
+		this.soaStrat.clear();
+		this.soaStrat = null;
+
+		this.pmStrat.interrupt();
+		this.pmStrat.clear();
+		this.pmStrat = null;
+	}
+}
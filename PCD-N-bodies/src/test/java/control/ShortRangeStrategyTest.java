@@ -0,0 +1,94 @@
+package control;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import model.Body;
+import model.BodyStore;
+import model.Deltas;
+import model.Potential;
+
+public class ShortRangeStrategyTest {
+	private static final double CUTOFF = 20.0;
+	private static final double SKIN = 4.0;
+	private static final double LENGTH = 5.0;
+	private static final int STEPS = 20;
+
+	private int nBodies;
+	private int deltaTime;
+	private Strategy srStrat;
+
+	@Before
+	public void initialize() {
+		this.nBodies = 400;
+		this.deltaTime = 1000;
+		final StrategyParams params = new StrategyParams();
+		params.setPotential(Potential.SOFTENED_GRAVITY);
+		params.setCutoff(ShortRangeStrategyTest.CUTOFF);
+		params.setPotentialLength(ShortRangeStrategyTest.LENGTH);
+		params.setSkin(ShortRangeStrategyTest.SKIN);
+		this.srStrat = StrategyBuilder.buildStrategy(StrategyBuilder.SHORT_RANGE, this.nBodies, this.deltaTime, params);
+	}
+
+	@Test
+	public void testCorrectness() {
+		this.srStrat.createBodies(1000.0, 10000.0, 300.0, 300.0, -0.0005, 0.0005);
+		final BodyStore expected = BodyStore.of(this.srStrat.getBodies());
+
+		for (int step = 0; step < ShortRangeStrategyTest.STEPS; step++) {
+			this.srStrat.calculateAndMove();
+			ShortRangeStrategyTest.move(expected, this.deltaTime);
+		}
+
+		final List<Body> srStratBodies = this.srStrat.getBodies();
+		for (int i = 0; i < this.nBodies; i++) {
+			final Body srStratBody = srStratBodies.get(i);
+			Assert.assertEquals("Body Position x is moved correctly", expected.getPosX()[i],
+					srStratBody.getPosition().getX(), Deltas.relative(expected.getPosX()[i]));
+			Assert.assertEquals("Body Position y is moved correctly", expected.getPosY()[i],
+					srStratBody.getPosition().getY(), Deltas.relative(expected.getPosY()[i]));
+			Assert.assertEquals("Body Speed x is moved correctly", expected.getSpeedX()[i],
+					srStratBody.getSpeed().getXComp(), Deltas.relative(expected.getSpeedX()[i]));
+			Assert.assertEquals("Body Speed y is moved correctly", expected.getSpeedY()[i],
+					srStratBody.getSpeed().getYComp(), Deltas.relative(expected.getSpeedY()[i]));
+		}
+
+		// The bodies move less than 1 m per step: the lists are built again every few steps only
+		final int builds = ((ShortRangeStrategy) this.srStrat).getNeighbourListBuilds();
+		Assert.assertTrue("The lists are reused, built " + builds + " times",
+				builds > 1 && builds < ShortRangeStrategyTest.STEPS / 2);
+	}
+
+	/* Moves the bodies by the Forces of all the pairs closer than the cutoff, one by one */
+	private static void move(final BodyStore bodies, final double deltaTime) {
+		final double[] forcesX = new double[bodies.size()];
+		final double[] forcesY = new double[bodies.size()];
+		for (int i = 0; i < bodies.size(); i++) {
+			for (int j = 0; j < bodies.size(); j++) {
+				final double deltaX = bodies.getPosX()[j] - bodies.getPosX()[i];
+				final double deltaY = bodies.getPosY()[j] - bodies.getPosY()[i];
+				final double distanceSquared = deltaX * deltaX + deltaY * deltaY;
+				if (j != i && distanceSquared < ShortRangeStrategyTest.CUTOFF * ShortRangeStrategyTest.CUTOFF) {
+					final double lambda = Potential.SOFTENED_GRAVITY.getLambda(bodies.getMass()[i],
+							bodies.getMass()[j], distanceSquared, ShortRangeStrategyTest.LENGTH);
+					forcesX[i] += deltaX * lambda;
+					forcesY[i] += deltaY * lambda;
+				}
+			}
+		}
+		for (int i = 0; i < bodies.size(); i++) {
+			bodies.apply(i, forcesX[i], forcesY[i], deltaTime);
+		}
+	}
+
+	@After
+	public void tearDown() {
+		this.srStrat.interrupt();
+		this.srStrat.clear();
+		this.srStrat = null;
+	}
+}
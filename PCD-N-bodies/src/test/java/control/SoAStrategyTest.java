@@ -0,0 +1,141 @@
+package control;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import control.kernel.Precision;
+import model.Body;
+import model.Deltas;
+import model.Integrator;
+
+public class SoAStrategyTest {
+	private int nBodies;
+	private int deltaTime;
+	private Strategy soaStrat;
+	private Strategy mtStrat;
+
+	private double minMass;
+	private double maxMass;
+	private double maxPosX;
+	private double maxPosY;
+	private double minSpeed;
+	private double maxSpeed;
+
+	@Before
+	public void initialize() {
+		this.nBodies = 1000;
+		this.deltaTime = 10000;
+		this.soaStrat = StrategyBuilder.buildStrategy(StrategyBuilder.SOA, this.nBodies, this.deltaTime);
+		this.mtStrat = StrategyBuilder.buildStrategy(StrategyBuilder.MULTI_THREAD, this.nBodies, this.deltaTime);
+
+		this.minMass = 100000.0;
+		this.maxMass = 1000000.0;
+		this.maxPosX = 300.0;
+		this.maxPosY = 300.0;
+		this.minSpeed = -0.000001;
+		this.maxSpeed = 0.000001;
+	}
+
+	@Test
+	public void testCorrectness() {
+		this.soaStrat.createBodies(this.minMass, this.maxMass, this.maxPosX, this.maxPosY, this.minSpeed,
+				this.maxSpeed);
+		Assert.assertTrue("All bodies are created",
+				this.soaStrat.getBodies().stream().filter(b -> b != null).toArray().length == this.nBodies);
+
+		((MultiThreadStrategy) this.mtStrat).setBodies(this.soaStrat.getBodies());
+
+		this.soaStrat.calculateAndMove();
+		this.mtStrat.calculateAndMove();
+
+		final List<Body> soaStratBodies = this.soaStrat.getBodies();
+		final List<Body> mtStratBodies = this.mtStrat.getBodies();
+		Body soaStratBody;
+		Body mtStratBody;
+		for (int i = 0; i < this.nBodies; i++) {
+			soaStratBody = soaStratBodies.get(i);
+			mtStratBody = mtStratBodies.get(i);
+
+			Assert.assertEquals("Body Mass is moved correctly", soaStratBody.getMass(), mtStratBody.getMass(),
+					0.0000000000001);
+			Assert.assertEquals("Body Position x is moved correctly", soaStratBody.getPosition().getX(),
+					mtStratBody.getPosition().getX(), Deltas.relative(soaStratBody.getPosition().getX()));
+			Assert.assertEquals("Body Position y is moved correctly", soaStratBody.getPosition().getY(),
+					mtStratBody.getPosition().getY(), Deltas.relative(soaStratBody.getPosition().getY()));
+			Assert.assertEquals("Body Speed x is moved correctly", soaStratBody.getSpeed().getXComp(),
+					mtStratBody.getSpeed().getXComp(), Deltas.relative(soaStratBody.getSpeed().getXComp()));
+			Assert.assertEquals("Body Speed y is moved correctly", soaStratBody.getSpeed().getYComp(),
+					mtStratBody.getSpeed().getYComp(), Deltas.relative(soaStratBody.getSpeed().getYComp()));
+		}
+	}
+
+	@Test
+	public void testIntegrators() {
+		final int nIntBodies = this.nBodies / 10;
+		for (final Integrator integrator : Integrator.values()) {
+			final StrategyParams params = new StrategyParams();
+			params.setIntegrator(integrator);
+			final Strategy soaIntStrat = StrategyBuilder.buildStrategy(StrategyBuilder.SOA, nIntBodies,
+					this.deltaTime / 10, params);
+			final Strategy sIntStrat = StrategyBuilder.buildStrategy(StrategyBuilder.STREAM, nIntBodies,
+					this.deltaTime / 10, params);
+			soaIntStrat.createBodies(this.minMass, this.maxMass, this.maxPosX, this.maxPosY, this.minSpeed,
+					this.maxSpeed);
+			((StreamStrategy) sIntStrat).setBodies(soaIntStrat.getBodies());
+
+			// The Forces kept by a VELOCITY_VERLET step are the ones calculated again by the Stream Strategy
+			for (int step = 0; step < 3; step++) {
+				soaIntStrat.calculateAndMove();
+				sIntStrat.calculateAndMove();
+			}
+			for (int i = 0; i < nIntBodies; i++) {
+				final double expectedX = sIntStrat.getBodies().get(i).getPosition().getX();
+				final double expectedSpeedY = sIntStrat.getBodies().get(i).getSpeed().getYComp();
+				Assert.assertEquals(integrator + ": Body Position x is moved correctly", expectedX,
+						soaIntStrat.getBodies().get(i).getPosition().getX(), Deltas.relative(expectedX));
+				Assert.assertEquals(integrator + ": Body Speed y is moved correctly", expectedSpeedY,
+						soaIntStrat.getBodies().get(i).getSpeed().getYComp(), Deltas.relative(expectedSpeedY));
+			}
+		}
+	}
+
+	@Test
+	public void testFloatPrecision() {
+		final StrategyParams params = new StrategyParams();
+		params.setPrecision(Precision.FLOAT);
+		final Strategy floatStrat = StrategyBuilder.buildStrategy(StrategyBuilder.SOA, this.nBodies, this.deltaTime,
+				params);
+		this.soaStrat.createBodies(this.minMass, this.maxMass, this.maxPosX, this.maxPosY, this.minSpeed,
+				this.maxSpeed);
+		((SoAStrategy) floatStrat).setBodies(this.soaStrat.getBodies());
+
+		this.soaStrat.calculateAndMove();
+		floatStrat.calculateAndMove();
+
+		// Float pair Forces move the bodies close to the double ones
+		for (int i = 0; i < this.nBodies; i++) {
+			final Body expected = this.soaStrat.getBodies().get(i);
+			final Body body = floatStrat.getBodies().get(i);
+			final double speed = Math.hypot(expected.getSpeed().getXComp(), expected.getSpeed().getYComp());
+			Assert.assertEquals("Body Speed x is close", expected.getSpeed().getXComp(), body.getSpeed().getXComp(),
+					0.001 * speed);
+			Assert.assertEquals("Body Speed y is close", expected.getSpeed().getYComp(), body.getSpeed().getYComp(),
+					0.001 * speed);
+		}
+	}
+
+	@After
+	public void tearDown() {
+		this.mtStrat.interrupt();
+		this.mtStrat.clear();
+		this.mtStrat = null;
+
+		this.soaStrat.interrupt();
+		this.soaStrat.clear();
+		this.soaStrat = null;
+	}
+}
@@ -0,0 +1,157 @@
+package control;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import model.BodyStore;
+import model.TrajectoryReader;
+
+public class TrajectoryRecorderTest {
+	private static final int N_BODIES = 200;
+	private static final int DELTA_TIME = 10000;
+	private static final int INTERVAL = 3;
+	private static final int STEPS = 30;
+
+	private Path path;
+	private Strategy strategy;
+
+	@Before
+	public void initialize() throws IOException {
+		this.path = Files.createTempFile("nbodies", ".trajectory");
+		this.strategy = StrategyBuilder.buildStrategy(StrategyBuilder.SOA, TrajectoryRecorderTest.N_BODIES,
+				TrajectoryRecorderTest.DELTA_TIME);
+		this.strategy.createBodies(100000.0, 1000000.0, 300.0, 300.0, -0.000001, 0.000001);
+	}
+
+	@Test
+	public void testBlock() throws InterruptedException, IOException {
+		final List<BodyStore> expected = new ArrayList<>();
+		final TrajectoryRecorder recorder = new TrajectoryRecorder(this.path, TrajectoryRecorderTest.N_BODIES,
+				TrajectoryRecorderTest.INTERVAL, 1, TrajectoryRecorder.Overflow.BLOCK, 0D, 0D, 0L);
+		for (int step = 1; step <= TrajectoryRecorderTest.STEPS; step++) {
+			this.strategy.calculateAndMove();
+			final boolean queued = recorder.stepped(this.strategy);
+			Assert.assertEquals("A frame is queued at the end of each interval",
+					step % TrajectoryRecorderTest.INTERVAL == 0, queued);
+			if (queued) {
+				expected.add(this.strategy.getSnapshot());
+			}
+		}
+		recorder.close();
+		Assert.assertNull("The frames are written", recorder.takeError());
+		Assert.assertEquals("No frame is dropped", 0L, recorder.getDropped());
+		Assert.assertEquals("All the frames are written", expected.size(), recorder.getWritten());
+
+		try (TrajectoryReader reader = new TrajectoryReader(this.path)) {
+			for (int frame = 0; frame < expected.size(); frame++) {
+				Assert.assertTrue("Frame is read", reader.next());
+				Assert.assertEquals("Step is read", (frame + 1L) * TrajectoryRecorderTest.INTERVAL, reader.getStep());
+				Assert.assertArrayEquals("Positions x are read", expected.get(frame).getPosX(), reader.getPosX(), 0D);
+				Assert.assertArrayEquals("Speeds y are read", expected.get(frame).getSpeedY(), reader.getSpeedY(), 0D);
+			}
+			Assert.assertFalse("No more frames", reader.next());
+		}
+	}
+
+	@Test
+	public void testDrop() throws InterruptedException, IOException {
+		final TrajectoryRecorder recorder = new TrajectoryRecorder(this.path, TrajectoryRecorderTest.N_BODIES, 1, 1,
+				TrajectoryRecorder.Overflow.DROP, 0.001, 0.000000000001, 100L);
+		int queued = 0;
+		for (int step = 0; step < TrajectoryRecorderTest.STEPS; step++) {
+			// No step in between: the writer can't keep up, some frames may be dropped
+			if (recorder.stepped(this.strategy)) {
+				queued++;
+			}
+		}
+		recorder.close();
+		Assert.assertNull("The frames are written", recorder.takeError());
+		Assert.assertEquals("Each frame is either written or dropped", TrajectoryRecorderTest.STEPS,
+				recorder.getWritten() + recorder.getDropped());
+		Assert.assertEquals("The queued frames are written when closing", queued, recorder.getWritten());
+
+		try (TrajectoryReader reader = new TrajectoryReader(this.path)) {
+			long last = 100L;
+			for (int frame = 0; frame < queued; frame++) {
+				Assert.assertTrue("Frame is read", reader.next());
+				Assert.assertTrue("Steps go on from the restored one", reader.getStep() > last);
+				last = reader.getStep();
+			}
+			Assert.assertFalse("No more frames", reader.next());
+		}
+	}
+
+	@Test
+	public void testSizeMismatch() throws InterruptedException, IOException {
+		// The bodies are one less than the file's: none can be copied
+		final TrajectoryRecorder recorder = new TrajectoryRecorder(this.path, TrajectoryRecorderTest.N_BODIES + 1, 1,
+				1, TrajectoryRecorder.Overflow.BLOCK, 0D, 0D, 0L);
+		try {
+			recorder.stepped(this.strategy);
+			Assert.fail("The mismatch is reported by the step");
+		} catch (@SuppressWarnings("unused") final IllegalArgumentException e) {
+			// Expected
+		} finally {
+			recorder.close();
+		}
+		Assert.assertNull("Nothing is written", recorder.takeError());
+		Assert.assertEquals("No frame is written", 0L, recorder.getWritten());
+
+		try (TrajectoryReader reader = new TrajectoryReader(this.path)) {
+			Assert.assertFalse("The file holds no frame", reader.next());
+		}
+	}
+
+	@Test
+	public void testCopiesReused() throws InterruptedException, IOException {
+		final TrajectoryRecorder recorder = new TrajectoryRecorder(this.path, TrajectoryRecorderTest.N_BODIES, 1, 1,
+				TrajectoryRecorder.Overflow.BLOCK, 0D, 0D, 0L);
+		final BodyStore[] copies = new BodyStore[TrajectoryRecorderTest.STEPS];
+		final Strategy strategy = new SoAStrategy(TrajectoryRecorderTest.N_BODIES, TrajectoryRecorderTest.DELTA_TIME,
+				StrategyParams.DEF_PRECISION, StrategyParams.DEF_INTEGRATOR) {
+			private int frame;
+
+			@Override
+			public void copyBodies(final BodyStore target) {
+				copies[this.frame++] = target;
+				super.copyBodies(target);
+			}
+		};
+		strategy.setBodies(this.strategy.getSnapshot());
+		for (int step = 0; step < TrajectoryRecorderTest.STEPS; step++) {
+			recorder.stepped(strategy);
+		}
+		recorder.close();
+		Assert.assertEquals("All the frames are written", TrajectoryRecorderTest.STEPS, recorder.getWritten());
+		final List<BodyStore> distinct = new ArrayList<>();
+		for (final BodyStore copy : copies) {
+			if (!distinct.contains(copy)) {
+				distinct.add(copy);
+			}
+		}
+		Assert.assertTrue("At most capacity + 1 copies are created: " + distinct.size(), distinct.size() <= 2);
+	}
+
+	@Test
+	public void testCloseInterrupted() throws InterruptedException, IOException {
+		final TrajectoryRecorder recorder = new TrajectoryRecorder(this.path, TrajectoryRecorderTest.N_BODIES, 1, 1,
+				TrajectoryRecorder.Overflow.BLOCK, 0D, 0D, 0L);
+		recorder.stepped(this.strategy);
+		Thread.currentThread().interrupt();
+		recorder.close();
+		Assert.assertTrue("The interrupt status is kept", Thread.interrupted());
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(this.path);
+	}
+}
@@ -0,0 +1,121 @@
+package control;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import model.Body;
+import model.Deltas;
+
+public class VirtualThreadStrategyTest {
+	private int nBodies;
+	private int deltaTime;
+	private Strategy vtStrat;
+	private Strategy mtStrat;
+
+	private double minMass;
+	private double maxMass;
+	private double maxPosX;
+	private double maxPosY;
+	private double minSpeed;
+	private double maxSpeed;
+
+	@Before
+	public void initialize() {
+		this.nBodies = 1000;
+		this.deltaTime = 10000;
+		this.vtStrat = StrategyBuilder.buildStrategy(StrategyBuilder.VIRTUAL_THREAD, this.nBodies, this.deltaTime);
+		this.mtStrat = StrategyBuilder.buildStrategy(StrategyBuilder.MULTI_THREAD, this.nBodies, this.deltaTime);
+
+		this.minMass = 100000.0;
+		this.maxMass = 1000000.0;
+		this.maxPosX = 300.0;
+		this.maxPosY = 300.0;
+		this.minSpeed = -0.000001;
+		this.maxSpeed = 0.000001;
+	}
+
+	@Test
+	public void testCorrectness() {
+		this.vtStrat.createBodies(this.minMass, this.maxMass, this.maxPosX, this.maxPosY, this.minSpeed,
+				this.maxSpeed);
+		Assert.assertTrue("All bodies are created",
+				this.vtStrat.getBodies().stream().filter(b -> b != null).toArray().length == this.nBodies);
+
+		((MultiThreadStrategy) this.mtStrat).setBodies(this.vtStrat.getBodies());
+
+		this.vtStrat.calculateAndMove();
+		this.mtStrat.calculateAndMove();
+
+		final List<Body> vtStratBodies = this.vtStrat.getBodies();
+		final List<Body> mtStratBodies = this.mtStrat.getBodies();
+		Body vtStratBody;
+		Body mtStratBody;
+		for (int i = 0; i < this.nBodies; i++) {
+			vtStratBody = vtStratBodies.get(i);
+			mtStratBody = mtStratBodies.get(i);
+
+			Assert.assertEquals("Body Mass is moved correctly", vtStratBody.getMass(), mtStratBody.getMass(),
+					0.0000000000001);
+			Assert.assertEquals("Body Position x is moved correctly", vtStratBody.getPosition().getX(),
+					mtStratBody.getPosition().getX(),
+					Deltas.relative(vtStratBody.getPosition().getX(), Deltas.STRICT));
+			Assert.assertEquals("Body Position y is moved correctly", vtStratBody.getPosition().getY(),
+					mtStratBody.getPosition().getY(),
+					Deltas.relative(vtStratBody.getPosition().getY(), Deltas.STRICT));
+			Assert.assertEquals("Body Speed x is moved correctly", vtStratBody.getSpeed().getXComp(),
+					mtStratBody.getSpeed().getXComp(),
+					Deltas.relative(vtStratBody.getSpeed().getXComp(), Deltas.STRICT));
+			Assert.assertEquals("Body Speed y is moved correctly", vtStratBody.getSpeed().getYComp(),
+					mtStratBody.getSpeed().getYComp(),
+					Deltas.relative(vtStratBody.getSpeed().getYComp(), Deltas.STRICT));
+		}
+	}
+
+	@Test
+	public void testInterrupt() throws InterruptedException {
+		this.vtStrat.createBodies(this.minMass, this.maxMass, this.maxPosX, this.maxPosY, this.minSpeed,
+				this.maxSpeed);
+		final double[] positionsX = this.vtStrat.getBodies().stream().mapToDouble(b -> b.getPosition().getX())
+				.toArray();
+
+		final Thread step = new Thread(this.vtStrat::calculateAndMove);
+		step.start();
+		this.vtStrat.interrupt();
+		step.join();
+
+		// A step is either completed or cancelled: no body has been moved alone
+		final List<Body> vtStratBodies = this.vtStrat.getBodies();
+		int nMoved = 0;
+		for (int i = 0; i < this.nBodies; i++) {
+			if (vtStratBodies.get(i).getPosition().getX() != positionsX[i]) {
+				nMoved++;
+			}
+		}
+		Assert.assertTrue("All or no bodies are moved, " + nMoved + " were", nMoved == 0 || nMoved == this.nBodies);
+
+		// The next step runs normally
+		((MultiThreadStrategy) this.mtStrat).setBodies(vtStratBodies);
+		this.vtStrat.calculateAndMove();
+		this.mtStrat.calculateAndMove();
+		for (int i = 0; i < this.nBodies; i++) {
+			final double expectedX = this.mtStrat.getBodies().get(i).getPosition().getX();
+			Assert.assertEquals("Body Position x is moved correctly", expectedX,
+					this.vtStrat.getBodies().get(i).getPosition().getX(), Deltas.relative(expectedX, Deltas.STRICT));
+		}
+	}
+
+	@After
+	public void tearDown() {
+		this.mtStrat.interrupt();
+		this.mtStrat.clear();
+		this.mtStrat = null;
+
+		this.vtStrat.interrupt();
+		this.vtStrat.clear();
+		this.vtStrat = null;
+	}
+}
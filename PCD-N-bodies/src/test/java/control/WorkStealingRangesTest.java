@@ -0,0 +1,58 @@
+package control;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WorkStealingRangesTest {
+	private static final int N_WORKERS = 5;
+	private static final int[] SIZES = { 0, 1, 3, 5, 100, 10007 };
+
+	@Test
+	public void testSingleWorker() {
+		// A single worker drains its own range and then steals everything from the others
+		final WorkStealingRanges ranges = new WorkStealingRanges(WorkStealingRangesTest.N_WORKERS);
+		for (final int n : WorkStealingRangesTest.SIZES) {
+			ranges.reset(n);
+			final boolean[] taken = new boolean[n];
+			int index;
+			int count = 0;
+			while ((index = ranges.next(1)) != WorkStealingRanges.NONE) {
+				Assert.assertFalse("Index " + index + " taken twice", taken[index]);
+				taken[index] = true;
+				count++;
+			}
+			Assert.assertEquals("All taken, n = " + n, n, count);
+		}
+	}
+
+	@Test
+	public void testConcurrentWorkers() throws InterruptedException {
+		final WorkStealingRanges ranges = new WorkStealingRanges(WorkStealingRangesTest.N_WORKERS);
+		for (final int n : WorkStealingRangesTest.SIZES) {
+			ranges.reset(n);
+			final AtomicIntegerArray taken = new AtomicIntegerArray(n);
+			final Thread[] workers = new Thread[WorkStealingRangesTest.N_WORKERS];
+			for (int w = 0; w < WorkStealingRangesTest.N_WORKERS; w++) {
+				final int worker = w;
+				workers[w] = new Thread(() -> {
+					int index;
+					while ((index = ranges.next(worker)) != WorkStealingRanges.NONE) {
+						taken.incrementAndGet(index);
+						if (worker == 0) {
+							Thread.yield();  // A slow worker, whose range gets stolen
+						}
+					}
+				});
+				workers[w].start();
+			}
+			for (final Thread worker : workers) {
+				worker.join();
+			}
+			for (int i = 0; i < n; i++) {
+				Assert.assertEquals("Index " + i + ", n = " + n, 1, taken.get(i));
+			}
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package control.kernel;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import model.BodyStore;
+import model.Deltas;
+
+public class BlockedForceKernelTest {
+	private static final int N_BODIES = 500;
+	private static final int[] BLOCK_SIZES = { 1, 7, 64, 1000 };
+
+	private BodyStore bodies;
+
+	@Before
+	public void initialize() {
+		final Random random = new Random(42);
+		this.bodies = new BodyStore(BlockedForceKernelTest.N_BODIES);
+		for (int i = 0; i < BlockedForceKernelTest.N_BODIES; i++) {
+			this.bodies.set(i, 100000.0 + random.nextDouble() * 900000.0, random.nextDouble() * 300.0,
+					random.nextDouble() * 300.0, 0.0, 0.0);
+		}
+	}
+
+	@Test
+	public void testBlockSizes() {
+		final double[] expectedX = new double[BlockedForceKernelTest.N_BODIES];
+		final double[] expectedY = new double[BlockedForceKernelTest.N_BODIES];
+		new BlockedForceKernel(BlockedForceKernelTest.N_BODIES).accumulate(this.bodies, 0,
+				BlockedForceKernelTest.N_BODIES, 0, BlockedForceKernelTest.N_BODIES, expectedX, expectedY);
+
+		for (final int blockSize : BlockedForceKernelTest.BLOCK_SIZES) {
+			final BlockedForceKernel kernel = new BlockedForceKernel(blockSize);
+			final double[] forcesX = new double[BlockedForceKernelTest.N_BODIES];
+			final double[] forcesY = new double[BlockedForceKernelTest.N_BODIES];
+			final double[] pairsX = new double[BlockedForceKernelTest.N_BODIES];
+			final double[] pairsY = new double[BlockedForceKernelTest.N_BODIES];
+			kernel.accumulate(this.bodies, 0, BlockedForceKernelTest.N_BODIES, 0, BlockedForceKernelTest.N_BODIES,
+					forcesX, forcesY);
+			kernel.accumulatePairs(this.bodies, 0, BlockedForceKernelTest.N_BODIES, 0,
+					BlockedForceKernelTest.N_BODIES, pairsX, pairsY);
+
+			final int[] pairs = new int[1];
+			kernel.forEachPair(0, BlockedForceKernelTest.N_BODIES, BlockedForceKernelTest.N_BODIES, (i, j) -> {
+				Assert.assertTrue("Pairs have i < j", i < j);
+				pairs[0]++;
+			});
+			Assert.assertEquals("Each pair is visited once",
+					BlockedForceKernelTest.N_BODIES * (BlockedForceKernelTest.N_BODIES - 1) / 2, pairs[0]);
+
+			for (int i = 0; i < BlockedForceKernelTest.N_BODIES; i++) {
+				Assert.assertEquals("Force x is the same", expectedX[i], forcesX[i],
+						Deltas.relative(expectedX[i]));
+				Assert.assertEquals("Force y is the same", expectedY[i], forcesY[i],
+						Deltas.relative(expectedY[i]));
+				Assert.assertEquals("Pairs Force x is the same", expectedX[i], pairsX[i],
+						Deltas.relative(expectedX[i]));
+				Assert.assertEquals("Pairs Force y is the same", expectedY[i], pairsY[i],
+						Deltas.relative(expectedY[i]));
+			}
+		}
+	}
+
+	@Test
+	public void testDefaultKernel() {
+		final double[] expectedX = new double[BlockedForceKernelTest.N_BODIES];
+		final double[] expectedY = new double[BlockedForceKernelTest.N_BODIES];
+		final double[] forcesX = new double[BlockedForceKernelTest.N_BODIES];
+		final double[] forcesY = new double[BlockedForceKernelTest.N_BODIES];
+		final double[] pairsX = new double[BlockedForceKernelTest.N_BODIES];
+		final double[] pairsY = new double[BlockedForceKernelTest.N_BODIES];
+		new BlockedForceKernel(BlockedForceKernelTest.N_BODIES).accumulate(this.bodies, 0,
+				BlockedForceKernelTest.N_BODIES, 0, BlockedForceKernelTest.N_BODIES, expectedX, expectedY);
+
+		// The vector kernel, when available: odd ranges leave some bodies out of the lanes
+		final ForceKernel kernel = ForceKernel.get();
+		kernel.accumulate(this.bodies, 0, BlockedForceKernelTest.N_BODIES, 0, 123, forcesX, forcesY);
+		kernel.accumulate(this.bodies, 0, BlockedForceKernelTest.N_BODIES, 123, BlockedForceKernelTest.N_BODIES,
+				forcesX, forcesY);
+		kernel.accumulatePairs(this.bodies, 0, BlockedForceKernelTest.N_BODIES, 0, BlockedForceKernelTest.N_BODIES,
+				pairsX, pairsY);
+
+		for (int i = 0; i < BlockedForceKernelTest.N_BODIES; i++) {
+			Assert.assertEquals("Force x is the same", expectedX[i], forcesX[i],
+					Deltas.relative(expectedX[i]));
+			Assert.assertEquals("Force y is the same", expectedY[i], forcesY[i],
+					Deltas.relative(expectedY[i]));
+			Assert.assertEquals("Pairs Force x is the same", expectedX[i], pairsX[i],
+					Deltas.relative(expectedX[i]));
+			Assert.assertEquals("Pairs Force y is the same", expectedY[i], pairsY[i],
+					Deltas.relative(expectedY[i]));
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package control.kernel;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import model.BodyStore;
+import model.Deltas;
+
+public class FloatForceKernelTest {
+	private static final int N_BODIES = 500;
+	private static final int[] BLOCK_SIZES = { 1, 7, 64, 1000 };
+	private static final double MAX_ERROR = 0.001;  // Relative to the module of the double Force
+
+	private BodyStore bodies;
+	private double[] expectedX;
+	private double[] expectedY;
+
+	@Before
+	public void initialize() {
+		final Random random = new Random(42);
+		this.bodies = new BodyStore(FloatForceKernelTest.N_BODIES);
+		for (int i = 0; i < FloatForceKernelTest.N_BODIES; i++) {
+			this.bodies.set(i, 100000.0 + random.nextDouble() * 900000.0, random.nextDouble() * 300.0,
+					random.nextDouble() * 300.0, 0.0, 0.0);
+		}
+		this.expectedX = new double[FloatForceKernelTest.N_BODIES];
+		this.expectedY = new double[FloatForceKernelTest.N_BODIES];
+		new BlockedForceKernel(FloatForceKernelTest.N_BODIES).accumulate(this.bodies, 0, FloatForceKernelTest.N_BODIES,
+				0, FloatForceKernelTest.N_BODIES, this.expectedX, this.expectedY);
+	}
+
+	@Test
+	public void testBlockSizes() {
+		final double[] floatX = new double[FloatForceKernelTest.N_BODIES];
+		final double[] floatY = new double[FloatForceKernelTest.N_BODIES];
+		final FloatForceKernel floatKernel = new FloatForceKernel(FloatForceKernelTest.N_BODIES);
+		floatKernel.prepare(this.bodies);
+		floatKernel.accumulate(this.bodies, 0, FloatForceKernelTest.N_BODIES, 0, FloatForceKernelTest.N_BODIES, floatX,
+				floatY);
+		this.assertClose(floatX, floatY);
+
+		for (final int blockSize : FloatForceKernelTest.BLOCK_SIZES) {
+			final FloatForceKernel kernel = new FloatForceKernel(blockSize);
+			final double[] forcesX = new double[FloatForceKernelTest.N_BODIES];
+			final double[] forcesY = new double[FloatForceKernelTest.N_BODIES];
+			final double[] pairsX = new double[FloatForceKernelTest.N_BODIES];
+			final double[] pairsY = new double[FloatForceKernelTest.N_BODIES];
+			kernel.prepare(this.bodies);
+			kernel.accumulate(this.bodies, 0, FloatForceKernelTest.N_BODIES, 0, FloatForceKernelTest.N_BODIES,
+					forcesX, forcesY);
+			kernel.accumulatePairs(this.bodies, 0, FloatForceKernelTest.N_BODIES, 0, FloatForceKernelTest.N_BODIES,
+					pairsX, pairsY);
+
+			// The same float pair Forces, summed in a different order with double accumulators
+			for (int i = 0; i < FloatForceKernelTest.N_BODIES; i++) {
+				Assert.assertEquals("Force x is the same", floatX[i], forcesX[i],
+						Deltas.relative(floatX[i]));
+				Assert.assertEquals("Force y is the same", floatY[i], forcesY[i],
+						Deltas.relative(floatY[i]));
+				Assert.assertEquals("Pairs Force x is the same", floatX[i], pairsX[i],
+						Deltas.relative(floatX[i]));
+				Assert.assertEquals("Pairs Force y is the same", floatY[i], pairsY[i],
+						Deltas.relative(floatY[i]));
+			}
+		}
+	}
+
+	@Test
+	public void testDefaultKernel() {
+		final double[] forcesX = new double[FloatForceKernelTest.N_BODIES];
+		final double[] forcesY = new double[FloatForceKernelTest.N_BODIES];
+		final double[] pairsX = new double[FloatForceKernelTest.N_BODIES];
+		final double[] pairsY = new double[FloatForceKernelTest.N_BODIES];
+
+		// The vector kernel, when available: odd ranges leave some bodies out of the lanes
+		final ForceKernel kernel = ForceKernel.get(Precision.FLOAT);
+		kernel.prepare(this.bodies);
+		kernel.accumulate(this.bodies, 0, FloatForceKernelTest.N_BODIES, 0, 123, forcesX, forcesY);
+		kernel.accumulate(this.bodies, 0, FloatForceKernelTest.N_BODIES, 123, FloatForceKernelTest.N_BODIES, forcesX,
+				forcesY);
+		kernel.accumulatePairs(this.bodies, 0, FloatForceKernelTest.N_BODIES, 0, FloatForceKernelTest.N_BODIES, pairsX,
+				pairsY);
+
+		this.assertClose(forcesX, forcesY);
+		this.assertClose(pairsX, pairsY);
+	}
+
+	@Test
+	public void testPrepare() {
+		// The float copies follow the bodies once prepared again
+		final ForceKernel kernel = ForceKernel.get(Precision.FLOAT);
+		kernel.prepare(this.bodies);
+		this.bodies.set(0, this.bodies.getMass()[0], 1000.0, 1000.0, 0.0, 0.0);
+		kernel.prepare(this.bodies);
+		Assert.assertEquals("Float position x is updated", 1000F, this.bodies.getFloatPosX()[0], 0F);
+		Assert.assertEquals("Float position y is updated", 1000F, this.bodies.getFloatPosY()[0], 0F);
+	}
+
+	/* Asserts the Forces are within MAX_ERROR of the double ones, relative to their module */
+	private void assertClose(final double[] forcesX, final double[] forcesY) {
+		for (int i = 0; i < FloatForceKernelTest.N_BODIES; i++) {
+			final double module = Math.hypot(this.expectedX[i], this.expectedY[i]);
+			Assert.assertEquals("Force x is close to the double one", this.expectedX[i], forcesX[i],
+					FloatForceKernelTest.MAX_ERROR * module);
+			Assert.assertEquals("Force y is close to the double one", this.expectedY[i], forcesY[i],
+					FloatForceKernelTest.MAX_ERROR * module);
+		}
+	}
+}
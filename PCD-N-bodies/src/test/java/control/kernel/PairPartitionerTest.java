@@ -0,0 +1,42 @@
+package control.kernel;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PairPartitionerTest {
+	private static final int[] SIZES = { 0, 1, 7, 100, 1000, 100000 };
+	private static final int[] PARTS = { 1, 3, 10, 64 };
+
+	@Test
+	public void testGetPairs() {
+		for (final int n : PairPartitionerTest.SIZES) {
+			long pairs = 0;
+			for (int row = 0; row < n; row++) {
+				Assert.assertEquals("Pairs before row " + row + ", n = " + n, pairs, PairPartitioner.getPairs(row, n));
+				pairs += n - row - 1;
+			}
+			Assert.assertEquals("All pairs, n = " + n, (long) n * (n - 1) / 2, PairPartitioner.getPairs(n, n));
+		}
+	}
+
+	@Test
+	public void testSplit() {
+		for (final int n : PairPartitionerTest.SIZES) {
+			for (final int nParts : PairPartitionerTest.PARTS) {
+				final int[] bounds = PairPartitioner.split(n, n, nParts);
+				Assert.assertEquals("Bounds length", nParts + 1, bounds.length);
+				Assert.assertEquals("First row", 0, bounds[0]);
+				Assert.assertEquals("Last row", n, bounds[nParts]);
+
+				final double pairsPerPart = (double) PairPartitioner.getPairs(n, n) / nParts;
+				for (int p = 0; p < nParts; p++) {
+					Assert.assertTrue("Bounds are sorted", bounds[p] <= bounds[p + 1]);
+					// A part may be off by at most the pairs of a single row
+					final long pairs = PairPartitioner.getPairs(bounds[p + 1], n)
+							- PairPartitioner.getPairs(bounds[p], n);
+					Assert.assertEquals("Pairs of part " + p + ", n = " + n, pairsPerPart, pairs, n);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package control.kernel;
+
+import java.util.Spliterator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PairSpliteratorTest {
+	private static final int[] SIZES = { 0, 1, 2, 7, 100, 1000 };
+
+	@Test
+	public void testPairs() {
+		for (final int n : PairSpliteratorTest.SIZES) {
+			final long[] pairs = PairSpliterator.pairs(n, false).toArray();
+			Assert.assertEquals("Number of pairs, n = " + n, (long) n * (n - 1) / 2, pairs.length);
+			int k = 0;
+			for (int i = 0; i < n; i++) {
+				for (int j = i + 1; j < n; j++, k++) {
+					Assert.assertEquals("Pair i", i, PairSpliterator.getI(pairs[k]));
+					Assert.assertEquals("Pair j", j, PairSpliterator.getJ(pairs[k]));
+				}
+			}
+
+			Assert.assertArrayEquals("Parallel pairs, n = " + n, pairs, PairSpliterator.pairs(n, true).toArray());
+		}
+	}
+
+	@Test
+	public void testSplit() {
+		for (final int n : PairSpliteratorTest.SIZES) {
+			final Spliterator.OfLong suffix = new PairSpliterator(n);
+			final long size = suffix.estimateSize();
+			final Spliterator.OfLong prefix = suffix.trySplit();
+			if (size < 2) {
+				Assert.assertNull("Nothing to split, n = " + n, prefix);
+				continue;
+			}
+			Assert.assertTrue("Sized", prefix.hasCharacteristics(Spliterator.SUBSIZED));
+			Assert.assertEquals("Halves of the same work, n = " + n, size / 2, prefix.estimateSize());
+			Assert.assertEquals("All pairs kept, n = " + n, size, prefix.estimateSize() + suffix.estimateSize());
+
+			// The prefix ends right before the first pair of the suffix
+			final long[] last = new long[1];
+			prefix.forEachRemaining((long pair) -> last[0] = pair);
+			Assert.assertTrue("First pair of the suffix", suffix.tryAdvance((long pair) -> {
+				final int i = PairSpliterator.getI(last[0]);
+				final int j = PairSpliterator.getJ(last[0]);
+				Assert.assertEquals("Next pair", j + 1 < n ? (long) i << 32 | j + 1 : (long) (i + 1) << 32 | i + 2,
+						pair);
+			}));
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package control.kernel;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import model.BodyStore;
+
+public class PrecisionReportTest {
+
+	@Test
+	public void testReport() {
+		final PrecisionReport report = PrecisionReport.of(PrecisionReportTest.createBodies(500));
+		Assert.assertEquals("All the bodies are checked", 500, report.getSamples());
+		Assert.assertTrue("Float Forces are close to the double ones: " + report, report.getMaxError() < 0.001);
+		Assert.assertTrue("Mean error is not greater than max error", report.getMeanError() <= report.getMaxError());
+		Assert.assertTrue("Float Forces are rounded", report.getMaxError() > 0D);
+	}
+
+	@Test
+	public void testSamples() {
+		final PrecisionReport report = PrecisionReport.of(PrecisionReportTest.createBodies(3000));
+		Assert.assertEquals("One body out of three is checked", 1000, report.getSamples());
+
+		final BodyStore single = new BodyStore(1);
+		single.set(0, 1.0, 0.0, 0.0, 0.0, 0.0);
+		Assert.assertEquals("A body subjected to no Force is not checked", 0, PrecisionReport.of(single).getSamples());
+	}
+
+	private static BodyStore createBodies(final int nBodies) {
+		final Random random = new Random(42);
+		final BodyStore bodies = new BodyStore(nBodies);
+		for (int i = 0; i < nBodies; i++) {
+			bodies.set(i, 100000.0 + random.nextDouble() * 900000.0, random.nextDouble() * 300.0,
+					random.nextDouble() * 300.0, 0.0, 0.0);
+		}
+		return bodies;
+	}
+}
@@ -0,0 +1,91 @@
+package model;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BodyBufferTest {
+
+	private Body bi;
+	private Body bj;
+	private BodyBuffer buffer;
+
+	@Before
+	public void initialize() {
+		this.bi = new Body(100000.0, new Position(2.0, 2.0), new Vector(10.0, 1.0));
+		this.bj = new Body(200000.0, new Position(6.0, 5.0), new Vector(20.0, 2.0));
+		this.buffer = BodyBuffer.of(Arrays.asList(this.bi, this.bj));
+	}
+
+	@Test
+	public void testPublish() {
+		final List<Body> snapshot = this.buffer.asList();
+		this.buffer.move(0, 1.0, 2.0, 10.0);
+		this.buffer.move(1, 0.0, 0.0, 10.0);
+		Assert.assertEquals("The snapshot is untouched by the step", this.bi, snapshot.get(0));
+		Assert.assertEquals("The step reads the published bodies", this.bi, this.buffer.get(0));
+
+		this.buffer.publish();
+		final Body expected = this.bi.copy().apply(1.0, 2.0, 10.0);
+		Assert.assertEquals("The moved body is published", expected, this.buffer.get(0));
+		Assert.assertEquals("The moved body is published", expected, this.buffer.asList().get(0));
+		Assert.assertEquals("The old snapshot is untouched", this.bi, snapshot.get(0));
+
+		// The next step moves from the published bodies
+		this.buffer.move(0, 1.0, 2.0, 10.0);
+		this.buffer.move(1, 0.0, 0.0, 10.0);
+		this.buffer.publish();
+		Assert.assertEquals("Two steps", expected.copy().apply(1.0, 2.0, 10.0), this.buffer.get(0));
+		Assert.assertEquals("Two steps", this.bj.copy().apply(0.0, 0.0, 10.0).apply(0.0, 0.0, 10.0),
+				this.buffer.get(1));
+	}
+
+	@Test
+	public void testStages() {
+		final List<Body> snapshot = this.buffer.asList();
+		final Integrator integrator = Integrator.YOSHIDA4;
+		final Body expected = this.bi.copy();
+		for (int stage = 0; stage < integrator.getStages(); stage++) {
+			this.buffer.move(0, 1.0, 2.0, 10.0, integrator, stage);
+			this.buffer.move(1, 0.0, 0.0, 10.0, integrator, stage);
+			expected.apply(1.0, 2.0, 10.0, integrator, stage);
+			if (stage < integrator.getStages() - 1) {
+				this.buffer.swap();
+				Assert.assertEquals("The next stage reads the moved bodies", expected, this.buffer.get(0));
+				Assert.assertEquals("The stages are not published", this.bi, this.buffer.asList().get(0));
+			}
+		}
+		Assert.assertEquals("The snapshot is untouched by the stages", this.bi, snapshot.get(0));
+
+		this.buffer.publish();
+		Assert.assertEquals("The last stage is published", expected, this.buffer.asList().get(0));
+		Assert.assertEquals("The old snapshot is untouched", this.bi, snapshot.get(0));
+	}
+
+	@Test
+	public void testDropStages() {
+		this.buffer.move(0, 1.0, 2.0, 10.0, Integrator.LEAPFROG, 0);
+		this.buffer.move(1, 0.0, 0.0, 10.0, Integrator.LEAPFROG, 0);
+		this.buffer.swap();
+		// The step is dropped after its first stage: the next one starts again from the published bodies
+		this.buffer.drop();
+		Assert.assertEquals("Dropped stage", this.bi, this.buffer.get(0));
+		this.buffer.move(0, 1.0, 2.0, 10.0);
+		this.buffer.move(1, 0.0, 0.0, 10.0);
+		this.buffer.publish();
+		Assert.assertEquals("Dropped step", this.bi.copy().apply(1.0, 2.0, 10.0), this.buffer.get(0));
+	}
+
+	@Test
+	public void testDrop() {
+		this.buffer.move(0, 1.0, 2.0, 10.0);
+		// The step is dropped: the next one starts again from the published bodies
+		this.buffer.move(0, 1.0, 2.0, 10.0);
+		this.buffer.move(1, 0.0, 0.0, 10.0);
+		this.buffer.publish();
+		Assert.assertEquals("Dropped step", this.bi.copy().apply(1.0, 2.0, 10.0), this.buffer.get(0));
+	}
+}
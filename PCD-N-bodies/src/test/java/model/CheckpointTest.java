@@ -0,0 +1,93 @@
+package model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CheckpointTest {
+	private Path path;
+	private BodyStore bodies;
+
+	@Before
+	public void initialize() throws IOException {
+		this.path = Files.createTempFile("nbodies", ".checkpoint");
+		final Random random = new Random(3);
+		this.bodies = new BodyStore(100);
+		for (int i = 0; i < this.bodies.size(); i++) {
+			this.bodies.set(i, 100000.0 + random.nextDouble() * 900000.0, random.nextDouble() * 300.0,
+					random.nextDouble() * 300.0, random.nextDouble() - 0.5, random.nextDouble() - 0.5);
+		}
+	}
+
+	@Test
+	public void testWriteRead() throws IOException {
+		Checkpoint.write(this.path, this.bodies, 1234567890123L);
+		Assert.assertEquals("The file has a fixed size", Checkpoint.HEADER_BYTES + 5 * 100 * Double.BYTES,
+				Files.size(this.path));
+
+		final Checkpoint checkpoint = Checkpoint.read(this.path);
+		Assert.assertEquals("Step is read", 1234567890123L, checkpoint.getStep());
+		Assert.assertEquals("All the bodies are read", this.bodies.size(), checkpoint.getBodies().size());
+		Assert.assertArrayEquals("Masses are read", this.bodies.getMass(), checkpoint.getBodies().getMass(), 0D);
+		Assert.assertArrayEquals("Positions x are read", this.bodies.getPosX(), checkpoint.getBodies().getPosX(), 0D);
+		Assert.assertArrayEquals("Positions y are read", this.bodies.getPosY(), checkpoint.getBodies().getPosY(), 0D);
+		Assert.assertArrayEquals("Speeds x are read", this.bodies.getSpeedX(), checkpoint.getBodies().getSpeedX(),
+				0D);
+		Assert.assertArrayEquals("Speeds y are read", this.bodies.getSpeedY(), checkpoint.getBodies().getSpeedY(),
+				0D);
+
+		// A new checkpoint replaces the previous one
+		Checkpoint.write(this.path, new BodyStore(0), 1L);
+		Assert.assertEquals("The checkpoint is replaced", 0, Checkpoint.read(this.path).getBodies().size());
+	}
+
+	@Test
+	public void testChunks() throws IOException {
+		// The arrays don't fit the buffer, nor end at its end
+		final int nBodies = Checkpoint.CHUNK_BYTES / Double.BYTES + 3;
+		final BodyStore large = new BodyStore(nBodies);
+		for (int i = 0; i < nBodies; i++) {
+			large.set(i, i, i + 0.25, i + 0.5, -i, i * 2.0);
+		}
+		Checkpoint.write(this.path, large, 7L);
+		final BodyStore read = Checkpoint.read(this.path).getBodies();
+		Assert.assertArrayEquals("Masses are read", large.getMass(), read.getMass(), 0D);
+		Assert.assertArrayEquals("Positions x are read", large.getPosX(), read.getPosX(), 0D);
+		Assert.assertArrayEquals("Positions y are read", large.getPosY(), read.getPosY(), 0D);
+		Assert.assertArrayEquals("Speeds x are read", large.getSpeedX(), read.getSpeedX(), 0D);
+		Assert.assertArrayEquals("Speeds y are read", large.getSpeedY(), read.getSpeedY(), 0D);
+	}
+
+	@Test
+	public void testInvalidFile() throws IOException {
+		Files.write(this.path, new byte[Checkpoint.HEADER_BYTES + 8]);
+		try {
+			Checkpoint.read(this.path);
+			Assert.fail("A file without the header is not read");
+		} catch (@SuppressWarnings("unused") final IOException e) {
+			// Expected
+		}
+
+		Checkpoint.write(this.path, this.bodies, 1L);
+		final byte[] truncated = new byte[(int) Files.size(this.path) - Double.BYTES];
+		System.arraycopy(Files.readAllBytes(this.path), 0, truncated, 0, truncated.length);
+		Files.write(this.path, truncated);
+		try {
+			Checkpoint.read(this.path);
+			Assert.fail("A truncated file is not read");
+		} catch (@SuppressWarnings("unused") final IOException e) {
+			// Expected
+		}
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(this.path);
+	}
+}
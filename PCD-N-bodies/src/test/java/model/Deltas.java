@@ -0,0 +1,31 @@
+package model;
+
+/**
+ * Deltas of the assertions between values summed in a different order, by the strategies or the kernels: relative to
+ * the value when it is greater than 1.
+ *
+ * @author Andrea Sperandio
+ *
+ */
+public final class Deltas {
+	public static final double DEFAULT = 0.000000001;  // The sums drift apart over the stages and the steps
+	public static final double STRICT = 0.00000000001;  // A single step of the same Forces
+
+	private Deltas() {
+		super();
+	}
+
+	/**
+	 * Returns the DEFAULT delta relative to the value
+	 */
+	public static double relative(final double value) {
+		return Deltas.relative(value, Deltas.DEFAULT);
+	}
+
+	/**
+	 * Returns the delta relative to the value when it is greater than 1
+	 */
+	public static double relative(final double value, final double delta) {
+		return delta * Math.max(1.0, Math.abs(value));
+	}
+}
@@ -75,4 +75,25 @@ public class ForceTest {
 		Assert.assertEquals("VectorY i test", 0.9725466676881, forcek.getYComp(), 0.0000000000001);
 		Assert.assertEquals("Module i test", 0.9792357592493, forcek.getModule(), 0.0000000000001);
 	}
+
+	@Test
+	public void testAccumulate() {
+		final Force forcei = new Force(0.0, 0.0);
+		final Force forcej = new Force(0.0, 0.0);
+		final Force forcek = new Force(0.0, 0.0);
+		Force.accumulate(this.bi, this.bj, forcei, forcej);
+		Force.accumulate(this.bi, this.bk, forcei, forcek);
+		Force.accumulate(this.bj, this.bk, forcej, forcek);
+		Assert.assertEquals("VectorX i test", 0.1569754412477, forcei.getXComp(), 0.0000000000001);
+		Assert.assertEquals("VectorY i test", 0.0606009163119, forcei.getYComp(), 0.0000000000001);
+		Assert.assertEquals("VectorX j test", -0.0427141120000, forcej.getXComp(), 0.0000000000001);
+		Assert.assertEquals("VectorY j test", -1.0331475840000, forcej.getYComp(), 0.0000000000001);
+		Assert.assertEquals("VectorX k test", -0.1142613292477, forcek.getXComp(), 0.0000000000001);
+		Assert.assertEquals("VectorY k test", 0.9725466676881, forcek.getYComp(), 0.0000000000001);
+
+		final Force forceiAgain = new Force(0.0, 0.0);
+		Force.accumulate(this.bi, this.bj, forceiAgain);
+		Force.accumulate(this.bi, this.bk, forceiAgain);
+		Assert.assertEquals("Single side accumulate", forcei, forceiAgain);
+	}
 }
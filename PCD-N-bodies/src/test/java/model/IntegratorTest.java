@@ -0,0 +1,92 @@
+package model;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IntegratorTest {
+	private static final double MASS = 10000000000.0;  // kg, of both bodies
+	private static final double DISTANCE = 100.0;  // m, between the bodies
+	// The bodies orbit their centre of mass on a circle: v^2 / (d / 2) = G * m / d^2
+	private static final double SPEED = Math.sqrt(Force.G * IntegratorTest.MASS / (2 * IntegratorTest.DISTANCE));
+	private static final double TIME = 2000.0;  // s, about a third of the orbit
+
+	@Test
+	public void testStages() {
+		for (final Integrator integrator : Integrator.values()) {
+			double drift = 0D;
+			double kick = 0D;
+			for (int stage = 0; stage < integrator.getStages(); stage++) {
+				drift += integrator.getDrift(stage);
+				kick += integrator.getKick(stage) + integrator.getClosingKick(stage);
+			}
+			Assert.assertEquals(integrator + " drifts for deltaTime", 1.0, drift, 0.000000000001);
+			Assert.assertEquals(integrator + " kicks for deltaTime", 1.0, kick, 0.000000000001);
+		}
+	}
+
+	@Test
+	public void testExplicit() {
+		final Body body = new Body(100000.0, new Position(2.0, 2.0), new Vector(10.0, 1.0));
+		final BodyStore store = BodyStore.of(Arrays.asList(body));
+		store.apply(0, -3.0, 2.0, 4.0, Integrator.EXPLICIT, 0);
+		body.apply(-3.0, 2.0, 4.0);
+		Assert.assertEquals("Same as Body.apply", body, store.get(0));
+		Assert.assertEquals("Apply test",
+				new Body(100000.0, new Position(41.99976, 6.00016), new Vector(9.99988, 1.00008)), body);
+	}
+
+	@Test
+	public void testOrder() {
+		// Halving deltaTime divides the error by 2^order
+		IntegratorTest.assertOrder(Integrator.EXPLICIT, 1);
+		IntegratorTest.assertOrder(Integrator.LEAPFROG, 2);
+		IntegratorTest.assertOrder(Integrator.VELOCITY_VERLET, 2);
+		IntegratorTest.assertOrder(Integrator.YOSHIDA4, 4);
+	}
+
+	@Test
+	public void testPrecision() {
+		// With a deltaTime 8 times greater, the symplectic Integrators are still more precise than the EXPLICIT one
+		final double explicitError = IntegratorTest.getError(Integrator.EXPLICIT, 25.0);
+		Assert.assertTrue("LEAPFROG", IntegratorTest.getError(Integrator.LEAPFROG, 200.0) < explicitError);
+		Assert.assertTrue("VELOCITY VERLET",
+				IntegratorTest.getError(Integrator.VELOCITY_VERLET, 200.0) < explicitError);
+		Assert.assertTrue("YOSHIDA 4", IntegratorTest.getError(Integrator.YOSHIDA4, 200.0) < explicitError);
+	}
+
+	private static void assertOrder(final Integrator integrator, final int order) {
+		final double ratio = IntegratorTest.getError(integrator, 100.0) / IntegratorTest.getError(integrator, 50.0);
+		Assert.assertTrue(integrator + " order " + order + ", error ratio " + ratio,
+				ratio > 0.8 * Math.pow(2, order) && ratio < 1.25 * Math.pow(2, order));
+	}
+
+	/* Returns the distance of the first body from its exact position after TIME seconds */
+	private static double getError(final Integrator integrator, final double deltaTime) {
+		final BodyStore bodies = new BodyStore(2);
+		bodies.set(0, IntegratorTest.MASS, IntegratorTest.DISTANCE / 2, 0D, 0D, IntegratorTest.SPEED);
+		bodies.set(1, IntegratorTest.MASS, -IntegratorTest.DISTANCE / 2, 0D, 0D, -IntegratorTest.SPEED);
+
+		final int steps = (int) Math.round(IntegratorTest.TIME / deltaTime);
+		for (int step = 0; step < steps; step++) {
+			for (int stage = 0; stage < integrator.getStages(); stage++) {
+				double forceX = 0D;
+				double forceY = 0D;
+				if (integrator.usesForces(stage)) {
+					final double deltaX = bodies.getPosX()[1] - bodies.getPosX()[0];
+					final double deltaY = bodies.getPosY()[1] - bodies.getPosY()[0];
+					final double lambda = Force.getLambda(IntegratorTest.MASS, IntegratorTest.MASS, deltaX, deltaY);
+					forceX = deltaX * lambda;
+					forceY = deltaY * lambda;
+				}
+				bodies.apply(0, forceX, forceY, deltaTime, integrator, stage);
+				bodies.apply(1, -forceX, -forceY, deltaTime, integrator, stage);
+			}
+		}
+
+		final double angle = IntegratorTest.SPEED / (IntegratorTest.DISTANCE / 2) * steps * deltaTime;
+		return Math.hypot(bodies.getPosX()[0] - IntegratorTest.DISTANCE / 2 * Math.cos(angle),
+				bodies.getPosY()[0] - IntegratorTest.DISTANCE / 2 * Math.sin(angle));
+	}
+}
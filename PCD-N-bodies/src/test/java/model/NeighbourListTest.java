@@ -0,0 +1,95 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NeighbourListTest {
+	private static final double CUTOFF = 20.0;
+	private static final double SKIN = 4.0;
+	private static final double LENGTH = 2.0;
+
+	private BodyStore bodies;
+	private NeighbourList list;
+
+	@Before
+	public void initialize() {
+		final Random random = new Random(1);
+		this.bodies = new BodyStore(500);
+		for (int i = 0; i < this.bodies.size(); i++) {
+			this.bodies.set(i, 100000.0 + random.nextDouble() * 900000.0, random.nextDouble() * 300.0,
+					random.nextDouble() * 300.0, 0D, 0D);
+		}
+		this.list = new NeighbourList(NeighbourListTest.CUTOFF, NeighbourListTest.SKIN);
+	}
+
+	@Test
+	public void testLists() {
+		Assert.assertTrue("Built", this.list.update(this.bodies));
+		final double listDistance = NeighbourListTest.CUTOFF + NeighbourListTest.SKIN;
+		for (int i = 0; i < this.bodies.size(); i++) {
+			final int[] neighbours = Arrays.copyOfRange(this.list.getNeighbours(), this.list.getFrom(i),
+					this.list.getTo(i));
+			Arrays.sort(neighbours);
+			final int[] expected = new int[this.bodies.size()];
+			int nExpected = 0;
+			for (int j = 0; j < this.bodies.size(); j++) {
+				if (j != i && this.getDistance(i, j) < listDistance) {
+					expected[nExpected++] = j;
+				}
+			}
+			Assert.assertArrayEquals("Neighbours of " + i, Arrays.copyOf(expected, nExpected), neighbours);
+		}
+	}
+
+	@Test
+	public void testReuse() {
+		this.list.update(this.bodies);
+		// Every body moves less than half the skin: the lists are reused
+		for (int i = 0; i < this.bodies.size(); i++) {
+			this.bodies.getPosX()[i] += NeighbourListTest.SKIN / 2 * 0.9;
+		}
+		Assert.assertFalse("Reused", this.list.update(this.bodies));
+		// A body moves farther: the lists are built again
+		this.bodies.getPosY()[0] += NeighbourListTest.SKIN;
+		Assert.assertTrue("Built again", this.list.update(this.bodies));
+		Assert.assertEquals("Builds", 2, this.list.getBuilds());
+
+		this.list.invalidate();
+		Assert.assertTrue("Built after invalidate", this.list.update(this.bodies));
+	}
+
+	@Test
+	public void testForces() {
+		final double[] forcesX = new double[this.bodies.size()];
+		final double[] forcesY = new double[this.bodies.size()];
+		for (final Potential potential : Potential.values()) {
+			this.list.calculateForces(this.bodies, potential, NeighbourListTest.LENGTH, forcesX, forcesY);
+			for (int i = 0; i < this.bodies.size(); i++) {
+				double forceX = 0D;
+				double forceY = 0D;
+				for (int j = 0; j < this.bodies.size(); j++) {
+					final double distance = this.getDistance(i, j);
+					if (j != i && distance < NeighbourListTest.CUTOFF) {
+						final double lambda = potential.getLambda(this.bodies.getMass()[i], this.bodies.getMass()[j],
+								distance * distance, NeighbourListTest.LENGTH);
+						forceX += (this.bodies.getPosX()[j] - this.bodies.getPosX()[i]) * lambda;
+						forceY += (this.bodies.getPosY()[j] - this.bodies.getPosY()[i]) * lambda;
+					}
+				}
+				Assert.assertEquals(potential + ": Force x", forceX, forcesX[i],
+						Deltas.relative(forceX));
+				Assert.assertEquals(potential + ": Force y", forceY, forcesY[i],
+						Deltas.relative(forceY));
+			}
+		}
+	}
+
+	private double getDistance(final int i, final int j) {
+		return Math.hypot(this.bodies.getPosX()[j] - this.bodies.getPosX()[i],
+				this.bodies.getPosY()[j] - this.bodies.getPosY()[i]);
+	}
+}
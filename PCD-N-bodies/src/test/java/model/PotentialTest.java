@@ -0,0 +1,41 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PotentialTest {
+	private static final double MASSI = 100000.0;
+	private static final double MASSJ = 200000.0;
+
+	@Test
+	public void testGravity() {
+		// Far from the length, softened and screened gravity are Newtonian gravity
+		final double newtonian = Force.getLambda(PotentialTest.MASSI, PotentialTest.MASSJ, 1000.0, 0D);
+		Assert.assertEquals("Softened gravity", newtonian,
+				Potential.SOFTENED_GRAVITY.getLambda(PotentialTest.MASSI, PotentialTest.MASSJ, 1000000.0, 1.0),
+				newtonian * 0.00001);
+		final double close = Force.getLambda(PotentialTest.MASSI, PotentialTest.MASSJ, 1.0, 0D);
+		Assert.assertEquals("Screened gravity", close,
+				Potential.SCREENED_GRAVITY.getLambda(PotentialTest.MASSI, PotentialTest.MASSJ, 1.0, 1000000.0),
+				close * 0.00001);
+
+		// Closer, softened gravity is bounded and screened gravity fades
+		Assert.assertTrue("Softened gravity is bounded",
+				Potential.SOFTENED_GRAVITY.getLambda(PotentialTest.MASSI, PotentialTest.MASSJ, 0D, 1.0) > 0D);
+		Assert.assertTrue("Screened gravity fades",
+				Potential.SCREENED_GRAVITY.getLambda(PotentialTest.MASSI, PotentialTest.MASSJ, 100.0, 1.0)
+						* 1000 < Force.getLambda(PotentialTest.MASSI, PotentialTest.MASSJ, 10.0, 0D));
+	}
+
+	@Test
+	public void testLennardJones() {
+		final double sigma = 2.0;
+		final double minimum = Math.pow(2, 1.0 / 6) * sigma;  // Where the Force is zero
+		Assert.assertEquals("No Force at the minimum", 0D, Potential.LENNARD_JONES.getLambda(PotentialTest.MASSI,
+				PotentialTest.MASSJ, minimum * minimum, sigma), 0.000000000001);
+		Assert.assertTrue("Repulsive closer", Potential.LENNARD_JONES.getLambda(PotentialTest.MASSI,
+				PotentialTest.MASSJ, sigma * sigma, sigma) < 0D);
+		Assert.assertTrue("Attractive farther", Potential.LENNARD_JONES.getLambda(PotentialTest.MASSI,
+				PotentialTest.MASSJ, 4 * sigma * sigma, sigma) > 0D);
+	}
+}
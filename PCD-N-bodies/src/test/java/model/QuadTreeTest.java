@@ -0,0 +1,43 @@
+package model;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class QuadTreeTest {
+	private static final int N_BODIES = 50000;  // Above the parallel build threshold
+	private static final double THETA = 0.5;
+
+	@Test
+	public void testParallelBuild() {
+		final Random random = new Random(42);
+		final BodyStore bodies = new BodyStore(QuadTreeTest.N_BODIES);
+		for (int i = 0; i < QuadTreeTest.N_BODIES; i++) {
+			bodies.set(i, 100000.0 + random.nextDouble() * 900000.0, random.nextDouble() * 3000.0,
+					random.nextDouble() * 3000.0, 0.0, 0.0);
+		}
+
+		final QuadTree serialTree = new QuadTree();
+		final QuadTree parallelTree = new QuadTree();
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		serialTree.build(bodies);
+		parallelTree.build(bodies, pool);
+		pool.shutdown();
+
+		Assert.assertEquals("Trees have the same nodes", serialTree.getNodesCount(), parallelTree.getNodesCount());
+
+		final double[] serialX = new double[QuadTreeTest.N_BODIES];
+		final double[] serialY = new double[QuadTreeTest.N_BODIES];
+		final double[] parallelX = new double[QuadTreeTest.N_BODIES];
+		final double[] parallelY = new double[QuadTreeTest.N_BODIES];
+		for (int i = 0; i < QuadTreeTest.N_BODIES; i += 97) {
+			serialTree.calculateForce(bodies, i, QuadTreeTest.THETA, serialX, serialY);
+			parallelTree.calculateForce(bodies, i, QuadTreeTest.THETA, parallelX, parallelY);
+
+			Assert.assertEquals("Force x is the same", serialX[i], parallelX[i], 0.0);
+			Assert.assertEquals("Force y is the same", serialY[i], parallelY[i], 0.0);
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TrajectoryWriterTest {
+	private static final int N_BODIES = 100;
+	private static final double POSITION_QUANTUM = 0.001;
+	private static final double SPEED_QUANTUM = 0.000000000001;
+
+	private Path path;
+	private BodyStore bodies;
+	private Random random;
+
+	@Before
+	public void initialize() throws IOException {
+		this.path = Files.createTempFile("nbodies", ".trajectory");
+		this.createBodies();
+	}
+
+	/* Creates the same bodies each time, so they move again as they were written */
+	private void createBodies() {
+		this.random = new Random(5);
+		this.bodies = new BodyStore(TrajectoryWriterTest.N_BODIES);
+		for (int i = 0; i < TrajectoryWriterTest.N_BODIES; i++) {
+			this.bodies.set(i, 1.0, this.random.nextDouble() * 300.0, this.random.nextDouble() * 300.0,
+					(this.random.nextDouble() - 0.5) * 0.000002, (this.random.nextDouble() - 0.5) * 0.000002);
+		}
+	}
+
+	@Test
+	public void testRaw() throws IOException {
+		try (TrajectoryWriter writer = new TrajectoryWriter(this.path, TrajectoryWriterTest.N_BODIES, 0D, 0D)) {
+			for (int step = 0; step < 3; step++) {
+				writer.write(step * 10L, this.bodies);
+				this.move();
+			}
+		}
+		Assert.assertEquals("Raw frames hold the doubles",
+				TrajectoryWriter.HEADER_BYTES + 3 * (TrajectoryWriter.FRAME_HEADER_BYTES + 4 * 100 * Double.BYTES),
+				Files.size(this.path));
+
+		this.createBodies();
+		try (TrajectoryReader reader = new TrajectoryReader(this.path)) {
+			Assert.assertEquals("Number of bodies is read", TrajectoryWriterTest.N_BODIES, reader.getNBodies());
+			for (int step = 0; step < 3; step++) {
+				Assert.assertTrue("Frame is read", reader.next());
+				Assert.assertEquals("Step is read", step * 10L, reader.getStep());
+				Assert.assertArrayEquals("Positions x are read", this.bodies.getPosX(), reader.getPosX(), 0D);
+				Assert.assertArrayEquals("Positions y are read", this.bodies.getPosY(), reader.getPosY(), 0D);
+				Assert.assertArrayEquals("Speeds x are read", this.bodies.getSpeedX(), reader.getSpeedX(), 0D);
+				Assert.assertArrayEquals("Speeds y are read", this.bodies.getSpeedY(), reader.getSpeedY(), 0D);
+				this.move();
+			}
+			Assert.assertFalse("No more frames", reader.next());
+		}
+	}
+
+	@Test
+	public void testQuantised() throws IOException {
+		final int frames = TrajectoryWriter.KEY_FRAME_INTERVAL + 10;  // Two key frames
+		try (TrajectoryWriter writer = new TrajectoryWriter(this.path, TrajectoryWriterTest.N_BODIES,
+				TrajectoryWriterTest.POSITION_QUANTUM, TrajectoryWriterTest.SPEED_QUANTUM)) {
+			for (int step = 0; step < frames; step++) {
+				writer.write(step, this.bodies);
+				this.move();
+			}
+			Assert.assertEquals("Frames are counted", frames, writer.getFrames());
+		}
+		Assert.assertTrue("Deltas are smaller than the doubles",
+				Files.size(this.path) < frames * TrajectoryWriterTest.N_BODIES * 4 * Double.BYTES / 2);
+
+		this.createBodies();
+		try (TrajectoryReader reader = new TrajectoryReader(this.path)) {
+			for (int step = 0; step < frames; step++) {
+				Assert.assertTrue("Frame is read", reader.next());
+				Assert.assertEquals("Step is read", step, reader.getStep());
+				// Each value is rounded on its own: the error doesn't pile up across the deltas
+				for (int i = 0; i < TrajectoryWriterTest.N_BODIES; i++) {
+					Assert.assertEquals("Position x is rounded", this.bodies.getPosX()[i], reader.getPosX()[i],
+							TrajectoryWriterTest.POSITION_QUANTUM / 2);
+					Assert.assertEquals("Position y is rounded", this.bodies.getPosY()[i], reader.getPosY()[i],
+							TrajectoryWriterTest.POSITION_QUANTUM / 2);
+					Assert.assertEquals("Speed x is rounded", this.bodies.getSpeedX()[i], reader.getSpeedX()[i],
+							TrajectoryWriterTest.SPEED_QUANTUM / 2);
+					Assert.assertEquals("Speed y is rounded", this.bodies.getSpeedY()[i], reader.getSpeedY()[i],
+							TrajectoryWriterTest.SPEED_QUANTUM / 2);
+				}
+				this.move();
+			}
+			Assert.assertFalse("No more frames", reader.next());
+		}
+	}
+
+	@Test
+	public void testTruncated() throws IOException {
+		try (TrajectoryWriter writer = new TrajectoryWriter(this.path, TrajectoryWriterTest.N_BODIES, 0D, 0D)) {
+			writer.write(1L, this.bodies);
+			writer.write(2L, this.bodies);
+		}
+		final byte[] truncated = new byte[(int) Files.size(this.path) - 1];
+		System.arraycopy(Files.readAllBytes(this.path), 0, truncated, 0, truncated.length);
+		Files.write(this.path, truncated);
+
+		try (TrajectoryReader reader = new TrajectoryReader(this.path)) {
+			Assert.assertTrue("The complete frame is read", reader.next());
+			Assert.assertFalse("The frame being written when the file ended is not read", reader.next());
+			Assert.assertEquals("The last complete frame is kept", 1L, reader.getStep());
+		}
+	}
+
+	/* Moves the bodies by their speeds and changes the speeds a bit, as a step would */
+	private void move() {
+		for (int i = 0; i < TrajectoryWriterTest.N_BODIES; i++) {
+			this.bodies.kick(i, (this.random.nextDouble() - 0.5) * 0.0000001,
+					(this.random.nextDouble() - 0.5) * 0.0000001, 1D);
+			this.bodies.drift(i, 10000D);
+		}
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(this.path);
+	}
+}
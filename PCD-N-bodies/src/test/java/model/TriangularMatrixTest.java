@@ -76,6 +76,63 @@ public class TriangularMatrixTest {
 		}
 	}
 
+	@Test
+	public void testLongIndex() {
+		// (n * n + n) / 2 elements before the last column exceed Integer.MAX_VALUE: only the last rows are kept
+		final int rowSize = 70000;
+		this.tmNRows = new TriangularMatrix(2, rowSize);
+		this.tmNRows.set(0, rowSize - 1, 1.0, 2.0);
+		this.tmNRows.set(1, rowSize - 1, 3.0, 4.0);
+		this.tmNRows.set(1, 2, 5.0, 6.0);
+
+		Assert.assertEquals("Last elem x", 1.0, this.tmNRows.getX(0, rowSize - 1), 0.0);
+		Assert.assertEquals("Last elem y", 4.0, this.tmNRows.getY(1, rowSize - 1), 0.0);
+		Assert.assertEquals("First elem", new Force(5.0, 6.0), this.tmNRows.get(1, 2));
+		Assert.assertEquals("Missing row", Force.NULL, this.tmNRows.get(2, rowSize - 1));
+	}
+
+	@Test
+	public void testAccumulateAndCopy() {
+		this.tm = new TriangularMatrix(TriangularMatrixTest.SIZE);
+		double count = 1.0;
+		for (int i = 0; i < TriangularMatrixTest.SIZE; i++) {
+			for (int j = i + 1; j < TriangularMatrixTest.SIZE; j++) {
+				this.tm.set(i, j, count, -count);
+				count++;
+			}
+		}
+
+		for (int i = 0; i < TriangularMatrixTest.SIZE; i++) {
+			final Force expected = new Force(0.0, 0.0);
+			for (int j = i + 1; j < TriangularMatrixTest.SIZE; j++) {
+				expected.sum(this.tm.get(i, j));
+			}
+			for (int k = 0; k < i; k++) {
+				expected.subtract(this.tm.get(k, i));
+			}
+			Assert.assertEquals("Accumulate_elem[" + i + "]", expected, this.tm.accumulate(i, new Force(0.0, 0.0)));
+		}
+
+		// The rows from 2 on, copied back into a new matrix at the same place
+		final int offset = 2;
+		final TriangularMatrix block = new TriangularMatrix(TriangularMatrixTest.N_ROWS,
+				TriangularMatrixTest.SIZE - offset);
+		for (int i = 0; i < TriangularMatrixTest.N_ROWS; i++) {
+			for (int j = i + 1; j < TriangularMatrixTest.SIZE - offset; j++) {
+				block.set(i, j, this.tm.get(i + offset, j + offset));
+			}
+		}
+		this.tmNRows = new TriangularMatrix(TriangularMatrixTest.SIZE);
+		block.copyInto(this.tmNRows, offset);
+		for (int i = 0; i < TriangularMatrixTest.SIZE; i++) {
+			for (int j = i + 1; j < TriangularMatrixTest.SIZE; j++) {
+				final boolean copied = i >= offset && i < offset + TriangularMatrixTest.N_ROWS;
+				Assert.assertEquals("CopyInto_elem[" + i + "," + j + "]", this.tmNRows.get(i, j),
+						copied ? this.tm.get(i, j) : new Force(0.0, 0.0));
+			}
+		}
+	}
+
 	@Test
 	public void testSpeed() {
 		try {